@@ -17,12 +17,23 @@ package com.diboot.core.cache;
 
 import com.diboot.core.config.Cons;
 import com.diboot.core.entity.Dictionary;
+import com.diboot.core.vo.LabelValue;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * 字典缓存管理器
+ * <p>
+ * 在缓存（内存/Redis）之前增加本地近端缓存，按 字典类型+语言 存储预构建的 value-选项 Map，
+ * 避免每次字典绑定都反序列化选项列表并重建Map。
+ * </p>
  * @author JerryMa
  * @version v3.4.0
  * @date 2024/5/22
@@ -30,21 +41,44 @@ import java.util.List;
 @Slf4j
 public class DictionaryCacheManager {
 
+    /**
+     * 近端缓存key中类型与语言的分隔符
+     */
+    private static final String KEY_SEPARATOR = "@";
+
     private BaseCacheManager cacheManager;
 
+    /**
+     * 近端缓存：类型@语言 - 选项Map
+     */
+    private final Map<String, NearCacheEntry> nearCacheMap = new ConcurrentHashMap<>();
+    /**
+     * 近端缓存清除次数，用于丢弃清除前开始加载的结果
+     */
+    private final AtomicLong nearCacheEpoch = new AtomicLong();
+
     public DictionaryCacheManager(BaseCacheManager cacheManager) {
         this.cacheManager = cacheManager;
     }
 
     /**
-     * 移除缓存的字典选项数据
+     * 移除缓存的字典选项数据（存在事务时提交后再次移除并通知其他节点）
      * @param type
      */
     public void removeCachedItems(String type) {
-        if(cacheManager == null) {
-            return;
+        removeLocalCachedItems(type);
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeLocalCachedItems(type);
+                    onItemsChanged(type);
+                }
+            });
+        }
+        else {
+            onItemsChanged(type);
         }
-        cacheManager.removeCacheObj(Cons.CACHE_NAME_DICTIONARY, type);
     }
 
     /**
@@ -71,4 +105,113 @@ public class DictionaryCacheManager {
         cacheManager.putCacheObj(Cons.CACHE_NAME_DICTIONARY, type, dictList);
         log.debug("字典 {} 的选项数据已缓存", type);
     }
+
+    /**
+     * 获取当前语言下字典的 value-选项 Map（只读），近端缓存未命中时通过loader加载
+     * @param type
+     * @param loader 选项列表加载
+     * @return
+     */
+    public Map<String, LabelValue> getValue2ItemMap(String type, Supplier<List<LabelValue>> loader) {
+        String key = type + KEY_SEPARATOR + LocaleContextHolder.getLocale().toLanguageTag();
+        NearCacheEntry entry = nearCacheMap.get(key);
+        if(entry != null && !isStale(type, entry)) {
+            return entry.value2ItemMap;
+        }
+        long epoch = nearCacheEpoch.get();
+        long version = getVersion(type);
+        List<LabelValue> itemList = loader.get();
+        Map<String, LabelValue> value2ItemMap = new HashMap<>(itemList.size() * 4 / 3 + 1);
+        for(LabelValue item : itemList) {
+            Object value = item.getValue();
+            if(value != null) {
+                value2ItemMap.put(String.valueOf(value), item);
+            }
+        }
+        value2ItemMap = Collections.unmodifiableMap(value2ItemMap);
+        if(epoch == nearCacheEpoch.get()) {
+            nearCacheMap.put(key, new NearCacheEntry(value2ItemMap, version));
+        }
+        return value2ItemMap;
+    }
+
+    /**
+     * 移除本节点缓存的字典选项数据
+     * @param type
+     */
+    protected void removeLocalCachedItems(String type) {
+        removeNearCachedItems(type);
+        if(cacheManager != null) {
+            cacheManager.removeCacheObj(Cons.CACHE_NAME_DICTIONARY, type);
+        }
+    }
+
+    /**
+     * 移除近端缓存的字典选项Map
+     * @param type
+     */
+    protected void removeNearCachedItems(String type) {
+        nearCacheEpoch.incrementAndGet();
+        String keyPrefix = type + KEY_SEPARATOR;
+        nearCacheMap.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    /**
+     * 字典选项数据变更后的处理（如通知其他节点）
+     * @param type
+     */
+    protected void onItemsChanged(String type) {
+    }
+
+    /**
+     * 获取字典数据的版本号
+     * @param type
+     * @return
+     */
+    protected long getVersion(String type) {
+        return 0L;
+    }
+
+    /**
+     * 近端缓存是否已过期
+     * @param type
+     * @param entry
+     * @return
+     */
+    protected boolean isStale(String type, NearCacheEntry entry) {
+        return false;
+    }
+
+    /**
+     * 近端缓存项
+     */
+    protected static class NearCacheEntry {
+        private final Map<String, LabelValue> value2ItemMap;
+        /**
+         * 加载时的版本号
+         */
+        private final long version;
+        /**
+         * 最近一次校验版本号的时间
+         */
+        private volatile long checkedAt;
+
+        NearCacheEntry(Map<String, LabelValue> value2ItemMap, long version) {
+            this.value2ItemMap = value2ItemMap;
+            this.version = version;
+            this.checkedAt = System.currentTimeMillis();
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getCheckedAt() {
+            return checkedAt;
+        }
+
+        public void setCheckedAt(long checkedAt) {
+            this.checkedAt = checkedAt;
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2015-2099, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import com.diboot.core.util.S;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基于Redis的两级字典缓存管理器：本地近端缓存 + Redis缓存
+ * <p>
+ * 字典变更时递增Redis中该类型的版本号，并通过pub/sub通知各节点清除近端缓存；
+ * 近端缓存每隔一段时间校验一次版本号，错过通知的节点也能及时更新。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/8
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class RedisDictionaryCacheManager extends DictionaryCacheManager implements MessageListener {
+
+    /**
+     * 字典变更通知channel
+     */
+    public static final String CHANNEL = "diboot:dictionary:changed";
+
+    /**
+     * 字典版本号hash key
+     */
+    private static final String VERSION_KEY = "diboot:dictionary:version";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 版本号校验间隔（毫秒）
+     */
+    private final long versionCheckIntervalMillis;
+
+    public RedisDictionaryCacheManager(BaseCacheManager cacheManager, RedisTemplate redisTemplate, int versionCheckSeconds) {
+        super(cacheManager);
+        this.stringRedisTemplate = new StringRedisTemplate(redisTemplate.getConnectionFactory());
+        this.versionCheckIntervalMillis = Math.max(1, versionCheckSeconds) * 1000L;
+    }
+
+    /**
+     * 接收其他节点的字典变更通知
+     * @param message
+     * @param pattern
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String type = new String(message.getBody(), StandardCharsets.UTF_8);
+        if(S.isNotEmpty(type)) {
+            removeNearCachedItems(type);
+            log.debug("收到字典 {} 的变更通知，已清除近端缓存", type);
+        }
+    }
+
+    @Override
+    protected void onItemsChanged(String type) {
+        try {
+            stringRedisTemplate.opsForHash().increment(VERSION_KEY, type, 1);
+            stringRedisTemplate.convertAndSend(CHANNEL, type);
+        }
+        catch (Exception e) {
+            log.warn("字典 {} 的变更通知发送失败，其他节点将在版本校验时更新: {}", type, e.getMessage());
+        }
+    }
+
+    @Override
+    protected long getVersion(String type) {
+        try {
+            Object version = stringRedisTemplate.opsForHash().get(VERSION_KEY, type);
+            return version != null? Long.parseLong(version.toString()) : 0L;
+        }
+        catch (Exception e) {
+            log.warn("获取字典 {} 的版本号失败: {}", type, e.getMessage());
+            return -1L;
+        }
+    }
+
+    @Override
+    protected boolean isStale(String type, NearCacheEntry entry) {
+        long now = System.currentTimeMillis();
+        if(now - entry.getCheckedAt() < versionCheckIntervalMillis) {
+            return false;
+        }
+        entry.setCheckedAt(now);
+        long version = getVersion(type);
+        return version < 0 || version != entry.getVersion();
+    }
+
+}
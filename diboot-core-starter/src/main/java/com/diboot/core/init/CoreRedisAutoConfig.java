@@ -18,6 +18,7 @@ package com.diboot.core.init;
 import com.diboot.core.cache.DictionaryCacheManager;
 import com.diboot.core.cache.DynamicRedisCacheManager;
 import com.diboot.core.cache.I18nCacheManager;
+import com.diboot.core.cache.RedisDictionaryCacheManager;
 import com.diboot.core.config.Cons;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -30,15 +31,19 @@ import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnResource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -103,13 +108,29 @@ public class CoreRedisAutoConfig {
      */
     @Bean
     @ConditionalOnMissingBean
-    public DictionaryCacheManager dictionaryCacheManager(RedisTemplate redisTemplate) {
-        log.info("初始化 Dictionary Redis缓存: DynamicRedisCacheManager");
+    public DictionaryCacheManager dictionaryCacheManager(RedisTemplate redisTemplate,
+                                                         @Value("${diboot.core.dictionary-version-check-seconds:30}") int versionCheckSeconds) {
+        log.info("初始化 Dictionary 两级缓存: 近端缓存 + DynamicRedisCacheManager");
         Map<String, Integer> cacheName2ExpireMap = new HashMap<>() {{
             put(Cons.CACHE_NAME_DICTIONARY, 24*60);
         }};
         DynamicRedisCacheManager redisCacheManager = new DynamicRedisCacheManager(redisTemplate, cacheName2ExpireMap);
-        return new DictionaryCacheManager(redisCacheManager);
+        return new RedisDictionaryCacheManager(redisCacheManager, redisTemplate, versionCheckSeconds);
+    }
+
+    /**
+     * 字典变更通知监听（清除各节点的近端缓存）
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "dictionaryChangedListenerContainer")
+    public RedisMessageListenerContainer dictionaryChangedListenerContainer(RedisConnectionFactory connectionFactory, DictionaryCacheManager dictionaryCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if(dictionaryCacheManager instanceof RedisDictionaryCacheManager) {
+            container.addMessageListener((RedisDictionaryCacheManager) dictionaryCacheManager, new ChannelTopic(RedisDictionaryCacheManager.CHANNEL));
+        }
+        return container;
     }
 
     /**
@@ -290,8 +290,8 @@ public class DictionaryServiceExtImpl extends BaseServiceImpl<DictionaryMapper,
         if(V.isEmpty(voList)){
             return;
         }
-        List<LabelValue> entityList = getLabelValueList(type);
-        Map<String, LabelValue> map = BeanUtils.convertToStringKeyObjectMap(entityList, LabelValue::getValue);
+        // 近端缓存预构建的 value-选项 Map
+        Map<String, LabelValue> map = dictionaryCacheManager.getValue2ItemMap(type, () -> getLabelValueList(type));
         Class<?> fieldType = BeanUtils.getFieldActualType(voList.get(0).getClass(), setFieldName);
         boolean isLabelValueClass = LabelValue.class.equals(fieldType);
         for (Object item : voList) {
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 关联绑定线程池测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/6
+ * Copyright © diboot.com
+ */
+public class TestBindingExecutor {
+
+    @Test
+    public void testConcurrencyLimit(){
+        BindingExecutor bindingExecutor = new BindingExecutor();
+        try{
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            AtomicInteger finished = new AtomicInteger();
+            List<BindingExecutor.BindingTask> tasks = new ArrayList<>();
+            for(int i=0; i<20; i++){
+                tasks.add(new BindingExecutor.BindingTask(i % 2 == 0? "BindField" : "BindEntity", () -> {
+                    int current = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(current, Math::max);
+                    try {
+                        Thread.sleep(10);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    finished.incrementAndGet();
+                }));
+            }
+            long begin = System.currentTimeMillis();
+            bindingExecutor.executeBindings(tasks);
+            System.out.println("20 binders takes " + (System.currentTimeMillis() - begin) + " ms, max concurrency: " + maxRunning.get());
+            Assert.assertEquals(20, finished.get());
+            // 默认单次绑定并发数为4
+            Assert.assertTrue(maxRunning.get() <= 4);
+            Assert.assertEquals(0, bindingExecutor.getActiveBinders());
+            Map<String, Object> statistics = bindingExecutor.getStatistics();
+            Map<String, Map<String, Long>> latencyMap = (Map<String, Map<String, Long>>) statistics.get("binderLatency");
+            Assert.assertEquals(10L, latencyMap.get("BindField").get("count").longValue());
+            Assert.assertEquals(10L, latencyMap.get("BindEntity").get("count").longValue());
+        }
+        finally {
+            bindingExecutor.destroy();
+        }
+    }
+
+    @Test
+    public void testError(){
+        BindingExecutor bindingExecutor = new BindingExecutor();
+        try{
+            List<BindingExecutor.BindingTask> tasks = new ArrayList<>();
+            tasks.add(new BindingExecutor.BindingTask("BindField", () -> {}));
+            tasks.add(new BindingExecutor.BindingTask("BindCount", () -> {
+                throw new IllegalArgumentException("bind error");
+            }));
+            bindingExecutor.executeBindings(tasks);
+            Assert.fail();
+        }
+        catch (IllegalArgumentException e){
+            Assert.assertEquals("bind error", e.getMessage());
+        }
+        finally {
+            bindingExecutor.destroy();
+        }
+    }
+
+}
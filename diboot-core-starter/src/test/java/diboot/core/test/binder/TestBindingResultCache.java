@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.annotation.BindingCache;
+import com.diboot.core.binding.cache.BindingResultCache;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 关联绑定结果缓存测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/4
+ * Copyright © diboot.com
+ */
+public class TestBindingResultCache {
+
+    @Test
+    public void testHitAndMiss(){
+        AtomicInteger queryTimes = new AtomicInteger();
+        List<Region> result = queryRegions(Arrays.asList(1L, 2L, 3L), queryTimes);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(1, queryTimes.get());
+        Assert.assertEquals(3, BindingResultCache.getMissCount(Region.class));
+
+        // 有结果的值命中，无结果的值不缓存，仍需查询
+        result = queryRegions(Arrays.asList(1L, 2L, 3L), queryTimes);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(2, queryTimes.get());
+        Assert.assertEquals(2, BindingResultCache.getHitCount(Region.class));
+
+        // 全部命中，不再查询
+        result = queryRegions(Arrays.asList(1L, 2L), queryTimes);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(2, queryTimes.get());
+
+        // 部分命中，仅查询未命中的值
+        result = queryRegions(Arrays.asList(2L, 4L), queryTimes);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(3, queryTimes.get());
+
+        // 失效后重新查询
+        BindingResultCache.evict(Region.class);
+        queryRegions(Arrays.asList(1L), queryTimes);
+        Assert.assertEquals(4, queryTimes.get());
+        Assert.assertTrue(BindingResultCache.getStatistics().containsKey(Region.class.getName()));
+    }
+
+    @Test
+    public void testDisabled(){
+        Assert.assertFalse(BindingResultCache.isEnabled(String.class));
+        AtomicInteger queryTimes = new AtomicInteger();
+        for(int i=0; i<2; i++){
+            BindingResultCache.getEntityList(String.class, "id", Arrays.asList(1L), values -> {
+                queryTimes.incrementAndGet();
+                return new ArrayList<>();
+            }, e -> e);
+        }
+        Assert.assertEquals(2, queryTimes.get());
+    }
+
+    /**
+     * 模拟查询：id为1、2、4的数据存在
+     */
+    private List<Region> queryRegions(List<Long> ids, AtomicInteger queryTimes){
+        return BindingResultCache.getEntityList(Region.class, "id", ids, missIds -> {
+            queryTimes.incrementAndGet();
+            List<Region> list = new ArrayList<>();
+            for(Object id : missIds){
+                if((Long)id != 3L){
+                    list.add(new Region((Long)id, "R" + id));
+                }
+            }
+            return list;
+        }, Region::getId);
+    }
+
+    @Data
+    @AllArgsConstructor
+    @BindingCache(expireMinutes = 10, maxSize = 100)
+    public static class Region {
+        private Long id;
+        private String name;
+    }
+
+}
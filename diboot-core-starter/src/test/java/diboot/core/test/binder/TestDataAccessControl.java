@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.diboot.core.data.access.DataScopeManager;
 import com.diboot.core.handler.DataAccessControlHandler;
 import com.diboot.core.util.ContextHolder;
+import net.sf.jsqlparser.schema.Column;
 import diboot.core.test.StartupApplication;
 import diboot.core.test.binder.entity.CcCityInfo;
 import diboot.core.test.binder.entity.Department;
@@ -18,6 +19,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -55,4 +58,13 @@ public class TestDataAccessControl {
         List<Department> departments = departmentService.getEntityList(new QueryWrapper<>());
         Assert.assertEquals(3, departments.size());
     }
+
+    @Test
+    public void testBuildIdsExpression(){
+        Column column = new Column("org_id");
+        Assert.assertEquals("org_id IS NULL", DataAccessControlHandler.buildIdsExpression(column, Collections.emptyList()).toString());
+        Assert.assertEquals("org_id = 10001", DataAccessControlHandler.buildIdsExpression(column, Arrays.asList(10001L)).toString());
+        Assert.assertEquals("org_id IN (1, 2, 3)", DataAccessControlHandler.buildIdsExpression(column, Arrays.asList(1L, 2L, 3L)).toString());
+        Assert.assertEquals("org_id IN ('a', 'b')", DataAccessControlHandler.buildIdsExpression(column, Arrays.asList("a", "b")).toString());
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.helper.JoinKeyMap;
+import com.sun.management.ThreadMXBean;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * join key匹配Map测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/1
+ * Copyright © diboot.com
+ */
+public class TestJoinKeyMap {
+    private static final ThreadMXBean THREAD_MX_BEAN = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void testLongKey(){
+        JoinKeyMap<String> map = new JoinKeyMap<>(Collections.singletonList(Long.class));
+        map.put(1001L, "A");
+        map.put(1002, "B");
+        Assert.assertEquals("A", map.get(1001L));
+        Assert.assertEquals("A", map.get("1001"));
+        Assert.assertEquals("B", map.get(1002L));
+        Assert.assertNull(map.get("1001,1002"));
+        // 非规范的数字字符串不与整数匹配
+        map.put(1L, "D");
+        map.put(0L, "Z");
+        Assert.assertEquals("D", map.get("1"));
+        Assert.assertNull(map.get("001"));
+        Assert.assertNull(map.get("+1"));
+        Assert.assertEquals("Z", map.get("0"));
+        Assert.assertNull(map.get("-0"));
+        Assert.assertNull(map.get(new BigDecimal("1.0")));
+        Assert.assertNull(map.get(1003L));
+        // 非数字值兼容
+        map.put("abc", "C");
+        Assert.assertEquals("C", map.get("abc"));
+        Assert.assertEquals(5, map.size());
+    }
+
+    @Test
+    public void testStringAndTupleKey(){
+        JoinKeyMap<String> map = new JoinKeyMap<>(Collections.singletonList(String.class));
+        map.put("1001", "A");
+        Assert.assertEquals("A", map.get(1001L));
+
+        JoinKeyMap<String> tupleMap = new JoinKeyMap<>(Arrays.asList(Long.class, String.class));
+        tupleMap.put(new Object[]{1001L, "M"}, "A");
+        Assert.assertEquals("A", tupleMap.get(new Object[]{"1001", "M"}));
+        Assert.assertNull(tupleMap.get(new Object[]{1001L, "F"}));
+    }
+
+    /**
+     * 对比String拼接key与JoinKeyMap的内存分配
+     */
+    @Test
+    public void testAllocation(){
+        int size = 100000;
+        List<Long> ids = new ArrayList<>(size);
+        for(long i=0; i<size; i++){
+            ids.add(1000000L + i);
+        }
+        long threadId = Thread.currentThread().getId();
+        // 预热
+        for(int i=0; i<3; i++){
+            buildStringKeyMap(ids);
+            buildJoinKeyMap(ids);
+        }
+        long begin = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        long beginTime = System.currentTimeMillis();
+        Map<String, Long> stringKeyMap = buildStringKeyMap(ids);
+        int matched1 = 0;
+        for(Long id : ids){
+            if(stringKeyMap.get(String.valueOf(id)) != null){
+                matched1++;
+            }
+        }
+        long takes1 = System.currentTimeMillis() - beginTime;
+        long allocated1 = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - begin;
+
+        begin = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+        beginTime = System.currentTimeMillis();
+        JoinKeyMap<Long> joinKeyMap = buildJoinKeyMap(ids);
+        int matched2 = 0;
+        for(Long id : ids){
+            if(joinKeyMap.get(id) != null){
+                matched2++;
+            }
+        }
+        long takes2 = System.currentTimeMillis() - beginTime;
+        long allocated2 = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - begin;
+
+        System.out.println("String key: " + takes1 + " ms, " + allocated1/1024 + " KB; JoinKeyMap: " + takes2 + " ms, " + allocated2/1024 + " KB");
+        Assert.assertEquals(size, matched1);
+        Assert.assertEquals(size, matched2);
+        Assert.assertTrue(allocated2 < allocated1);
+    }
+
+    private Map<String, Long> buildStringKeyMap(List<Long> ids){
+        Map<String, Long> map = new HashMap<>(ids.size());
+        StringBuilder sb = new StringBuilder();
+        for(Long id : ids){
+            sb.setLength(0);
+            sb.append(id);
+            map.put(sb.toString(), id);
+        }
+        return map;
+    }
+
+    private JoinKeyMap<Long> buildJoinKeyMap(List<Long> ids){
+        JoinKeyMap<Long> map = new JoinKeyMap<>(Collections.singletonList(Long.class), ids.size());
+        for(Long id : ids){
+            map.put(id, id);
+        }
+        return map;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.cache.RequestBindingCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 请求范围绑定Entity标识映射测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/5
+ * Copyright © diboot.com
+ */
+public class TestRequestBindingCache {
+
+    @Test
+    public void testOpenAndClose(){
+        Assert.assertNull(RequestBindingCache.current());
+        RequestBindingCache outer = RequestBindingCache.open();
+        Assert.assertNotNull(outer);
+        try{
+            // 嵌套绑定（深度绑定）复用外层范围
+            RequestBindingCache inner = RequestBindingCache.open();
+            Assert.assertNull(inner);
+            RequestBindingCache.close(inner);
+            Assert.assertSame(outer, RequestBindingCache.current());
+        }
+        finally {
+            RequestBindingCache.close(outer);
+        }
+        Assert.assertNull(RequestBindingCache.current());
+    }
+
+    @Test
+    public void testLoadOnce(){
+        AtomicInteger queryTimes = new AtomicInteger();
+        List<Object> queriedValues = new ArrayList<>();
+        Function<List<?>, List<Long[]>> query = values -> {
+            queryTimes.incrementAndGet();
+            queriedValues.addAll(values);
+            List<Long[]> list = new ArrayList<>();
+            for(Object value : values){
+                list.add(new Long[]{(Long)value, (Long)value * 10});
+            }
+            return list;
+        };
+        RequestBindingCache bindingCache = RequestBindingCache.open();
+        try{
+            String scopeKey = Long[].class.getName() + ":*:false";
+            List<Long[]> list1 = bindingCache.getEntityList(scopeKey, "id", Arrays.asList(1L, 2L, 3L), query, arr -> arr[0]);
+            Assert.assertEquals(3, list1.size());
+            // 仅查询未加载的值
+            List<Long[]> list2 = bindingCache.getEntityList(scopeKey, "id", Arrays.asList(2L, 3L, 4L), query, arr -> arr[0]);
+            Assert.assertEquals(3, list2.size());
+            Assert.assertEquals(2, queryTimes.get());
+            Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L), queriedValues);
+            // 全部命中时不查询
+            bindingCache.getEntityList(scopeKey, "id", Arrays.asList(1L, 4L), query, arr -> arr[0]);
+            Assert.assertEquals(2, queryTimes.get());
+            Assert.assertEquals(4, bindingCache.getHitCount());
+            // 不同查询列的范围不共用
+            bindingCache.getEntityList(Long[].class.getName() + ":id,name:false", "id", Arrays.asList(1L), query, arr -> arr[0]);
+            Assert.assertEquals(3, queryTimes.get());
+            // 数据变更后重新查询
+            RequestBindingCache.evict(Long[].class);
+            bindingCache.getEntityList(scopeKey, "id", Arrays.asList(1L), query, arr -> arr[0]);
+            Assert.assertEquals(4, queryTimes.get());
+        }
+        finally {
+            RequestBindingCache.close(bindingCache);
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.helper.SliceQueryExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IN条件分片查询测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/3
+ * Copyright © diboot.com
+ */
+public class TestSliceQueryExecutor {
+
+    @Test
+    public void testPartition(){
+        List<Long> values = buildValues(2500);
+        List<List<Long>> slices = SliceQueryExecutor.partition(values, 1000);
+        Assert.assertEquals(3, slices.size());
+        Assert.assertEquals(1000, slices.get(0).size());
+        Assert.assertEquals(500, slices.get(2).size());
+        Assert.assertEquals(2000L, slices.get(2).get(0).longValue());
+
+        Assert.assertEquals(1, SliceQueryExecutor.partition(buildValues(1000), 1000).size());
+        Assert.assertTrue(SliceQueryExecutor.partition(new ArrayList<>(), 1000).isEmpty());
+    }
+
+    @Test
+    public void testQuery(){
+        List<Long> values = buildValues(3500);
+        Assert.assertTrue(SliceQueryExecutor.needSlice(values));
+        AtomicInteger queryTimes = new AtomicInteger();
+        // 模拟查询：返回IN条件中的偶数值
+        List<Long> result = SliceQueryExecutor.query(values, slice -> {
+            Assert.assertTrue(slice.size() <= 1000);
+            queryTimes.incrementAndGet();
+            List<Long> rows = new ArrayList<>();
+            for(Long value : slice){
+                if(value % 2 == 0){
+                    rows.add(value);
+                }
+            }
+            return rows;
+        });
+        Assert.assertEquals(4, queryTimes.get());
+        Assert.assertEquals(1750, result.size());
+        // 保持分片顺序
+        for(int i=0; i<result.size(); i++){
+            Assert.assertEquals(i * 2L, result.get(i).longValue());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQueryError(){
+        SliceQueryExecutor.query(buildValues(2001), slice -> {
+            if(slice.get(0) >= 2000L){
+                throw new IllegalArgumentException("slice error");
+            }
+            return slice;
+        });
+    }
+
+    private List<Long> buildValues(int size){
+        List<Long> values = new ArrayList<>(size);
+        for(long i=0; i<size; i++){
+            values.add(i);
+        }
+        return values;
+    }
+
+}
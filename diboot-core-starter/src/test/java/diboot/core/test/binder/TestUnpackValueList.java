@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.helper.ResultAssembler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * 中间表ID值收集/拆解测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/2
+ * Copyright © diboot.com
+ */
+public class TestUnpackValueList {
+
+    @Test
+    public void testUnpackKeepOrder(){
+        List valueList = Arrays.asList("3,1", 2L, null, Arrays.asList(5L, 1L), "2");
+        List result = ResultAssembler.unpackValueList(valueList, ",", Long.class);
+        Assert.assertEquals(Arrays.asList(3L, 1L, 2L, 5L), result);
+
+        result = ResultAssembler.unpackValueList(Arrays.asList("b", "a", "b"), null, String.class);
+        Assert.assertEquals(Arrays.asList("b", "a"), result);
+    }
+
+    /**
+     * 10k/100k中间表行的ID收集：保序去重
+     */
+    @Test
+    public void testUnpackLargeList(){
+        for(int rows : new int[]{10000, 100000}){
+            // 模拟中间表结果：半数重复ID
+            List<Long> valueList = new ArrayList<>(rows);
+            for(long i=0; i<rows; i++){
+                valueList.add(i % (rows/2));
+            }
+            List result = ResultAssembler.unpackValueList(valueList, null, Long.class);
+            Assert.assertEquals(rows/2, result.size());
+            Assert.assertEquals(0L, result.get(0));
+            Assert.assertEquals((long)(rows/2 - 1), result.get(result.size()-1));
+            Assert.assertEquals(rows/2, new HashSet<>(result).size());
+        }
+    }
+
+}
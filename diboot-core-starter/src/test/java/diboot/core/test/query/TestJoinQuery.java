@@ -20,6 +20,10 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.diboot.core.binding.Binder;
 import com.diboot.core.binding.JoinsBinder;
 import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.query.DynamicJoin;
+import com.diboot.core.binding.query.JoinStrategy;
+import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
+import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
 import com.diboot.core.binding.query.dynamic.ExtQueryWrapper;
 import com.diboot.core.config.Cons;
 import com.diboot.core.vo.Pagination;
@@ -389,4 +393,64 @@ public class TestJoinQuery {
         List<Problem> list = problemService.getEntityList(queryWrapper);
         Assert.assertTrue(list.size() >= 1);
     }
+
+    /**
+     * 测试EXISTS半连接方式的动态查询
+     */
+    @Test
+    public void testExistsJoinStrategy(){
+        ExistsDepartmentDTO dto = new ExistsDepartmentDTO();
+        dto.setParentId(10001L);
+        dto.setOrgName("苏州帝博");
+        dto.setParentName("产品部");
+        DynamicJoinQueryWrapper queryWrapper = toDepartmentJoinWrapper(dto);
+        String sql = new DynamicSqlProvider().buildSqlForList(queryWrapper);
+        Assert.assertTrue(sql.contains("EXISTS (SELECT 1 FROM"));
+        Assert.assertFalse(sql.contains("DISTINCT"));
+        Assert.assertFalse(sql.contains("LEFT OUTER JOIN"));
+        String countSql = new DynamicSqlProvider().buildSqlForCount(queryWrapper);
+        Assert.assertTrue(countSql.contains("COUNT(*)"));
+
+        List<Department> list = QueryBuilder.toDynamicJoinQueryWrapper(dto).queryList(Department.class);
+        Assert.assertTrue(list.size() == 3);
+
+        // 结果与LEFT JOIN方式一致
+        DepartmentDTO joinDto = new DepartmentDTO();
+        joinDto.setParentId(10001L);
+        joinDto.setOrgName("苏州帝博");
+        joinDto.setParentName("产品部");
+        queryWrapper = toDepartmentJoinWrapper(joinDto);
+        Assert.assertTrue(new DynamicSqlProvider().buildSqlForList(queryWrapper).contains("DISTINCT"));
+        Assert.assertTrue(new DynamicSqlProvider().buildSqlForCount(queryWrapper).contains("COUNT(DISTINCT self.id)"));
+        Assert.assertEquals(list.size(), QueryBuilder.toDynamicJoinQueryWrapper(joinDto).queryList(Department.class).size());
+
+        // 分页count
+        Pagination pagination = new Pagination();
+        pagination.setPageSize(2);
+        list = QueryBuilder.toDynamicJoinQueryWrapper(dto).queryList(Department.class, pagination);
+        Assert.assertTrue(list.size() == 2);
+        Assert.assertEquals(3, pagination.getTotalCount());
+
+        // OR条件及按关联字段排序时回退为LEFT JOIN
+        dto.setSearch("帝博");
+        sql = new DynamicSqlProvider().buildSqlForList(toDepartmentJoinWrapper(dto));
+        Assert.assertTrue(sql.contains("DISTINCT"));
+        dto.setSearch(null);
+        pagination = new Pagination();
+        pagination.setPageSize(2);
+        pagination.setOrderBy("orgName:DESC");
+        list = QueryBuilder.toDynamicJoinQueryWrapper(dto, pagination).queryList(Department.class, pagination);
+        Assert.assertTrue(list.size() == 2);
+    }
+
+    private DynamicJoinQueryWrapper toDepartmentJoinWrapper(DepartmentDTO dto){
+        DynamicJoinQueryWrapper queryWrapper = (DynamicJoinQueryWrapper) QueryBuilder.toDynamicJoinQueryWrapper(dto);
+        queryWrapper.setMainEntityClass(Department.class);
+        return queryWrapper;
+    }
+
+    @DynamicJoin(strategy = JoinStrategy.EXISTS)
+    public static class ExistsDepartmentDTO extends DepartmentDTO {
+        private static final long serialVersionUID = -1473015846927306321L;
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.query;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.QueryPlan;
+import com.diboot.core.binding.query.BindQuery;
+import com.diboot.core.binding.query.Comparison;
+import com.diboot.core.binding.query.Strategy;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DTO查询计划测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/12
+ * Copyright © diboot.com
+ */
+public class TestQueryPlan {
+
+    @Test
+    public void testQueryPlan(){
+        QueryPlan queryPlan = BindingCacheManager.getQueryPlanByClass(WideQueryDTO.class);
+        Assert.assertSame(queryPlan, BindingCacheManager.getQueryPlanByClass(WideQueryDTO.class));
+        // ignore 字段不参与
+        Assert.assertEquals(29, queryPlan.getFieldPlans().size());
+        Assert.assertFalse(queryPlan.hasJoinTable(Arrays.asList("f01", "f02")));
+
+        WideQueryDTO dto = buildDTO();
+        QueryWrapper<?> queryWrapper = QueryBuilder.toQueryWrapper(dto);
+        String sqlSegment = queryWrapper.getSqlSegment();
+        Assert.assertTrue(sqlSegment.contains("f01 = "));
+        Assert.assertTrue(sqlSegment.contains("f02 LIKE "));
+        Assert.assertTrue(sqlSegment.contains("f03 >= "));
+        Assert.assertTrue(sqlSegment.contains("f04 IN ("));
+        Assert.assertTrue(sqlSegment.contains("code_col = "));
+        Assert.assertTrue(sqlSegment.contains("f06 IS NULL"));
+        Assert.assertTrue(sqlSegment.contains("f07 LIKE ") && sqlSegment.contains(" OR f08 LIKE "));
+        Assert.assertFalse(sqlSegment.contains("f09"));
+        Assert.assertFalse(sqlSegment.contains("ignored"));
+        Assert.assertFalse(sqlSegment.contains("f30"));
+        // 指定字段
+        sqlSegment = QueryBuilder.toQueryWrapper(dto, Arrays.asList("f01")).getSqlSegment();
+        Assert.assertTrue(sqlSegment.contains("f01 = "));
+        Assert.assertFalse(sqlSegment.contains("f02"));
+    }
+
+    /**
+     * 首字母小写、第二个字母大写的字段（如 xCoord），JavaBeans属性名与字段名不一致
+     */
+    @Test
+    public void testIrregularGetter(){
+        IrregularQueryDTO dto = new IrregularQueryDTO();
+        dto.setXCoord(10);
+        dto.setEMail("a@diboot.com");
+        String sqlSegment = QueryBuilder.toQueryWrapper(dto).getSqlSegment();
+        Assert.assertTrue(sqlSegment.contains("x_coord = "));
+        Assert.assertTrue(sqlSegment.contains("e_mail LIKE "));
+    }
+
+    /**
+     * 30个字段DTO的QueryWrapper构建耗时
+     */
+    @Test
+    public void testBuildWrapperPerformance(){
+        WideQueryDTO dto = buildDTO();
+        // 预热
+        for(int i=0; i<20000; i++){
+            QueryBuilder.toQueryWrapper(dto);
+        }
+        int loop = 100000;
+        long begin = System.nanoTime();
+        for(int i=0; i<loop; i++){
+            QueryBuilder.toQueryWrapper(dto);
+        }
+        long takes = System.nanoTime() - begin;
+        System.out.println("30 fields DTO toQueryWrapper: " + (takes / loop) + " ns/op");
+    }
+
+    private WideQueryDTO buildDTO(){
+        WideQueryDTO dto = new WideQueryDTO();
+        dto.setF01("a");
+        dto.setF02("b");
+        dto.setF03(LocalDate.of(2024, 7, 1));
+        dto.setF04(Arrays.asList(1L, 2L));
+        dto.setF05("c");
+        dto.setF07("d");
+        dto.setF09("");
+        dto.setIgnored("x");
+        dto.setF11("v11");
+        dto.setF13("v13");
+        dto.setF15(15);
+        dto.setF17(17L);
+        dto.setF19(Boolean.TRUE);
+        return dto;
+    }
+
+    @Getter @Setter
+    public static class WideQueryDTO {
+        private String f01;
+        @BindQuery(comparison = Comparison.LIKE)
+        private String f02;
+        @BindQuery(comparison = Comparison.GE)
+        private LocalDate f03;
+        @BindQuery(comparison = Comparison.IN)
+        private List<Long> f04;
+        @BindQuery(column = "code_col")
+        private String f05;
+        @BindQuery(strategy = Strategy.INCLUDE_NULL)
+        private String f06;
+        @BindQuery.List({
+                @BindQuery(comparison = Comparison.LIKE, column = "f07"),
+                @BindQuery(comparison = Comparison.LIKE, column = "f08")
+        })
+        private String f07;
+        private String f08;
+        private String f09;
+        @BindQuery(ignore = true)
+        private String ignored;
+        private String f11;
+        private String f12;
+        private String f13;
+        private String f14;
+        private Integer f15;
+        private Integer f16;
+        private Long f17;
+        private Long f18;
+        private Boolean f19;
+        private Boolean f20;
+        private String f21;
+        private String f22;
+        private String f23;
+        private String f24;
+        private String f25;
+        private String f26;
+        private String f27;
+        private String f28;
+        private String f29;
+        private String f30;
+    }
+
+    @Getter @Setter
+    public static class IrregularQueryDTO {
+        private Integer xCoord;
+        @BindQuery(comparison = Comparison.LIKE)
+        private String eMail;
+    }
+
+}
@@ -25,6 +25,8 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.diboot.core.binding.QueryBuilder;
 import com.diboot.core.binding.RelationsBinder;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.helper.KeysetPagingHelper;
+import com.diboot.core.binding.helper.PaginationCountHelper;
 import com.diboot.core.binding.parser.EntityInfoCache;
 import com.diboot.core.binding.query.dynamic.ExtQueryWrapper;
 import com.diboot.core.cache.DictionaryCacheManager;
@@ -32,6 +34,7 @@ import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.data.access.DataScopeManager;
 import com.diboot.core.entity.Dictionary;
+import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.service.impl.DictionaryServiceExtImpl;
 import com.diboot.core.util.*;
 import com.diboot.core.vo.*;
@@ -406,6 +409,147 @@ public class BaseServiceTest {
         Assert.assertTrue(organizations != null && organizations.get(0).getName().contains("苏州帝博"));
     }
 
+    @Test
+    public void testKeysetPagination(){
+        // 按id降序的全部数据
+        Pagination offsetPagination = new Pagination();
+        offsetPagination.setPageSize(100);
+        offsetPagination.setOrderBy(Pagination.ORDER_BY_ID_DESC);
+        List<Department> allList = departmentService.getEntityList(null, offsetPagination);
+        Assert.assertTrue(allList.size() > 2);
+
+        Pagination pagination = new Pagination();
+        pagination.setKeyset(true);
+        pagination.setPageSize(2);
+        pagination.setOrderBy(Pagination.ORDER_BY_ID_DESC);
+        List<String> ids = new ArrayList<>();
+        List<Department> pageList = departmentService.getEntityList(null, pagination);
+        Assert.assertEquals(allList.size(), pagination.getTotalCount());
+        // 复用同一wrapper翻页，游标条件不叠加
+        QueryWrapper<Department> reusedWrapper = new QueryWrapper<>();
+        reusedWrapper.isNotNull("name");
+        String sqlSegment = reusedWrapper.getSqlSegment();
+        while(true) {
+            Assert.assertTrue(pageList.size() <= 2);
+            pageList.forEach(d -> ids.add(d.getId()));
+            if(pagination.getNextCursor() == null) {
+                break;
+            }
+            pagination.setCursor(pagination.getNextCursor());
+            pageList = departmentService.getEntityList(reusedWrapper, pagination);
+            Assert.assertEquals(sqlSegment, reusedWrapper.getSqlSegment());
+        }
+        Assert.assertEquals(BeanUtils.collectIdToList(allList), ids);
+
+        // 按非唯一字段排序，追加主键保证不重复不遗漏
+        pagination = new Pagination();
+        pagination.setKeyset(true);
+        pagination.setPageSize(1);
+        pagination.setOrderBy("orgId:ASC");
+        Set<String> idSet = new HashSet<>();
+        pageList = departmentService.getEntityList(null, pagination);
+        while(true) {
+            pageList.forEach(d -> Assert.assertTrue(idSet.add(d.getId())));
+            if(pagination.getNextCursor() == null) {
+                break;
+            }
+            pagination.setCursor(pagination.getNextCursor());
+            pageList = departmentService.getEntityList(null, pagination);
+        }
+        Assert.assertEquals(allList.size(), idSet.size());
+
+        // 可空的排序字段无法生成游标
+        pagination = new Pagination();
+        pagination.setKeyset(true);
+        pagination.setPageSize(1);
+        pagination.setOrderBy("character:ASC");
+        try {
+            departmentService.getEntityList(null, pagination);
+            Assert.fail();
+        }
+        catch (InvalidUsageException e) {
+            Assert.assertTrue(e.getMessage() != null);
+        }
+
+        // 排序变化时游标无效
+        pagination.setOrderBy("name");
+        pagination.setCursor(KeysetPagingHelper.encodeCursor(Collections.singletonList("1"), Collections.singletonList(OrderItem.desc("id"))));
+        try {
+            departmentService.getEntityList(null, pagination);
+            Assert.fail();
+        }
+        catch (InvalidUsageException e) {
+            Assert.assertTrue(e.getMessage() != null);
+        }
+    }
+
+    @Test
+    public void testCountStrategy(){
+        long exactTotal = departmentService.getEntityListCount(null);
+        QueryWrapper<Department> queryWrapper = new QueryWrapper<>();
+        queryWrapper.isNotNull("name");
+        // 缓存的总数
+        long cacheHits = PaginationCountHelper.getStatistics().get("CACHED.hit");
+        for(int i=0; i<2; i++){
+            Pagination pagination = new Pagination();
+            pagination.setPageSize(2);
+            pagination.setCountStrategy(CountStrategy.CACHED);
+            List<Department> list = departmentService.getEntityList(queryWrapper, pagination);
+            Assert.assertEquals(2, list.size());
+            Assert.assertEquals(exactTotal, pagination.getTotalCount());
+        }
+        Assert.assertTrue(PaginationCountHelper.getStatistics().get("CACHED.hit") > cacheHits);
+
+        // 并行统计
+        Pagination pagination = new Pagination();
+        pagination.setPageSize(2);
+        pagination.setCountStrategy(CountStrategy.ASYNC);
+        List<Department> list = departmentService.getEntityList(queryWrapper, pagination);
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(exactTotal, pagination.getTotalCount());
+
+        // 有查询条件时估算改为精确统计
+        long effectiveExact = PaginationCountHelper.getStatistics().get("EXACT.effective");
+        pagination = new Pagination();
+        pagination.setPageSize(2);
+        pagination.setCountStrategy(CountStrategy.ESTIMATE);
+        departmentService.getEntityList(queryWrapper, pagination);
+        Assert.assertEquals(exactTotal, pagination.getTotalCount());
+        Assert.assertEquals(effectiveExact + 1, PaginationCountHelper.getStatistics().get("EXACT.effective").longValue());
+
+        // 有逻辑删除字段的表，无查询条件时估算也改为精确统计
+        effectiveExact = PaginationCountHelper.getStatistics().get("EXACT.effective");
+        pagination = new Pagination();
+        pagination.setPageSize(2);
+        pagination.setCountStrategy(CountStrategy.ESTIMATE);
+        departmentService.getEntityList(null, pagination);
+        Assert.assertEquals(exactTotal, pagination.getTotalCount());
+        Assert.assertEquals(effectiveExact + 1, PaginationCountHelper.getStatistics().get("EXACT.effective").longValue());
+
+        // 超出总数的页
+        pagination = new Pagination();
+        pagination.setPageSize(100);
+        pagination.setPageIndex(100);
+        Assert.assertTrue(departmentService.getEntityList(queryWrapper, pagination).isEmpty());
+        Assert.assertEquals(exactTotal, pagination.getTotalCount());
+    }
+
+    @Test
+    public void testCountWithGroupBy(){
+        QueryWrapper<Department> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("parent_id").isNotNull("parent_id").groupBy("parent_id").orderByAsc("parent_id");
+        long groupCount = departmentService.getMapList(queryWrapper).size();
+        // 由分页插件生成count（GROUP BY包装为子查询，移除ORDER BY）
+        for(CountStrategy strategy : CountStrategy.values()){
+            Pagination pagination = new Pagination();
+            pagination.setPageSize(1);
+            pagination.setCountStrategy(strategy);
+            List<Map<String, Object>> mapList = departmentService.getMapList(queryWrapper, pagination);
+            Assert.assertEquals(1, mapList.size());
+            Assert.assertEquals(groupCount, pagination.getTotalCount());
+        }
+    }
+
     @Test
     public void testDictVo(){
         Dictionary dict = new Dictionary();
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.service;
+
+import com.diboot.core.data.annotation.DataMask;
+import com.diboot.core.mapper.BaseCrudMapper;
+import com.diboot.core.service.impl.BaseServiceImpl;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 更新时脱敏值保护测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/22
+ * Copyright © diboot.com
+ */
+public class DataMaskGuardTest {
+
+    @Test
+    public void testBeforeUpdate() {
+        MaskedEntityService service = new MaskedEntityService();
+        // 提交脱敏值时忽略
+        MaskedEntity entity = new MaskedEntity();
+        entity.setPhone("138****8000");
+        entity.setPhoneList(Arrays.asList("13800138000", "110101********1234"));
+        service.beforeUpdate(entity);
+        Assert.assertNull(entity.getPhone());
+        Assert.assertNull(entity.getPhoneList());
+
+        // 提交原值时更新
+        entity.setPhone("13800138000");
+        entity.setPhoneList(Arrays.asList("13800138000", null, "110101199001011234"));
+        service.beforeUpdate(entity);
+        Assert.assertEquals("13800138000", entity.getPhone());
+        Assert.assertEquals(3, entity.getPhoneList().size());
+    }
+
+    @Getter
+    @Setter
+    public static class MaskedEntity {
+        private String id;
+        @DataMask
+        private String phone;
+        @DataMask
+        private List<String> phoneList;
+    }
+
+    public interface MaskedEntityMapper extends BaseCrudMapper<MaskedEntity> {
+    }
+
+    public static class MaskedEntityService extends BaseServiceImpl<MaskedEntityMapper, MaskedEntity> {
+        @Override
+        public void beforeUpdate(MaskedEntity entity) {
+            super.beforeUpdate(entity);
+        }
+    }
+
+}
@@ -19,6 +19,8 @@ import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.EntityRowMapper;
+import com.diboot.core.binding.parser.PropAccessor;
 import com.diboot.core.config.Cons;
 import com.diboot.core.entity.Dictionary;
 import com.diboot.core.service.DictionaryService;
@@ -40,6 +42,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
@@ -391,6 +394,41 @@ public class BeanUtilsTest {
         Assert.assertTrue(takes2 < takes1);
     }
 
+    /**
+     * 测试缓存访问器与BeanWrapper反射取值/赋值结果一致
+     */
+    @Test
+    public void testPropAccessor(){
+        PropAccessor accessor = BindingCacheManager.getPropAccessorByClass(User.class);
+        Assert.assertTrue(accessor.isReadable("username"));
+        Assert.assertTrue(accessor.isWritable("username"));
+        Assert.assertTrue(accessor.isAssignable("username", "test"));
+        Assert.assertFalse(accessor.isAssignable("birthdate", "1980-10-12"));
+
+        User user2 = new User();
+        BeanUtils.setProperty(user2, "username", "test");
+        BeanUtils.setProperty(user2, "birthdate", "1980-10-12");
+        Assert.assertEquals("test", BeanUtils.getProperty(user2, "username"));
+        Assert.assertEquals(LocalDate.of(1980, 10, 12), BeanUtils.getProperty(user2, "birthdate"));
+
+        // 访问器赋值，反射取值
+        BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(user2);
+        accessor.setValue(user2, "username", "accessor");
+        accessor.setValue(user2, "departmentId", "10001");
+        Assert.assertEquals(beanWrapper.getPropertyValue("username"), accessor.getValue(user2, "username"));
+        Assert.assertEquals("accessor", beanWrapper.getPropertyValue("username"));
+        Assert.assertEquals("10001", beanWrapper.getPropertyValue("departmentId"));
+        // 反射赋值，访问器取值
+        beanWrapper.setPropertyValue("username", "wrapper");
+        beanWrapper.setPropertyValue("birthdate", LocalDate.of(1990, 1, 2));
+        Assert.assertEquals("wrapper", accessor.getGetter("username").apply(user2));
+        Assert.assertEquals(beanWrapper.getPropertyValue("birthdate"), accessor.getValue(user2, "birthdate"));
+        Assert.assertEquals(beanWrapper.getPropertyValue("birthdate"), BeanUtils.getProperty(user2, "birthdate"));
+        // 赋值null
+        accessor.getSetter("departmentId").accept(user2, null);
+        Assert.assertNull(beanWrapper.getPropertyValue("departmentId"));
+    }
+
     @Test
     public void testConvertType() {
         Collection<String> list = new ArrayList<>();
@@ -447,4 +485,29 @@ public class BeanUtilsTest {
         Assert.assertEquals(vo.getId(), "1");
     }
 
+    @Test
+    public void testEntityRowMapper() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for(int i=0; i<3; i++){
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", "1000" + i);
+            row.put("username", "user" + i);
+            row.put("department_id", "10001");
+            row.put("birthdate", "1980-10-12");
+            row.put("is_deleted", Boolean.FALSE);
+            row.put("unknown_column", "x");
+            row.put("r1_id__", "10001");
+            rows.add(row);
+        }
+        EntityRowMapper<User> rowMapper = BindingCacheManager.getRowMapperByClass(User.class);
+        Assert.assertSame(rowMapper, BindingCacheManager.getRowMapperByClass(User.class));
+        List<User> users = rowMapper.mapRows(rows);
+        Assert.assertEquals(3, users.size());
+        Assert.assertEquals("10002", users.get(2).getId());
+        Assert.assertEquals("user1", users.get(1).getUsername());
+        Assert.assertEquals("10001", users.get(0).getDepartmentId());
+        Assert.assertEquals(LocalDate.of(1980, 10, 12), users.get(0).getBirthdate());
+        Assert.assertFalse(users.get(0).isDeleted());
+    }
+
 }
@@ -15,13 +15,18 @@
  */
 package diboot.core.test.util;
 
+import com.diboot.core.cache.DictionaryCacheManager;
 import com.diboot.core.cache.DynamicMemoryCacheManager;
+import com.diboot.core.config.Cons;
 import com.diboot.core.entity.Dictionary;
+import com.diboot.core.vo.LabelValue;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * V校验工具类测试
@@ -54,4 +59,25 @@ public class CacheTest {
         Assert.assertTrue(isExpired);
     }
 
+    @Test
+    public void testDictionaryNearCache(){
+        DictionaryCacheManager dictionaryCacheManager = new DictionaryCacheManager(new DynamicMemoryCacheManager(60, Cons.CACHE_NAME_DICTIONARY));
+        AtomicInteger loadTimes = new AtomicInteger();
+        for(int i=0; i<3; i++){
+            Map<String, LabelValue> value2ItemMap = dictionaryCacheManager.getValue2ItemMap("GENDER", () -> {
+                loadTimes.incrementAndGet();
+                return Arrays.asList(new LabelValue("男", "M"), new LabelValue("女", "F"));
+            });
+            Assert.assertEquals("男", value2ItemMap.get("M").getLabel());
+        }
+        Assert.assertEquals(1, loadTimes.get());
+        // 字典变更后重新加载
+        dictionaryCacheManager.removeCachedItems("GENDER");
+        dictionaryCacheManager.getValue2ItemMap("GENDER", () -> {
+            loadTimes.incrementAndGet();
+            return Arrays.asList(new LabelValue("男", "M"));
+        });
+        Assert.assertEquals(2, loadTimes.get());
+    }
+
 }
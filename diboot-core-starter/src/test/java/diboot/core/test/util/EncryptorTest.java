@@ -25,6 +25,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * <Description>
  *
@@ -56,4 +62,47 @@ public class EncryptorTest {
         Assert.assertTrue(Encryptor.decrypt(encryptText, seed).equals(text));
     }
 
+    @Test
+    public void testConcurrentDecrypt() throws Exception {
+        int total = 100000, threads = 16;
+        List<String> plainList = new ArrayList<>(total);
+        List<String> encryptedList = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            String text = "13800" + i;
+            plainList.add(text);
+            encryptedList.add(Encryptor.encrypt(text));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>(threads);
+            int sliceSize = total / threads;
+            for (int t = 0; t < threads; t++) {
+                int from = t * sliceSize, to = (t == threads - 1) ? total : from + sliceSize;
+                boolean bulk = t % 2 == 0;
+                futures.add(executorService.submit(() -> {
+                    List<String> slice = encryptedList.subList(from, to);
+                    List<String> decrypted = new ArrayList<>(slice.size());
+                    if (bulk) {
+                        decrypted = Encryptor.decryptAll(slice);
+                    }
+                    else {
+                        for (String encrypted : slice) {
+                            decrypted.add(Encryptor.decrypt(encrypted));
+                        }
+                    }
+                    return decrypted.equals(plainList.subList(from, to));
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+        // 不足16位的密钥补齐后复用
+        String seed = "ABCDEF";
+        Assert.assertEquals(Encryptor.encrypt("Hello", seed), Encryptor.encrypt("Hello", seed + "abcdefghij"));
+    }
+
 }
@@ -15,6 +15,8 @@
  */
 package diboot.core.test.util;
 
+import com.diboot.core.data.annotation.DataMask;
+import com.diboot.core.data.protect.DefaultDataMaskHandler;
 import com.diboot.core.util.D;
 import com.diboot.core.util.JSON;
 import com.diboot.core.vo.JsonResult;
@@ -24,6 +26,8 @@ import diboot.core.test.StartupApplication;
 import diboot.core.test.binder.entity.Role;
 import diboot.core.test.binder.entity.User;
 import diboot.core.test.config.SpringMvcConfig;
+import lombok.Getter;
+import lombok.Setter;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -34,6 +38,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -119,4 +124,29 @@ public class JsonTest {
         }
     }
 
+    @Test
+    public void testDataMask(){
+        DefaultDataMaskHandler handler = new DefaultDataMaskHandler();
+        char[] buffer = new char[32];
+        for (String value : Arrays.asList("", "123", "12345", "13800138000", "110101199001011234", "abcdefghijklmnopqrstuvwxyz")) {
+            int length = handler.mask(value, buffer);
+            Assert.assertEquals(handler.mask(value), new String(buffer, 0, length));
+        }
+        MaskedBean bean = new MaskedBean();
+        bean.setPhone("13800138000");
+        bean.setPhoneList(Arrays.asList("13800138000", null, "110101199001011234"));
+        String jsonStr = JSON.stringify(bean);
+        Assert.assertTrue(jsonStr.contains("\"138****8000\""));
+        Assert.assertTrue(jsonStr.contains("[\"138****8000\",\"\",\"110101********1234\"]"));
+    }
+
+    @Getter
+    @Setter
+    public static class MaskedBean {
+        @DataMask
+        private String phone;
+        @DataMask
+        private List<String> phoneList;
+    }
+
 }
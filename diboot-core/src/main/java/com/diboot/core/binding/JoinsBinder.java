@@ -17,24 +17,26 @@ package com.diboot.core.binding;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.helper.KeysetPagingHelper;
+import com.diboot.core.binding.helper.PaginationCountHelper;
 import com.diboot.core.binding.helper.ServiceAdaptor;
 import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.binding.query.dynamic.AnnoJoiner;
 import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
-import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.mapper.DynamicQueryMapper;
-import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.Pagination;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Field;
 import java.util.*;
 
 /**
@@ -108,6 +110,8 @@ public class JoinsBinder {
         DynamicJoinQueryWrapper dynamicJoinWrapper = (DynamicJoinQueryWrapper)queryWrapper;
         dynamicJoinWrapper.setMainEntityClass(entityClazz);
         List<Map<String, Object>> mapList;
+        // 游标分页的排序项
+        List<OrderItem> keysetOrderItems = null;
         if(pagination == null){
             if(limit1){
                 Page page = new Page<>(1, 1);
@@ -119,15 +123,34 @@ public class JoinsBinder {
                 mapList = getDynamicQueryMapper().queryForList(dynamicJoinWrapper);
             }
         }
+        else if(pagination.isKeyset()){
+            // 格式化orderBy
+            String originOrderBy = pagination.getOrderBy();
+            formatOrderBy(dynamicJoinWrapper, entityClazz, pagination);
+            pagination.setNextCursor(null);
+            PropInfo propInfo = BindingCacheManager.getPropInfoByTable(dynamicJoinWrapper.getEntityTable());
+            String idColumn = propInfo != null && propInfo.getIdColumn() != null? "self." + propInfo.getIdColumn() : null;
+            keysetOrderItems = KeysetPagingHelper.buildOrderItems(pagination.toPage(entityClazz).orders(), idColumn);
+            boolean countRequired = KeysetPagingHelper.isCountRequired(pagination);
+            KeysetPagingHelper.applyCursor(dynamicJoinWrapper, keysetOrderItems, pagination);
+            Page<Map<String, Object>> page = KeysetPagingHelper.toPage(keysetOrderItems, pagination);
+            mapList = PaginationCountHelper.query(pagination, countRequired, 0L, dynamicJoinWrapper, dynamicJoinWrapper.getEntityTable(),
+                    () -> queryCount(dynamicJoinWrapper), () -> getDynamicQueryMapper().queryForListWithPage(page, dynamicJoinWrapper).getRecords());
+            // 还原orderBy
+            pagination.setOrderBy(originOrderBy);
+        }
         else{
             // 格式化orderBy
             String originOrderBy = pagination.getOrderBy();
             formatOrderBy(dynamicJoinWrapper, entityClazz, pagination);
-            IPage<Map<String, Object>> pageResult = getDynamicQueryMapper().queryForListWithPage(pagination.toPage(entityClazz), dynamicJoinWrapper);
-            pagination.setTotalCount(pageResult.getTotal());
+            Page page = pagination.toPage(entityClazz);
+            // 单独执行仅统计主键的count查询（替代分页插件基于DISTINCT列表SQL生成的count），并按统计策略更新总数
+            boolean countRequired = page.searchCount();
+            page.setSearchCount(false);
+            mapList = PaginationCountHelper.query(pagination, countRequired, page.offset(), dynamicJoinWrapper, dynamicJoinWrapper.getEntityTable(),
+                    () -> queryCount(dynamicJoinWrapper), () -> getDynamicQueryMapper().queryForListWithPage(page, dynamicJoinWrapper).getRecords());
             // 还原orderBy
             pagination.setOrderBy(originOrderBy);
-            mapList = pageResult.getRecords();
         }
         long ms = (System.currentTimeMillis() - begin);
         if(ms > 5000){
@@ -140,44 +163,23 @@ public class JoinsBinder {
             log.warn("{} 动态Join查询记录数过大( {} 条), 建议优化", dynamicJoinWrapper.getDtoClass().getSimpleName(), mapList.size());
         }
         // 转换查询结果
-        List<T> entityList = new ArrayList<>();
-        for(Map<String, Object> colValueMap : mapList){
-            Map<String, Object> fieldValueMap = new HashMap<>();
-            // 格式化map
-            for(Map.Entry<String, Object> entry : colValueMap.entrySet()){
-                if(entry.getKey().endsWith(DynamicSqlProvider.PLACEHOLDER_COLUMN_FLAG)) {
-                    log.debug("忽略查询占位字段 {}", entry.getKey());
-                    continue;
-                }
-                String fieldName = S.toLowerCaseCamel(entry.getKey());
-                // 如果是布尔类型，检查entity中的定义是Boolean/boolean
-                if(entry.getValue() instanceof Boolean && S.startsWithIgnoreCase(entry.getKey(),"is_")){
-                    // 检查有is前缀的Boolean类型
-                    Field boolType = BeanUtils.extractField(entityClazz, fieldName);
-                    if(boolType == null){
-                        // 检查无is前缀的boolean类型
-                        String tempFieldName = S.toLowerCaseCamel(S.substringAfter(entry.getKey(), "_"));
-                        boolType = BeanUtils.extractField(entityClazz, tempFieldName);
-                        if(boolType != null){
-                            fieldName = tempFieldName;
-                        }
-                    }
-                }
-                fieldValueMap.put(fieldName, entry.getValue());
-            }
-            // 绑定map到entity
-            try{
-                T entityInst = entityClazz.getConstructor().newInstance();
-                BeanUtils.bindProperties(entityInst, fieldValueMap);
-                entityList.add(entityInst);
-            }
-            catch (Exception e){
-                log.warn("new实例并绑定属性值异常", e);
-            }
+        List<T> entityList = BindingCacheManager.getRowMapperByClass(entityClazz).mapRows(mapList);
+        if(keysetOrderItems != null){
+            return KeysetPagingHelper.resolvePage(entityList, keysetOrderItems, pagination, entityClazz);
         }
         return entityList;
     }
 
+    /**
+     * 执行关联查询的count
+     * @param dynamicJoinWrapper
+     * @return
+     */
+    private static long queryCount(DynamicJoinQueryWrapper dynamicJoinWrapper){
+        Long totalCount = getDynamicQueryMapper().queryCount(dynamicJoinWrapper);
+        return totalCount != null? totalCount : 0L;
+    }
+
     /**
      * 格式化orderBy
      * @param queryWrapper
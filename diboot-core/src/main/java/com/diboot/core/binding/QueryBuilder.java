@@ -15,21 +15,17 @@
  */
 package com.diboot.core.binding;
 
-import com.baomidou.mybatisplus.annotation.TableField;
-import com.baomidou.mybatisplus.annotation.TableLogic;
 import com.baomidou.mybatisplus.core.conditions.ISqlSegment;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.segments.NormalSegmentList;
+import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.helper.WrapperHelper;
-import com.diboot.core.binding.parser.ParserCache;
-import com.diboot.core.binding.query.BindQuery;
+import com.diboot.core.binding.parser.QueryPlan;
 import com.diboot.core.binding.query.Comparison;
 import com.diboot.core.binding.query.Strategy;
-import com.diboot.core.binding.query.dynamic.AnnoJoiner;
 import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
 import com.diboot.core.binding.query.dynamic.ExtQueryWrapper;
 import com.diboot.core.data.protect.DataEncryptHandler;
-import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
@@ -37,17 +33,7 @@ import com.diboot.core.vo.Pagination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.lang.model.type.NullType;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.BiFunction;
-import java.util.function.BiPredicate;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * QueryWrapper构建器
@@ -166,103 +152,67 @@ public class QueryBuilder {
      */
     private static <DTO> QueryWrapper<?> dtoToWrapper(DTO dto, Collection<String> fields, Pagination pagination) {
         QueryWrapper<?> wrapper;
+        // 获取预解析的查询计划
+        QueryPlan queryPlan = BindingCacheManager.getQueryPlanByClass(dto.getClass());
         // 转换
-        LinkedHashMap<String, FieldAndValue> fieldValuesMap = extractNotNullValues(dto, fields, pagination);
+        LinkedHashMap<String, FieldAndValue> fieldValuesMap = extractNotNullValues(dto, queryPlan, fields, pagination);
         if (V.isEmpty(fieldValuesMap)) {
             return new ExtQueryWrapper<>();
         }
         // 只解析有值的
         fields = fieldValuesMap.keySet();
         // 是否有join联表查询
-        boolean hasJoinTable = ParserCache.hasJoinTable(dto, fields);
+        boolean hasJoinTable = queryPlan.hasJoinTable(fields);
         if (hasJoinTable) {
             wrapper = new DynamicJoinQueryWrapper<>(dto.getClass(), fields);
         } else {
             wrapper = new ExtQueryWrapper<>();
         }
-        // 构建 ColumnName
-        List<AnnoJoiner> annoJoinerList = ParserCache.getBindQueryAnnos(dto.getClass());
-        BiFunction<BindQuery, Field, String> buildColumnName = (bindQuery, field) -> {
-            if (bindQuery != null) {
-                String key = field.getName() + bindQuery;
-                for (AnnoJoiner annoJoiner : annoJoinerList) {
-                    if (key.equals(annoJoiner.getKey())) {
-                        if (V.notEmpty(annoJoiner.getJoin())) {
-                            // 获取注解Table
-                            return annoJoiner.getAlias() + "." + annoJoiner.getColumnName();
-                        } else {
-                            return (hasJoinTable ? "self." : "") + annoJoiner.getColumnName();
-                        }
-                    }
-                }
-            }
-            return (hasJoinTable ? "self." : "") + BeanUtils.getColumnName(field);
-        };
-        // 忽略空字符串"",空集合等
-        BiPredicate<Object, BindQuery> ignoreEmpty = (value, bindQuery) -> bindQuery != null &&
-                (Strategy.IGNORE_EMPTY.equals(bindQuery.strategy()) && value instanceof String && S.isEmpty((String) value) // 忽略空字符串""
-                        || Comparison.IN.equals(bindQuery.comparison()) && V.isEmpty(value)); // 忽略空集合
-        // 获取Class类型
-        Function<BindQuery, Class<?>> getClass = bindQuery -> bindQuery == null || bindQuery.entity() == NullType.class ? dto.getClass() : bindQuery.entity();
-        // 获取属性名类型
-        BiFunction<BindQuery, String, String> getFieldName = (bindQuery, defFieldName) -> bindQuery == null || S.isEmpty(bindQuery.column()) ? defFieldName : bindQuery.column();
         // 保护字段处理器
         DataEncryptHandler protectFieldHandler = ContextHolder.getBean(DataEncryptHandler.class);
         // 构建QueryWrapper
-        for (Map.Entry<String, FieldAndValue> entry : fieldValuesMap.entrySet()) {
-            FieldAndValue fieldAndValue = entry.getValue();
-            Field field = fieldAndValue.getField();
-            //忽略字段
-            BindQuery query = field.getAnnotation(BindQuery.class);
-            if(query == null) {// 不存在BindQuery注解
-                TableField tableField = field.getAnnotation(TableField.class);
-                //忽略注解 @TableField(exist = false) 的字段
-                if (tableField != null && !tableField.exist()) {
-                    continue;
-                }
-            }
-            else if(query.ignore()){
+        for (FieldAndValue fieldAndValue : fieldValuesMap.values()) {
+            QueryPlan.FieldPlan fieldPlan = fieldAndValue.getFieldPlan();
+            //忽略注解 @TableField(exist = false) 的字段
+            if (fieldPlan.isNotExist()) {
                 continue;
             }
-            BindQuery.List queryList = field.getAnnotation(BindQuery.List.class);
             Object value = fieldAndValue.getValue();
+            boolean encrypted = protectFieldHandler != null && fieldPlan.isEncrypted();
             // 构建Query
-            if (queryList != null) {
-                List<BindQuery> bindQueryList = Arrays.stream(queryList.value()).filter(e -> !ignoreEmpty.test(value, e)).collect(Collectors.toList());
-                wrapper.and(V.notEmpty(bindQueryList), queryWrapper -> {
-                    Class<?> clazz = getClass.apply(query);
-                    List<String> encryptFields = ParserCache.getProtectFieldList(clazz);
-                    for (BindQuery bindQuery : bindQueryList) {
-                        String columnName = buildColumnName.apply(bindQuery, field);
-                        if (protectFieldHandler != null) {
-                            String fieldName = getFieldName.apply(query, entry.getKey());
-                            if (encryptFields.contains(fieldName)) {
-                                log.debug("查询条件中包含加密字段 {}:{}，将加密后匹配密文", fieldName, value);
-                                buildQuery(queryWrapper.or(), bindQuery, columnName, protectFieldHandler.encrypt(value.toString()));
-                                continue;
-                            }
+            if (fieldPlan.getOrConditions() != null) {
+                List<QueryPlan.ConditionPlan> conditions = new ArrayList<>(fieldPlan.getOrConditions().size());
+                for (QueryPlan.ConditionPlan condition : fieldPlan.getOrConditions()) {
+                    if (!condition.isIgnoreEmpty(value)) {
+                        conditions.add(condition);
+                    }
+                }
+                wrapper.and(V.notEmpty(conditions), queryWrapper -> {
+                    for (QueryPlan.ConditionPlan condition : conditions) {
+                        String columnName = condition.getColumnName(hasJoinTable);
+                        if (encrypted) {
+                            log.debug("查询条件中包含加密字段 {}:{}，将加密后匹配密文", fieldPlan.getFieldName(), value);
+                            buildQuery(queryWrapper.or(), condition, columnName, protectFieldHandler.encryptQueryValue(value.toString()));
+                            continue;
                         }
-                        buildQuery(queryWrapper.or(), bindQuery, columnName, value);
+                        buildQuery(queryWrapper.or(), condition, columnName, value);
                     }
                 });
             } else {
-                if (query == null && V.isEmpty(value)) {
+                QueryPlan.ConditionPlan condition = fieldPlan.getCondition();
+                if (!condition.isAnnotated() && V.isEmpty(value)) {
                     continue;
                 }
-                if (ignoreEmpty.test(value, query)) {
+                if (condition.isIgnoreEmpty(value)) {
                     continue;
                 }
-                String columnName = buildColumnName.apply(query, field);
-                if (protectFieldHandler != null) {
-                    Class<?> clazz = getClass.apply(query);
-                    String fieldName = getFieldName.apply(query, entry.getKey());
-                    if (ParserCache.getProtectFieldList(clazz).contains(fieldName)) {
-                        log.debug("查询条件中包含加密字段 {}:{}，将加密后匹配密文", fieldName, value);
-                        buildQuery(wrapper, query, columnName, protectFieldHandler.encrypt(value.toString()));
-                        continue;
-                    }
+                String columnName = condition.getColumnName(hasJoinTable);
+                if (encrypted) {
+                    log.debug("查询条件中包含加密字段 {}:{}，将加密后匹配密文", fieldPlan.getFieldName(), value);
+                    buildQuery(wrapper, condition, columnName, protectFieldHandler.encryptQueryValue(value.toString()));
+                    continue;
                 }
-                buildQuery(wrapper, query, columnName, value);
+                buildQuery(wrapper, condition, columnName, value);
             }
         }
         return wrapper;
@@ -272,14 +222,14 @@ public class QueryBuilder {
      * 建立条件
      *
      * @param wrapper    条件包装器
-     * @param bindQuery  注解
+     * @param condition  查询条件
      * @param columnName 列名
      * @param value      值
      */
-    private static void buildQuery(QueryWrapper<?> wrapper, BindQuery bindQuery, String columnName, Object value) {
-        Comparison comparison = bindQuery != null ? bindQuery.comparison() : Comparison.EQ;
+    private static void buildQuery(QueryWrapper<?> wrapper, QueryPlan.ConditionPlan condition, String columnName, Object value) {
+        Comparison comparison = condition.getComparison();
         if (value == null) {
-            if (bindQuery != null && bindQuery.strategy().equals(Strategy.INCLUDE_NULL) && comparison.equals(Comparison.EQ)) {
+            if (condition.isAnnotated() && condition.getStrategy().equals(Strategy.INCLUDE_NULL) && comparison.equals(Comparison.EQ)) {
                 wrapper.isNull(columnName);
             }
             return;
@@ -292,60 +242,28 @@ public class QueryBuilder {
      * 提取非空字段及值
      *
      * @param dto
+     * @param queryPlan
      * @param fields
      * @param <DTO>
      * @return
      */
-    private static <DTO> LinkedHashMap<String, FieldAndValue> extractNotNullValues(DTO dto, Collection<String> fields, Pagination pagination) {
-        Class<?> dtoClass = dto.getClass();
-        // 转换
-        List<Field> declaredFields = BeanUtils.extractAllFields(dtoClass, true);
+    private static <DTO> LinkedHashMap<String, FieldAndValue> extractNotNullValues(DTO dto, QueryPlan queryPlan, Collection<String> fields, Pagination pagination) {
+        List<QueryPlan.FieldPlan> fieldPlans = queryPlan.getFieldPlans();
         List<String> extractOrderFieldNames = extractOrderFieldNames(pagination);
-        // 结果map：<字段名,字段对象和值>
-        LinkedHashMap<String, FieldAndValue> resultMap = new LinkedHashMap<>(declaredFields.size());
-        for (Field field : declaredFields) {
-            String fieldName = field.getName();
-            // 非指定属性，非逻辑删除字段，跳过；
-            if (V.notContains(fields, fieldName)) {
-                //Date 属性放过
-                if (!V.equals(field.getType(), Date.class) && !V.equals(field.getType(), LocalDate.class) && !V.equals(field.getType(), LocalDateTime.class)) {
-                    continue;
-                }
-            }
-            BindQuery bindQuery = field.getAnnotation(BindQuery.class);
-            // 忽略指定ignore的字段
-            if (bindQuery != null && bindQuery.ignore()) {
+        // 结果map：<字段名,字段查询计划和值>
+        LinkedHashMap<String, FieldAndValue> resultMap = new LinkedHashMap<>(fieldPlans.size());
+        for (QueryPlan.FieldPlan fieldPlan : fieldPlans) {
+            String fieldName = fieldPlan.getFieldName();
+            // 非指定属性，非逻辑删除字段，跳过；Date 属性放过
+            if (!fieldPlan.isDateType() && V.notContains(fields, fieldName)) {
                 continue;
             }
-            // 有默认值的boolean类型，提示
-            if (field.getType().getName().equals("boolean")) {
-                TableLogic tableLogic = field.getAnnotation(TableLogic.class);
-                // 非逻辑删除才提示
-                if (tableLogic == null) {
-                    TableField tableField = field.getAnnotation(TableField.class);
-                    if(tableField == null || tableField.exist()) {
-                        log.warn("{}.{} 字段类型为 boolean，其默认值将参与构建查询条件，可能导致结果与预期不符，建议调整为 Boolean 类型 或 指定 @BindQuery(ignore=true)", dtoClass.getSimpleName(), field.getName());
-                    }
-                }
-            }
-            Object value = null;
-            try {
-                String prefix = V.equals(boolean.class, field.getType()) ? "is" : "get";
-                Method method = dtoClass.getMethod(prefix + S.capFirst(fieldName));
-                value = method.invoke(dto);
-            } catch (IllegalAccessException e) {
-                log.error("通过反射获取属性值出错：{}", e.getMessage());
-            } catch (NoSuchMethodException e) {
-                log.debug("通过反射获取属性方法不存在：{}", e.getMessage());
-            } catch (InvocationTargetException e) {
-                log.warn("通过反射执行属性方法出错：{}", e.getMessage());
-            }
+            Object value = fieldPlan.getValue(dto);
             // 忽略逻辑删除字段，含有逻辑删除字段，并且值为false，则忽略
-            if (field.isAnnotationPresent(TableLogic.class) && V.equals(false, value)) {
+            if (fieldPlan.isTableLogic() && V.equals(false, value)) {
                 continue;
             }
-
-            Strategy strategy = bindQuery != null ? bindQuery.strategy() : Strategy.IGNORE_EMPTY;
+            Strategy strategy = fieldPlan.getStrategy();
             boolean collectThisField = false;
             // INCLUDE_NULL策略，包含null也收集
             if (strategy.equals(Strategy.INCLUDE_NULL)) {
@@ -358,26 +276,26 @@ public class QueryBuilder {
                 collectThisField = true;
             }
             if (collectThisField) {
-                resultMap.put(fieldName, new FieldAndValue(field, value));
+                resultMap.put(fieldName, new FieldAndValue(fieldPlan, value));
             }
         }
         return resultMap;
     }
 
     /**
-     * 保存字段Field对象和字段值
+     * 保存字段查询计划和字段值
      */
     private static class FieldAndValue {
-        private final Field field;
+        private final QueryPlan.FieldPlan fieldPlan;
         private final Object value;
 
-        public FieldAndValue(Field field, Object value) {
-            this.field = field;
+        public FieldAndValue(QueryPlan.FieldPlan fieldPlan, Object value) {
+            this.fieldPlan = fieldPlan;
             this.value = value;
         }
 
-        public Field getField() {
-            return field;
+        public QueryPlan.FieldPlan getFieldPlan() {
+            return fieldPlan;
         }
 
         public Object getValue() {
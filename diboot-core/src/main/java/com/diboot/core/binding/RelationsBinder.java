@@ -15,7 +15,14 @@
  */
 package com.diboot.core.binding;
 
+import com.diboot.core.binding.annotation.BindCount;
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindField;
+import com.diboot.core.binding.annotation.BindFieldList;
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
 import com.diboot.core.binding.binder.parallel.ParallelBindingManager;
+import com.diboot.core.binding.cache.RequestBindingCache;
 import com.diboot.core.binding.helper.DeepRelationsBinder;
 import com.diboot.core.binding.parser.BindAnnotationGroup;
 import com.diboot.core.binding.parser.FieldAnnotation;
@@ -33,7 +40,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * 关联关系绑定管理器
@@ -115,23 +121,43 @@ public class RelationsBinder {
         }
         RequestContextHolder.setRequestAttributes(RequestContextHolder.getRequestAttributes(), true);
         LocaleContextHolder.setLocaleContext(LocaleContextHolder.getLocaleContext(),true);
+        // 同一请求内的绑定及深度绑定共用已加载的关联Entity
+        RequestBindingCache bindingScope = RequestBindingCache.open();
+        try{
+            bind(voList, bindAnnotationGroup, enableDeepBind);
+        }
+        finally {
+            RequestBindingCache.close(bindingScope);
+        }
+    }
+
+    /**
+     * 执行VO集合的关联绑定
+     * @param voList
+     * @param bindAnnotationGroup
+     * @param enableDeepBind
+     */
+    private static <VO> void bind(List<VO> voList, BindAnnotationGroup bindAnnotationGroup, boolean enableDeepBind){
+        RequestBindingCache requestBindingCache = RequestBindingCache.current();
         ParallelBindingManager parallelBindingManager = ContextHolder.getBean(ParallelBindingManager.class);
         // 不可能出现的错误，但是编译器需要
         assert parallelBindingManager != null;
-        List<CompletableFuture<Boolean>> binderFutures = new ArrayList<>();
+        BindingExecutor bindingExecutor = ContextHolder.getBean(BindingExecutor.class);
+        List<BindingExecutor.BindingTask> bindingTasks = new ArrayList<>();
         // 绑定Field字段名
         Map<String, List<FieldAnnotation>> bindFieldGroupMap = bindAnnotationGroup.getBindFieldGroupMap();
         if(bindFieldGroupMap != null){
             for(Map.Entry<String, List<FieldAnnotation>> entry : bindFieldGroupMap.entrySet()){
-                CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingField(voList, entry.getValue());
-                binderFutures.add(bindFieldFuture);
+                bindingTasks.add(new BindingExecutor.BindingTask(BindField.class.getSimpleName(),
+                        () -> parallelBindingManager.bindField(voList, entry.getValue(), requestBindingCache)));
             }
         }
         // 绑定数据字典
         List<FieldAnnotation> dictAnnoList = bindAnnotationGroup.getBindDictAnnotations();
         if(dictAnnoList != null){
             if(bindAnnotationGroup.isRequireSequential()){
-                CompletableFuture.allOf(binderFutures.toArray(new CompletableFuture[0])).join();
+                executeBindings(bindingExecutor, bindingTasks);
+                bindingTasks.clear();
             }
             for(FieldAnnotation annotation : dictAnnoList){
                 parallelBindingManager.doBindingDict(voList, annotation);
@@ -143,8 +169,8 @@ public class RelationsBinder {
         if(entityAnnoList != null){
             for(FieldAnnotation anno : entityAnnoList){
                 // 绑定关联对象entity
-                CompletableFuture<Boolean> bindEntFuture = parallelBindingManager.doBindingEntity(voList, anno);
-                binderFutures.add(bindEntFuture);
+                bindingTasks.add(new BindingExecutor.BindingTask(BindEntity.class.getSimpleName(),
+                        () -> parallelBindingManager.bindEntity(voList, anno, requestBindingCache)));
             }
         }
         // 绑定Entity实体List
@@ -152,8 +178,8 @@ public class RelationsBinder {
         if(entitiesAnnoList != null){
             for(FieldAnnotation anno : entitiesAnnoList){
                 // 绑定关联对象entity
-                CompletableFuture<Boolean> bindEntFuture = parallelBindingManager.doBindingEntityList(voList, anno);
-                binderFutures.add(bindEntFuture);
+                bindingTasks.add(new BindingExecutor.BindingTask(BindEntityList.class.getSimpleName(),
+                        () -> parallelBindingManager.bindEntityList(voList, anno, requestBindingCache)));
             }
         }
         // 绑定Entity field List
@@ -161,8 +187,8 @@ public class RelationsBinder {
         if(bindFieldListGroupMap != null){
             // 解析条件并且执行绑定
             for(Map.Entry<String, List<FieldAnnotation>> entry : bindFieldListGroupMap.entrySet()){
-                CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingFieldList(voList, entry.getValue());
-                binderFutures.add(bindFieldFuture);
+                bindingTasks.add(new BindingExecutor.BindingTask(BindFieldList.class.getSimpleName(),
+                        () -> parallelBindingManager.bindFieldList(voList, entry.getValue(), requestBindingCache)));
             }
         }
         // 绑定count子项计数
@@ -170,8 +196,8 @@ public class RelationsBinder {
         if(countAnnoList != null){
             for(FieldAnnotation anno : countAnnoList){
                 // 绑定关联对象count计数
-                CompletableFuture<Boolean> bindCountFuture = parallelBindingManager.doBindingCount(voList, anno);
-                binderFutures.add(bindCountFuture);
+                bindingTasks.add(new BindingExecutor.BindingTask(BindCount.class.getSimpleName(),
+                        () -> parallelBindingManager.bindCount(voList, anno, requestBindingCache)));
             }
         }
         // 开启国际化
@@ -186,7 +212,7 @@ public class RelationsBinder {
             }
         }
         // 执行绑定
-        CompletableFuture.allOf(binderFutures.toArray(new CompletableFuture[0])).join();
+        executeBindings(bindingExecutor, bindingTasks);
         // 深度绑定
         if(enableDeepBind){
             List<FieldAnnotation> deepBindEntityAnnoList = bindAnnotationGroup.getDeepBindEntityAnnotations();
@@ -207,6 +233,21 @@ public class RelationsBinder {
         }
     }
 
+    /**
+     * 在绑定线程池中执行绑定任务，线程池不可用时依次执行
+     * @param bindingExecutor
+     * @param bindingTasks
+     */
+    private static void executeBindings(BindingExecutor bindingExecutor, List<BindingExecutor.BindingTask> bindingTasks){
+        if(bindingExecutor != null){
+            bindingExecutor.executeBindings(bindingTasks);
+            return;
+        }
+        for(BindingExecutor.BindingTask task : bindingTasks){
+            task.getRunnable().run();
+        }
+    }
+
     /**
      * 是否启用 i18n
      * @return
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 关联绑定结果缓存注解（标注于被关联的Entity类）
+ * <p>
+ * 适用于数据量小且极少变更的基础数据表（如部门、岗位、区域），关联绑定时按join列值跨请求缓存查询结果，
+ * 该Entity通过BaseService增删改时自动失效。
+ * 注意：缓存结果不区分当前用户（启用租户拦截器时按租户区分），有数据权限检查点的Entity在启用数据权限拦截器时不缓存；
+ * 缓存仅在当前节点失效，多节点部署时请设置较短的过期时间。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/4
+ * Copyright © diboot.com
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface BindingCache {
+
+    /**
+     * 缓存过期时间（分钟）
+     * @return
+     */
+    int expireMinutes() default 30;
+
+    /**
+     * 最大缓存key数量，超出时淘汰最久未访问的
+     * @return
+     */
+    int maxSize() default 10000;
+}
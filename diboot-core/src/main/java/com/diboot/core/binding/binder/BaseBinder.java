@@ -21,7 +21,11 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.annotation.Module;
 import com.diboot.core.binding.binder.remote.RemoteBindDTO;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BindingResultCache;
+import com.diboot.core.binding.cache.RequestBindingCache;
+import com.diboot.core.binding.helper.JoinKeyMap;
 import com.diboot.core.binding.helper.ResultAssembler;
+import com.diboot.core.binding.helper.SliceQueryExecutor;
 import com.diboot.core.binding.helper.WrapperHelper;
 import com.diboot.core.binding.parser.FieldComparison;
 import com.diboot.core.binding.parser.MiddleTable;
@@ -37,6 +41,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * 关系绑定Binder父类
@@ -105,6 +110,26 @@ public abstract class BaseBinder<T> {
      * 远程bind
      */
     protected RemoteBindDTO remoteBindDTO;
+    /**
+     * 超出分片大小的IN条件列（查询时分片执行）
+     */
+    protected String slicedInColumn;
+    /**
+     * 超出分片大小的IN条件值
+     */
+    protected List<?> slicedInValues;
+    /**
+     * 启用绑定缓存时的join列（查询时优先读取缓存）
+     */
+    protected String cachedInColumn;
+    /**
+     * 启用绑定缓存时的join列值
+     */
+    protected List<?> cachedInValues;
+    /**
+     * 请求范围的绑定Entity标识映射
+     */
+    protected RequestBindingCache requestBindingCache;
 
     /***
      * 构造方法
@@ -118,6 +143,7 @@ public abstract class BaseBinder<T> {
             this.annoObjPropInfo = BindingCacheManager.getPropInfoByClass(voList.get(0).getClass());
         }
         this.queryWrapper = new QueryWrapper<>();
+        this.requestBindingCache = RequestBindingCache.current();
         this.refObjPropInfo = BindingCacheManager.getPropInfoByClass(this.referencedEntityClass);
         Module moduleAnno = AnnotationUtils.findAnnotation(this.referencedEntityClass, Module.class);
         this.referencedService = getService(entityClass, moduleAnno);
@@ -287,6 +313,16 @@ public abstract class BaseBinder<T> {
         return this;
     }
 
+    /**
+     * 指定请求范围的绑定Entity标识映射（异步绑定时由调用线程传入）
+     * @param requestBindingCache
+     * @return
+     */
+    public BaseBinder<T> withRequestBindingCache(RequestBindingCache requestBindingCache){
+        this.requestBindingCache = requestBindingCache;
+        return this;
+    }
+
     /**
      * 返回MiddleTable
      * @return
@@ -319,7 +355,7 @@ public abstract class BaseBinder<T> {
                 String refObjJoinOnCol = refObjJoinCols.get(i);
                 Class<?> fieldType = refObjPropInfo.getFieldTypeByColumn(refObjJoinOnCol);
                 List<?> unpackAnnoObjectJoinOnList = ResultAssembler.unpackValueList(annoObjectJoinOnList, this.splitBy, fieldType);
-                queryWrapper.in(refObjJoinOnCol, unpackAnnoObjectJoinOnList);
+                appendInCondition(refObjJoinOnCol, unpackAnnoObjectJoinOnList);
                 if (remoteBindDTO != null) {
                     remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(unpackAnnoObjectJoinOnList);
                 }
@@ -327,6 +363,43 @@ public abstract class BaseBinder<T> {
         }
     }
 
+    /**
+     * 附加IN条件，值数量超出分片大小时延迟至查询时分片执行
+     * @param column
+     * @param values
+     */
+    protected void appendInCondition(String column, List<?> values) {
+        if(cachedInColumn == null && isBindingCacheable()) {
+            this.cachedInColumn = column;
+            this.cachedInValues = values;
+        }
+        else if(slicedInColumn == null && SliceQueryExecutor.needSlice(values)) {
+            this.slicedInColumn = column;
+            this.slicedInValues = values;
+        }
+        else {
+            queryWrapper.in(column, values);
+        }
+    }
+
+    /**
+     * 是否无join on查询条件
+     * @return
+     */
+    protected boolean isEmptyOfJoinOnCondition() {
+        return cachedInColumn == null && slicedInColumn == null && queryWrapper.isEmptyOfNormal();
+    }
+
+    /**
+     * 是否可使用绑定缓存：本地单列关联且无其他附加条件，且处于请求绑定范围内
+     * 或被关联Entity启用了{@link com.diboot.core.binding.annotation.BindingCache}
+     * @return
+     */
+    protected boolean isBindingCacheable() {
+        return V.isEmpty(this.module) && refObjJoinCols.size() == 1 && queryWrapper.isEmptyOfNormal()
+                && (requestBindingCache != null || BindingResultCache.isEnabled(referencedEntityClass));
+    }
+
     /**
      * 获取匹配的
      * @return
@@ -355,15 +428,119 @@ public abstract class BaseBinder<T> {
      * @return
      */
     protected List<T> getEntityList(Wrapper queryWrapper, boolean ignoreInterceptor) {
-        if(ignoreInterceptor) {
-            ThreadLocalHolder.setIgnoreInterceptor();
+        Function<Wrapper, List<T>> query = wrapper -> {
+            if(ignoreInterceptor) {
+                ThreadLocalHolder.setIgnoreInterceptor();
+            }
+            if(referencedService instanceof BaseService){
+                return ((BaseService)referencedService).getEntityList(wrapper);
+            }
+            else{
+                List<T> list = referencedService.list(wrapper);
+                return checkedList(list);
+            }
+        };
+        if(cachedInColumn != null && queryWrapper == this.queryWrapper){
+            String inColumn = cachedInColumn;
+            List<?> inValues = cachedInValues;
+            this.cachedInColumn = null;
+            this.cachedInValues = null;
+            String inField = toRefObjField(inColumn);
+            Function<T, Object> keyGetter = entity -> BeanUtils.getProperty(entity, inField);
+            // 跨请求缓存按join列值存储完整的entity，未命中的值查询全部列
+            boolean resultCacheEnabled = BindingResultCache.isEnabled(referencedEntityClass);
+            String sqlSelect = resultCacheEnabled? null : this.queryWrapper.getSqlSelect();
+            Function<List<?>, List<T>> dbQuery = missValues -> {
+                QueryWrapper<T> missWrapper = new QueryWrapper<>();
+                if(V.notEmpty(sqlSelect)){
+                    missWrapper.select(sqlSelect);
+                }
+                return executeInQuery(missWrapper, inColumn, missValues, query);
+            };
+            Function<List<?>, List<T>> loader = resultCacheEnabled?
+                    missValues -> BindingResultCache.getEntityList(referencedEntityClass, inColumn, missValues, dbQuery, keyGetter) : dbQuery;
+            List<T> entityList;
+            if(requestBindingCache != null){
+                // 查询列及拦截模式不同的结果不共用
+                String scopeKey = referencedEntityClass.getName() + ":" + (sqlSelect == null? "*" : sqlSelect) + ":" + ignoreInterceptor;
+                entityList = requestBindingCache.getEntityList(scopeKey, inColumn, inValues, loader, keyGetter);
+            }
+            else{
+                entityList = loader.apply(inValues);
+            }
+            if(V.notEmpty(this.orderBy)){
+                sortByOrderBy(entityList);
+            }
+            return entityList;
         }
-        if(referencedService instanceof BaseService){
-            return ((BaseService)referencedService).getEntityList(queryWrapper);
+        return executeSliceQuery(queryWrapper, query);
+    }
+
+    /**
+     * 执行查询，存在超出分片大小的IN条件时分片（并行）查询并合并结果
+     * @param queryWrapper
+     * @param query
+     * @return
+     */
+    protected <R> List<R> executeSliceQuery(Wrapper queryWrapper, Function<Wrapper, List<R>> query) {
+        if(slicedInColumn == null || queryWrapper != this.queryWrapper){
+            return query.apply(queryWrapper);
         }
-        else{
-            List<T> list = referencedService.list(queryWrapper);
-            return checkedList(list);
+        String inColumn = slicedInColumn;
+        List<?> inValues = slicedInValues;
+        this.slicedInColumn = null;
+        this.slicedInValues = null;
+        return executeInQuery(this.queryWrapper, inColumn, inValues, query);
+    }
+
+    /**
+     * 附加IN条件执行查询，超出分片大小时分片（并行）查询并合并结果
+     * @param baseWrapper 不含该IN条件的queryWrapper
+     * @param inColumn
+     * @param inValues
+     * @param query
+     * @return
+     */
+    protected <R> List<R> executeInQuery(QueryWrapper<T> baseWrapper, String inColumn, List<?> inValues, Function<Wrapper, List<R>> query) {
+        if(!SliceQueryExecutor.needSlice(inValues)){
+            baseWrapper.in(inColumn, inValues);
+            return query.apply(baseWrapper);
+        }
+        List<QueryWrapper<T>> sliceWrappers = new ArrayList<>();
+        try {
+            for(List<?> slice : SliceQueryExecutor.partition(inValues)){
+                QueryWrapper<T> sliceWrapper = baseWrapper.clone();
+                sliceWrapper.in(inColumn, slice);
+                sliceWrappers.add(sliceWrapper);
+            }
+        }
+        catch (Exception e){
+            log.warn("查询条件无法分片，将执行单次查询: {}", e.getMessage());
+            baseWrapper.in(inColumn, inValues);
+            return query.apply(baseWrapper);
+        }
+        List<List<R>> sliceResults = SliceQueryExecutor.execute(sliceWrappers, query::apply);
+        List<R> mergedList = new ArrayList<>();
+        for(List<R> sliceResult : sliceResults){
+            if(sliceResult != null){
+                mergedList.addAll(sliceResult);
+            }
+        }
+        // 分片结果合并后按orderBy重新排序
+        if(sliceWrappers.size() > 1 && V.notEmpty(this.orderBy)){
+            sortByOrderBy(mergedList);
+        }
+        return mergedList;
+    }
+
+    /**
+     * 按orderBy对合并后的结果排序
+     * @param list
+     */
+    protected <R> void sortByOrderBy(List<R> list){
+        Comparator<R> comparator = WrapperHelper.buildOrderByComparator(this.orderBy, this::toRefObjColumn, this::toRefObjField);
+        if(comparator != null){
+            list.sort(comparator);
         }
     }
 
@@ -374,13 +551,15 @@ public abstract class BaseBinder<T> {
      */
     @Deprecated
     protected List<Map<String, Object>> getMapList(Wrapper queryWrapper) {
-        if(referencedService instanceof BaseService){
-            return ((BaseService)referencedService).getMapList(queryWrapper);
-        }
-        else{
-            List<Map<String, Object>> list = referencedService.listMaps(queryWrapper);
-            return checkedList(list);
-        }
+        return executeSliceQuery(queryWrapper, wrapper -> {
+            if(referencedService instanceof BaseService){
+                return ((BaseService)referencedService).getMapList(wrapper);
+            }
+            else{
+                List<Map<String, Object>> list = referencedService.listMaps(wrapper);
+                return checkedList(list);
+            }
+        });
     }
 
     /**
@@ -393,6 +572,10 @@ public abstract class BaseBinder<T> {
         for(Map.Entry<String, String> entry : middleTable.getTrunkObjColMapping().entrySet()){
             String annoObjFld = toAnnoObjField(entry.getKey());
             List valueList = BeanUtils.collectToList(annoObjectList, annoObjFld);
+            // 保序去重，避免重复值进入IN条件
+            if(valueList.size() > 1){
+                valueList = new ArrayList<>(new LinkedHashSet<>(valueList));
+            }
             trunkObjCol2ValuesMap.put(entry.getValue(), valueList);
         }
         return trunkObjCol2ValuesMap;
@@ -414,18 +597,31 @@ public abstract class BaseBinder<T> {
      * @return
      */
     protected List extractIdValueFromMap(Map<String, List> middleTableResultMap) {
-        List entityIdList = new ArrayList();
-        for(Map.Entry<String, List> entry : middleTableResultMap.entrySet()){
-            if(V.isEmpty(entry.getValue())){
-                continue;
-            }
-            for(Object id : entry.getValue()){
-                if(!entityIdList.contains(id)){
-                    entityIdList.add(id);
-                }
+        Set<Object> entityIds = new LinkedHashSet<>();
+        for(List ids : middleTableResultMap.values()){
+            if(V.notEmpty(ids)){
+                entityIds.addAll(ids);
             }
         }
-        return entityIdList;
+        return new ArrayList<>(entityIds);
+    }
+
+    /**
+     * 从Map中提取ID的值，并按splitBy拆解（单次遍历保序去重）
+     * @param middleTableResultMap
+     * @param splitBy
+     * @param fieldType
+     * @return
+     */
+    protected List extractIdValueFromMap(Map<String, List> middleTableResultMap, String splitBy, Class<?> fieldType) {
+        if(V.isEmpty(splitBy)){
+            return extractIdValueFromMap(middleTableResultMap);
+        }
+        Set<Object> entityIds = new LinkedHashSet<>();
+        for(List ids : middleTableResultMap.values()){
+            ResultAssembler.unpackValues(ids, splitBy, fieldType, entityIds);
+        }
+        return new ArrayList<>(entityIds);
     }
 
     /**
@@ -440,6 +636,48 @@ public abstract class BaseBinder<T> {
         return fields;
     }
 
+    /**
+     * 被关联对象的列名转换为字段名
+     * @return
+     */
+    public String[] getRefObjJoinFlds(){
+        String[] fields = new String[refObjJoinCols.size()];
+        for(int i=0; i<refObjJoinCols.size(); i++){
+            fields[i] = toRefObjField(refObjJoinCols.get(i));
+        }
+        return fields;
+    }
+
+    /**
+     * 构建被关联对象join列的key匹配Map
+     * @param expectedSize
+     * @return
+     */
+    protected <V> JoinKeyMap<V> newJoinKeyMap(int expectedSize){
+        List<Class<?>> keyTypes = new ArrayList<>(refObjJoinCols.size());
+        for(String refObjJoinCol : refObjJoinCols){
+            keyTypes.add(refObjPropInfo.getFieldTypeByColumn(refObjJoinCol));
+        }
+        return new JoinKeyMap<>(keyTypes, expectedSize);
+    }
+
+    /**
+     * 提取对象join字段的值作为匹配key
+     * @param object
+     * @param fields
+     * @return 单个字段返回字段值，多个字段返回值数组
+     */
+    protected Object extractJoinKey(Object object, String[] fields){
+        if(fields.length == 1){
+            return BeanUtils.getProperty(object, fields[0]);
+        }
+        Object[] keyValues = new Object[fields.length];
+        for(int i=0; i<fields.length; i++){
+            keyValues[i] = BeanUtils.getProperty(object, fields[i]);
+        }
+        return keyValues;
+    }
+
     /**
      * 获取宿主对象的列名-字段名映射map
      * @return
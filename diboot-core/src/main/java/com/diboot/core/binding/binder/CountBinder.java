@@ -19,8 +19,8 @@ import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.diboot.core.binding.Binder;
 import com.diboot.core.binding.annotation.BindCount;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.helper.JoinKeyMap;
 import com.diboot.core.binding.helper.ResultAssembler;
-import com.diboot.core.config.Cons;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.service.BaseService;
 import com.diboot.core.util.MapUtils;
@@ -56,12 +56,11 @@ public class CountBinder<T> extends EntityListBinder<T> {
         if(V.isEmpty(refObjJoinCols)){
             throw new InvalidUsageException("exception.invalidUsage.binder.parseConditionFailed");
         }
-        Map<String, Long> valueListCountMap;
         if(middleTable == null){
             this.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isEmptyOfJoinOnCondition()) {
                 return;
             }
             queryWrapper.groupBy(refObjJoinCols);
@@ -76,7 +75,7 @@ public class CountBinder<T> extends EntityListBinder<T> {
                 countMapList = RemoteBindingManager.fetchMapList(module, remoteBindDTO);
             }
             if(V.notEmpty(countMapList)){
-                valueListCountMap = this.buildMatchKey2ListCountMap(countMapList);
+                JoinKeyMap<Long> valueListCountMap = this.buildMatchKey2ListCountMap(countMapList);
                 ResultAssembler.bindCountPropValue(annoObjectField, super.getMatchedAnnoObjectList(), getAnnoObjJoinFlds(), valueListCountMap);
             }
         }
@@ -90,7 +89,7 @@ public class CountBinder<T> extends EntityListBinder<T> {
             if(V.isEmpty(middleTableCountResultMap)){
                 return;
             }
-            valueListCountMap = new HashMap<>();
+            Map<String, Long> valueListCountMap = new HashMap<>();
             for(Map.Entry<String, Long> entry : middleTableCountResultMap.entrySet()){
                 // count <roleId>
                 Long count = entry.getValue();
@@ -104,6 +103,15 @@ public class CountBinder<T> extends EntityListBinder<T> {
         }
     }
 
+    /**
+     * count计数结果不使用绑定缓存
+     * @return
+     */
+    @Override
+    protected boolean isBindingCacheable() {
+        return false;
+    }
+
     /**
      * 简化select列，仅select主键
      */
@@ -124,12 +132,14 @@ public class CountBinder<T> extends EntityListBinder<T> {
      * @return
      */
     private List<Map<String, Object>> getCountMapList(Wrapper queryWrapper) {
-        if(referencedService instanceof BaseService){
-            return ((BaseService)referencedService).getMapList(queryWrapper);
-        }
-        else{
-            return referencedService.listMaps(queryWrapper);
-        }
+        return executeSliceQuery(queryWrapper, wrapper -> {
+            if(referencedService instanceof BaseService){
+                return ((BaseService)referencedService).getMapList(wrapper);
+            }
+            else{
+                return referencedService.listMaps(wrapper);
+            }
+        });
     }
 
     /**
@@ -137,28 +147,26 @@ public class CountBinder<T> extends EntityListBinder<T> {
      * @param mapCountList
      * @return
      */
-    private Map<String, Long> buildMatchKey2ListCountMap(List<Map<String, Object>> mapCountList){
-        Map<String, Long> key2TargetCountMap = new HashMap<>(mapCountList.size());
-        if(V.isEmpty(mapCountList)) {
-            return Collections.emptyMap();
-        }
-        StringBuilder sb = new StringBuilder();
+    private JoinKeyMap<Long> buildMatchKey2ListCountMap(List<Map<String, Object>> mapCountList){
+        JoinKeyMap<Long> key2TargetCountMap = newJoinKeyMap(mapCountList.size());
+        int colSize = refObjJoinCols.size();
         for(Map<String, Object> countMap : mapCountList) {
-            sb.setLength(0);
-            for(int i=0; i<refObjJoinCols.size(); i++) {
-                Object pkValue = MapUtils.getIgnoreCase(countMap, refObjJoinCols.get(i));
-                if(i > 0){
-                    sb.append(Cons.SEPARATOR_COMMA);
+            // 查找匹配Key
+            Object matchKey;
+            if(colSize == 1) {
+                matchKey = MapUtils.getIgnoreCase(countMap, refObjJoinCols.get(0));
+            }
+            else {
+                Object[] keyValues = new Object[colSize];
+                for(int i=0; i<colSize; i++) {
+                    keyValues[i] = MapUtils.getIgnoreCase(countMap, refObjJoinCols.get(i));
                 }
-                sb.append(pkValue);
+                matchKey = keyValues;
             }
-            // 查找匹配Key
-            String matchKey = sb.toString();
-            // 获取list
-            Long entityCount = (Long) MapUtils.getIgnoreCase(countMap, Binder.COUNT_COL);
-            key2TargetCountMap.put(matchKey, entityCount);
+            // 获取count
+            Object entityCount = MapUtils.getIgnoreCase(countMap, Binder.COUNT_COL);
+            key2TargetCountMap.put(matchKey, entityCount instanceof Number? ((Number)entityCount).longValue() : null);
         }
-        sb.setLength(0);
         return key2TargetCountMap;
     }
 
@@ -18,9 +18,9 @@ package com.diboot.core.binding.binder;
 import com.diboot.core.binding.annotation.BindEntity;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.helper.JoinKeyMap;
 import com.diboot.core.binding.helper.ResultAssembler;
 import com.diboot.core.binding.parser.PropInfo;
-import com.diboot.core.config.Cons;
 import com.diboot.core.data.copy.Accept;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.BeanUtils;
@@ -107,7 +107,7 @@ public class EntityBinder<T> extends BaseBinder<T> {
             // Department department;
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isEmptyOfJoinOnCondition()) {
                 return;
             }
             List<T> entityList;
@@ -121,7 +121,7 @@ public class EntityBinder<T> extends BaseBinder<T> {
                 entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
             }
             if(V.notEmpty(entityList)){
-                Map<String, Object> valueEntityMap = this.buildMatchKey2EntityMap(entityList);
+                JoinKeyMap<Object> valueEntityMap = this.buildMatchKey2EntityMap(entityList);
                 ResultAssembler.bindPropValue(annoObjectField, super.getMatchedAnnoObjectList(), getAnnoObjJoinFlds(), valueEntityMap, null);
             }
         }
@@ -140,14 +140,14 @@ public class EntityBinder<T> extends BaseBinder<T> {
             Map<String, Object> valueEntityMap = new HashMap<>();
             this.simplifySelectColumns();
             // 提取entity主键值集合
-            Collection refObjValues = middleTableResultMap.values().stream().distinct().collect(Collectors.toList());
+            List refObjValues = middleTableResultMap.values().stream().distinct().collect(Collectors.toList());
             // 构建查询条件
             String refObjJoinOnCol = refObjJoinCols.get(0);
             // 查询entity列表
             List<T> entityList;
             // 查询entity列表: List<T>
             if(V.isEmpty(this.module)){
-                queryWrapper.in(refObjJoinOnCol, refObjValues);
+                appendInCondition(refObjJoinOnCol, refObjValues);
                 // 本地查询获取匹配结果的entityList
                 entityList = getEntityList(queryWrapper);
             }
@@ -159,10 +159,9 @@ public class EntityBinder<T> extends BaseBinder<T> {
             if(V.isEmpty(entityList)){
                 return;
             }
-            String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
             // 转换entity列表为Map<ID, Entity>
-            Map<String, T> listMap = BeanUtils.convertToStringKeyObjectMap(entityList, refObjJoinOnField);
-            if(V.notEmpty(listMap)){
+            JoinKeyMap<T> listMap = this.buildMatchKey2EntityMap(entityList, false);
+            if(!listMap.isEmpty()){
                 //List<String> joinOnValues = new ArrayList<>(refObjJoinFlds.size());
                 for(Map.Entry<String, Object> entry : middleTableResultMap.entrySet()){
                     Object fetchValueId = entry.getValue();
@@ -170,7 +169,7 @@ public class EntityBinder<T> extends BaseBinder<T> {
                         continue;
                     }
                     String key = entry.getKey();
-                    T entity = listMap.get(String.valueOf(fetchValueId));
+                    T entity = listMap.get(fetchValueId);
                     valueEntityMap.put(key, cloneOrConvertBean(entity));
                 }
             }
@@ -184,28 +183,30 @@ public class EntityBinder<T> extends BaseBinder<T> {
      * @param list
      * @return
      */
-    private Map<String, Object> buildMatchKey2EntityMap(List<T> list){
-        Map<String, Object> key2TargetMap = new HashMap<>(list.size());
-        StringBuilder sb = new StringBuilder();
+    private JoinKeyMap<Object> buildMatchKey2EntityMap(List<T> list){
+        return buildMatchKey2EntityMap(list, true);
+    }
+
+    /**
+     * 构建匹配key-entity目标的map
+     * @param list
+     * @param convertBean 是否克隆/转换为目标对象
+     * @return
+     */
+    private <V> JoinKeyMap<V> buildMatchKey2EntityMap(List<T> list, boolean convertBean){
+        JoinKeyMap<V> key2TargetMap = newJoinKeyMap(list.size());
+        String[] refObjJoinFlds = getRefObjJoinFlds();
         for(T entity : list){
-            sb.setLength(0);
-            for(int i=0; i<refObjJoinCols.size(); i++){
-                String refObjJoinOnCol = refObjJoinCols.get(i);
-                String pkValue = BeanUtils.getStringProperty(entity, toRefObjField(refObjJoinOnCol));
-                if(i > 0){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(pkValue);
+            Object matchKey = extractJoinKey(entity, refObjJoinFlds);
+            if(matchKey == null){
+                continue;
             }
-            // 查找匹配Key
-            String matchKey = sb.toString();
             Object target = entity;
-            if(!(target instanceof Map)){
+            if(convertBean && !(target instanceof Map)){
                 target = cloneOrConvertBean(entity);
             }
-            key2TargetMap.put(matchKey, target);
+            key2TargetMap.put(matchKey, (V)target);
         }
-        sb.setLength(0);
         return key2TargetMap;
     }
 
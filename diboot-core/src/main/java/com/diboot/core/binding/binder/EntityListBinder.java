@@ -17,8 +17,8 @@ package com.diboot.core.binding.binder;
 
 import com.diboot.core.binding.annotation.BindEntityList;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.helper.JoinKeyMap;
 import com.diboot.core.binding.helper.ResultAssembler;
-import com.diboot.core.config.Cons;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.S;
@@ -69,12 +69,11 @@ public class EntityListBinder<T> extends EntityBinder<T> {
         if(V.isEmpty(refObjJoinCols)){
             throw new InvalidUsageException("exception.invalidUsage.binder.parseConditionFailed");
         }
-        Map<String, List> valueEntityListMap = new HashMap<>();
         if(middleTable == null){
             this.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isEmptyOfJoinOnCondition()) {
                 return;
             }
             //处理orderBy，附加排序
@@ -90,9 +89,9 @@ public class EntityListBinder<T> extends EntityBinder<T> {
                 entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
             }
             if(V.notEmpty(entityList)){
-                valueEntityListMap = this.buildMatchKey2EntityListMap(entityList);
+                JoinKeyMap<List> valueEntityListMap = this.buildMatchKey2EntityListMap(entityList);
+                ResultAssembler.bindPropValue(annoObjectField, super.getMatchedAnnoObjectList(), getAnnoObjJoinFlds(), valueEntityListMap, this.splitBy);
             }
-            ResultAssembler.bindPropValue(annoObjectField, super.getMatchedAnnoObjectList(), getAnnoObjJoinFlds(), valueEntityListMap, this.splitBy);
         }
         else{
             if(refObjJoinCols.size() > 1){
@@ -106,11 +105,8 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             }
             this.simplifySelectColumns();
             // 收集查询结果values集合
-            List entityIdList = extractIdValueFromMap(middleTableResultMap);
-            if(V.notEmpty(this.splitBy)){
-                Class<?> fieldType = refObjPropInfo.getFieldTypeByColumn(refObjJoinCols.get(0));
-                entityIdList = ResultAssembler.unpackValueList(entityIdList, this.splitBy, fieldType);
-            }
+            Class<?> fieldType = refObjPropInfo.getFieldTypeByColumn(refObjJoinCols.get(0));
+            List entityIdList = extractIdValueFromMap(middleTableResultMap, this.splitBy, fieldType);
             //处理orderBy，附加排序
             this.appendOrderBy(remoteBindDTO);
             // 构建查询条件
@@ -119,7 +115,7 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
-                queryWrapper.in(refObjJoinOnCol, entityIdList);
+                appendInCondition(refObjJoinOnCol, entityIdList);
                 entityList = getEntityList(queryWrapper);
             }
             else{
@@ -132,7 +128,14 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             }
             String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
             // 转换entity列表为Map<ID, Entity>
-            Map<String, List<T>> entityMap = BeanUtils.convertToStringKeyObjectListMap(entityList, refObjJoinOnField);
+            JoinKeyMap<List<T>> entityMap = newJoinKeyMap(entityList.size());
+            for(T entity : entityList){
+                Object key = BeanUtils.getProperty(entity, refObjJoinOnField);
+                if(key != null){
+                    entityMap.computeIfAbsent(key, ArrayList::new).add(entity);
+                }
+            }
+            Map<String, List> valueEntityListMap = new HashMap<>(middleTableResultMap.size());
             for(Map.Entry<String, List> entry : middleTableResultMap.entrySet()){
                 // List<roleId>
                 List annoObjFKList = entry.getValue();
@@ -147,7 +150,7 @@ public class EntityListBinder<T> extends EntityBinder<T> {
                     // 兼容JsonArray
                     if(obj instanceof Collection) {
                         for(Object key : (Collection)obj){
-                            List<T> ent = entityMap.get(S.valueOf(key));
+                            List<T> ent = entityMap.get(key);
                             if(ent != null){
                                 for (T item : ent) {
                                     valueList.add(cloneOrConvertBean(item));
@@ -156,15 +159,15 @@ public class EntityListBinder<T> extends EntityBinder<T> {
                         }
                     }
                     else {
-                        String valStr = S.clearNonConst(String.valueOf(obj));
-                        List<T> ent = entityMap.get(valStr);
+                        Object val = (obj instanceof String)? S.clearNonConst((String)obj) : obj;
+                        List<T> ent = entityMap.get(val);
                         if(ent != null){
                             for (T item : ent) {
                                 valueList.add(cloneOrConvertBean(item));
                             }
                         }
-                        else if(V.notEmpty(splitBy) && valStr.contains(splitBy)){
-                            for(String key : valStr.split(splitBy)){
+                        else if(V.notEmpty(splitBy) && val instanceof String && ((String)val).contains(splitBy)){
+                            for(String key : ((String)val).split(splitBy)){
                                 ent = entityMap.get(key);
                                 if(ent != null){
                                     for (T item : ent) {
@@ -187,34 +190,23 @@ public class EntityListBinder<T> extends EntityBinder<T> {
      * @param list
      * @return
      */
-    private Map<String, List> buildMatchKey2EntityListMap(List<T> list){
-        Map<String, List> key2TargetListMap = new HashMap<>(list.size());
-        StringBuilder sb = new StringBuilder();
+    private JoinKeyMap<List> buildMatchKey2EntityListMap(List<T> list){
+        JoinKeyMap<List> key2TargetListMap = newJoinKeyMap(list.size());
+        String[] refObjJoinFlds = getRefObjJoinFlds();
         for(T entity : list){
-            sb.setLength(0);
-            for(int i=0; i<refObjJoinCols.size(); i++){
-                String refObjJoinOnCol = refObjJoinCols.get(i);
-                String pkValue = BeanUtils.getStringProperty(entity, toRefObjField(refObjJoinOnCol));
-                if(i > 0){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(pkValue);
-            }
             // 查找匹配Key
-            String matchKey = sb.toString();
-            // 获取list
-            List entityList = key2TargetListMap.get(matchKey);
-            if(entityList == null){
-                entityList = new ArrayList<>();
-                key2TargetListMap.put(matchKey, entityList);
+            Object matchKey = extractJoinKey(entity, refObjJoinFlds);
+            if(matchKey == null){
+                continue;
             }
+            // 获取list
+            List entityList = key2TargetListMap.computeIfAbsent(matchKey, ArrayList::new);
             Object target = entity;
             if(!(target instanceof Map)){
                 target = cloneOrConvertBean(entity);
             }
             entityList.add(target);
         }
-        sb.setLength(0);
         return key2TargetListMap;
     }
 
@@ -17,12 +17,12 @@ package com.diboot.core.binding.binder;
 
 import com.diboot.core.binding.annotation.BindField;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.helper.JoinKeyMap;
 import com.diboot.core.config.Cons;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -108,7 +108,7 @@ public class FieldBinder<T> extends BaseBinder<T> {
             this.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isEmptyOfJoinOnCondition()) {
                 return;
             }
             List<T> entityList;
@@ -124,10 +124,11 @@ public class FieldBinder<T> extends BaseBinder<T> {
                 return;
             }
             // 将结果list转换成entityMap
-            Map<String, T> key2EntityMap = this.buildMatchKey2EntityMap(entityList);
+            JoinKeyMap<T> key2EntityMap = this.buildMatchKey2EntityMap(entityList);
             // 遍历list并赋值
+            String[] annoObjJoinFlds = getAnnoObjJoinFlds();
             for(Object annoObject : super.getMatchedAnnoObjectList()){
-                String matchKey = buildMatchKey(annoObject);
+                Object matchKey = extractJoinKey(annoObject, annoObjJoinFlds);
                 setFieldValueToTrunkObj(key2EntityMap, annoObject, matchKey);
             }
         }
@@ -143,14 +144,14 @@ public class FieldBinder<T> extends BaseBinder<T> {
                 return;
             }
             // 收集查询结果values集合
-            Collection refObjValues = middleTableResultMap.values().stream().distinct().collect(Collectors.toList());
+            List refObjValues = middleTableResultMap.values().stream().distinct().collect(Collectors.toList());
             this.simplifySelectColumns();
             // 构建查询条件
             String refObjJoinOnCol = refObjJoinCols.get(0);
             // 获取匹配结果的mapList
             List<T> entityList;
             if(V.isEmpty(this.module)){
-                queryWrapper.in(refObjJoinOnCol, refObjValues);
+                appendInCondition(refObjJoinOnCol, refObjValues);
                 // 本地查询获取匹配结果的entityList
                 entityList = getEntityList(queryWrapper, true);
             }
@@ -163,10 +164,10 @@ public class FieldBinder<T> extends BaseBinder<T> {
                 return;
             }
             // 将结果list转换成entityMap
-            Map<String, T> key2EntityMap = this.buildMatchKey2EntityMap(entityList);
+            JoinKeyMap<T> key2EntityMap = this.buildMatchKey2EntityMap(entityList);
             // 遍历list并赋值
             for(Object annoObject : super.getMatchedAnnoObjectList()){
-                String matchKey = buildMatchKey(annoObject, middleTableResultMap);
+                Object matchKey = buildMatchKey(annoObject, middleTableResultMap);
                 setFieldValueToTrunkObj(key2EntityMap, annoObject, matchKey);
             }
         }
@@ -179,13 +180,12 @@ public class FieldBinder<T> extends BaseBinder<T> {
      * @param annoObject
      * @param matchKey
      */
-    private void setFieldValueToTrunkObj(Map<String, T> key2EntityMap, Object annoObject, String matchKey) {
+    private void setFieldValueToTrunkObj(JoinKeyMap<T> key2EntityMap, Object annoObject, Object matchKey) {
         T relationEntity = key2EntityMap.get(matchKey);
         if (relationEntity != null) {
-            BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(annoObject);
             for (int i = 0; i < annoObjectSetterPropNameList.size(); i++) {
                 Object valObj = BeanUtils.getProperty(relationEntity, referencedGetterFieldNameList.get(i));
-                beanWrapper.setPropertyValue(annoObjectSetterPropNameList.get(i), valObj);
+                BeanUtils.setProperty(annoObject, annoObjectSetterPropNameList.get(i), valObj);
             }
         }
     }
@@ -195,15 +195,11 @@ public class FieldBinder<T> extends BaseBinder<T> {
      * @param entityList
      * @return
      */
-    protected Map<String, T> buildMatchKey2EntityMap(List<T> entityList){
-        Map<String, T> key2TargetMap = new HashMap<>(entityList.size());
+    protected JoinKeyMap<T> buildMatchKey2EntityMap(List<T> entityList){
+        JoinKeyMap<T> key2TargetMap = newJoinKeyMap(entityList.size());
+        String[] refObjJoinFlds = getRefObjJoinFlds();
         for(T entity : entityList){
-            List<String> joinOnValues = new ArrayList<>(refObjJoinCols.size());
-            for(String refObjJoinOnCol : refObjJoinCols){
-                Object valObj = BeanUtils.getProperty(entity, toRefObjField(refObjJoinOnCol));
-                joinOnValues.add(S.valueOf(valObj));
-            }
-            String matchKey = S.join(joinOnValues);
+            Object matchKey = extractJoinKey(entity, refObjJoinFlds);
             if(matchKey != null){
                 key2TargetMap.put(matchKey, entity);
             }
@@ -211,32 +207,13 @@ public class FieldBinder<T> extends BaseBinder<T> {
         return key2TargetMap;
     }
 
-    /**
-     * 构建匹配Key
-     * @param annoObject
-     * @return
-     */
-    private String buildMatchKey(Object annoObject){
-        StringBuilder sb = new StringBuilder();
-        for(int i=0; i<annoObjJoinCols.size(); i++){
-            String col = annoObjJoinCols.get(i);
-            // 将数子类型转换成字符串，以便解决类型不一致的问题
-            String val = BeanUtils.getStringProperty(annoObject, toAnnoObjField(col));
-            if(i > 0){
-                sb.append(Cons.SEPARATOR_COMMA);
-            }
-            sb.append(val);
-        }
-        return sb.toString();
-    }
-
     /**
      * 构建匹配Key
      * @param annoObject
      * @param middleTableResultMap
      * @return
      */
-    private String buildMatchKey(Object annoObject, Map<String, Object> middleTableResultMap){
+    private Object buildMatchKey(Object annoObject, Map<String, Object> middleTableResultMap){
         StringBuilder sb = new StringBuilder();
         boolean appendComma = false;
         for(Map.Entry<String, String> entry : middleTable.getTrunkObjColMapping().entrySet()){
@@ -254,8 +231,7 @@ public class FieldBinder<T> extends BaseBinder<T> {
         // 通过中间结果Map转换得到关联id
         if(V.notEmpty(middleTableResultMap)){
             if(middleTableResultMap.containsKey(matchKey)) {
-                Object value = middleTableResultMap.get(matchKey);
-                matchKey = S.valueOf(value);
+                return middleTableResultMap.get(matchKey);
             }
         }
         return matchKey;
@@ -17,6 +17,7 @@ package com.diboot.core.binding.binder;
 
 import com.diboot.core.binding.annotation.BindFieldList;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.helper.JoinKeyMap;
 import com.diboot.core.binding.helper.ResultAssembler;
 import com.diboot.core.config.Cons;
 import com.diboot.core.exception.InvalidUsageException;
@@ -24,7 +25,6 @@ import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.V;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -66,13 +66,12 @@ public class FieldListBinder<T> extends FieldBinder<T> {
         if(referencedGetterFieldNameList == null){
             throw new InvalidUsageException("exception.invalidUsage.binder.bindField.nonField");
         }
-        Map<String, List> valueEntityListMap = new HashMap<>();
         // 直接关联
         if(middleTable == null){
             super.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isEmptyOfJoinOnCondition()) {
                 return;
             }
             //处理orderBy，附加排序
@@ -88,11 +87,11 @@ public class FieldListBinder<T> extends FieldBinder<T> {
                 entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
             }
             if(V.notEmpty(entityList)){
-                valueEntityListMap = this.buildMatchKey2FieldListMap(entityList);
+                JoinKeyMap<List> valueEntityListMap = this.buildMatchKey2FieldListMap(entityList);
+                // 遍历list并赋值
+                ResultAssembler.bindFieldListPropValue(super.getMatchedAnnoObjectList(), getAnnoObjJoinFlds(), valueEntityListMap,
+                        annoObjectSetterPropNameList, referencedGetterFieldNameList, this.splitBy);
             }
-            // 遍历list并赋值
-            ResultAssembler.bindFieldListPropValue(super.getMatchedAnnoObjectList(), getAnnoObjJoinFlds(), valueEntityListMap,
-                    annoObjectSetterPropNameList, referencedGetterFieldNameList, this.splitBy);
         }
         // 通过中间表关联
         else{
@@ -110,18 +109,15 @@ public class FieldListBinder<T> extends FieldBinder<T> {
             //处理orderBy，附加排序
             this.appendOrderBy(remoteBindDTO);
             // 收集查询结果values集合
-            List entityIdList = extractIdValueFromMap(middleTableResultMap);
-            if(V.notEmpty(this.splitBy)){
-                Class<?> fieldType = refObjPropInfo.getFieldTypeByColumn(refObjJoinCols.get(0));
-                entityIdList = ResultAssembler.unpackValueList(entityIdList, this.splitBy, fieldType);
-            }
+            Class<?> fieldType = refObjPropInfo.getFieldTypeByColumn(refObjJoinCols.get(0));
+            List entityIdList = extractIdValueFromMap(middleTableResultMap, this.splitBy, fieldType);
             // 构建查询条件
             String refObjJoinOnCol = refObjJoinCols.get(0);
             List<T> entityList;
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
-                queryWrapper.in(refObjJoinOnCol, entityIdList);
+                appendInCondition(refObjJoinOnCol, entityIdList);
                 entityList = getEntityList(queryWrapper, true);
             }
             else{
@@ -134,7 +130,14 @@ public class FieldListBinder<T> extends FieldBinder<T> {
             }
             String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
             // 转换entity列表为Map<ID, Entity>
-            Map<String, List<T>> entityMap = BeanUtils.convertToStringKeyObjectListMap(entityList, refObjJoinOnField);
+            JoinKeyMap<List<T>> entityMap = newJoinKeyMap(entityList.size());
+            for(T entity : entityList){
+                Object key = BeanUtils.getProperty(entity, refObjJoinOnField);
+                if(key != null){
+                    entityMap.computeIfAbsent(key, ArrayList::new).add(entity);
+                }
+            }
+            Map<String, List> valueEntityListMap = new HashMap<>(middleTableResultMap.size());
             for(Map.Entry<String, List> entry : middleTableResultMap.entrySet()){
                 // List<roleId>
                 List annoObjFKList = entry.getValue();
@@ -143,13 +146,12 @@ public class FieldListBinder<T> extends FieldBinder<T> {
                 }
                 List valueList = new ArrayList();
                 for(Object obj : annoObjFKList){
-                    String valStr = String.valueOf(obj);
-                    List<T> ent = entityMap.get(valStr);
+                    List<T> ent = entityMap.get(obj);
                     if(ent != null){
                         valueList.addAll(ent);
                     }
-                    else if(V.notEmpty(splitBy) && valStr.contains(splitBy)){
-                        for(String key : valStr.split(splitBy)){
+                    else if(V.notEmpty(splitBy) && obj instanceof String && ((String)obj).contains(splitBy)){
+                        for(String key : ((String)obj).split(splitBy)){
                             ent = entityMap.get(key);
                             if(ent != null){
                                 valueList.addAll(ent);
@@ -195,10 +197,9 @@ public class FieldListBinder<T> extends FieldBinder<T> {
                 List entityList = valueMatchMap.get(sb.toString());
                 if(entityList != null){
                     // 赋值
-                    BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(object);
                     for(int i = 0; i< annoObjectSetterPropNameList.size(); i++){
                         List valObjList = BeanUtils.collectToList(entityList, referencedGetterFieldNameList.get(i));
-                        beanWrapper.setPropertyValue(annoObjectSetterPropNameList.get(i), valObjList);
+                        BeanUtils.setProperty(object, annoObjectSetterPropNameList.get(i), valObjList);
                     }
                 }
             }
@@ -213,29 +214,17 @@ public class FieldListBinder<T> extends FieldBinder<T> {
      * @param list
      * @return
      */
-    private Map<String, List> buildMatchKey2FieldListMap(List<T> list){
-        Map<String, List> key2TargetListMap = new HashMap<>(list.size());
-        StringBuilder sb = new StringBuilder();
+    private JoinKeyMap<List> buildMatchKey2FieldListMap(List<T> list){
+        JoinKeyMap<List> key2TargetListMap = newJoinKeyMap(list.size());
+        String[] refObjJoinFlds = getRefObjJoinFlds();
         for(T entity : list){
-            sb.setLength(0);
-            for(int i=0; i<refObjJoinCols.size(); i++){
-                String refObjJoinOnCol = refObjJoinCols.get(i);
-                String fldValue = BeanUtils.getStringProperty(entity, toRefObjField(refObjJoinOnCol));
-                if(i > 0){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(fldValue);
+            Object matchKey = extractJoinKey(entity, refObjJoinFlds);
+            if(matchKey == null){
+                continue;
             }
-            String matchKey = sb.toString();
             // 获取list
-            List entityList = key2TargetListMap.get(matchKey);
-            if(entityList == null){
-                entityList = new ArrayList<>();
-                key2TargetListMap.put(matchKey, entityList);
-            }
-            entityList.add(entity);
+            key2TargetListMap.computeIfAbsent(matchKey, ArrayList::new).add(entity);
         }
-        sb.setLength(0);
         return key2TargetListMap;
     }
 
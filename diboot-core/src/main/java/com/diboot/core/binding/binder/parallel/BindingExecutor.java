@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.binder.parallel;
+
+import com.diboot.core.config.BaseConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 关联绑定专用线程池
+ * <p>
+ * 支持两种模式（diboot.core.binding-executor.mode）：
+ * <ul>
+ *     <li>platform（默认）：有界线程池，队列满时由调用线程执行</li>
+ *     <li>virtual：JDK21+ 虚拟线程，低于JDK21时回退为platform</li>
+ * </ul>
+ * 每次绑定调用（一次bind，含深度绑定中的每层）的并发数受 diboot.core.binding-executor.max-concurrency-per-request 限制，
+ * 调用线程参与执行，不会因嵌套提交而死锁；该限制不按请求累计，同一请求中的多次/嵌套绑定各自计算，
+ * 线程池总量由线程池大小及队列容量限定，队列满时由调用线程执行。
+ * 未实现{@link Executor}接口，以免替代Spring Boot默认的applicationTaskExecutor。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/6
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Component(BindingExecutor.BEAN_NAME)
+@SuppressWarnings("unchecked")
+public class BindingExecutor implements DisposableBean {
+
+    /**
+     * bean名称
+     */
+    public static final String BEAN_NAME = "bindingExecutor";
+
+    private static final String CONFIG_PREFIX = "diboot.core.binding-executor.";
+
+    private static final String MODE_VIRTUAL = "virtual";
+
+    /**
+     * 实际执行的线程池
+     */
+    private volatile ExecutorService delegate;
+    /**
+     * 平台线程池（virtual模式时为null）
+     */
+    private ThreadPoolExecutor threadPoolExecutor;
+    /**
+     * 单次绑定调用的最大并发数（非整个请求的累计并发）
+     */
+    private int maxConcurrencyPerRequest;
+    /**
+     * 任务装饰器（如传递登录用户上下文）
+     */
+    private TaskDecorator taskDecorator;
+
+    private final AtomicInteger activeBinders = new AtomicInteger();
+    /**
+     * 绑定注解类型 - 耗时统计
+     */
+    private final Map<String, LatencyStat> bindType2LatencyMap = new ConcurrentHashMap<>();
+
+    /**
+     * 设置任务装饰器
+     * @param taskDecorator
+     */
+    public void setTaskDecorator(TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    /**
+     * 在绑定线程池中执行任务（传递调用线程的上下文）
+     * @param command
+     */
+    public void execute(Runnable command) {
+        getDelegate().execute(wrap(command));
+    }
+
+    /**
+     * 执行一组绑定任务，并发数不超过单次绑定的并发限制，全部完成后返回
+     * @param tasks
+     */
+    public void executeBindings(List<BindingTask> tasks) {
+        if(tasks == null || tasks.isEmpty()) {
+            return;
+        }
+        getDelegate();
+        int parallelism = Math.min(tasks.size(), maxConcurrencyPerRequest);
+        execute(this::execute, tasks, this::runBinding, parallelism);
+    }
+
+    /**
+     * 执行任务列表，返回与任务顺序一致的结果。
+     * 最多使用parallelism个worker领取任务，调用线程作为其中之一，线程池拒绝时由调用线程完成剩余任务。
+     * @param executor 线程池，为null时串行执行
+     * @param tasks
+     * @param executeFunc
+     * @param parallelism
+     * @return
+     */
+    public static <S, R> List<R> execute(Executor executor, List<S> tasks, Function<S, R> executeFunc, int parallelism) {
+        int taskCount = tasks.size();
+        parallelism = Math.min(taskCount, parallelism);
+        Object[] results = new Object[taskCount];
+        if(executor == null || parallelism <= 1) {
+            for(int i = 0; i < taskCount; i++) {
+                results[i] = executeFunc.apply(tasks.get(i));
+            }
+            return (List<R>) Arrays.asList(results);
+        }
+        AtomicInteger nextIndex = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(taskCount);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Runnable worker = () -> {
+            int index;
+            while((index = nextIndex.getAndIncrement()) < taskCount) {
+                try {
+                    if(error.get() == null) {
+                        results[index] = executeFunc.apply(tasks.get(index));
+                    }
+                }
+                catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+                finally {
+                    latch.countDown();
+                }
+            }
+        };
+        for(int i = 1; i < parallelism; i++) {
+            try {
+                executor.execute(worker);
+            }
+            catch (Exception e) {
+                // 线程池拒绝时由调用线程执行
+                log.debug("任务提交被拒绝，由当前线程执行: {}", e.getMessage());
+                break;
+            }
+        }
+        // 调用线程参与执行
+        worker.run();
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("并行任务执行被中断", e);
+        }
+        Throwable throwable = error.get();
+        if(throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if(throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if(throwable != null) {
+            throw new IllegalStateException(throwable);
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * 获取运行统计：模式、队列长度、活跃线程数、执行中的binder数、各注解类型的binder耗时
+     * @return
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>(8);
+        statistics.put("mode", threadPoolExecutor != null? "platform" : (delegate != null? MODE_VIRTUAL : "uninitialized"));
+        statistics.put("queueDepth", getQueueDepth());
+        statistics.put("activeThreads", threadPoolExecutor != null? threadPoolExecutor.getActiveCount() : 0);
+        statistics.put("activeBinders", getActiveBinders());
+        Map<String, Map<String, Long>> latencyMap = new TreeMap<>();
+        for(Map.Entry<String, LatencyStat> entry : bindType2LatencyMap.entrySet()) {
+            LatencyStat stat = entry.getValue();
+            Map<String, Long> latency = new LinkedHashMap<>(4);
+            long count = stat.count.sum();
+            latency.put("count", count);
+            latency.put("avgMillis", count > 0? stat.totalMillis.sum() / count : 0L);
+            latency.put("maxMillis", stat.maxMillis.get());
+            latencyMap.put(entry.getKey(), latency);
+        }
+        statistics.put("binderLatency", latencyMap);
+        return statistics;
+    }
+
+    /**
+     * 等待执行的任务数
+     * @return
+     */
+    public int getQueueDepth() {
+        return threadPoolExecutor != null? threadPoolExecutor.getQueue().size() : 0;
+    }
+
+    /**
+     * 执行中的binder数
+     * @return
+     */
+    public int getActiveBinders() {
+        return activeBinders.get();
+    }
+
+    @Override
+    public void destroy() {
+        if(delegate != null) {
+            delegate.shutdown();
+        }
+    }
+
+    /**
+     * 执行绑定任务并记录耗时
+     * @param task
+     * @return
+     */
+    private Object runBinding(BindingTask task) {
+        long beginTime = System.currentTimeMillis();
+        activeBinders.incrementAndGet();
+        try {
+            task.getRunnable().run();
+        }
+        finally {
+            activeBinders.decrementAndGet();
+            long takes = System.currentTimeMillis() - beginTime;
+            LatencyStat stat = bindType2LatencyMap.computeIfAbsent(task.getBindType(), k -> new LatencyStat());
+            stat.count.increment();
+            stat.totalMillis.add(takes);
+            stat.maxMillis.accumulateAndGet(takes, Math::max);
+        }
+        return null;
+    }
+
+    /**
+     * 传递调用线程的请求及语言上下文
+     * @param command
+     * @return
+     */
+    private Runnable wrap(Runnable command) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        Runnable runnable = () -> {
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            LocaleContext previousLocale = LocaleContextHolder.getLocaleContext();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            LocaleContextHolder.setLocaleContext(localeContext);
+            try {
+                command.run();
+            }
+            finally {
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+                LocaleContextHolder.setLocaleContext(previousLocale);
+            }
+        };
+        return taskDecorator != null? taskDecorator.decorate(runnable) : runnable;
+    }
+
+    /**
+     * 获取线程池（首次使用时按配置初始化）
+     * @return
+     */
+    private ExecutorService getDelegate() {
+        if(delegate == null) {
+            synchronized (this) {
+                if(delegate == null) {
+                    maxConcurrencyPerRequest = Math.max(1, BaseConfig.getInteger(CONFIG_PREFIX + "max-concurrency-per-request", 4));
+                    String mode = BaseConfig.getProperty(CONFIG_PREFIX + "mode", "platform");
+                    ExecutorService executorService = MODE_VIRTUAL.equalsIgnoreCase(mode)? createVirtualThreadExecutor() : null;
+                    if(executorService == null) {
+                        executorService = createThreadPoolExecutor();
+                    }
+                    delegate = executorService;
+                }
+            }
+        }
+        return delegate;
+    }
+
+    /**
+     * 创建有界平台线程池，队列满时由调用线程执行
+     * @return
+     */
+    private ExecutorService createThreadPoolExecutor() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int coreSize = Math.max(1, BaseConfig.getInteger(CONFIG_PREFIX + "core-size", Math.max(4, processors)));
+        int maxSize = Math.max(coreSize, BaseConfig.getInteger(CONFIG_PREFIX + "max-size", Math.max(8, processors * 4)));
+        int queueCapacity = Math.max(1, BaseConfig.getInteger(CONFIG_PREFIX + "queue-capacity", 500));
+        AtomicInteger threadIndex = new AtomicInteger();
+        threadPoolExecutor = new ThreadPoolExecutor(coreSize, maxSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "diboot-binding-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        log.info("初始化关联绑定线程池: core={}, max={}, queue={}, 单次绑定并发={}", coreSize, maxSize, queueCapacity, maxConcurrencyPerRequest);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * 创建虚拟线程池（JDK21+），不支持时返回null
+     * @return
+     */
+    private ExecutorService createVirtualThreadExecutor() {
+        if(Runtime.version().feature() < 21) {
+            log.warn("当前JDK {} 不支持虚拟线程，关联绑定使用平台线程池", Runtime.version().feature());
+            return null;
+        }
+        try {
+            ExecutorService executorService = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("初始化关联绑定虚拟线程池: 单次绑定并发={}", maxConcurrencyPerRequest);
+            return executorService;
+        }
+        catch (Exception e) {
+            log.warn("虚拟线程池初始化失败，关联绑定使用平台线程池: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 绑定任务
+     */
+    public static final class BindingTask {
+        /**
+         * 绑定注解类型
+         */
+        private final String bindType;
+        private final Runnable runnable;
+
+        public BindingTask(String bindType, Runnable runnable) {
+            this.bindType = bindType;
+            this.runnable = runnable;
+        }
+
+        public String getBindType() {
+            return bindType;
+        }
+
+        public Runnable getRunnable() {
+            return runnable;
+        }
+    }
+
+    /**
+     * 耗时统计
+     */
+    private static final class LatencyStat {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+    }
+
+}
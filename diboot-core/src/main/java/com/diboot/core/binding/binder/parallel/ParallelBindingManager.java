@@ -17,6 +17,7 @@ package com.diboot.core.binding.binder.parallel;
 
 import com.diboot.core.binding.annotation.*;
 import com.diboot.core.binding.binder.*;
+import com.diboot.core.binding.cache.RequestBindingCache;
 import com.diboot.core.binding.parser.ConditionManager;
 import com.diboot.core.binding.parser.FieldAnnotation;
 import com.diboot.core.service.DictionaryServiceExtProvider;
@@ -77,6 +78,17 @@ public class ParallelBindingManager {
      */
     @Async
     public CompletableFuture<Boolean> doBindingField(List voList, List<FieldAnnotation> fieldAnnotations){
+        bindField(voList, fieldAnnotations, null);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /***
+     * 绑定Field
+     * @param voList
+     * @param fieldAnnotations
+     * @param requestBindingCache 请求范围的绑定Entity标识映射
+     */
+    public void bindField(List voList, List<FieldAnnotation> fieldAnnotations, RequestBindingCache requestBindingCache){
         BindField bindAnnotation = (BindField) fieldAnnotations.get(0).getAnnotation();
         FieldBinder binder = new FieldBinder(bindAnnotation, voList);
         for(FieldAnnotation anno : fieldAnnotations){
@@ -84,7 +96,7 @@ public class ParallelBindingManager {
             binder.link(bindField.field(), anno.getFieldName());
         }
         // 解析条件并且执行绑定
-        return doBinding(binder, bindAnnotation.condition());
+        doBinding(binder, bindAnnotation.condition(), requestBindingCache);
     }
 
     /***
@@ -94,6 +106,17 @@ public class ParallelBindingManager {
      */
     @Async
     public CompletableFuture<Boolean> doBindingFieldList(List voList, List<FieldAnnotation> fieldAnnotations){
+        bindFieldList(voList, fieldAnnotations, null);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /***
+     * 绑定FieldList
+     * @param voList
+     * @param fieldAnnotations
+     * @param requestBindingCache 请求范围的绑定Entity标识映射
+     */
+    public void bindFieldList(List voList, List<FieldAnnotation> fieldAnnotations, RequestBindingCache requestBindingCache){
         BindFieldList bindAnnotation = (BindFieldList) fieldAnnotations.get(0).getAnnotation();
         FieldListBinder binder = new FieldListBinder(bindAnnotation, voList);
         for(FieldAnnotation anno : fieldAnnotations){
@@ -101,7 +124,7 @@ public class ParallelBindingManager {
             binder.link(bindField.field(), anno.getFieldName());
         }
         // 解析条件并且执行绑定
-        return doBinding(binder, bindAnnotation.condition());
+        doBinding(binder, bindAnnotation.condition(), requestBindingCache);
     }
 
     /***
@@ -111,13 +134,24 @@ public class ParallelBindingManager {
      */
     @Async
     public CompletableFuture<Boolean> doBindingEntity(List voList, FieldAnnotation fieldAnnotation) {
+        bindEntity(voList, fieldAnnotation, null);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /***
+     * 绑定Entity
+     * @param voList
+     * @param fieldAnnotation
+     * @param requestBindingCache 请求范围的绑定Entity标识映射
+     */
+    public void bindEntity(List voList, FieldAnnotation fieldAnnotation, RequestBindingCache requestBindingCache) {
         BindEntity annotation = (BindEntity) fieldAnnotation.getAnnotation();
         // 绑定关联对象entity
         EntityBinder binder = new EntityBinder(annotation, voList);
         // 构建binder
         binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
         // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        doBinding(binder, annotation.condition(), requestBindingCache);
     }
 
     /***
@@ -127,12 +161,23 @@ public class ParallelBindingManager {
      */
     @Async
     public CompletableFuture<Boolean> doBindingEntityList(List voList, FieldAnnotation fieldAnnotation) {
+        bindEntityList(voList, fieldAnnotation, null);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /***
+     * 绑定EntityList
+     * @param voList
+     * @param fieldAnnotation
+     * @param requestBindingCache 请求范围的绑定Entity标识映射
+     */
+    public void bindEntityList(List voList, FieldAnnotation fieldAnnotation, RequestBindingCache requestBindingCache) {
         BindEntityList annotation = (BindEntityList) fieldAnnotation.getAnnotation();
         // 构建binder
         EntityListBinder binder = new EntityListBinder(annotation, voList);
         binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
         // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        doBinding(binder, annotation.condition(), requestBindingCache);
     }
 
     /***
@@ -142,13 +187,24 @@ public class ParallelBindingManager {
      */
     @Async
     public CompletableFuture<Boolean> doBindingCount(List voList, FieldAnnotation fieldAnnotation) {
+        bindCount(voList, fieldAnnotation, null);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /***
+     * 绑定count计数
+     * @param voList
+     * @param fieldAnnotation
+     * @param requestBindingCache 请求范围的绑定Entity标识映射
+     */
+    public void bindCount(List voList, FieldAnnotation fieldAnnotation, RequestBindingCache requestBindingCache) {
         BindCount annotation = (BindCount) fieldAnnotation.getAnnotation();
         // 绑定关联对象entity
         CountBinder binder = new CountBinder(annotation, voList);
         // 构建binder
         binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
         // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        doBinding(binder, annotation.condition(), requestBindingCache);
     }
 
     /**
@@ -172,11 +228,13 @@ public class ParallelBindingManager {
      * 绑定表关联数据
      * @param binder
      * @param condition
-     * @return
+     * @param requestBindingCache
      */
-    private CompletableFuture<Boolean> doBinding(BaseBinder binder, String condition){
+    private void doBinding(BaseBinder binder, String condition, RequestBindingCache requestBindingCache){
+        if(requestBindingCache != null){
+            binder.withRequestBindingCache(requestBindingCache);
+        }
         ConditionManager.parseConditions(condition, binder);
         binder.bind();
-        return CompletableFuture.completedFuture(true);
     }
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.helper.SliceQueryExecutor;
 import com.diboot.core.binding.helper.WrapperHelper;
 import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.config.BaseConfig;
@@ -26,14 +27,13 @@ import com.diboot.core.service.BaseService;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.JSON;
+import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.JsonResult;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * 远程绑定查询执行器
@@ -71,7 +71,7 @@ public class RemoteBindQueryExecutor {
         String refJoinCol = remoteBindDTO.getRefJoinCol();
         PropInfo propInfo = BindingCacheManager.getPropInfoByClass(entityClass);
         Class idFieldType = propInfo.getFieldTypeByColumn(refJoinCol);
-        Collection<?> formatInValues = BeanUtils.convertIdValuesToType(inConditionValues, idFieldType);
+        List<?> formatInValues = new ArrayList<>(BeanUtils.convertIdValuesToType(inConditionValues, idFieldType));
         // 构建queryWrapper
         QueryWrapper<?> queryWrapper = new QueryWrapper<>();
         queryWrapper.setEntityClass(entityClass);
@@ -79,7 +79,6 @@ public class RemoteBindQueryExecutor {
             queryWrapper.select(remoteBindDTO.getSelectColumns());
         }
         // 构建查询条件
-        queryWrapper.in(refJoinCol, formatInValues);
         queryWrapper.and(V.notEmpty(remoteBindDTO.getAdditionalConditions()), e -> remoteBindDTO.getAdditionalConditions().forEach(e::apply));
         // 排序
         WrapperHelper.buildOrderBy(queryWrapper, remoteBindDTO.getOrderBy(), e -> e);
@@ -87,11 +86,13 @@ public class RemoteBindQueryExecutor {
         try{
             String jsonStr = null;
             if("Map".equals(remoteBindDTO.getResultType())){
-                List<Map<String, Object>> resultMap = getMapList(entityClass, queryWrapper);
+                List<Map<String, Object>> resultMap = executeSliceQuery(queryWrapper, refJoinCol, formatInValues, remoteBindDTO.getOrderBy(), propInfo,
+                        wrapper -> getMapList(entityClass, wrapper));
                 jsonStr = JSON.stringify(resultMap);
             }
             else if("Entity".equals(remoteBindDTO.getResultType())){
-                List<?> resultList = getEntityList(entityClass, queryWrapper);
+                List<?> resultList = executeSliceQuery(queryWrapper, refJoinCol, formatInValues, remoteBindDTO.getOrderBy(), propInfo,
+                        wrapper -> getEntityList(entityClass, wrapper));
                 jsonStr = JSON.stringify(resultList);
             }
             return JsonResult.OK(jsonStr);
@@ -102,6 +103,53 @@ public class RemoteBindQueryExecutor {
         }
     }
 
+    /**
+     * 执行查询，IN条件值超出分片大小时分片（并行）查询并合并结果
+     * @param queryWrapper 不含IN条件的queryWrapper
+     * @param inColumn
+     * @param inValues
+     * @param orderBy
+     * @param propInfo
+     * @param query
+     * @return
+     */
+    private static <R> List<R> executeSliceQuery(QueryWrapper<?> queryWrapper, String inColumn, List<?> inValues, String orderBy, PropInfo propInfo,
+                                                 Function<Wrapper, List<R>> query) {
+        if(!SliceQueryExecutor.needSlice(inValues)){
+            queryWrapper.in(inColumn, inValues);
+            return query.apply(queryWrapper);
+        }
+        List<QueryWrapper<?>> sliceWrappers = new ArrayList<>();
+        try {
+            for(List<?> slice : SliceQueryExecutor.partition(inValues)){
+                QueryWrapper<?> sliceWrapper = queryWrapper.clone();
+                sliceWrapper.in(inColumn, slice);
+                sliceWrappers.add(sliceWrapper);
+            }
+        }
+        catch (Exception e){
+            log.warn("查询条件无法分片，将执行单次查询: {}", e.getMessage());
+            queryWrapper.in(inColumn, inValues);
+            return query.apply(queryWrapper);
+        }
+        List<List<R>> sliceResults = SliceQueryExecutor.execute(sliceWrappers, query::apply);
+        List<R> mergedList = new ArrayList<>();
+        for(List<R> sliceResult : sliceResults){
+            if(sliceResult != null){
+                mergedList.addAll(sliceResult);
+            }
+        }
+        // 分片结果合并后按orderBy重新排序
+        Comparator<R> comparator = WrapperHelper.buildOrderByComparator(orderBy, e -> e, column -> {
+            String field = propInfo.getFieldByColumn(column);
+            return field != null? field : S.toLowerCaseCamel(column);
+        });
+        if(comparator != null){
+            mergedList.sort(comparator);
+        }
+        return mergedList;
+    }
+
     /**
      * 获取Map结果
      * @param queryWrapper
@@ -19,7 +19,10 @@ package com.diboot.core.binding.cache;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.parser.EntityInfoCache;
+import com.diboot.core.binding.parser.EntityRowMapper;
+import com.diboot.core.binding.parser.PropAccessor;
 import com.diboot.core.binding.parser.PropInfo;
+import com.diboot.core.binding.parser.QueryPlan;
 import com.diboot.core.cache.StaticMemoryCacheManager;
 import com.diboot.core.config.Cons;
 import com.diboot.core.util.BeanUtils;
@@ -71,6 +74,18 @@ public class BindingCacheManager {
      * 类- name-field Map缓存
      */
     private static final String CACHE_NAME_CLASS_NAME2FLDMAP = "CLASS_NAME2FLDMAP";
+    /**
+     * 类-属性访问器缓存
+     */
+    private static final String CACHE_NAME_CLASS_ACCESSOR = "CLASS_ACCESSOR";
+    /**
+     * DTO类-查询计划缓存
+     */
+    private static final String CACHE_NAME_CLASS_QUERY_PLAN = "CLASS_QUERY_PLAN";
+    /**
+     * 实体类-查询结果行映射器缓存
+     */
+    private static final String CACHE_NAME_CLASS_ROW_MAPPER = "CLASS_ROW_MAPPER";
 
     /**
      * CacheManager 初始化器
@@ -82,7 +97,10 @@ public class BindingCacheManager {
                     CACHE_NAME_CLASS_PROP,
                     CACHE_NAME_ENTITYNAME_CLASS,
                     CACHE_NAME_CLASS_FIELDS,
-                    CACHE_NAME_CLASS_NAME2FLDMAP)
+                    CACHE_NAME_CLASS_NAME2FLDMAP,
+                    CACHE_NAME_CLASS_ACCESSOR,
+                    CACHE_NAME_CLASS_QUERY_PLAN,
+                    CACHE_NAME_CLASS_ROW_MAPPER)
     );
 
     private static StaticMemoryCacheManager getCacheManager() {
@@ -118,6 +136,33 @@ public class BindingCacheManager {
         return getCacheManager().getCacheObj(CACHE_NAME_CLASS_PROP, beanClazz.getName(), () -> new PropInfo(beanClazz));
     }
 
+    /**
+     * 根据bean类获取属性访问器cache
+     * @param beanClazz
+     * @return
+     */
+    public static PropAccessor getPropAccessorByClass(Class<?> beanClazz) {
+        return getCacheManager().getCacheObj(CACHE_NAME_CLASS_ACCESSOR, beanClazz, () -> new PropAccessor(beanClazz));
+    }
+
+    /**
+     * 根据DTO类获取查询计划cache
+     * @param dtoClazz
+     * @return
+     */
+    public static QueryPlan getQueryPlanByClass(Class<?> dtoClazz) {
+        return getCacheManager().getCacheObj(CACHE_NAME_CLASS_QUERY_PLAN, dtoClazz, () -> new QueryPlan(dtoClazz));
+    }
+
+    /**
+     * 根据实体类获取查询结果行映射器cache
+     * @param entityClazz
+     * @return
+     */
+    public static <T> EntityRowMapper<T> getRowMapperByClass(Class<T> entityClazz) {
+        return getCacheManager().getCacheObj(CACHE_NAME_CLASS_ROW_MAPPER, entityClazz, () -> new EntityRowMapper<>(entityClazz));
+    }
+
     /**
      * 根据tableName获取bean信息cache
      * @param tableName
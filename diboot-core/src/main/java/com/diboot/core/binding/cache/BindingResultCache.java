@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.cache;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import com.diboot.core.binding.annotation.BindingCache;
+import com.diboot.core.data.access.DataAccessAnnoCache;
+import com.diboot.core.util.ContextHolder;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.expression.Expression;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 关联绑定结果的跨请求缓存（仅对标注了{@link BindingCache}的Entity生效）
+ * <p>
+ * 按 join列+值 缓存被关联Entity列表，TTL过期、超出容量时淘汰最久未访问的，仅未命中的值查询数据库。
+ * 无结果的值不缓存；启用租户拦截器时缓存key包含当前租户id；有数据权限检查点且启用数据权限拦截器的Entity不缓存。
+ * 缓存为本地内存缓存，仅在当前节点增删改时失效，多节点部署时其他节点的缓存在TTL过期后才会更新。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/4
+ * Copyright © diboot.com
+ */
+@Slf4j
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class BindingResultCache {
+
+    /**
+     * 未启用缓存的标记
+     */
+    private static final EntityCache DISABLED = new EntityCache(0, 0, null);
+
+    /**
+     * 缓存key中列名与值的分隔符
+     */
+    private static final String KEY_SEPARATOR = "\u0001";
+
+    /**
+     * Entity类-缓存
+     */
+    private static final Map<Class<?>, EntityCache> ENTITY_CACHE_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * Entity是否启用了绑定缓存
+     * @param entityClass
+     * @return
+     */
+    public static boolean isEnabled(Class<?> entityClass) {
+        return getEntityCache(entityClass) != DISABLED;
+    }
+
+    /**
+     * 按join列值获取Entity列表，未命中的值通过missQuery查询并缓存
+     * @param entityClass Entity类
+     * @param column join列
+     * @param values join列值
+     * @param missQuery 未命中值的查询
+     * @param keyGetter 获取Entity的join列值
+     * @return
+     */
+    public static <T> List<T> getEntityList(Class<T> entityClass, String column, List<?> values,
+                                            Function<List<?>, List<T>> missQuery, Function<T, Object> keyGetter) {
+        EntityCache cache = getEntityCache(entityClass);
+        if(cache == DISABLED) {
+            return missQuery.apply(values);
+        }
+        long epoch = cache.epoch.get();
+        // 按租户隔离
+        if(cache.tenantLineHandler != null) {
+            Expression tenantId = cache.tenantLineHandler.getTenantId();
+            column = (tenantId != null? tenantId.toString() : "") + KEY_SEPARATOR + column;
+        }
+        return loadByJoinValues(column, values, key -> (List<T>) cache.get(key), missQuery, keyGetter,
+                key2EntityListMap -> cache.putAll(key2EntityListMap, epoch), cache.hits, cache.misses);
+    }
+
+    /**
+     * 按join列值从缓存加载Entity列表，未命中的值通过missQuery查询后写入缓存
+     * @param column join列
+     * @param values join列值
+     * @param cacheGetter 缓存读取
+     * @param missQuery 未命中值的查询
+     * @param keyGetter 获取Entity的join列值
+     * @param cachePutter 缓存写入（无结果的值写入空列表）
+     * @param hits 命中计数器
+     * @param misses 未命中计数器
+     * @return
+     */
+    static <T> List<T> loadByJoinValues(String column, List<?> values, Function<String, List<T>> cacheGetter,
+                                        Function<List<?>, List<T>> missQuery, Function<T, Object> keyGetter,
+                                        Consumer<Map<String, List<T>>> cachePutter, LongAdder hits, LongAdder misses) {
+        String keyPrefix = column + KEY_SEPARATOR;
+        List<T> entityList = new ArrayList<>();
+        List<Object> missValues = new ArrayList<>();
+        for(Object value : values) {
+            List<T> cachedList = cacheGetter.apply(keyPrefix + S.valueOf(value));
+            if(cachedList != null) {
+                entityList.addAll(cachedList);
+            }
+            else {
+                missValues.add(value);
+            }
+        }
+        hits.add(values.size() - missValues.size());
+        misses.add(missValues.size());
+        if(missValues.isEmpty()) {
+            return entityList;
+        }
+        List<T> missEntityList = missQuery.apply(missValues);
+        // 按join列值分组后缓存，无结果的值缓存空列表
+        Map<String, List<T>> key2EntityListMap = new LinkedHashMap<>(missValues.size() * 4 / 3 + 1);
+        for(Object value : missValues) {
+            key2EntityListMap.put(keyPrefix + S.valueOf(value), new ArrayList<>(1));
+        }
+        if(V.notEmpty(missEntityList)) {
+            for(T entity : missEntityList) {
+                Object key = keyGetter.apply(entity);
+                List<T> list = key2EntityListMap.get(keyPrefix + S.valueOf(key));
+                if(list != null) {
+                    list.add(entity);
+                }
+            }
+            entityList.addAll(missEntityList);
+        }
+        cachePutter.accept(key2EntityListMap);
+        return entityList;
+    }
+
+    /**
+     * 清空Entity的绑定缓存（含当前请求范围内已加载的），存在事务时在提交后再次清空以避免并发读入旧数据
+     * @param entityClass
+     */
+    public static void evict(Class<?> entityClass) {
+        RequestBindingCache.evict(entityClass);
+        EntityCache cache = getEntityCache(entityClass);
+        if(cache == DISABLED) {
+            return;
+        }
+        cache.clear();
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.clear();
+                }
+            });
+        }
+        log.debug("已清空 {} 的关联绑定缓存", entityClass.getSimpleName());
+    }
+
+    /**
+     * 获取命中次数
+     * @param entityClass
+     * @return
+     */
+    public static long getHitCount(Class<?> entityClass) {
+        return getEntityCache(entityClass).hits.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     * @param entityClass
+     * @return
+     */
+    public static long getMissCount(Class<?> entityClass) {
+        return getEntityCache(entityClass).misses.sum();
+    }
+
+    /**
+     * 获取各Entity的缓存统计：hits、misses、size
+     * @return
+     */
+    public static Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new TreeMap<>();
+        for(Map.Entry<Class<?>, EntityCache> entry : ENTITY_CACHE_MAP.entrySet()) {
+            EntityCache cache = entry.getValue();
+            if(cache == DISABLED) {
+                continue;
+            }
+            Map<String, Long> stat = new LinkedHashMap<>(4);
+            stat.put("hits", cache.hits.sum());
+            stat.put("misses", cache.misses.sum());
+            stat.put("size", (long) cache.size());
+            statistics.put(entry.getKey().getName(), stat);
+        }
+        return statistics;
+    }
+
+    /**
+     * 获取Entity的缓存
+     * @param entityClass
+     * @return
+     */
+    private static EntityCache getEntityCache(Class<?> entityClass) {
+        return ENTITY_CACHE_MAP.computeIfAbsent(entityClass, clazz -> {
+            BindingCache anno = AnnotationUtils.findAnnotation(clazz, BindingCache.class);
+            if(anno == null || anno.maxSize() <= 0 || anno.expireMinutes() <= 0) {
+                return DISABLED;
+            }
+            List<InnerInterceptor> innerInterceptors = ContextHolder.getInnerInterceptors();
+            TenantLineHandler tenantLineHandler = null;
+            for(InnerInterceptor innerInterceptor : innerInterceptors) {
+                // 查询结果随当前用户的数据范围变化，不缓存
+                if(innerInterceptor instanceof DataPermissionInterceptor && DataAccessAnnoCache.hasDataAccessCheckpoint(clazz)) {
+                    log.warn("{} 有数据权限检查点，忽略@BindingCache", clazz.getSimpleName());
+                    return DISABLED;
+                }
+                if(innerInterceptor instanceof TenantLineInnerInterceptor) {
+                    TenantLineHandler handler = ((TenantLineInnerInterceptor) innerInterceptor).getTenantLineHandler();
+                    TableInfo tableInfo = TableInfoHelper.getTableInfo(clazz);
+                    if(handler != null && (tableInfo == null || !handler.ignoreTable(tableInfo.getTableName()))) {
+                        tenantLineHandler = handler;
+                    }
+                }
+            }
+            return new EntityCache(anno.expireMinutes() * 60000L, anno.maxSize(), tenantLineHandler);
+        });
+    }
+
+    /**
+     * 单个Entity的LRU缓存
+     */
+    private static final class EntityCache {
+        private final long ttlMillis;
+        /**
+         * 租户处理器，非null时缓存key包含当前租户id
+         */
+        private final TenantLineHandler tenantLineHandler;
+        private final LinkedHashMap<String, CacheEntry> cacheMap;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        /**
+         * 清空次数，用于丢弃清空前发起查询的结果
+         */
+        private final AtomicLong epoch = new AtomicLong();
+
+        EntityCache(long ttlMillis, int maxSize, TenantLineHandler tenantLineHandler) {
+            this.ttlMillis = ttlMillis;
+            this.tenantLineHandler = tenantLineHandler;
+            this.cacheMap = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        synchronized Object get(String key) {
+            CacheEntry entry = cacheMap.get(key);
+            if(entry == null) {
+                return null;
+            }
+            if(entry.expireAt < System.currentTimeMillis()) {
+                cacheMap.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void putAll(Map<String, ? extends List<?>> key2ValueMap, long queryEpoch) {
+            if(queryEpoch != epoch.get()) {
+                return;
+            }
+            long expireAt = System.currentTimeMillis() + ttlMillis;
+            for(Map.Entry<String, ? extends List<?>> entry : key2ValueMap.entrySet()) {
+                // 无结果的值不缓存，避免新增数据后在TTL内仍无法关联
+                if(entry.getValue().isEmpty()) {
+                    continue;
+                }
+                cacheMap.put(entry.getKey(), new CacheEntry(Collections.unmodifiableList(entry.getValue()), expireAt));
+            }
+        }
+
+        synchronized void clear() {
+            epoch.incrementAndGet();
+            cacheMap.clear();
+        }
+
+        synchronized int size() {
+            return cacheMap.size();
+        }
+    }
+
+    /**
+     * 缓存项
+     */
+    private static final class CacheEntry {
+        private final Object value;
+        private final long expireAt;
+
+        CacheEntry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+}
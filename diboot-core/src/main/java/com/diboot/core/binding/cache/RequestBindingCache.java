@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 请求范围内的关联绑定Entity标识映射（按 Entity类+查询列 及 join列值 记录已加载的Entity）
+ * <p>
+ * 同一请求中的多次绑定及深度绑定优先读取已加载的Entity，仅未加载的值构建IN条件查询。
+ * 有web请求时存储于request属性，否则作用于最外层的绑定调用。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/5
+ * Copyright © diboot.com
+ */
+@Slf4j
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class RequestBindingCache {
+
+    /**
+     * request属性名
+     */
+    private static final String REQUEST_ATTRIBUTE = RequestBindingCache.class.getName();
+
+    /**
+     * 当前线程的绑定范围
+     */
+    private static final ThreadLocal<RequestBindingCache> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 范围key（Entity类+查询列+拦截模式）- (join列值key - Entity列表)
+     */
+    private final Map<String, Map<String, List<Object>>> scopeCacheMap = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 开启绑定范围（已开启时返回null，仅最外层调用需关闭）
+     * @return
+     */
+    public static RequestBindingCache open() {
+        if(CURRENT.get() != null) {
+            return null;
+        }
+        RequestBindingCache bindingCache = null;
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes != null) {
+            bindingCache = (RequestBindingCache) requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if(bindingCache == null) {
+                bindingCache = new RequestBindingCache();
+                requestAttributes.setAttribute(REQUEST_ATTRIBUTE, bindingCache, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        if(bindingCache == null) {
+            bindingCache = new RequestBindingCache();
+        }
+        CURRENT.set(bindingCache);
+        return bindingCache;
+    }
+
+    /**
+     * 关闭绑定范围
+     * @param openedCache open()的返回值
+     */
+    public static void close(RequestBindingCache openedCache) {
+        if(openedCache != null) {
+            CURRENT.remove();
+            if(log.isDebugEnabled() && openedCache.hits.sum() > 0) {
+                log.debug("请求范围绑定缓存命中: {}, 未命中: {}", openedCache.hits.sum(), openedCache.misses.sum());
+            }
+        }
+    }
+
+    /**
+     * 获取当前线程的绑定范围
+     * @return
+     */
+    public static RequestBindingCache current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 按join列值获取Entity列表，优先读取本请求已加载的Entity，未加载的值通过missQuery查询
+     * @param scopeKey 范围key，查询列或拦截模式不同的结果不可共用
+     * @param column join列
+     * @param values join列值
+     * @param missQuery 未加载值的查询
+     * @param keyGetter 获取Entity的join列值
+     * @return
+     */
+    public <T> List<T> getEntityList(String scopeKey, String column, List<?> values,
+                                     Function<List<?>, List<T>> missQuery, Function<T, Object> keyGetter) {
+        Map<String, List<Object>> cacheMap = scopeCacheMap.computeIfAbsent(scopeKey, k -> new ConcurrentHashMap<>());
+        return BindingResultCache.loadByJoinValues(column, values, key -> (List<T>) cacheMap.get(key), missQuery, keyGetter,
+                key2EntityListMap -> cacheMap.putAll((Map) key2EntityListMap), hits, misses);
+    }
+
+    /**
+     * 清除当前请求中Entity的已加载结果（Entity数据变更时调用）
+     * @param entityClass
+     */
+    public static void evict(Class<?> entityClass) {
+        RequestBindingCache bindingCache = getBoundCache();
+        if(bindingCache == null) {
+            return;
+        }
+        String scopeKeyPrefix = entityClass.getName() + ":";
+        bindingCache.scopeCacheMap.keySet().removeIf(scopeKey -> scopeKey.startsWith(scopeKeyPrefix));
+    }
+
+    /**
+     * 清除当前请求中全部已加载结果（如分批导出时每批绑定完成后调用，避免缓存随批次增长）
+     */
+    public static void clear() {
+        RequestBindingCache bindingCache = getBoundCache();
+        if(bindingCache != null) {
+            bindingCache.scopeCacheMap.clear();
+        }
+    }
+
+    /**
+     * 获取当前线程或当前请求的绑定范围
+     * @return
+     */
+    private static RequestBindingCache getBoundCache() {
+        RequestBindingCache bindingCache = CURRENT.get();
+        if(bindingCache == null) {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            if(requestAttributes == null) {
+                return null;
+            }
+            bindingCache = (RequestBindingCache) requestAttributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+        return bindingCache;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.helper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 关联绑定的join key匹配Map
+ * <ul>
+ *     <li>单列整数类型key：基于原始long的开放寻址哈希表，避免每行拼接String</li>
+ *     <li>多列key：基于元组key匹配</li>
+ *     <li>其他类型：按String值匹配（兼容原有逻辑）</li>
+ * </ul>
+ * 非线程安全，仅用于单次绑定过程中
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/1
+ * Copyright © diboot.com
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class JoinKeyMap<V> {
+    /**
+     * 各列是否为整数类型
+     */
+    private final boolean[] integralColumns;
+    /**
+     * 单列整数key的Map
+     */
+    private final LongObjectMap<V> longMap;
+    /**
+     * 单列非整数key或多列元组key的Map
+     */
+    private final Map<Object, V> objectMap;
+    /**
+     * 转换为long的临时值holder，避免装箱
+     */
+    private final long[] holder = new long[1];
+
+    /**
+     * 构造方法
+     * @param keyTypes 被关联对象join列的字段类型（未知时可传null）
+     */
+    public JoinKeyMap(List<Class<?>> keyTypes) {
+        this(keyTypes, 16);
+    }
+
+    /**
+     * 构造方法
+     * @param keyTypes 被关联对象join列的字段类型（未知时可传null）
+     * @param expectedSize 预估数量
+     */
+    public JoinKeyMap(List<Class<?>> keyTypes, int expectedSize) {
+        this.integralColumns = new boolean[keyTypes.size()];
+        for(int i=0; i<keyTypes.size(); i++) {
+            this.integralColumns[i] = isIntegralType(keyTypes.get(i));
+        }
+        this.longMap = (integralColumns.length == 1 && integralColumns[0])? new LongObjectMap<>(expectedSize) : null;
+        this.objectMap = new HashMap<>(Math.max(16, (int)(expectedSize / 0.75f) + 1));
+    }
+
+    /**
+     * 取值
+     * @param key 单列key的值，或多列key值数组(Object[])
+     * @return
+     */
+    public V get(Object key) {
+        if(key == null) {
+            return null;
+        }
+        if(key instanceof Object[]) {
+            Object[] keyValues = (Object[]) key;
+            if(keyValues.length != 1) {
+                return objectMap.get(new TupleKey(normalize(keyValues)));
+            }
+            key = keyValues[0];
+            if(key == null) {
+                return null;
+            }
+        }
+        if(longMap != null && toLong(key, holder)) {
+            return longMap.get(holder[0]);
+        }
+        return objectMap.get(toObjectKey(key));
+    }
+
+    /**
+     * 赋值
+     * @param key 单列key的值，或多列key值数组(Object[])
+     * @param value
+     */
+    public void put(Object key, V value) {
+        if(key instanceof Object[]) {
+            Object[] keyValues = (Object[]) key;
+            if(keyValues.length != 1) {
+                objectMap.put(new TupleKey(normalize(keyValues)), value);
+                return;
+            }
+            key = keyValues[0];
+        }
+        if(longMap != null && key != null && toLong(key, holder)) {
+            longMap.put(holder[0], value);
+            return;
+        }
+        objectMap.put(toObjectKey(key), value);
+    }
+
+    /**
+     * 获取或初始化
+     * @param key 单列key的值，或多列key值数组(Object[])
+     * @param supplier
+     * @return
+     */
+    public V computeIfAbsent(Object key, Supplier<V> supplier) {
+        V value = get(key);
+        if(value == null) {
+            value = supplier.get();
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 是否为空
+     * @return
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 数量
+     * @return
+     */
+    public int size() {
+        return objectMap.size() + (longMap != null? longMap.size() : 0);
+    }
+
+    /**
+     * 规范化多列key的值
+     * @param keyValues
+     * @return
+     */
+    private Object[] normalize(Object[] keyValues) {
+        Object[] normalized = new Object[keyValues.length];
+        for(int i=0; i<keyValues.length; i++) {
+            Object keyValue = keyValues[i];
+            if(keyValue != null && i < integralColumns.length && integralColumns[i] && toLong(keyValue, holder)) {
+                normalized[i] = keyValue instanceof Long? keyValue : holder[0];
+            }
+            else {
+                normalized[i] = toObjectKey(keyValue);
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * 非整数key统一按String匹配
+     * @param keyValue
+     * @return
+     */
+    private static Object toObjectKey(Object keyValue) {
+        if(keyValue instanceof String) {
+            return keyValue;
+        }
+        return String.valueOf(keyValue);
+    }
+
+    /**
+     * 是否为整数类型
+     * @param type
+     * @return
+     */
+    private static boolean isIntegralType(Class<?> type) {
+        return type != null && (Long.class.equals(type) || Integer.class.equals(type) || Short.class.equals(type)
+                || long.class.equals(type) || int.class.equals(type) || short.class.equals(type));
+    }
+
+    /**
+     * 转换为long
+     * @param value
+     * @param holder
+     * @return 是否转换成功
+     */
+    private static boolean toLong(Object value, long[] holder) {
+        if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            holder[0] = ((Number)value).longValue();
+            return true;
+        }
+        if(value instanceof BigInteger) {
+            if(((BigInteger)value).bitLength() < 64) {
+                holder[0] = ((BigInteger)value).longValue();
+                return true;
+            }
+            return false;
+        }
+        if(value instanceof BigDecimal) {
+            // 仅无小数位的值（字符串形式与整数一致）
+            if(((BigDecimal)value).scale() != 0) {
+                return false;
+            }
+            try {
+                holder[0] = ((BigDecimal)value).longValueExact();
+                return true;
+            }
+            catch (ArithmeticException e) {
+                return false;
+            }
+        }
+        if(value instanceof String) {
+            return parseLong((String)value, holder);
+        }
+        return false;
+    }
+
+    /**
+     * 解析规范的十进制整数字符串（无正号、无前导0，与整数的字符串形式一致），
+     * 非规范格式（如 "001"、"+5"、"-0"）返回false，按字符串匹配（不抛异常）
+     * @param str
+     * @param holder
+     * @return
+     */
+    private static boolean parseLong(String str, long[] holder) {
+        int length = str.length();
+        if(length == 0 || length > 20) {
+            return false;
+        }
+        int i = 0;
+        boolean negative = false;
+        if(str.charAt(0) == '-') {
+            if(length == 1) {
+                return false;
+            }
+            negative = true;
+            i++;
+        }
+        // 前导0：仅"0"本身为规范格式
+        if(str.charAt(i) == '0' && (negative || length > 1)) {
+            return false;
+        }
+        long result = 0;
+        for(; i<length; i++) {
+            int digit = str.charAt(i) - '0';
+            if(digit < 0 || digit > 9) {
+                return false;
+            }
+            if(result < (Long.MIN_VALUE + digit) / 10) {
+                return false;
+            }
+            result = result * 10 - digit;
+        }
+        if(!negative) {
+            if(result == Long.MIN_VALUE) {
+                return false;
+            }
+            result = -result;
+        }
+        holder[0] = result;
+        return true;
+    }
+
+    /**
+     * 多列元组key
+     */
+    private static final class TupleKey {
+        private final Object[] values;
+        private final int hash;
+
+        TupleKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof TupleKey)) {
+                return false;
+            }
+            TupleKey other = (TupleKey) o;
+            return hash == other.hash && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 原始long为key的开放寻址哈希表（线性探测）
+     */
+    static final class LongObjectMap<V> {
+        private static final float LOAD_FACTOR = 0.5f;
+        private long[] keys;
+        private Object[] values;
+        private boolean[] used;
+        private int size;
+        private int mask;
+        private int threshold;
+
+        LongObjectMap(int expectedSize) {
+            int capacity = tableSizeFor((int)(Math.max(expectedSize, 8) / LOAD_FACTOR) + 1);
+            allocate(capacity);
+        }
+
+        V get(long key) {
+            int index = indexOf(key);
+            while(used[index]) {
+                if(keys[index] == key) {
+                    return (V) values[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long key, V value) {
+            int index = indexOf(key);
+            while(used[index]) {
+                if(keys[index] == key) {
+                    values[index] = value;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            used[index] = true;
+            keys[index] = key;
+            values[index] = value;
+            if(++size > threshold) {
+                rehash();
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int indexOf(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int)(h ^ (h >>> 32)) & mask;
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+            threshold = (int)(capacity * LOAD_FACTOR);
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            boolean[] oldUsed = used;
+            allocate(oldKeys.length << 1);
+            size = 0;
+            for(int i=0; i<oldKeys.length; i++) {
+                if(oldUsed[i]) {
+                    put(oldKeys[i], (V) oldValues[i]);
+                }
+            }
+        }
+
+        private static int tableSizeFor(int cap) {
+            int n = -1 >>> Integer.numberOfLeadingZeros(cap - 1);
+            return (n < 0) ? 1 : (n >= (1 << 30)) ? (1 << 30) : n + 1;
+        }
+    }
+
+}
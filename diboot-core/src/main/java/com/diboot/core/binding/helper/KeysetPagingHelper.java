@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2015-2021, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.helper;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.PropInfo;
+import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.JSON;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.Pagination;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 游标（keyset）分页帮助类
+ * <p>
+ * 按 排序字段+主键 生成不透明游标，下一页查询以 (k1 > v1) OR (k1 = v1 AND k2 > v2) ... 定位起点，
+ * 不使用OFFSET，翻页耗时与页码无关。排序字段需为主表的非空字段，排序值为null时无法定位下一页，生成游标时即拒绝。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/15
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class KeysetPagingHelper {
+
+    /**
+     * 主表别名前缀
+     */
+    private static final String SELF_PREFIX = "self.";
+    /**
+     * 游标版本
+     */
+    private static final String CURSOR_VERSION = "k1";
+
+    /**
+     * 构建游标分页的排序项：追加主键排序（与最后一个排序字段方向一致），保证排序唯一
+     * @param orders 排序
+     * @param idColumn 主键列
+     * @return
+     */
+    public static List<OrderItem> buildOrderItems(List<OrderItem> orders, String idColumn) {
+        List<OrderItem> orderItems = new ArrayList<>(V.isEmpty(orders)? 1 : orders.size() + 1);
+        boolean asc = false;
+        if(V.notEmpty(orders)) {
+            for(OrderItem orderItem : orders) {
+                if(S.contains(orderItem.getColumn(), ".") && !S.startsWith(orderItem.getColumn(), SELF_PREFIX)) {
+                    throw new InvalidUsageException("exception.invalidUsage.keysetPaging.joinOrderNotSupported", orderItem.getColumn());
+                }
+                orderItems.add(orderItem);
+                asc = orderItem.isAsc();
+            }
+        }
+        if(idColumn == null) {
+            log.warn("未识别到主键列，游标分页的排序字段需保证唯一");
+            return orderItems;
+        }
+        for(OrderItem orderItem : orderItems) {
+            if(idColumn.equals(orderItem.getColumn())) {
+                return orderItems;
+            }
+        }
+        orderItems.add(asc? OrderItem.asc(idColumn) : OrderItem.desc(idColumn));
+        return orderItems;
+    }
+
+    /**
+     * 构建查询下一页的Page：多查一条以判断是否有下一页，不执行count
+     * @param orderItems
+     * @param pagination
+     * @return
+     */
+    public static <T> Page<T> toPage(List<OrderItem> orderItems, Pagination pagination) {
+        Page<T> page = new Page<>(1, pagination.getPageSize() + 1L, false);
+        page.addOrder(orderItems);
+        return page;
+    }
+
+    /**
+     * 是否需统计总数：仅第一页且未传入总数时
+     * @param pagination
+     * @return
+     */
+    public static boolean isCountRequired(Pagination pagination) {
+        return pagination.isSearchCount() && V.isEmpty(pagination.getCursor()) && pagination.getTotalCount() <= 0;
+    }
+
+    /**
+     * 添加游标定位条件
+     * @param wrapper
+     * @param orderItems
+     * @param pagination
+     */
+    public static void applyCursor(AbstractWrapper<?, ?, ?> wrapper, List<OrderItem> orderItems, Pagination pagination) {
+        if(V.isEmpty(pagination.getCursor())) {
+            return;
+        }
+        List<Object> values = decodeCursor(pagination.getCursor(), orderItems);
+        // null值无法比较，跳过会遗漏数据，生成游标时已拒绝
+        if(values.contains(null)) {
+            log.warn("游标排序值存在空值，无法定位下一页: {}", pagination.getCursor());
+            throw new InvalidUsageException("exception.invalidUsage.keysetPaging.invalidCursor");
+        }
+        // (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ...
+        StringBuilder sb = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        for(int i=0; i<orderItems.size(); i++) {
+            StringBuilder disjunct = new StringBuilder();
+            for(int j=0; j<i; j++) {
+                disjunct.append(orderItems.get(j).getColumn()).append(" = {").append(params.size()).append("} AND ");
+                params.add(values.get(j));
+            }
+            OrderItem orderItem = orderItems.get(i);
+            disjunct.append(orderItem.getColumn()).append(orderItem.isAsc()? " > {" : " < {").append(params.size()).append("}");
+            params.add(values.get(i));
+            if(sb.length() > 0) {
+                sb.append(" OR ");
+            }
+            sb.append("(").append(disjunct).append(")");
+        }
+        wrapper.apply("(" + sb + ")", params.toArray());
+    }
+
+    /**
+     * 截取当前页数据，并生成下一页游标
+     * @param list 多查一条的结果
+     * @param orderItems
+     * @param pagination
+     * @param entityClass 结果类
+     * @return
+     */
+    public static <T> List<T> resolvePage(List<T> list, List<OrderItem> orderItems, Pagination pagination, Class<?> entityClass) {
+        if(V.isEmpty(list) || list.size() <= pagination.getPageSize()) {
+            pagination.setNextCursor(null);
+            return list;
+        }
+        List<T> pageList = new ArrayList<>(list.subList(0, pagination.getPageSize()));
+        T last = pageList.get(pageList.size() - 1);
+        PropInfo propInfo = BindingCacheManager.getPropInfoByClass(entityClass);
+        List<Object> values = new ArrayList<>(orderItems.size());
+        for(OrderItem orderItem : orderItems) {
+            String column = S.removeStart(orderItem.getColumn(), SELF_PREFIX);
+            String fieldName = propInfo != null? propInfo.getFieldByColumn(column) : null;
+            if(fieldName == null) {
+                fieldName = S.toLowerCaseCamel(column);
+            }
+            Object value = BeanUtils.getProperty(last, fieldName);
+            // 可空的排序字段会导致后续页遗漏数据
+            if(value == null) {
+                throw new InvalidUsageException("exception.invalidUsage.keysetPaging.nullableOrderNotSupported", orderItem.getColumn());
+            }
+            values.add(value);
+        }
+        pagination.setNextCursor(encodeCursor(values, orderItems));
+        return pageList;
+    }
+
+    /**
+     * 编码游标
+     * @param values
+     * @param orderItems
+     * @return
+     */
+    public static String encodeCursor(List<Object> values, List<OrderItem> orderItems) {
+        List<String> items = new ArrayList<>(values.size() + 2);
+        items.add(CURSOR_VERSION);
+        items.add(Integer.toHexString(buildOrderSignature(orderItems).hashCode()));
+        for(Object value : values) {
+            items.add(encodeValue(value));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(JSON.stringify(items).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor
+     * @param orderItems
+     * @return
+     */
+    public static List<Object> decodeCursor(String cursor, List<OrderItem> orderItems) {
+        List<String> items;
+        try {
+            items = JSON.parseArray(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), String.class);
+        }
+        catch (Exception e) {
+            log.warn("无法解析分页游标: {}", cursor);
+            throw new InvalidUsageException("exception.invalidUsage.keysetPaging.invalidCursor");
+        }
+        // 游标与当前排序不一致
+        if(items == null || items.size() != orderItems.size() + 2 || !CURSOR_VERSION.equals(items.get(0))
+            || !Integer.toHexString(buildOrderSignature(orderItems).hashCode()).equals(items.get(1))) {
+            throw new InvalidUsageException("exception.invalidUsage.keysetPaging.invalidCursor");
+        }
+        List<Object> values = new ArrayList<>(orderItems.size());
+        for(int i=2; i<items.size(); i++) {
+            values.add(decodeValue(items.get(i)));
+        }
+        return values;
+    }
+
+    /**
+     * 排序签名
+     */
+    private static String buildOrderSignature(List<OrderItem> orderItems) {
+        StringBuilder sb = new StringBuilder();
+        for(OrderItem orderItem : orderItems) {
+            sb.append(orderItem.getColumn()).append(orderItem.isAsc()? "+" : "-");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 按类型编码值，保留日期时间精度
+     * @param value
+     * @return
+     */
+    private static String encodeValue(Object value) {
+        if(value == null) {
+            return "N:";
+        }
+        if(value instanceof Long) {
+            return "L:" + value;
+        }
+        if(value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return "I:" + value;
+        }
+        if(value instanceof BigDecimal) {
+            return "M:" + ((BigDecimal) value).toPlainString();
+        }
+        if(value instanceof Number) {
+            return "F:" + value;
+        }
+        if(value instanceof Boolean) {
+            return "B:" + value;
+        }
+        if(value instanceof LocalDateTime) {
+            return "T:" + value;
+        }
+        if(value instanceof LocalDate) {
+            return "D:" + value;
+        }
+        if(value instanceof Date) {
+            return "d:" + ((Date) value).getTime();
+        }
+        return "S:" + value;
+    }
+
+    /**
+     * 解码值
+     * @param item
+     * @return
+     */
+    private static Object decodeValue(String item) {
+        try {
+            String value = item.substring(2);
+            switch (item.charAt(0)) {
+                case 'N':
+                    return null;
+                case 'L':
+                    return Long.valueOf(value);
+                case 'I':
+                    return Integer.valueOf(value);
+                case 'M':
+                    return new BigDecimal(value);
+                case 'F':
+                    return Double.valueOf(value);
+                case 'B':
+                    return Boolean.valueOf(value);
+                case 'T':
+                    return LocalDateTime.parse(value);
+                case 'D':
+                    return LocalDate.parse(value);
+                case 'd':
+                    return new Date(Long.parseLong(value));
+                default:
+                    return value;
+            }
+        }
+        catch (Exception e) {
+            log.warn("无法解析分页游标值: {}", item);
+            throw new InvalidUsageException("exception.invalidUsage.keysetPaging.invalidCursor");
+        }
+    }
+
+}
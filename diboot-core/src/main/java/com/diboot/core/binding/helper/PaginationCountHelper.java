@@ -0,0 +1,443 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.helper;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.DataPermissionInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.data.access.DataAccessAnnoCache;
+import com.diboot.core.util.ContextHolder;
+import com.diboot.core.util.S;
+import com.diboot.core.util.SqlExecutor;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.CountStrategy;
+import com.diboot.core.vo.Pagination;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 分页总数统计
+ * <p>
+ * 按 Pagination.countStrategy（未指定时为 diboot.core.count-strategy，默认EXACT）统计总数：
+ * EXACT 每次count；CACHED 按 表+查询条件SQL+参数+当前用户 缓存count结果；
+ * ASYNC 在关联绑定线程池上与当前页数据查询并行执行；ESTIMATE 无查询条件时使用数据库统计信息中的估算行数。
+ * Mybatis-plus分页查询的count均由分页插件生成（移除ORDER BY、GROUP BY时包装子查询），
+ * 估算行数不含逻辑删除、租户、数据权限等条件，仅用于无这些条件的表。
+ * 各策略的使用次数可通过 {@link #getStatistics()} 获取。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/16
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class PaginationCountHelper {
+
+    /**
+     * 最多缓存的count结果数
+     */
+    private static final int MAX_CACHED_COUNTS = 10000;
+
+    /**
+     * 缓存key - count结果
+     */
+    private static final Map<String, CachedCount> COUNT_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 表 - 是否可使用估算行数
+     */
+    private static final Map<String, Boolean> ESTIMATE_SUPPORTED_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 指定的策略 - 次数
+     */
+    private static final Map<CountStrategy, LongAdder> REQUESTED_STATS = new EnumMap<>(CountStrategy.class);
+    /**
+     * 实际执行的策略 - 次数
+     */
+    private static final Map<CountStrategy, LongAdder> EFFECTIVE_STATS = new EnumMap<>(CountStrategy.class);
+    /**
+     * 缓存命中次数
+     */
+    private static final LongAdder CACHE_HITS = new LongAdder();
+
+    static {
+        for(CountStrategy strategy : CountStrategy.values()) {
+            REQUESTED_STATS.put(strategy, new LongAdder());
+            EFFECTIVE_STATS.put(strategy, new LongAdder());
+        }
+    }
+
+    /**
+     * 执行Mybatis-plus分页查询，并按统计策略更新 pagination 的总数
+     * <p>
+     * EXACT 直接由分页插件执行count，其他策略通过每页0条的分页查询仅执行分页插件的count
+     * </p>
+     * @param pagination 分页
+     * @param page 当前页，searchCount为false时不统计总数
+     * @param queryWrapper 查询条件
+     * @param table 主表名
+     * @param pageQuery 分页查询
+     * @return
+     */
+    public static <E> List<E> query(Pagination pagination, IPage<E> page, Wrapper<?> queryWrapper, String table,
+                                    Function<IPage<E>, List<E>> pageQuery) {
+        if(!page.searchCount()) {
+            return pageQuery.apply(page);
+        }
+        CountStrategy strategy = resolveStrategy(pagination, queryWrapper, table);
+        Supplier<List<E>> exactQuery = () -> {
+            List<E> records = pageQuery.apply(page);
+            pagination.setTotalCount(page.getTotal());
+            return records;
+        };
+        if(strategy == CountStrategy.EXACT) {
+            return exactQuery.get();
+        }
+        return query(pagination, strategy, table, queryWrapper, () -> countByPage(pageQuery), () -> {
+            page.setSearchCount(false);
+            return pageQuery.apply(page);
+        }, exactQuery);
+    }
+
+    /**
+     * 查询当前页数据，并按统计策略更新 pagination 的总数
+     * @param pagination 分页
+     * @param countRequired 是否需要统计总数
+     * @param offset 当前页的偏移量，精确总数不超过该值时无需查询数据
+     * @param queryWrapper 查询条件
+     * @param table 主表名
+     * @param counter count查询
+     * @param recordsQuery 当前页数据查询（不含count）
+     * @return
+     */
+    public static <E> List<E> query(Pagination pagination, boolean countRequired, long offset, Wrapper<?> queryWrapper, String table,
+                                    LongSupplier counter, Supplier<List<E>> recordsQuery) {
+        if(!countRequired) {
+            return recordsQuery.get();
+        }
+        CountStrategy strategy = resolveStrategy(pagination, queryWrapper, table);
+        return query(pagination, strategy, table, queryWrapper, counter, recordsQuery, () -> {
+            long totalCount = counter.getAsLong();
+            pagination.setTotalCount(totalCount);
+            // 总数为0或超出总数的页无需查询
+            if(totalCount == 0 || offset >= totalCount) {
+                return new ArrayList<>();
+            }
+            return recordsQuery.get();
+        });
+    }
+
+    /**
+     * 获取各策略的使用次数
+     * <p>
+     * key 格式为 策略.requested（指定次数）、策略.effective（实际执行次数），以及 CACHED.hit（缓存命中次数）
+     * </p>
+     * @return
+     */
+    public static Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        for(CountStrategy strategy : CountStrategy.values()) {
+            statistics.put(strategy.name() + ".requested", REQUESTED_STATS.get(strategy).sum());
+            statistics.put(strategy.name() + ".effective", EFFECTIVE_STATS.get(strategy).sum());
+        }
+        statistics.put(CountStrategy.CACHED.name() + ".hit", CACHE_HITS.sum());
+        return statistics;
+    }
+
+    /**
+     * 清空缓存的count结果（如批量导入数据后）
+     */
+    public static void clearCachedCounts() {
+        COUNT_CACHE.clear();
+    }
+
+    /**
+     * 按统计策略查询
+     * @param pagination 分页
+     * @param strategy 实际执行的统计策略
+     * @param table 主表名
+     * @param queryWrapper 查询条件
+     * @param counter count查询
+     * @param recordsQuery 当前页数据查询（不含count）
+     * @param exactQuery 精确count及当前页数据查询
+     * @return
+     */
+    private static <E> List<E> query(Pagination pagination, CountStrategy strategy, String table, Wrapper<?> queryWrapper,
+                                     LongSupplier counter, Supplier<List<E>> recordsQuery, Supplier<List<E>> exactQuery) {
+        if(strategy == CountStrategy.ASYNC) {
+            return queryInParallel(pagination, counter, recordsQuery);
+        }
+        if(strategy == CountStrategy.ESTIMATE) {
+            Long estimate = estimateCount(table);
+            if(estimate != null) {
+                // 估算值可能偏小，仍查询当前页数据
+                pagination.setTotalCount(estimate);
+                return recordsQuery.get();
+            }
+            log.debug("表 {} 无可用的估算行数，改为精确count", table);
+            EFFECTIVE_STATS.get(CountStrategy.ESTIMATE).decrement();
+            EFFECTIVE_STATS.get(CountStrategy.EXACT).increment();
+            return exactQuery.get();
+        }
+        if(strategy == CountStrategy.CACHED) {
+            long totalCount = getCachedCount(buildCacheKey(queryWrapper, table), counter);
+            pagination.setTotalCount(totalCount);
+            // 总数为0无需查询（缓存的总数可能已过时，超出总数的页仍查询）
+            if(totalCount == 0) {
+                return new ArrayList<>();
+            }
+            return recordsQuery.get();
+        }
+        return exactQuery.get();
+    }
+
+    /**
+     * 通过每页0条的分页查询执行分页插件生成的count（分页插件不再查询数据）
+     * @param pageQuery
+     * @return
+     */
+    private static <E> long countByPage(Function<IPage<E>, List<E>> pageQuery) {
+        IPage<E> countPage = new Page<>(1, 0);
+        pageQuery.apply(countPage);
+        return countPage.getTotal();
+    }
+
+    /**
+     * 确定实际执行的统计策略
+     * @param pagination
+     * @param queryWrapper
+     * @param table
+     * @return
+     */
+    private static CountStrategy resolveStrategy(Pagination pagination, Wrapper<?> queryWrapper, String table) {
+        CountStrategy strategy = pagination.getCountStrategy() != null? pagination.getCountStrategy() : BaseConfig.getCountStrategy();
+        REQUESTED_STATS.get(strategy).increment();
+        CountStrategy effective = strategy;
+        if(strategy == CountStrategy.ASYNC
+                && (TransactionSynchronizationManager.isActualTransactionActive() || ContextHolder.getBean(BindingExecutor.class) == null)) {
+            // 事务中的查询需使用同一连接
+            effective = CountStrategy.EXACT;
+        }
+        else if(strategy == CountStrategy.ESTIMATE
+                && (V.isEmpty(table) || (queryWrapper != null && !queryWrapper.isEmptyOfWhere()) || !isEstimateSupported(table))) {
+            effective = CountStrategy.EXACT;
+        }
+        EFFECTIVE_STATS.get(effective).increment();
+        return effective;
+    }
+
+    /**
+     * 表是否可使用估算行数：估算行数不含拦截器追加的条件，有逻辑删除字段、租户隔离或数据权限检查点的表不可使用
+     * @param table
+     * @return
+     */
+    private static boolean isEstimateSupported(String table) {
+        return ESTIMATE_SUPPORTED_CACHE.computeIfAbsent(table, key -> {
+            Class<?> entityClass = BindingCacheManager.getEntityClassByTable(key);
+            if(entityClass == null || ParserCache.getDeletedColumn(key) != null) {
+                return false;
+            }
+            for(InnerInterceptor innerInterceptor : ContextHolder.getInnerInterceptors()) {
+                if(innerInterceptor instanceof DataPermissionInterceptor && DataAccessAnnoCache.hasDataAccessCheckpoint(entityClass)) {
+                    return false;
+                }
+                if(innerInterceptor instanceof TenantLineInnerInterceptor) {
+                    TenantLineHandler handler = ((TenantLineInnerInterceptor) innerInterceptor).getTenantLineHandler();
+                    if(handler != null && !handler.ignoreTable(S.removeEsc(key))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * 并行执行count与当前页数据查询
+     * @param pagination
+     * @param counter
+     * @param recordsQuery
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> queryInParallel(Pagination pagination, LongSupplier counter, Supplier<List<E>> recordsQuery) {
+        BindingExecutor bindingExecutor = ContextHolder.getBean(BindingExecutor.class);
+        List<Supplier<?>> tasks = Arrays.asList(counter::getAsLong, recordsQuery);
+        List<Object> results = BindingExecutor.execute(bindingExecutor != null? bindingExecutor::execute : null, tasks, Supplier::get, 2);
+        pagination.setTotalCount((Long) results.get(0));
+        List<E> records = (List<E>) results.get(1);
+        return records != null? records : new ArrayList<>();
+    }
+
+    /**
+     * 获取缓存的count结果，未缓存或已过期时执行count
+     * @param cacheKey
+     * @param counter
+     * @return
+     */
+    private static long getCachedCount(String cacheKey, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cachedCount = COUNT_CACHE.get(cacheKey);
+        if(cachedCount != null && cachedCount.expireAt > now) {
+            CACHE_HITS.increment();
+            return cachedCount.total;
+        }
+        long totalCount = counter.getAsLong();
+        if(COUNT_CACHE.size() >= MAX_CACHED_COUNTS) {
+            COUNT_CACHE.values().removeIf(item -> item.expireAt <= now);
+            if(COUNT_CACHE.size() >= MAX_CACHED_COUNTS) {
+                log.debug("分页count缓存数量超出上限 {}，清空缓存", MAX_CACHED_COUNTS);
+                COUNT_CACHE.clear();
+            }
+        }
+        COUNT_CACHE.put(cacheKey, new CachedCount(totalCount, now + BaseConfig.getCountCacheSeconds() * 1000L));
+        return totalCount;
+    }
+
+    /**
+     * 构建缓存key：表 + 查询类型 + 条件SQL + 参数 + 当前用户（token取摘要）
+     * <p>
+     * 数据权限、租户等条件由拦截器在执行时追加，不在条件SQL中，需按当前用户区分
+     * </p>
+     * @param queryWrapper
+     * @param table
+     * @return
+     */
+    private static String buildCacheKey(Wrapper<?> queryWrapper, String table) {
+        StringBuilder sb = new StringBuilder(128).append(table);
+        if(queryWrapper != null) {
+            sb.append("|").append(queryWrapper.getClass().getName());
+            if(queryWrapper instanceof DynamicJoinQueryWrapper) {
+                Class<?> dtoClass = ((DynamicJoinQueryWrapper) queryWrapper).getDtoClass();
+                sb.append("|").append(dtoClass != null? dtoClass.getName() : null);
+            }
+            sb.append("|").append(queryWrapper.getSqlSegment());
+            if(queryWrapper instanceof AbstractWrapper) {
+                Map<String, Object> params = ((AbstractWrapper<?, ?, ?>) queryWrapper).getParamNameValuePairs();
+                if(V.notEmpty(params)) {
+                    sb.append("|").append(new TreeMap<>(params));
+                }
+            }
+        }
+        sb.append("|").append(getUserScope());
+        return sb.toString();
+    }
+
+    /**
+     * 获取当前用户标识
+     * @return
+     */
+    private static String getUserScope() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(!(requestAttributes instanceof ServletRequestAttributes)) {
+            return S.EMPTY;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        Principal principal = request.getUserPrincipal();
+        String authorization = request.getHeader("Authorization");
+        return (principal != null? principal.getName() : S.EMPTY) + "|" + (V.notEmpty(authorization)? sha256Hex(authorization) : S.EMPTY);
+    }
+
+    /**
+     * 计算SHA-256摘要，避免缓存key中保存原始token
+     * @param value
+     * @return
+     */
+    private static String sha256Hex(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 从数据库统计信息获取表的估算行数
+     * @param table
+     * @return 不支持的数据库、无统计信息或查询异常时返回null
+     */
+    private static Long estimateCount(String table) {
+        String sql;
+        String tableName = S.removeEsc(table);
+        String dbType = ContextHolder.getDatabaseType();
+        if("mysql".equals(dbType) || "mariadb".equals(dbType)) {
+            sql = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        }
+        else if("postgresql".equals(dbType) || "kingbasees".equals(dbType)) {
+            sql = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+        }
+        else if("oracle".equals(dbType) || "dm".equals(dbType)) {
+            sql = "SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = UPPER(?)";
+        }
+        else if("sqlserver".equals(dbType)) {
+            sql = "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(?) AND index_id IN (0, 1)";
+        }
+        else {
+            return null;
+        }
+        try {
+            List<Long> estimates = SqlExecutor.getJdbcTemplate().queryForList(sql, Long.class, tableName);
+            Long estimate = V.notEmpty(estimates)? estimates.get(0) : null;
+            return estimate != null && estimate > 0? estimate : null;
+        }
+        catch (Exception e) {
+            log.debug("获取表 {} 的估算行数异常: {}", table, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 缓存的count结果
+     */
+    private static final class CachedCount {
+        private final long total;
+        private final long expireAt;
+
+        CachedCount(long total, long expireAt) {
+            this.total = total;
+            this.expireAt = expireAt;
+        }
+    }
+
+}
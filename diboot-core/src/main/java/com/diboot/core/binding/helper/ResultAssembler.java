@@ -21,7 +21,6 @@ import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanWrapper;
 
 import java.util.*;
 
@@ -49,7 +48,6 @@ public class ResultAssembler {
         try{
             for(E object : fromList){
                 List matchKeys = null;
-                BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(object);
                 for(int i=0; i<getterFields.length; i++){
                     Object fieldValueObj = BeanUtils.getProperty(object, getterFields[i]);
                     if(fieldValueObj == null) {
@@ -75,7 +73,7 @@ public class ResultAssembler {
                 String matchKey = S.join(matchKeys);
                 if(valueMatchMap.containsKey(matchKey)){
                     // 赋值
-                    beanWrapper.setPropertyValue(setterFieldName, valueMatchMap.get(matchKey));
+                    BeanUtils.setProperty(object, setterFieldName, valueMatchMap.get(matchKey));
                 }
                 else {
                     Object matchedValue = valueMatchMap.get(matchKey);
@@ -83,7 +81,7 @@ public class ResultAssembler {
                         matchedValue = 0L;
                     }
                     // 赋值
-                    beanWrapper.setPropertyValue(setterFieldName, matchedValue);
+                    BeanUtils.setProperty(object, setterFieldName, matchedValue);
                 }
             }
         }
@@ -107,7 +105,6 @@ public class ResultAssembler {
         try{
             for(E object : fromList){
                 List matchKeys = null;
-                BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(object);
                 for(int i=0; i<getterFields.length; i++){
                     Object fieldValueObj = BeanUtils.getProperty(object, getterFields[i]);
                     if(fieldValueObj == null) {
@@ -133,33 +130,24 @@ public class ResultAssembler {
                 String matchKey = S.join(matchKeys);
                 if(valueMatchMap.containsKey(matchKey)){
                     // 赋值
-                    beanWrapper.setPropertyValue(setterFieldName, valueMatchMap.get(matchKey));
+                    BeanUtils.setProperty(object, setterFieldName, valueMatchMap.get(matchKey));
                 }
                 else {
                     if(matchKeys.size() == 1 && V.notEmpty(splitBy) && getterFields.length == 1 && matchKey.contains(splitBy)) {
                         matchKeys = S.splitToList(matchKey, splitBy);
                     }
-                    List matchedValues = new ArrayList(matchKeys.size());
+                    Set matchedValues = new LinkedHashSet(matchKeys.size());
                     for(Object key : matchKeys){
                         Object value = valueMatchMap.get(S.valueOf(key));
-                        if(value != null){
-                            if(value instanceof Collection){
-                                Collection valueList = (Collection)value;
-                                for(Object obj : valueList){
-                                    if(!matchedValues.contains(obj)){
-                                        matchedValues.add(obj);
-                                    }
-                                }
-                            }
-                            else{
-                                if(!matchedValues.contains(value)){
-                                    matchedValues.add(value);
-                                }
-                            }
+                        if(value instanceof Collection){
+                            matchedValues.addAll((Collection)value);
+                        }
+                        else if(value != null){
+                            matchedValues.add(value);
                         }
                     }
                     // 赋值
-                    beanWrapper.setPropertyValue(setterFieldName, matchedValues);
+                    BeanUtils.setProperty(object, setterFieldName, new ArrayList(matchedValues));
                 }
             }
         }
@@ -168,6 +156,159 @@ public class ResultAssembler {
         }
     }
 
+    /***
+     * 按join key匹配计数结果并赋值
+     * @param setterFieldName
+     * @param fromList
+     * @param getterFields
+     * @param valueMatchMap
+     * @param <E>
+     */
+    public static <E> void bindCountPropValue(String setterFieldName, List<E> fromList, String[] getterFields, JoinKeyMap<Long> valueMatchMap){
+        if(V.isEmpty(fromList) || valueMatchMap == null || valueMatchMap.isEmpty()){
+            return;
+        }
+        try{
+            for(E object : fromList){
+                Object matchKey = extractMatchKey(object, getterFields);
+                if(matchKey == null) {
+                    continue;
+                }
+                Long matchedValue = (matchKey instanceof Collection)? null : valueMatchMap.get(matchKey);
+                // 赋值
+                BeanUtils.setProperty(object, setterFieldName, matchedValue != null? matchedValue : 0L);
+            }
+        }
+        catch (Exception e){
+            log.warn("设置属性值异常, setterFieldName={}", setterFieldName, e);
+        }
+    }
+
+    /***
+     * 按join key匹配结果并赋值
+     * @param setterFieldName
+     * @param fromList
+     * @param getterFields
+     * @param valueMatchMap
+     * @param splitBy
+     * @param <E>
+     */
+    public static <E> void bindPropValue(String setterFieldName, List<E> fromList, String[] getterFields, JoinKeyMap<?> valueMatchMap, String splitBy){
+        if(V.isEmpty(fromList) || valueMatchMap == null || valueMatchMap.isEmpty()){
+            return;
+        }
+        try{
+            for(E object : fromList){
+                Object matchKey = extractMatchKey(object, getterFields);
+                if(matchKey == null) {
+                    continue;
+                }
+                Object matchedValue = (matchKey instanceof Collection)? null : valueMatchMap.get(matchKey);
+                if(matchedValue == null) {
+                    matchedValue = collectMatchedValues(valueMatchMap, matchKey, splitBy);
+                }
+                // 赋值
+                BeanUtils.setProperty(object, setterFieldName, matchedValue);
+            }
+        }
+        catch (Exception e){
+            log.warn("设置属性值异常, setterFieldName={}", setterFieldName, e);
+        }
+    }
+
+    /***
+     * 按join key匹配结果，提取字段值列表并赋值
+     * @param fromList
+     * @param getterFields
+     * @param valueMatchMap
+     * @param <E>
+     */
+    public static <E> void bindFieldListPropValue(List<E> fromList, String[] getterFields, JoinKeyMap<List> valueMatchMap,
+                                                  List<String> annoObjSetterPropNameList, List<String> refGetterFieldNameList, String splitBy){
+        if(V.isEmpty(fromList) || valueMatchMap == null || valueMatchMap.isEmpty()){
+            return;
+        }
+        try{
+            for(E object : fromList){
+                Object matchKey = extractMatchKey(object, getterFields);
+                // 无有效值，跳过
+                if(matchKey == null) {
+                    continue;
+                }
+                List entityList = (matchKey instanceof Collection)? null : valueMatchMap.get(matchKey);
+                if(entityList == null){
+                    entityList = collectMatchedValues(valueMatchMap, matchKey, splitBy);
+                }
+                // 赋值
+                for(int i = 0; i< annoObjSetterPropNameList.size(); i++){
+                    List valObjList = BeanUtils.collectToList(entityList, refGetterFieldNameList.get(i));
+                    BeanUtils.setProperty(object, annoObjSetterPropNameList.get(i), valObjList);
+                }
+            }
+        }
+        catch (Exception e){
+            log.warn("设置属性值异常", e);
+        }
+    }
+
+    /**
+     * 提取注解宿主对象的匹配key
+     * @param object
+     * @param getterFields
+     * @return 单个字段返回字段值（String值清除非常量字符），多个字段返回值数组，全部为null时返回null
+     */
+    private static Object extractMatchKey(Object object, String[] getterFields){
+        if(getterFields.length == 1){
+            Object fieldValueObj = BeanUtils.getProperty(object, getterFields[0]);
+            if(fieldValueObj instanceof String){
+                return S.clearNonConst((String)fieldValueObj);
+            }
+            return fieldValueObj;
+        }
+        Object[] keyValues = new Object[getterFields.length];
+        boolean allNull = true;
+        for(int i=0; i<getterFields.length; i++){
+            Object fieldValueObj = BeanUtils.getProperty(object, getterFields[i]);
+            if(fieldValueObj != null){
+                allNull = false;
+                keyValues[i] = (fieldValueObj instanceof String)? S.clearNonConst((String)fieldValueObj) : fieldValueObj;
+            }
+        }
+        return allNull? null : keyValues;
+    }
+
+    /**
+     * 逐个匹配多值key（集合或splitBy拆分的值），合并去重匹配结果
+     * @param valueMatchMap
+     * @param matchKey
+     * @param splitBy
+     * @return
+     */
+    private static List collectMatchedValues(JoinKeyMap<?> valueMatchMap, Object matchKey, String splitBy){
+        Collection<?> keys;
+        if(matchKey instanceof Collection){
+            keys = (Collection<?>) matchKey;
+        }
+        else if(matchKey instanceof String && V.notEmpty(splitBy) && ((String)matchKey).contains(splitBy)){
+            keys = S.splitToList((String)matchKey, splitBy);
+        }
+        else {
+            // 多列key或未匹配的单值
+            return new ArrayList();
+        }
+        Set matchedValues = new LinkedHashSet<>();
+        for(Object key : keys){
+            Object value = valueMatchMap.get(key);
+            if(value instanceof Collection){
+                matchedValues.addAll((Collection)value);
+            }
+            else if(value != null){
+                matchedValues.add(value);
+            }
+        }
+        return new ArrayList(matchedValues);
+    }
+
     /***
      * 从对象集合提取某个属性值到list中
      * @param setterFieldName
@@ -259,25 +400,19 @@ public class ResultAssembler {
                     if (matchKeys.size() == 1 && V.notEmpty(splitBy) && matchKey.contains(splitBy)) {
                         matchKeys = S.splitToList(matchKey, splitBy);
                     }
-                    List matchedValues = new ArrayList(matchKeys.size());
+                    Set matchedValues = new LinkedHashSet(matchKeys.size());
                     for(Object key : matchKeys){
                         Object value = valueMatchMap.get(S.valueOf(key));
                         if(value != null){
-                            Collection valueList = (Collection)value;
-                            for(Object obj : valueList){
-                                if(!matchedValues.contains(obj)){
-                                    matchedValues.add(obj);
-                                }
-                            }
+                            matchedValues.addAll((Collection)value);
                         }
                     }
-                    entityList = matchedValues;
+                    entityList = new ArrayList(matchedValues);
                 }
                 // 赋值
-                BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(object);
                 for(int i = 0; i< annoObjSetterPropNameList.size(); i++){
                     List valObjList = BeanUtils.collectToList(entityList, refGetterFieldNameList.get(i));
-                    beanWrapper.setPropertyValue(annoObjSetterPropNameList.get(i), valObjList);
+                    BeanUtils.setProperty(object, annoObjSetterPropNameList.get(i), valObjList);
                 }
             }
         }
@@ -434,43 +569,45 @@ public class ResultAssembler {
         if(V.isEmpty(valueList)) {
             return valueList;
         }
-        List newValueList = new ArrayList();
-        for(Object value : valueList) {
+        Set<Object> uniqueValues = new LinkedHashSet<>(valueList.size());
+        unpackValues(valueList, splitBy, fieldType, uniqueValues);
+        return new ArrayList(uniqueValues);
+    }
+
+    /**
+     * 拆解值列表，逐个收集到目标集合中（目标集合为Set时可保序去重）
+     * @param values
+     * @param splitBy
+     * @param fieldType
+     * @param target
+     */
+    public static void unpackValues(Collection<?> values, String splitBy, Class<?> fieldType, Collection<Object> target) {
+        if(V.isEmpty(values)) {
+            return;
+        }
+        boolean isSameType = fieldType == null || fieldType.equals(String.class);
+        for(Object value : values) {
             if(value == null) {
                 continue;
             }
             if(value instanceof Collection) {
-                for(Object key : (Collection)value){
-                    if(!newValueList.contains(key)){
-                        newValueList.add(key);
-                    }
-                }
+                target.addAll((Collection)value);
             }
-            else {
-                if(V.notEmpty(splitBy)){
-                    boolean isSameType = fieldType == null || fieldType.equals(String.class);
-                    String valueStr = S.clearNonConst(S.valueOf(value));
-                    if(valueStr.contains(splitBy)) {
-                        for(String oneVal : valueStr.split(splitBy)){
-                            Object oneValueObj = isSameType? oneVal : BeanUtils.convertValueToFieldType(oneVal, fieldType);
-                            if(!newValueList.contains(oneValueObj)){
-                                newValueList.add(oneValueObj);
-                            }
-                        }
-                    }
-                    else {
-                        Object oneValueObj = isSameType? value : BeanUtils.convertValueToFieldType(value, fieldType);
-                        if(!newValueList.contains(oneValueObj)){
-                            newValueList.add(oneValueObj);
-                        }
+            else if(V.notEmpty(splitBy)){
+                String valueStr = S.clearNonConst(S.valueOf(value));
+                if(valueStr.contains(splitBy)) {
+                    for(String oneVal : valueStr.split(splitBy)){
+                        target.add(isSameType? oneVal : BeanUtils.convertValueToFieldType(oneVal, fieldType));
                     }
                 }
-                else if(!newValueList.contains(value)){
-                    newValueList.add(value);
+                else {
+                    target.add(isSameType? value : BeanUtils.convertValueToFieldType(value, fieldType));
                 }
             }
+            else {
+                target.add(value);
+            }
         }
-        return newValueList;
     }
 
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.helper;
+
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.util.ContextHolder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * IN条件分片查询执行器
+ * <p>
+ * 关联绑定的IN条件值超过分片大小（diboot.core.binding-in-slice-size，默认1000）时拆分为多次查询，
+ * 并在关联绑定线程池{@link BindingExecutor}上并行执行（diboot.core.binding-slice-parallelism，默认4）。
+ * 调用线程参与执行未被领取的分片，不会因线程池饱和而死锁。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/3
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class SliceQueryExecutor {
+
+    /**
+     * 值数量是否超出分片大小
+     * @param values
+     * @return
+     */
+    public static boolean needSlice(Collection<?> values) {
+        return values != null && values.size() > BaseConfig.getBindingInSliceSize();
+    }
+
+    /**
+     * 按分片大小拆分
+     * @param values
+     * @return
+     */
+    public static <V> List<List<V>> partition(List<V> values) {
+        return partition(values, BaseConfig.getBindingInSliceSize());
+    }
+
+    /**
+     * 按指定大小拆分
+     * @param values
+     * @param sliceSize
+     * @return
+     */
+    public static <V> List<List<V>> partition(List<V> values, int sliceSize) {
+        if(values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if(sliceSize <= 0 || values.size() <= sliceSize) {
+            return Collections.singletonList(values);
+        }
+        List<List<V>> slices = new ArrayList<>((values.size() + sliceSize - 1) / sliceSize);
+        for(int from = 0; from < values.size(); from += sliceSize) {
+            slices.add(values.subList(from, Math.min(from + sliceSize, values.size())));
+        }
+        return slices;
+    }
+
+    /**
+     * 分片执行IN值查询，按分片顺序合并结果
+     * @param inValues IN条件值
+     * @param sliceQuery 单个分片的查询
+     * @return
+     */
+    public static <V, R> List<R> query(List<V> inValues, Function<List<V>, List<R>> sliceQuery) {
+        List<List<V>> slices = partition(inValues);
+        if(slices.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if(slices.size() == 1) {
+            return sliceQuery.apply(slices.get(0));
+        }
+        List<List<R>> sliceResults = execute(slices, sliceQuery);
+        int size = 0;
+        for(List<R> sliceResult : sliceResults) {
+            size += sliceResult != null? sliceResult.size() : 0;
+        }
+        List<R> mergedList = new ArrayList<>(size);
+        for(List<R> sliceResult : sliceResults) {
+            if(sliceResult != null) {
+                mergedList.addAll(sliceResult);
+            }
+        }
+        return mergedList;
+    }
+
+    /**
+     * 执行任务列表，返回与任务顺序一致的结果
+     * @param tasks
+     * @param executeFunc
+     * @return
+     */
+    public static <S, R> List<R> execute(List<S> tasks, Function<S, R> executeFunc) {
+        int parallelism = Math.min(tasks.size(), BaseConfig.getBindingSliceParallelism());
+        BindingExecutor bindingExecutor = parallelism > 1? ContextHolder.getBean(BindingExecutor.class) : null;
+        if(bindingExecutor != null) {
+            log.debug("IN条件分片查询: {} 个分片，并行度 {}", tasks.size(), parallelism);
+        }
+        return BindingExecutor.execute(bindingExecutor != null? bindingExecutor::execute : null, tasks, executeFunc, parallelism);
+    }
+
+}
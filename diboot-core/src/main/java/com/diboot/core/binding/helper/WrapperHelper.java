@@ -24,13 +24,16 @@ import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.query.Comparison;
 import com.diboot.core.config.Cons;
 import com.diboot.core.data.copy.Accept;
+import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.JSON;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -216,6 +219,35 @@ public class WrapperHelper {
         }
     }
 
+    /**
+     * 构建与orderBy一致的内存排序器（用于合并分片查询结果，ASC时null在前）
+     *
+     * @param orderBy      排序，格式：short_name:DESC,age:ASC,birthdate
+     * @param field2column 字段名转列名（Map结果按列名取值）
+     * @param column2field 列名转字段名（对象结果按字段名取值）
+     * @return 无排序时返回null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <E> Comparator<E> buildOrderByComparator(String orderBy, Function<String, String> field2column, Function<String, String> column2field) {
+        if (V.isEmpty(orderBy)) {
+            return null;
+        }
+        Comparator<E> comparator = null;
+        for (String field : S.split(orderBy, Cons.SEPARATOR_COMMA)) {
+            String[] fieldAndOrder = field.split(Cons.SEPARATOR_COLON);
+            String columnName = field2column.apply(fieldAndOrder[0]);
+            String fieldName = column2field.apply(columnName);
+            Comparator<E> fieldComparator = Comparator.comparing(
+                    item -> (Comparable) (item instanceof Map ? ((Map) item).get(columnName) : BeanUtils.getProperty(item, fieldName)),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (fieldAndOrder.length > 1 && Cons.ORDER_DESC.equalsIgnoreCase(fieldAndOrder[1])) {
+                fieldComparator = fieldComparator.reversed();
+            }
+            comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+        }
+        return comparator;
+    }
+
     /**
      * 基于VO提取最小集select字段
      *
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.parser;
+
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.S;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 查询结果行（列名-值Map）到实体的映射器
+ * <p>
+ * 按实体类缓存，每个列名只解析一次对应的属性及setter；
+ * 值类型与属性类型一致时直接调用setter，否则交由 BeanUtils.setProperty 转换，实体中无对应属性的列直接跳过。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/13
+ * Copyright © diboot.com
+ */
+@Slf4j
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class EntityRowMapper<T> {
+
+    /**
+     * 单个实体类最多缓存的列数，避免异常列名导致无限增长
+     */
+    private static final int MAX_COLUMN_BINDINGS = 1024;
+
+    private final Class<T> entityClass;
+    private final Constructor<T> constructor;
+    private final PropAccessor propAccessor;
+    /**
+     * 列名 - 属性绑定
+     */
+    private final Map<String, ColumnBinding> columnBindingMap = new ConcurrentHashMap<>();
+
+    public EntityRowMapper(Class<T> entityClass) {
+        this.entityClass = entityClass;
+        try {
+            this.constructor = entityClass.getConstructor();
+        }
+        catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(entityClass.getName() + " 缺少无参构造函数", e);
+        }
+        this.propAccessor = BindingCacheManager.getPropAccessorByClass(entityClass);
+    }
+
+    /**
+     * 映射多行
+     * @param rows
+     * @return
+     */
+    public List<T> mapRows(List<Map<String, Object>> rows) {
+        List<T> entityList = new ArrayList<>(rows.size());
+        for(Map<String, Object> row : rows) {
+            T entity = mapRow(row);
+            if(entity != null) {
+                entityList.add(entity);
+            }
+        }
+        return entityList;
+    }
+
+    /**
+     * 映射单行
+     * @param row
+     * @return 实例化失败时返回null
+     */
+    public T mapRow(Map<String, Object> row) {
+        T entity;
+        try {
+            entity = constructor.newInstance();
+        }
+        catch (Exception e) {
+            log.warn("new实例并绑定属性值异常", e);
+            return null;
+        }
+        for(Map.Entry<String, Object> entry : row.entrySet()) {
+            ColumnBinding binding = getColumnBinding(entry.getKey());
+            if(binding != null) {
+                binding.bind(entity, entry.getValue());
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * 获取列的属性绑定
+     * @param column
+     * @return 占位列返回null
+     */
+    private ColumnBinding getColumnBinding(String column) {
+        ColumnBinding binding = columnBindingMap.get(column);
+        if(binding != null) {
+            return binding.ignored? null : binding;
+        }
+        binding = new ColumnBinding(column);
+        if(columnBindingMap.size() < MAX_COLUMN_BINDINGS) {
+            columnBindingMap.putIfAbsent(column, binding);
+        }
+        return binding.ignored? null : binding;
+    }
+
+    /**
+     * 列与属性的绑定
+     */
+    private class ColumnBinding {
+        private final boolean ignored;
+        private final String fieldName;
+        private final Class<?> propType;
+        private final BiConsumer<Object, Object> setter;
+        /**
+         * is_前缀的列值为Boolean时，实体中对应的无is前缀的属性（如 is_deleted -> deleted）
+         */
+        private final String boolFieldName;
+        private final Class<?> boolPropType;
+        private final BiConsumer<Object, Object> boolSetter;
+
+        ColumnBinding(String column) {
+            this.ignored = column.endsWith(DynamicSqlProvider.PLACEHOLDER_COLUMN_FLAG);
+            if(ignored) {
+                log.debug("忽略查询占位字段 {}", column);
+                this.fieldName = null;
+                this.propType = null;
+                this.setter = null;
+                this.boolFieldName = null;
+                this.boolPropType = null;
+                this.boolSetter = null;
+                return;
+            }
+            this.fieldName = S.toLowerCaseCamel(column);
+            this.propType = propAccessor.getPropType(fieldName);
+            this.setter = propAccessor.getSetter(fieldName);
+            String boolName = null;
+            // 检查无is前缀的boolean类型
+            if(S.startsWithIgnoreCase(column, "is_") && BeanUtils.extractField(entityClass, fieldName) == null) {
+                String tempFieldName = S.toLowerCaseCamel(S.substringAfter(column, "_"));
+                if(BeanUtils.extractField(entityClass, tempFieldName) != null) {
+                    boolName = tempFieldName;
+                }
+            }
+            this.boolFieldName = boolName;
+            this.boolPropType = boolName != null? propAccessor.getPropType(boolName) : null;
+            this.boolSetter = boolName != null? propAccessor.getSetter(boolName) : null;
+        }
+
+        /**
+         * 绑定值
+         * @param entity
+         * @param value
+         */
+        void bind(Object entity, Object value) {
+            if(boolFieldName != null && value instanceof Boolean) {
+                bind(entity, boolFieldName, boolPropType, boolSetter, value);
+            }
+            else {
+                bind(entity, fieldName, propType, setter, value);
+            }
+        }
+
+        private void bind(Object entity, String name, Class<?> type, BiConsumer<Object, Object> propSetter, Object value) {
+            // 实体中无此可写属性
+            if(propSetter == null) {
+                return;
+            }
+            try {
+                if(type != null && type.isInstance(value)) {
+                    propSetter.accept(entity, value);
+                }
+                else {
+                    // 需类型转换或值为null
+                    BeanUtils.setProperty(entity, name, value);
+                }
+            }
+            catch (Exception e) {
+                log.debug("复制属性{}.{}异常: {}", entityClass.getSimpleName(), name, e.getMessage());
+            }
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import com.diboot.core.binding.Binder;
 import com.diboot.core.binding.binder.BaseBinder;
 import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.helper.ResultAssembler;
+import com.diboot.core.binding.helper.SliceQueryExecutor;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.exception.InvalidUsageException;
@@ -131,27 +132,10 @@ public class MiddleTable {
         }
         //id //org_id
         EntityInfoCache linkage = BindingCacheManager.getEntityInfoByTable(table);
+        // 有定义mapper，首选mapper，否则SQL: SELECT id, org_id FROM department WHERE id IN(?)
         // 中间表查询忽略数据权限拦截
-        ThreadLocalHolder.setIgnoreInterceptor();
-        // 有定义mapper，首选mapper
-        if(linkage != null){
-            List<Map<String, Object>> resultSetMapList = queryByMapper(linkage, trunkObjCol2ValuesMap);
-            return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-        }
-        else{
-            // 提取中间表查询SQL: SELECT id, org_id FROM department WHERE id IN(?)
-            List paramValueList = new ArrayList();
-            String sql = toSQL(trunkObjCol2ValuesMap, paramValueList);
-            // 执行查询并合并结果
-            try {
-                List<Map<String, Object>> resultSetMapList = SqlExecutor.executeQuery(sql, paramValueList.toArray());
-                return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-            }
-            catch (Exception e) {
-                log.error("中间表查询异常: {}", sql, e);
-                return Collections.emptyMap();
-            }
-        }
+        List<Map<String, Object>> resultSetMapList = executeQuery(linkage, trunkObjCol2ValuesMap, false, true);
+        return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
     }
 
     /**
@@ -165,25 +149,9 @@ public class MiddleTable {
         }
         //user_id //role_id
         EntityInfoCache linkage = BindingCacheManager.getEntityInfoByTable(table);
-        // 有定义mapper，首选mapper
-        if(linkage != null){
-            List<Map<String, Object>> resultSetMapList = queryByMapper(linkage, trunkObjCol2ValuesMap, true);
-            return ResultAssembler.convertToOneToManyCountResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-        }
-        else{
-            // 提取中间表查询SQL: SELECT user_id, role_id FROM user_role WHERE user_id IN(?)
-            List paramValueList = new ArrayList();
-            String sql = toSQL(trunkObjCol2ValuesMap, paramValueList, true);
-            // 执行查询并合并结果
-            try {
-                List<Map<String, Object>> resultSetMapList = SqlExecutor.executeQuery(sql, paramValueList.toArray());
-                return ResultAssembler.convertToOneToManyCountResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-            }
-            catch (Exception e) {
-                log.error("中间表查询异常: {}", sql, e);
-                return Collections.emptyMap();
-            }
-        }
+        // 有定义mapper，首选mapper，否则SQL: SELECT user_id, count(*) FROM user_role WHERE user_id IN(?) GROUP BY user_id
+        List<Map<String, Object>> resultSetMapList = executeQuery(linkage, trunkObjCol2ValuesMap, true, false);
+        return ResultAssembler.convertToOneToManyCountResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
     }
 
     /**
@@ -197,35 +165,79 @@ public class MiddleTable {
         }
         //user_id //role_id
         EntityInfoCache linkage = BindingCacheManager.getEntityInfoByTable(table);
-        // 有定义mapper，首选mapper
-        if(linkage != null){
-            List<Map<String, Object>> resultSetMapList = queryByMapper(linkage, trunkObjCol2ValuesMap);
-            return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-        }
-        else{
-            // 提取中间表查询SQL: SELECT user_id, role_id FROM user_role WHERE user_id IN(?)
-            List paramValueList = new ArrayList();
-            String sql = toSQL(trunkObjCol2ValuesMap, paramValueList);
-            // 执行查询并合并结果
-            try {
-                List<Map<String, Object>> resultSetMapList = SqlExecutor.executeQuery(sql, paramValueList.toArray());
-                return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-            }
-            catch (Exception e) {
-                log.error("中间表查询异常: {}", sql, e);
-                return Collections.emptyMap();
+        // 有定义mapper，首选mapper，否则SQL: SELECT user_id, role_id FROM user_role WHERE user_id IN(?)
+        List<Map<String, Object>> resultSetMapList = executeQuery(linkage, trunkObjCol2ValuesMap, false, false);
+        return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+    }
+
+    /**
+     * 执行中间表查询，IN条件值超出分片大小时分片（并行）查询并合并结果
+     * @param linkage
+     * @param trunkObjCol2ValuesMap
+     * @param isCount
+     * @param ignoreInterceptor 是否忽略数据权限拦截（标记仅对当前线程的下一次查询有效，需在每个分片查询前设置）
+     * @return
+     */
+    private List<Map<String, Object>> executeQuery(EntityInfoCache linkage, Map<String, List> trunkObjCol2ValuesMap, boolean isCount, boolean ignoreInterceptor){
+        String slicedColumn = null;
+        for(Map.Entry<String, List> entry : trunkObjCol2ValuesMap.entrySet()){
+            if(entry.getKey() != null && SliceQueryExecutor.needSlice(entry.getValue())){
+                slicedColumn = entry.getKey();
+                break;
             }
         }
+        if(slicedColumn == null){
+            return executeSliceQuery(linkage, trunkObjCol2ValuesMap, isCount, ignoreInterceptor);
+        }
+        String column = slicedColumn;
+        List<Object> values = trunkObjCol2ValuesMap.get(column);
+        return SliceQueryExecutor.query(values, slice -> {
+            Map<String, List> sliceValuesMap = new LinkedHashMap<>(trunkObjCol2ValuesMap);
+            sliceValuesMap.put(column, slice);
+            return executeSliceQuery(linkage, sliceValuesMap, isCount, ignoreInterceptor);
+        });
     }
 
     /**
-     * 通过定义的Mapper查询结果
+     * 执行单次中间表查询（可能在关联绑定线程池中执行）
      * @param linkage
      * @param trunkObjCol2ValuesMap
+     * @param isCount
+     * @param ignoreInterceptor
      * @return
      */
-    private List<Map<String, Object>> queryByMapper(EntityInfoCache linkage, Map<String, List> trunkObjCol2ValuesMap){
-        return queryByMapper(linkage, trunkObjCol2ValuesMap, false);
+    private List<Map<String, Object>> executeSliceQuery(EntityInfoCache linkage, Map<String, List> trunkObjCol2ValuesMap, boolean isCount, boolean ignoreInterceptor){
+        if(!ignoreInterceptor){
+            return doExecuteSliceQuery(linkage, trunkObjCol2ValuesMap, isCount);
+        }
+        ThreadLocalHolder.setIgnoreInterceptor();
+        try{
+            return doExecuteSliceQuery(linkage, trunkObjCol2ValuesMap, isCount);
+        }
+        finally {
+            // 未被拦截器消费时移除，避免影响线程池线程的后续查询
+            ThreadLocalHolder.ignoreInterceptor();
+        }
+    }
+
+    /**
+     * 执行中间表查询SQL
+     */
+    private List<Map<String, Object>> doExecuteSliceQuery(EntityInfoCache linkage, Map<String, List> trunkObjCol2ValuesMap, boolean isCount){
+        if(linkage != null){
+            return queryByMapper(linkage, trunkObjCol2ValuesMap, isCount);
+        }
+        // 提取中间表查询SQL
+        List paramValueList = new ArrayList();
+        String sql = toSQL(trunkObjCol2ValuesMap, paramValueList, isCount);
+        // 执行查询
+        try {
+            return SqlExecutor.executeQuery(sql, paramValueList.toArray());
+        }
+        catch (Exception e) {
+            log.error("中间表查询异常: {}", sql, e);
+            return Collections.emptyList();
+        }
     }
 
     /**
@@ -267,15 +279,6 @@ public class MiddleTable {
         return resultSetMapList;
     }
 
-    /**
-     * 转换查询SQL
-     * @param trunkObjCol2ValuesMap 注解外键值的列表，用于拼接SQL查询
-     * @return
-     */
-    private String toSQL(Map<String, List> trunkObjCol2ValuesMap, List paramValueList){
-        return toSQL(trunkObjCol2ValuesMap, paramValueList, false);
-    }
-
     /**
      * 转换查询SQL
      * @param trunkObjCol2ValuesMap 注解外键值的列表，用于拼接SQL查询
@@ -312,7 +312,7 @@ public class ParserCache {
         return DATA_MASK_FIELD_MAP.computeIfAbsent(clazz.getName(), k -> {
             List<String> maskFieldList = new ArrayList<>(4);
             for (Field field : BeanUtils.extractFields(clazz, DataMask.class)) {
-                if (!field.getType().isAssignableFrom(String.class)) {
+                if (!field.getType().isAssignableFrom(String.class) && !Collection.class.isAssignableFrom(field.getType())) {
                     throw new InvalidUsageException("exception.invalidUsage.parserCache.getDataMaskFieldList.message");
                 }
                 maskFieldList.add(field.getName());
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ClassUtils;
+import org.springframework.core.ResolvableType;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bean属性访问器缓存（基于LambdaMetafactory生成getter/setter调用，避免反射及BeanWrapper开销）
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/1
+ * Copyright © diboot.com
+ */
+@Slf4j
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class PropAccessor {
+
+    private final Class<?> beanClass;
+    /**
+     * 属性名-getter
+     */
+    private final Map<String, Function<Object, Object>> getterMap;
+    /**
+     * 属性名-setter
+     */
+    private final Map<String, BiConsumer<Object, Object>> setterMap;
+    /**
+     * 属性名-属性类型（基本类型已转换为包装类型）
+     */
+    private final Map<String, Class<?>> propTypeMap;
+    /**
+     * 集合属性名-元素类型
+     */
+    private final Map<String, Class<?>> elementTypeMap;
+
+    /**
+     * 初始化
+     * @param beanClass
+     */
+    public PropAccessor(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        Map<String, Function<Object, Object>> getters = new HashMap<>();
+        Map<String, BiConsumer<Object, Object>> setters = new HashMap<>();
+        Map<String, Class<?>> propTypes = new HashMap<>();
+        Map<String, Class<?>> elementTypes = new HashMap<>();
+        MethodHandles.Lookup lookup = getLookup(beanClass);
+        PropertyDescriptor[] descriptors = org.springframework.beans.BeanUtils.getPropertyDescriptors(beanClass);
+        for(PropertyDescriptor pd : descriptors) {
+            if(pd.getPropertyType() == null) {
+                continue;
+            }
+            String propName = pd.getName();
+            Method readMethod = pd.getReadMethod();
+            if(readMethod != null && isAccessible(readMethod)) {
+                Function<Object, Object> getter = buildGetter(lookup, readMethod);
+                if(getter != null) {
+                    getters.put(propName, getter);
+                }
+            }
+            Method writeMethod = pd.getWriteMethod();
+            if(writeMethod != null && isAccessible(writeMethod)) {
+                BiConsumer<Object, Object> setter = buildSetter(lookup, writeMethod);
+                if(setter != null) {
+                    setters.put(propName, setter);
+                }
+                if(Collection.class.isAssignableFrom(pd.getPropertyType())) {
+                    Class<?> elementType = ResolvableType.forMethodParameter(writeMethod, 0).asCollection().resolveGeneric(0);
+                    elementTypes.put(propName, elementType != null? elementType : Object.class);
+                }
+            }
+            propTypes.put(propName, ClassUtils.primitiveToWrapper(pd.getPropertyType()));
+        }
+        this.getterMap = Collections.unmodifiableMap(getters);
+        this.setterMap = Collections.unmodifiableMap(setters);
+        this.propTypeMap = Collections.unmodifiableMap(propTypes);
+        this.elementTypeMap = Collections.unmodifiableMap(elementTypes);
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * 是否有该属性的getter
+     * @param propName
+     * @return
+     */
+    public boolean isReadable(String propName) {
+        return getterMap.containsKey(propName);
+    }
+
+    /**
+     * 是否有该属性的setter
+     * @param propName
+     * @return
+     */
+    public boolean isWritable(String propName) {
+        return setterMap.containsKey(propName);
+    }
+
+    /**
+     * 获取属性类型
+     * @param propName
+     * @return
+     */
+    public Class<?> getPropType(String propName) {
+        return propTypeMap.get(propName);
+    }
+
+    /**
+     * 获取属性的getter
+     * @param propName
+     * @return 不存在时返回null
+     */
+    public Function<Object, Object> getGetter(String propName) {
+        return getterMap.get(propName);
+    }
+
+    /**
+     * 获取属性的setter
+     * @param propName
+     * @return 不存在时返回null
+     */
+    public BiConsumer<Object, Object> getSetter(String propName) {
+        return setterMap.get(propName);
+    }
+
+    /**
+     * 取值
+     * @param bean
+     * @param propName
+     * @return
+     */
+    public Object getValue(Object bean, String propName) {
+        Function<Object, Object> getter = getterMap.get(propName);
+        if(getter == null) {
+            throw new IllegalArgumentException(beanClass.getName() + " 不存在可读属性: " + propName);
+        }
+        return getter.apply(bean);
+    }
+
+    /**
+     * 值是否可直接赋值给属性（无需类型转换）
+     * @param propName
+     * @param value
+     * @return
+     */
+    public boolean isAssignable(String propName, Object value) {
+        BiConsumer<Object, Object> setter = setterMap.get(propName);
+        if(setter == null) {
+            return false;
+        }
+        if(value == null) {
+            // 基本类型不接受null
+            return !(setter instanceof PrimitiveSetter);
+        }
+        Class<?> propType = propTypeMap.get(propName);
+        if(propType == null || !propType.isInstance(value)) {
+            return false;
+        }
+        // 集合类型需校验元素类型，不一致时交由BeanWrapper转换
+        if(value instanceof Collection) {
+            Class<?> elementType = elementTypeMap.get(propName);
+            if(elementType == null) {
+                return false;
+            }
+            if(elementType != Object.class) {
+                for(Object element : (Collection)value) {
+                    if(element != null && !elementType.isInstance(element)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return !(value instanceof Map) && !propType.isArray();
+    }
+
+    /**
+     * 赋值（调用方需确保值类型可直接赋值，参见{@link #isAssignable(String, Object)}）
+     * @param bean
+     * @param propName
+     * @param value
+     */
+    public void setValue(Object bean, String propName, Object value) {
+        BiConsumer<Object, Object> setter = setterMap.get(propName);
+        if(setter == null) {
+            throw new IllegalArgumentException(beanClass.getName() + " 不存在可写属性: " + propName);
+        }
+        setter.accept(bean, value);
+    }
+
+    /**
+     * 获取有bean类访问权限的Lookup
+     * @param beanClass
+     * @return
+     */
+    private static MethodHandles.Lookup getLookup(Class<?> beanClass) {
+        try {
+            return MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup());
+        }
+        catch (Exception e) {
+            log.debug("无法获取 {} 的privateLookup，使用public lookup: {}", beanClass.getName(), e.getMessage());
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    /**
+     * 方法是否可访问
+     * @param method
+     * @return
+     */
+    private static boolean isAccessible(Method method) {
+        return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers());
+    }
+
+    /**
+     * 构建getter
+     * @param lookup
+     * @param readMethod
+     * @return
+     */
+    private static Function<Object, Object> buildGetter(MethodHandles.Lookup lookup, Method readMethod) {
+        try {
+            MethodHandle handle = lookup.unreflect(readMethod);
+            try {
+                Class<?> returnType = ClassUtils.primitiveToWrapper(readMethod.getReturnType());
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(returnType, readMethod.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            }
+            catch (Throwable e) {
+                // 无法生成lambda时（如类加载器不可见），退化为MethodHandle调用
+                log.debug("生成getter lambda失败: {}, 使用MethodHandle: {}", readMethod, e.getMessage());
+                MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+                return bean -> {
+                    try {
+                        return generic.invokeExact(bean);
+                    }
+                    catch (RuntimeException | Error ex) {
+                        throw ex;
+                    }
+                    catch (Throwable ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                };
+            }
+        }
+        catch (Exception e) {
+            log.debug("无法访问getter: {}, {}", readMethod, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 构建setter
+     * @param lookup
+     * @param writeMethod
+     * @return
+     */
+    private static BiConsumer<Object, Object> buildSetter(MethodHandles.Lookup lookup, Method writeMethod) {
+        try {
+            MethodHandle handle = lookup.unreflect(writeMethod);
+            Class<?> paramType = writeMethod.getParameterTypes()[0];
+            BiConsumer<Object, Object> setter;
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, writeMethod.getDeclaringClass(), ClassUtils.primitiveToWrapper(paramType)));
+                setter = (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            }
+            catch (Throwable e) {
+                // 无法生成lambda时（如类加载器不可见），退化为MethodHandle调用
+                log.debug("生成setter lambda失败: {}, 使用MethodHandle: {}", writeMethod, e.getMessage());
+                MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                setter = (bean, value) -> {
+                    try {
+                        generic.invokeExact(bean, value);
+                    }
+                    catch (RuntimeException | Error ex) {
+                        throw ex;
+                    }
+                    catch (Throwable ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                };
+            }
+            return paramType.isPrimitive()? new PrimitiveSetter(setter) : setter;
+        }
+        catch (Exception e) {
+            log.debug("无法访问setter: {}, {}", writeMethod, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 基本类型参数的setter标记
+     */
+    private static class PrimitiveSetter implements BiConsumer<Object, Object> {
+        private final BiConsumer<Object, Object> delegate;
+
+        PrimitiveSetter(BiConsumer<Object, Object> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void accept(Object bean, Object value) {
+            delegate.accept(bean, value);
+        }
+    }
+
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.parser;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableLogic;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.query.BindQuery;
+import com.diboot.core.binding.query.Comparison;
+import com.diboot.core.binding.query.Strategy;
+import com.diboot.core.binding.query.dynamic.AnnoJoiner;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.lang.model.type.NullType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * DTO查询计划
+ * <p>
+ * 按DTO类一次性解析字段的getter、列名、匹配方式、策略及加密标记等，
+ * 构建QueryWrapper时直接遍历，无需再反射获取方法及读取注解。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/12
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Getter
+public class QueryPlan {
+
+    /**
+     * DTO类
+     */
+    private final Class<?> dtoClass;
+    /**
+     * 参与查询的字段（按字段定义顺序）
+     */
+    private final List<FieldPlan> fieldPlans;
+    /**
+     * 关联查询的字段名
+     */
+    private final Set<String> joinFieldNames;
+
+    public QueryPlan(Class<?> dtoClass) {
+        this.dtoClass = dtoClass;
+        // BindQuery注解key - AnnoJoiner
+        Map<String, AnnoJoiner> keyToJoinerMap = new HashMap<>();
+        Set<String> joinFields = new HashSet<>();
+        for(AnnoJoiner annoJoiner : ParserCache.getBindQueryAnnos(dtoClass)) {
+            keyToJoinerMap.putIfAbsent(annoJoiner.getKey(), annoJoiner);
+            if(V.notEmpty(annoJoiner.getJoin())) {
+                joinFields.add(annoJoiner.getFieldName());
+            }
+        }
+        List<Field> declaredFields = BeanUtils.extractAllFields(dtoClass, true);
+        PropAccessor propAccessor = BindingCacheManager.getPropAccessorByClass(dtoClass);
+        List<FieldPlan> plans = new ArrayList<>(declaredFields.size());
+        for(Field field : declaredFields) {
+            BindQuery bindQuery = field.getAnnotation(BindQuery.class);
+            // 忽略指定ignore的字段
+            if(bindQuery != null && bindQuery.ignore()) {
+                continue;
+            }
+            plans.add(new FieldPlan(dtoClass, field, bindQuery, propAccessor, keyToJoinerMap));
+        }
+        this.fieldPlans = Collections.unmodifiableList(plans);
+        this.joinFieldNames = joinFields.isEmpty()? Collections.emptySet() : Collections.unmodifiableSet(joinFields);
+    }
+
+    /**
+     * 指定字段中是否包含关联查询的字段
+     * @param fieldNames
+     * @return
+     */
+    public boolean hasJoinTable(Collection<String> fieldNames) {
+        if(joinFieldNames.isEmpty() || V.isEmpty(fieldNames)) {
+            return false;
+        }
+        for(String fieldName : fieldNames) {
+            if(joinFieldNames.contains(fieldName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 字段的查询计划
+     */
+    @Getter
+    public static class FieldPlan {
+        /**
+         * 属性名
+         */
+        private final String fieldName;
+        /**
+         * getter
+         */
+        private final Function<Object, Object> getter;
+        /**
+         * 是否为日期类型（未指定时也参与查询）
+         */
+        private final boolean dateType;
+        /**
+         * 是否为逻辑删除字段
+         */
+        private final boolean tableLogic;
+        /**
+         * 是否非表字段（无BindQuery注解且 @TableField(exist = false)）
+         */
+        private final boolean notExist;
+        /**
+         * 值收集策略
+         */
+        private final Strategy strategy;
+        /**
+         * 是否为加密字段
+         */
+        private final boolean encrypted;
+        /**
+         * BindQuery 条件
+         */
+        private final ConditionPlan condition;
+        /**
+         * BindQuery.List 条件，未定义时为null
+         */
+        private final List<ConditionPlan> orConditions;
+
+        FieldPlan(Class<?> dtoClass, Field field, BindQuery bindQuery, PropAccessor propAccessor, Map<String, AnnoJoiner> keyToJoinerMap) {
+            this.fieldName = field.getName();
+            this.getter = resolveGetter(dtoClass, field, propAccessor);
+            Class<?> fieldType = field.getType();
+            this.dateType = V.equals(fieldType, Date.class) || V.equals(fieldType, LocalDate.class) || V.equals(fieldType, LocalDateTime.class);
+            this.tableLogic = field.isAnnotationPresent(TableLogic.class);
+            TableField tableField = field.getAnnotation(TableField.class);
+            this.notExist = bindQuery == null && tableField != null && !tableField.exist();
+            this.strategy = bindQuery != null ? bindQuery.strategy() : Strategy.IGNORE_EMPTY;
+            // 有默认值的boolean类型，非逻辑删除才提示
+            if(boolean.class.equals(fieldType) && !tableLogic && (tableField == null || tableField.exist())) {
+                log.warn("{}.{} 字段类型为 boolean，其默认值将参与构建查询条件，可能导致结果与预期不符，建议调整为 Boolean 类型 或 指定 @BindQuery(ignore=true)", dtoClass.getSimpleName(), fieldName);
+            }
+            // 加密字段
+            Class<?> entityClass = bindQuery == null || bindQuery.entity() == NullType.class ? dtoClass : bindQuery.entity();
+            String entityFieldName = bindQuery == null || S.isEmpty(bindQuery.column()) ? fieldName : bindQuery.column();
+            this.encrypted = ParserCache.getProtectFieldList(entityClass).contains(entityFieldName);
+            String defaultColumnName = BeanUtils.getColumnName(field);
+            this.condition = new ConditionPlan(bindQuery, field, defaultColumnName, keyToJoinerMap);
+            BindQuery.List queryList = field.getAnnotation(BindQuery.List.class);
+            if(queryList != null) {
+                List<ConditionPlan> conditions = new ArrayList<>(queryList.value().length);
+                for(BindQuery query : queryList.value()) {
+                    conditions.add(new ConditionPlan(query, field, defaultColumnName, keyToJoinerMap));
+                }
+                this.orConditions = Collections.unmodifiableList(conditions);
+            }
+            else {
+                this.orConditions = null;
+            }
+        }
+
+        /**
+         * 获取getter：优先使用缓存的属性访问器，
+         * 未找到时（如 xCoord 的 getXCoord()，JavaBeans 规范下属性名为 XCoord）按 is/get + 首字母大写 查找方法
+         * @param dtoClass
+         * @param field
+         * @param propAccessor
+         * @return
+         */
+        private static Function<Object, Object> resolveGetter(Class<?> dtoClass, Field field, PropAccessor propAccessor) {
+            String fieldName = field.getName();
+            Function<Object, Object> getter = propAccessor.getGetter(fieldName);
+            if(getter != null) {
+                return getter;
+            }
+            String prefix = V.equals(boolean.class, field.getType()) ? "is" : "get";
+            try {
+                Method method = dtoClass.getMethod(prefix + S.capFirst(fieldName));
+                return dto -> {
+                    try {
+                        return method.invoke(dto);
+                    }
+                    catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                };
+            }
+            catch (NoSuchMethodException e) {
+                log.debug("通过反射获取属性方法不存在：{}", e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * 获取属性值
+         * @param dto
+         * @return
+         */
+        public Object getValue(Object dto) {
+            if(getter == null) {
+                return null;
+            }
+            try {
+                return getter.apply(dto);
+            }
+            catch (Exception e) {
+                log.warn("获取属性 {} 值出错：{}", fieldName, e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 单个BindQuery注解的查询条件
+     */
+    @Getter
+    public static class ConditionPlan {
+        /**
+         * 是否有BindQuery注解
+         */
+        private final boolean annotated;
+        /**
+         * 匹配方式
+         */
+        private final Comparison comparison;
+        /**
+         * 策略
+         */
+        private final Strategy strategy;
+        /**
+         * 列名
+         */
+        private final String columnName;
+        /**
+         * 关联查询时的列名
+         */
+        private final String joinColumnName;
+
+        ConditionPlan(BindQuery bindQuery, Field field, String defaultColumnName, Map<String, AnnoJoiner> keyToJoinerMap) {
+            this.annotated = bindQuery != null;
+            this.comparison = bindQuery != null ? bindQuery.comparison() : Comparison.EQ;
+            this.strategy = bindQuery != null ? bindQuery.strategy() : Strategy.IGNORE_EMPTY;
+            AnnoJoiner annoJoiner = bindQuery != null ? keyToJoinerMap.get(field.getName() + bindQuery) : null;
+            if(annoJoiner == null) {
+                this.columnName = defaultColumnName;
+                this.joinColumnName = "self." + defaultColumnName;
+            }
+            else if(V.notEmpty(annoJoiner.getJoin())) {
+                this.columnName = annoJoiner.getAlias() + "." + annoJoiner.getColumnName();
+                this.joinColumnName = this.columnName;
+            }
+            else {
+                this.columnName = annoJoiner.getColumnName();
+                this.joinColumnName = "self." + annoJoiner.getColumnName();
+            }
+        }
+
+        /**
+         * 获取列名
+         * @param hasJoinTable 是否关联查询
+         * @return
+         */
+        public String getColumnName(boolean hasJoinTable) {
+            return hasJoinTable ? joinColumnName : columnName;
+        }
+
+        /**
+         * 是否忽略该值：忽略空字符串"",空集合等
+         * @param value
+         * @return
+         */
+        public boolean isIgnoreEmpty(Object value) {
+            return annotated &&
+                    (Strategy.IGNORE_EMPTY.equals(strategy) && value instanceof String && S.isEmpty((String) value) // 忽略空字符串""
+                            || Comparison.IN.equals(comparison) && V.isEmpty(value)); // 忽略空集合
+        }
+    }
+
+}
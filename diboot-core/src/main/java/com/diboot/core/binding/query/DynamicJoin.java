@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.query;
+
+import java.lang.annotation.*;
+
+/**
+ * 动态关联查询配置，用于DTO类上指定关联方式（未指定时使用全局配置 diboot.core.dynamic-join-strategy）
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/14
+ * Copyright © diboot.com
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface DynamicJoin {
+
+    /**
+     * 关联方式
+     */
+    JoinStrategy strategy() default JoinStrategy.EXISTS;
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.query;
+
+/**
+ * 动态关联查询的关联方式
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/14
+ * Copyright © diboot.com
+ */
+public enum JoinStrategy {
+    /**
+     * LEFT JOIN 关联表，SELECT DISTINCT 去重
+     */
+    LEFT_JOIN,
+    /**
+     * 仅用于过滤的关联表转换为 EXISTS 子查询（半连接），无需 DISTINCT 去重；
+     * 条件跨多个关联表、含 IS NULL 或按关联表字段排序时自动回退为 LEFT_JOIN
+     */
+    EXISTS,
+}
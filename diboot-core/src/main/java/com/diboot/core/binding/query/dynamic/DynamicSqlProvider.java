@@ -20,7 +20,11 @@ import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.parser.PropInfo;
+import com.diboot.core.binding.query.DynamicJoin;
+import com.diboot.core.binding.query.JoinStrategy;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.util.S;
@@ -28,13 +32,16 @@ import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.jdbc.SQL;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 动态SQL构建Provider
+ * <p>
+ * 关联方式为 EXISTS 时（DTO类注解 @DynamicJoin 或全局配置 diboot.core.dynamic-join-strategy），
+ * 仅用于过滤的关联表转换为 EXISTS 子查询，主查询无需 DISTINCT 去重。
+ * </p>
  * @author Mazc@dibo.ltd
  * @version v2.0
  * @date 2020/04/15
@@ -47,6 +54,19 @@ public class DynamicSqlProvider {
      */
     public static final String PLACEHOLDER_COLUMN_FLAG = "__";
 
+    /**
+     * 参数占位 #{...} 及引号内容
+     */
+    private static final Pattern PARAM_OR_QUOTED_PATTERN = Pattern.compile("#\\{[^}]*}|'[^']*'");
+    /**
+     * 表别名引用，如 r1.name
+     */
+    private static final Pattern TABLE_ALIAS_PATTERN = Pattern.compile("(?<![\\w.`])(\\w+)\\.");
+    /**
+     * 关联表无匹配记录时仍可能成立的条件
+     */
+    private static final Pattern NULL_TOLERANT_PATTERN = Pattern.compile("(?i)\\bOR\\b|\\bIS\\s+NULL\\b|\\b(IFNULL|COALESCE|NVL)\\s*\\(");
+
     /**
      * 构建动态SQL
      * @param ew
@@ -66,6 +86,25 @@ public class DynamicSqlProvider {
         return buildDynamicSql(page, ew);
     }
 
+    /**
+     * 构建动态SQL的count语句
+     * @param ew
+     * @return
+     */
+    public String buildSqlForCount(QueryWrapper ew){
+        DynamicJoinQueryWrapper wrapper = (DynamicJoinQueryWrapper)ew;
+        JoinSqlParts parts = buildJoinSqlParts(null, wrapper);
+        // 无关联表或EXISTS半连接时无重复行，直接count
+        if(parts.semiJoin || parts.joins.isEmpty()){
+            return buildSql(parts, wrapper, "COUNT(*)", false, null);
+        }
+        String idColumn = getIdColumn(wrapper.getEntityTable());
+        if(idColumn != null){
+            return buildSql(parts, wrapper, "COUNT(DISTINCT self." + idColumn + ")", false, null);
+        }
+        return "SELECT COUNT(*) FROM (" + buildSql(parts, wrapper, formatSqlSelect(ew.getSqlSelect(), null), true, null) + ") total";
+    }
+
     /**
      * 构建动态SQL
      * @param page 分页参数，用于MP分页插件AOP，不可删除
@@ -74,77 +113,226 @@ public class DynamicSqlProvider {
      */
     private <DTO> String buildDynamicSql(Page<?> page, QueryWrapper<DTO> ew){
         DynamicJoinQueryWrapper wrapper = (DynamicJoinQueryWrapper)ew;
+        JoinSqlParts parts = buildJoinSqlParts(page, wrapper);
+        return buildSql(parts, wrapper, formatSqlSelect(ew.getSqlSelect(), page), !parts.semiJoin, page);
+    }
+
+    /**
+     * 组装SQL
+     * @param parts join及where条件
+     * @param wrapper
+     * @param select select列
+     * @param distinct 是否去重
+     * @param page 分页参数，非null时添加排序
+     * @return
+     */
+    private String buildSql(JoinSqlParts parts, DynamicJoinQueryWrapper wrapper, String select, boolean distinct, Page<?> page){
         return new SQL() {{
-            SELECT_DISTINCT(formatSqlSelect(ew.getSqlSelect(), page));
+            if(distinct){
+                SELECT_DISTINCT(select);
+            }
+            else{
+                SELECT(select);
+            }
             FROM(wrapper.getEntityTable()+" self");
-            //提取字段，根据查询条件中涉及的表，动态join
-            List<AnnoJoiner> annoJoinerList = wrapper.getAnnoJoiners();
-            if(V.notEmpty(annoJoinerList)){
-                Set<String> tempSet = new HashSet<>();
-                StringBuilder sb = new StringBuilder();
-                for(AnnoJoiner joiner : annoJoinerList){
-                    if(V.notEmpty(joiner.getJoin()) && V.notEmpty(joiner.getOnSegment())){
-                        if(joiner.getMiddleTable() != null){
-                            sb.setLength(0);
-                            sb.append(joiner.getMiddleTable()).append(" ").append(joiner.getMiddleTableAlias()).append(" ON ").append(joiner.getMiddleTableOnSegment());
-                            String deletedCol = ParserCache.getDeletedColumn(joiner.getMiddleTable());
-                            if(deletedCol != null && !S.containsIgnoreCase(joiner.getMiddleTable(), " " + deletedCol)){
-                                sb.append(" AND ").append(joiner.getMiddleTableAlias()).append(".").append(deletedCol).append(" = ").append(BaseConfig.getActiveFlagValue());
-                            }
-                            String joinSegment = sb.toString();
-                            if(!tempSet.contains(joinSegment)){
-                                LEFT_OUTER_JOIN(joinSegment);
-                                tempSet.add(joinSegment);
-                            }
-                        }
-                        sb.setLength(0);
-                        sb.append(joiner.getJoin()).append(" ").append(joiner.getAlias()).append(" ON ").append(joiner.getOnSegment());
-                        String deletedCol = ParserCache.getDeletedColumn(joiner.getJoin());
-                        if(deletedCol != null && !S.containsIgnoreCase(joiner.getOnSegment(), " " + deletedCol)){
-                            sb.append(" AND ").append(joiner.getAlias()).append(".").append(deletedCol).append(" = ").append(BaseConfig.getActiveFlagValue());
-                        }
-                        String joinSegment = sb.toString();
-                        if(!tempSet.contains(joinSegment)){
-                            LEFT_OUTER_JOIN(joinSegment);
-                            tempSet.add(joinSegment);
-                        }
-                    }
+            for(String joinSegment : parts.joins){
+                LEFT_OUTER_JOIN(joinSegment);
+            }
+            for(String whereSegment : parts.wheres){
+                WHERE(whereSegment);
+            }
+            if (parts.hasNormalSql && page != null && V.notEmpty(page.orders())) {
+                List<String> orderByList = new ArrayList<>(page.orders().size());
+                page.orders().forEach(orderItem -> {
+                    orderByList.add(S.format("%s %s", orderItem.getColumn(), orderItem.isAsc() ? "ASC" : "DESC"));
+                });
+                if (orderByList.size() > 0) {
+                    String orderBySql = S.join(orderByList);
+                    ORDER_BY(orderBySql);
                 }
-                tempSet = null;
-            }
-            MergeSegments segments = ew.getExpression();
-            if(segments != null){
-                String normalSql = segments.getNormal().getSqlSegment();
-                if(V.notEmpty(normalSql)){
-                    WHERE(formatNormalSql(normalSql));
-                    // 动态为主表添加is_deleted=0
-                    String isDeletedCol = ParserCache.getDeletedColumn(wrapper.getEntityTable());
-                    String isDeletedSection = "self."+ isDeletedCol;
-                    if(isDeletedCol != null && !QueryBuilder.checkHasColumn(segments.getNormal(), isDeletedSection)){
-                        WHERE(isDeletedSection+ " = " +BaseConfig.getActiveFlagValue());
-                    }
-                    if (page != null && V.notEmpty(page.orders())) {
-                        List<String> orderByList = new ArrayList<>(page.orders().size());
-                        page.orders().forEach(orderItem -> {
-                            orderByList.add(S.format("%s %s", orderItem.getColumn(), orderItem.isAsc() ? "ASC" : "DESC"));
-                        });
-                        if (orderByList.size() > 0) {
-                            String orderBySql = S.join(orderByList);
-                            ORDER_BY(orderBySql);
+            }
+        }}.toString();
+    }
+
+    /**
+     * 构建join及where条件：EXISTS方式可行时将仅用于过滤的关联表转换为半连接，否则LEFT JOIN
+     * @param page
+     * @param wrapper
+     * @return
+     */
+    private JoinSqlParts buildJoinSqlParts(Page<?> page, DynamicJoinQueryWrapper wrapper){
+        //提取字段，根据查询条件中涉及的表，动态join
+        List<AnnoJoiner> annoJoinerList = wrapper.getAnnoJoiners();
+        MergeSegments segments = wrapper.getExpression();
+        String normalSql = segments != null? segments.getNormal().getSqlSegment() : null;
+        if(V.notEmpty(annoJoinerList) && getJoinStrategy(wrapper.getDtoClass()) == JoinStrategy.EXISTS){
+            JoinSqlParts parts = buildSemiJoinSqlParts(page, wrapper, annoJoinerList, normalSql);
+            if(parts != null){
+                return parts;
+            }
+            log.debug("{} 的查询条件无法转换为EXISTS子查询，使用LEFT JOIN", wrapper.getDtoClass().getSimpleName());
+        }
+        JoinSqlParts parts = new JoinSqlParts(false, V.notEmpty(normalSql));
+        if(V.notEmpty(annoJoinerList)){
+            Set<String> tempSet = new HashSet<>();
+            for(AnnoJoiner joiner : annoJoinerList){
+                if(V.notEmpty(joiner.getJoin()) && V.notEmpty(joiner.getOnSegment())){
+                    if(joiner.getMiddleTable() != null){
+                        String joinSegment = joiner.getMiddleTable() + " " + joiner.getMiddleTableAlias() + " ON " + buildMiddleTableOnCondition(joiner);
+                        if(tempSet.add(joinSegment)){
+                            parts.joins.add(joinSegment);
                         }
                     }
-                }
-                // 存在联表且无where条件，
-                else if(V.notEmpty(annoJoinerList)){
-                    // 动态为主表添加is_deleted=0
-                    String isDeletedCol = ParserCache.getDeletedColumn(wrapper.getEntityTable());
-                    String isDeletedSection = "self."+ isDeletedCol;
-                    if(isDeletedCol != null && !QueryBuilder.checkHasColumn(segments.getNormal(), isDeletedSection)){
-                        WHERE(isDeletedSection+ " = " +BaseConfig.getActiveFlagValue());
+                    String joinSegment = joiner.getJoin() + " " + joiner.getAlias() + " ON " + buildJoinOnCondition(joiner);
+                    if(tempSet.add(joinSegment)){
+                        parts.joins.add(joinSegment);
                     }
                 }
             }
-        }}.toString();
+        }
+        if(segments != null){
+            if(V.notEmpty(normalSql)){
+                parts.wheres.add(formatNormalSql(normalSql));
+                appendDeletedCondition(parts, wrapper);
+            }
+            // 存在联表且无where条件，
+            else if(V.notEmpty(annoJoinerList)){
+                appendDeletedCondition(parts, wrapper);
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * 构建EXISTS半连接的where条件，条件无法安全拆分到子查询时返回null
+     * @param page
+     * @param wrapper
+     * @param annoJoinerList
+     * @param normalSql
+     * @return
+     */
+    private JoinSqlParts buildSemiJoinSqlParts(Page<?> page, DynamicJoinQueryWrapper wrapper, List<AnnoJoiner> annoJoinerList, String normalSql){
+        // 别名(含中间表别名) - 关联表别名
+        Map<String, String> aliasMap = new HashMap<>();
+        Map<String, AnnoJoiner> aliasToJoinerMap = new LinkedHashMap<>();
+        for(AnnoJoiner joiner : annoJoinerList){
+            if(V.notEmpty(joiner.getJoin()) && V.notEmpty(joiner.getOnSegment())){
+                aliasToJoinerMap.putIfAbsent(joiner.getAlias(), joiner);
+                aliasMap.put(joiner.getAlias(), joiner.getAlias());
+                if(joiner.getMiddleTable() != null){
+                    aliasMap.put(joiner.getMiddleTableAlias(), joiner.getAlias());
+                }
+            }
+        }
+        // 按关联表字段排序时需join
+        if(page != null && V.notEmpty(page.orders())){
+            for(OrderItem orderItem : page.orders()){
+                if(!extractAliases(orderItem.getColumn(), aliasMap).isEmpty()){
+                    return null;
+                }
+            }
+        }
+        JoinSqlParts parts = new JoinSqlParts(true, V.notEmpty(normalSql));
+        Map<String, List<String>> aliasToConditionsMap = new LinkedHashMap<>();
+        if(V.notEmpty(normalSql)){
+            List<String> conditions = splitAndConditions(formatNormalSql(normalSql));
+            if(conditions == null){
+                return null;
+            }
+            for(String condition : conditions){
+                Set<String> aliases = extractAliases(condition, aliasMap);
+                if(aliases.isEmpty()){
+                    parts.wheres.add(condition);
+                    continue;
+                }
+                // 跨多个关联表，或LEFT JOIN下可匹配无关联记录的条件（OR / IS NULL），不可转换
+                if(aliases.size() > 1 || !isNullRejected(condition)){
+                    return null;
+                }
+                aliasToConditionsMap.computeIfAbsent(aliases.iterator().next(), k -> new ArrayList<>()).add(condition);
+            }
+        }
+        appendDeletedCondition(parts, wrapper);
+        // 无过滤条件的关联表 LEFT JOIN + DISTINCT 不影响结果，直接忽略
+        for(Map.Entry<String, List<String>> entry : aliasToConditionsMap.entrySet()){
+            AnnoJoiner joiner = aliasToJoinerMap.get(entry.getKey());
+            StringBuilder sb = new StringBuilder("EXISTS (SELECT 1 FROM ");
+            if(joiner.getMiddleTable() != null){
+                sb.append(joiner.getMiddleTable()).append(" ").append(joiner.getMiddleTableAlias())
+                    .append(" INNER JOIN ").append(joiner.getJoin()).append(" ").append(joiner.getAlias())
+                    .append(" ON ").append(buildJoinOnCondition(joiner))
+                    .append(" WHERE ").append(buildMiddleTableOnCondition(joiner));
+            }
+            else{
+                sb.append(joiner.getJoin()).append(" ").append(joiner.getAlias())
+                    .append(" WHERE ").append(buildJoinOnCondition(joiner));
+            }
+            for(String condition : entry.getValue()){
+                sb.append(" AND ").append(condition);
+            }
+            parts.wheres.add(sb.append(")").toString());
+        }
+        return parts;
+    }
+
+    /**
+     * 动态为主表添加is_deleted=0
+     * @param parts
+     * @param wrapper
+     */
+    private void appendDeletedCondition(JoinSqlParts parts, DynamicJoinQueryWrapper wrapper){
+        String isDeletedCol = ParserCache.getDeletedColumn(wrapper.getEntityTable());
+        String isDeletedSection = "self."+ isDeletedCol;
+        MergeSegments segments = wrapper.getExpression();
+        if(isDeletedCol != null && (segments == null || !QueryBuilder.checkHasColumn(segments.getNormal(), isDeletedSection))){
+            parts.wheres.add(isDeletedSection+ " = " +BaseConfig.getActiveFlagValue());
+        }
+    }
+
+    /**
+     * 中间表的关联条件
+     * @param joiner
+     * @return
+     */
+    private String buildMiddleTableOnCondition(AnnoJoiner joiner){
+        String deletedCol = ParserCache.getDeletedColumn(joiner.getMiddleTable());
+        if(deletedCol != null && !S.containsIgnoreCase(joiner.getMiddleTable(), " " + deletedCol)){
+            return joiner.getMiddleTableOnSegment() + " AND " + joiner.getMiddleTableAlias() + "." + deletedCol + " = " + BaseConfig.getActiveFlagValue();
+        }
+        return joiner.getMiddleTableOnSegment();
+    }
+
+    /**
+     * 关联表的关联条件
+     * @param joiner
+     * @return
+     */
+    private String buildJoinOnCondition(AnnoJoiner joiner){
+        String deletedCol = ParserCache.getDeletedColumn(joiner.getJoin());
+        if(deletedCol != null && !S.containsIgnoreCase(joiner.getOnSegment(), " " + deletedCol)){
+            return joiner.getOnSegment() + " AND " + joiner.getAlias() + "." + deletedCol + " = " + BaseConfig.getActiveFlagValue();
+        }
+        return joiner.getOnSegment();
+    }
+
+    /**
+     * 获取DTO的关联方式：DTO类注解优先，其次全局配置
+     * @param dtoClass
+     * @return
+     */
+    private JoinStrategy getJoinStrategy(Class<?> dtoClass){
+        DynamicJoin dynamicJoin = dtoClass != null? dtoClass.getAnnotation(DynamicJoin.class) : null;
+        return dynamicJoin != null? dynamicJoin.strategy() : BaseConfig.getDynamicJoinStrategy();
+    }
+
+    /**
+     * 获取主键列
+     * @param table
+     * @return
+     */
+    private String getIdColumn(String table){
+        PropInfo propInfo = BindingCacheManager.getPropInfoByTable(table);
+        return propInfo != null? propInfo.getIdColumn() : null;
     }
 
     /**
@@ -196,4 +384,120 @@ public class DynamicSqlProvider {
         return normalSql;
     }
 
+    /**
+     * 按顶层AND拆分where条件（忽略括号及引号内、BETWEEN ... AND ...中的AND）
+     * @param sql
+     * @return 含顶层OR或括号不匹配时返回null
+     */
+    static List<String> splitAndConditions(String sql){
+        List<String> conditions = new ArrayList<>();
+        int depth = 0, begin = 0;
+        char quote = 0;
+        boolean pendingBetween = false;
+        for(int i=0; i<sql.length(); i++){
+            char c = sql.charAt(i);
+            if(quote != 0){
+                if(c == quote){
+                    quote = 0;
+                }
+                continue;
+            }
+            if(c == '\'' || c == '"' || c == '`'){
+                quote = c;
+            }
+            else if(c == '(' || c == '{'){
+                depth++;
+            }
+            else if(c == ')' || c == '}'){
+                if(--depth < 0){
+                    return null;
+                }
+            }
+            else if(depth == 0 && Character.isWhitespace(c)){
+                if(matchesKeyword(sql, i+1, "BETWEEN")){
+                    pendingBetween = true;
+                }
+                else if(matchesKeyword(sql, i+1, "OR")){
+                    return null;
+                }
+                else if(matchesKeyword(sql, i+1, "AND")){
+                    if(pendingBetween){
+                        pendingBetween = false;
+                    }
+                    else{
+                        conditions.add(sql.substring(begin, i).trim());
+                        begin = i + 4;
+                    }
+                }
+            }
+        }
+        if(depth != 0 || quote != 0){
+            return null;
+        }
+        String last = sql.substring(begin).trim();
+        if(!last.isEmpty()){
+            conditions.add(last);
+        }
+        return conditions;
+    }
+
+    /**
+     * 指定位置是否为独立的关键字
+     */
+    private static boolean matchesKeyword(String sql, int index, String keyword){
+        int end = index + keyword.length();
+        return end < sql.length() && sql.regionMatches(true, index, keyword, 0, keyword.length())
+                && Character.isWhitespace(sql.charAt(end));
+    }
+
+    /**
+     * 提取条件中引用的关联表别名（忽略参数占位及引号内容）
+     * @param condition
+     * @param aliasMap 别名 - 关联表别名
+     * @return
+     */
+    private static Set<String> extractAliases(String condition, Map<String, String> aliasMap){
+        String sql = PARAM_OR_QUOTED_PATTERN.matcher(condition).replaceAll(" ");
+        Set<String> aliases = new HashSet<>(2);
+        Matcher matcher = TABLE_ALIAS_PATTERN.matcher(sql);
+        while(matcher.find()){
+            String alias = aliasMap.get(matcher.group(1));
+            if(alias != null){
+                aliases.add(alias);
+            }
+        }
+        return aliases;
+    }
+
+    /**
+     * 关联表无匹配记录时条件是否必不成立（不含OR及IS NULL），即可安全转换为EXISTS
+     * @param condition
+     * @return
+     */
+    private static boolean isNullRejected(String condition){
+        String sql = PARAM_OR_QUOTED_PATTERN.matcher(condition).replaceAll(" ");
+        return !NULL_TOLERANT_PATTERN.matcher(sql).find();
+    }
+
+    /**
+     * join及where条件
+     */
+    private static class JoinSqlParts {
+        /**
+         * 是否为EXISTS半连接
+         */
+        private final boolean semiJoin;
+        /**
+         * 是否有查询条件
+         */
+        private final boolean hasNormalSql;
+        private final List<String> joins = new ArrayList<>();
+        private final List<String> wheres = new ArrayList<>();
+
+        JoinSqlParts(boolean semiJoin, boolean hasNormalSql) {
+            this.semiJoin = semiJoin;
+            this.hasNormalSql = hasNormalSql;
+        }
+    }
+
 }
@@ -60,6 +60,22 @@ public interface BaseCacheManager {
      */
     void putCacheObj(String cacheName, Object objKey, Object obj);
 
+    /**
+     * 缓存中不存在时缓存对象（支持时为原子操作，如Redis SET NX）
+     * @param cacheName
+     * @param objKey
+     * @param obj
+     * @return 已存在的缓存对象，缓存成功时返回null
+     */
+    default Object putCacheObjIfAbsent(String cacheName, Object objKey, Object obj) {
+        Object existing = getCacheObj(cacheName, objKey, Object.class);
+        if(existing != null) {
+            return existing;
+        }
+        putCacheObj(cacheName, objKey, obj);
+        return null;
+    }
+
     /**
      * 删除缓存对象
      * @param cacheName
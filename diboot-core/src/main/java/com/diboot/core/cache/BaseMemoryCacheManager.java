@@ -99,6 +99,23 @@ public abstract class BaseMemoryCacheManager extends SimpleCacheManager implemen
         }
     }
 
+    /**
+     * 缓存中不存在时缓存对象
+     * @param cacheName
+     * @param objKey
+     * @param obj
+     * @return 已存在的缓存对象，缓存成功时返回null
+     */
+    @Override
+    public Object putCacheObjIfAbsent(String cacheName, Object objKey, Object obj){
+        Cache cache = getCache(cacheName);
+        if(cache == null) {
+            throw new InvalidUsageException("exception.invalidUsage.cacheManager.nonCacheInit", cacheName);
+        }
+        Cache.ValueWrapper existing = cache.putIfAbsent(objKey, obj);
+        return existing != null? existing.get() : null;
+    }
+
     /**
      * 删除缓存对象
      * @param cacheName
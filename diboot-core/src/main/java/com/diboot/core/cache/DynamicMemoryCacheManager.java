@@ -135,6 +135,22 @@ public class DynamicMemoryCacheManager extends BaseMemoryCacheManager implements
         clearOutOfDateDataIfNeeded(cacheName);
     }
 
+    @Override
+    public Object putCacheObjIfAbsent(String cacheName, Object objKey, Object obj) {
+        // 已过期的视为不存在
+        if(isExpired(cacheName, objKey)){
+            Cache cache = getCache(cacheName);
+            if(cache != null){
+                cache.evict(objKey);
+            }
+        }
+        Object existing = super.putCacheObjIfAbsent(cacheName, objKey, obj);
+        if(existing == null){
+            refreshCacheTimestamp(cacheName, objKey);
+        }
+        return existing;
+    }
+
     @Override
     public synchronized void clearOutOfDateData(String cacheName) {
         Cache cache = getCache(cacheName);
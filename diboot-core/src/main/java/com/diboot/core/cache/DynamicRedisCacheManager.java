@@ -99,6 +99,17 @@ public class DynamicRedisCacheManager extends SimpleCacheManager implements Base
         cache.put(objKey, obj);
     }
 
+    @Override
+    public Object putCacheObjIfAbsent(String cacheName, Object objKey, Object obj) {
+        Cache cache = redisCacheManager.getCache(cacheName);
+        if(cache == null) {
+            throw new InvalidUsageException("exception.invalidUsage.cacheManager.nonCacheInit", cacheName);
+        }
+        // RedisCache 基于 SET NX 实现
+        Cache.ValueWrapper existing = cache.putIfAbsent(objKey, obj);
+        return existing != null? existing.get() : null;
+    }
+
     @Override
     public void removeCacheObj(String cacheName, Object objKey) {
         Cache cache = redisCacheManager.getCache(cacheName);
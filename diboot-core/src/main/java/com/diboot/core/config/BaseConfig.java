@@ -15,9 +15,11 @@
  */
 package com.diboot.core.config;
 
+import com.diboot.core.binding.query.JoinStrategy;
 import com.diboot.core.util.PropertiesUtils;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
+import com.diboot.core.vo.CountStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -123,6 +125,92 @@ public class BaseConfig {
 		return batchSize;
 	}
 
+	private static Integer bindingInSliceSize = null;
+	/***
+	 * 获取关联绑定IN条件的分片大小（超出时拆分为多次查询）
+	 * @return
+	 */
+	public static int getBindingInSliceSize() {
+		if(bindingInSliceSize == null){
+			bindingInSliceSize = PropertiesUtils.getInteger("diboot.core.binding-in-slice-size");
+			if(bindingInSliceSize == null || bindingInSliceSize <= 0){
+				bindingInSliceSize = 1000;
+			}
+		}
+		return bindingInSliceSize;
+	}
+
+	private static Integer bindingSliceParallelism = null;
+	/***
+	 * 获取关联绑定分片查询的并行度（<=1时串行执行）
+	 * @return
+	 */
+	public static int getBindingSliceParallelism() {
+		if(bindingSliceParallelism == null){
+			bindingSliceParallelism = PropertiesUtils.getInteger("diboot.core.binding-slice-parallelism");
+			if(bindingSliceParallelism == null){
+				bindingSliceParallelism = 4;
+			}
+		}
+		return bindingSliceParallelism;
+	}
+
+	private static JoinStrategy dynamicJoinStrategy = null;
+	/***
+	 * 动态关联查询的默认关联方式，默认 LEFT_JOIN
+	 * @return
+	 */
+	public static JoinStrategy getDynamicJoinStrategy() {
+		if(dynamicJoinStrategy == null){
+			String strategy = getProperty("diboot.core.dynamic-join-strategy");
+			dynamicJoinStrategy = JoinStrategy.EXISTS.name().equalsIgnoreCase(S.trim(strategy))? JoinStrategy.EXISTS : JoinStrategy.LEFT_JOIN;
+		}
+		return dynamicJoinStrategy;
+	}
+
+	private static CountStrategy countStrategy = null;
+	/***
+	 * 分页总数的默认统计策略，默认 EXACT
+	 * @return
+	 */
+	public static CountStrategy getCountStrategy() {
+		if(countStrategy == null){
+			String strategy = S.trim(getProperty("diboot.core.count-strategy"));
+			CountStrategy value = CountStrategy.EXACT;
+			for(CountStrategy item : CountStrategy.values()){
+				if(item.name().equalsIgnoreCase(strategy)){
+					value = item;
+				}
+			}
+			countStrategy = value;
+		}
+		return countStrategy;
+	}
+
+	private static Integer countCacheSeconds = null;
+	/***
+	 * 分页总数的缓存秒数，默认30秒
+	 * @return
+	 */
+	public static int getCountCacheSeconds() {
+		if(countCacheSeconds == null){
+			countCacheSeconds = getInteger("diboot.core.count-cache-seconds", 30);
+		}
+		return countCacheSeconds;
+	}
+
+	private static Integer encryptQueryCacheSize = null;
+	/***
+	 * 加密字段查询条件的密文缓存容量，默认0（不缓存）
+	 * @return
+	 */
+	public static int getEncryptQueryCacheSize() {
+		if(encryptQueryCacheSize == null){
+			encryptQueryCacheSize = getInteger("diboot.core.encrypt-query-cache-size", 0);
+		}
+		return encryptQueryCacheSize;
+	}
+
 	private static Object ACTIVE_FLAG_VALUE = null;
 	/**
 	 * 获取有效记录的标记值，如 0
@@ -202,13 +202,33 @@ public class Cons {
         /**
          * 总数
          */
-        totalCount;
+        totalCount,
+        /**
+         * 是否游标分页
+         */
+        keyset,
+        /**
+         * 游标分页的游标
+         */
+        cursor,
+        /**
+         * 是否统计总数
+         */
+        searchCount,
+        /**
+         * 总数的统计策略
+         */
+        countStrategy;
 
         public static boolean isPaginationParam(String param) {
             return orderBy.name().equals(param)
                     || pageIndex.name().equals(param)
                     || pageSize.name().equals(param)
-                    || totalCount.name().equals(param);
+                    || totalCount.name().equals(param)
+                    || keyset.name().equals(param)
+                    || cursor.name().equals(param)
+                    || searchCount.name().equals(param)
+                    || countStrategy.name().equals(param);
         }
     }
 
@@ -75,6 +75,7 @@ public class BaseCrudRestController<E extends AbstractEntity> extends BaseContro
      * 获取某VO资源的集合，用于子类重写的方法
      * <p>
      * url参数示例: /${bindURL}?pageSize=20&pageIndex=1&orderBy=itemValue&type=GENDAR
+     * 游标分页示例: /${bindURL}?keyset=true&pageSize=20&orderBy=createTime:DESC&cursor=${上一页返回的page.nextCursor}
      * </p>
      * @return JsonResult
      * @throws Exception
@@ -127,6 +128,7 @@ public class BaseCrudRestController<E extends AbstractEntity> extends BaseContro
      * 获取符合查询条件的某页数据（有分页）
      * <p>
      * url参数示例: /${bindURL}?pageSize=20&pageIndex=1
+     * 游标分页示例: /${bindURL}?keyset=true&pageSize=20&cursor=${上一页返回的page.nextCursor}
      * </p>
      * @return JsonResult
      * @throws Exception
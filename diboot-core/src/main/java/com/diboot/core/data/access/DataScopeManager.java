@@ -15,6 +15,9 @@
  */
 package com.diboot.core.data.access;
 
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.schema.Column;
+
 import java.io.Serializable;
 import java.util.List;
 
@@ -59,6 +62,17 @@ public interface DataScopeManager {
      */
     List<? extends Serializable> getAccessibleIds(String fieldName);
 
+    /**
+     * 可访问范围的条件表达式，如按层级路径的子查询：org_id IN (SELECT id FROM ... WHERE parent_ids_path LIKE 'x,%')，
+     * 适用于可访问ID数量较多的场景；默认null表示使用 getAccessibleIds(fieldName) 构建条件
+     * @param fieldName
+     * @param column 数据权限字段对应的列（含表别名）
+     * @return
+     */
+    default Expression getAccessibleCondition(String fieldName, Column column) {
+        return null;
+    }
+
     /**
      * 已过期，since v3.4.1 替换为 getAccessibleIds(fieldName)
      * @param entityClass
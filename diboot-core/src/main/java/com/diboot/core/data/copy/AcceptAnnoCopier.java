@@ -19,7 +19,6 @@ import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.reflection.SystemMetaObject;
-import org.springframework.beans.BeanWrapper;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -69,7 +68,6 @@ public class AcceptAnnoCopier {
         if(V.isEmpty(acceptAnnos)){
             return;
         }
-        BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(target);
         for(CopyInfo copyInfo : acceptAnnos){
             if(!copyInfo.isOverride()){
                 Object targetValue = BeanUtils.getProperty(target, copyInfo.getTo());
@@ -80,7 +78,7 @@ public class AcceptAnnoCopier {
             }
             Object sourceValue = SystemMetaObject.forObject(source).getValue(copyInfo.getForm());
             if(sourceValue != null) {
-                beanWrapper.setPropertyValue(copyInfo.getTo(), sourceValue);
+                BeanUtils.setProperty(target, copyInfo.getTo(), sourceValue);
             }
         }
     }
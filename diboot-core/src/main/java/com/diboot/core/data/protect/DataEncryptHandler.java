@@ -15,6 +15,9 @@
  */
 package com.diboot.core.data.protect;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 加密，解密 处理器接口
  *
@@ -38,4 +41,29 @@ public interface DataEncryptHandler {
      */
     String decrypt(String encryptedStr);
 
+    /**
+     * 批量解密（如整页结果集）
+     * @param encryptedList
+     * @return 与输入顺序一致的解密结果
+     */
+    default List<String> decryptAll(List<String> encryptedList) {
+        if (encryptedList == null) {
+            return null;
+        }
+        List<String> results = new ArrayList<>(encryptedList.size());
+        for (String encryptedStr : encryptedList) {
+            results.add(encryptedStr == null ? null : decrypt(encryptedStr));
+        }
+        return results;
+    }
+
+    /**
+     * 加密查询条件值，以匹配密文（加密结果确定时可缓存）
+     * @param fieldVal
+     * @return
+     */
+    default String encryptQueryValue(String fieldVal) {
+        return encrypt(fieldVal);
+    }
+
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2015-2029, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.data.protect;
+
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.S;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 脱敏字段的更新保护
+ * <p>
+ * 按实体类预先解析 @DataMask 字段，更新时将提交了脱敏值（包含*的字符串或集合元素）的字段置为null，避免脱敏值覆盖原值
+ *
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/22
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class DataMaskFieldGuard {
+
+    /**
+     * 实体类-保护 缓存
+     */
+    private static final Map<Class<?>, DataMaskFieldGuard> GUARD_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 无脱敏字段
+     */
+    private static final DataMaskFieldGuard NONE = new DataMaskFieldGuard(new Field[0]);
+
+    /**
+     * 脱敏字段
+     */
+    private final Field[] maskFields;
+
+    private DataMaskFieldGuard(Field[] maskFields) {
+        this.maskFields = maskFields;
+    }
+
+    /**
+     * 获取实体类的脱敏字段保护
+     * @param entityClass
+     * @return
+     */
+    @NonNull
+    public static DataMaskFieldGuard of(@NonNull Class<?> entityClass) {
+        return GUARD_CACHE.computeIfAbsent(entityClass, clazz -> {
+            List<String> maskFieldNames = ParserCache.getDataMaskFieldList(clazz);
+            if (maskFieldNames.isEmpty()) {
+                return NONE;
+            }
+            List<Field> maskFields = new ArrayList<>(maskFieldNames.size());
+            for (String fieldName : maskFieldNames) {
+                Field field = BeanUtils.extractField(clazz, fieldName);
+                if (field != null) {
+                    field.setAccessible(true);
+                    maskFields.add(field);
+                }
+            }
+            return maskFields.isEmpty() ? NONE : new DataMaskFieldGuard(maskFields.toArray(new Field[0]));
+        });
+    }
+
+    /**
+     * 忽略实体中提交的脱敏值
+     * @param entity
+     */
+    public void guard(Object entity) {
+        if (entity == null) {
+            return;
+        }
+        for (Field field : maskFields) {
+            try {
+                Object value = field.get(entity);
+                if (isMasked(value)) {
+                    field.set(entity, null);
+                    log.debug("更新操作中提交了 {} 的脱敏值 :{}，忽略该字段以避免误更新", field.getName(), value);
+                }
+            }
+            catch (IllegalAccessException e) {
+                log.warn("脱敏字段 {} 访问失败: {}", field.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 是否为脱敏值：包含*的字符串，或包含脱敏元素的集合（如 List&lt;String&gt;）
+     * @param value
+     * @return
+     */
+    private static boolean isMasked(Object value) {
+        if (value instanceof String) {
+            return ((String) value).indexOf('*') >= 0;
+        }
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                if (element != null && S.valueOf(element).indexOf('*') >= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -31,4 +31,14 @@ public interface DataMaskHandler {
      */
     String mask(String fieldVal);
 
+    /**
+     * 脱敏到字符缓冲区（序列化时直接写出，避免创建中间字符串）
+     * @param fieldVal 非null的字段值
+     * @param buffer 长度不小于 fieldVal.length() 的缓冲区
+     * @return 写入的字符数；脱敏结果长度超出缓冲区等不支持的情况返回 -1，调用方改用 {@link #mask(String)}
+     */
+    default int mask(String fieldVal, char[] buffer) {
+        return -1;
+    }
+
 }
@@ -15,8 +15,13 @@
  */
 package com.diboot.core.data.protect;
 
+import com.diboot.core.config.BaseConfig;
 import com.diboot.core.util.Encryptor;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 加密，解密 处理器的默认实现类
  *
@@ -26,6 +31,11 @@ import com.diboot.core.util.Encryptor;
  */
 public class DefaultDataEncryptHandler implements DataEncryptHandler {
 
+    /**
+     * 查询条件密文缓存（AES/ECB加密结果确定），容量为0时不缓存，超出容量时清空
+     */
+    private volatile Map<String, String> queryValueCache;
+
     protected String getSeed() {
         return Encryptor.getDefaultKey();
     }
@@ -40,4 +50,46 @@ public class DefaultDataEncryptHandler implements DataEncryptHandler {
         return Encryptor.decrypt(encryptedStr, getSeed());
     }
 
+    @Override
+    public List<String> decryptAll(List<String> encryptedList) {
+        return Encryptor.decryptAll(encryptedList, getSeed());
+    }
+
+    @Override
+    public String encryptQueryValue(String fieldVal) {
+        Map<String, String> cache = getQueryValueCache();
+        if (cache == null || fieldVal == null) {
+            return encrypt(fieldVal);
+        }
+        String cacheKey = getSeed() + ":" + fieldVal;
+        String encrypted = cache.get(cacheKey);
+        if (encrypted == null) {
+            encrypted = encrypt(fieldVal);
+            if (cache.size() >= BaseConfig.getEncryptQueryCacheSize()) {
+                cache.clear();
+            }
+            cache.put(cacheKey, encrypted);
+        }
+        return encrypted;
+    }
+
+    /**
+     * 获取查询条件密文缓存
+     * @return 未启用时返回null
+     */
+    private Map<String, String> getQueryValueCache() {
+        int capacity = BaseConfig.getEncryptQueryCacheSize();
+        if (capacity <= 0) {
+            return null;
+        }
+        if (queryValueCache == null) {
+            synchronized (this) {
+                if (queryValueCache == null) {
+                    queryValueCache = new ConcurrentHashMap<>(Math.min(capacity, 64));
+                }
+            }
+        }
+        return queryValueCache;
+    }
+
 }
@@ -17,6 +17,8 @@ package com.diboot.core.data.protect;
 
 import com.diboot.core.util.S;
 
+import java.util.Arrays;
+
 /**
  * 数据脱敏默认处理器
  *
@@ -26,23 +28,76 @@ import com.diboot.core.util.S;
  */
 public class DefaultDataMaskHandler implements DataMaskHandler {
 
+    /**
+     * 子类重写了 mask(String) 时，缓冲区脱敏需与之保持一致，不再使用默认规则
+     */
+    private final boolean bufferMaskable = isMaskMethodInherited();
+
     @Override
     public String mask(String content) {
         if (S.isBlank(content)) {
             return S.EMPTY;
         }
         int length = content.length();
+        return S.replace(content, getMaskStart(length), getMaskEnd(length), '*');
+    }
+
+    @Override
+    public int mask(String content, char[] buffer) {
+        if (!bufferMaskable) {
+            return -1;
+        }
+        if (S.isBlank(content)) {
+            return 0;
+        }
+        int length = content.length();
+        content.getChars(0, length, buffer, 0);
+        int start = getMaskStart(length), end = getMaskEnd(length);
+        if (start < end) {
+            Arrays.fill(buffer, start, end, '*');
+        }
+        return length;
+    }
+
+    /**
+     * mask(String) 是否未被子类重写
+     * @return
+     */
+    private boolean isMaskMethodInherited() {
+        try {
+            return getClass().getMethod("mask", String.class).getDeclaringClass() == DefaultDataMaskHandler.class;
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 脱敏起始位置（包含）
+     * @param length
+     * @return
+     */
+    protected int getMaskStart(int length) {
         switch (length) {
             case 11:
                 // 11位手机号，保留前3位和后4位
-                return S.replace(content, 3, length - 4, '*');
+                return 3;
             case 18:
                 // 18位身份证号，保留前6位和后4位
-                return S.replace(content, 6, length - 4, '*');
+                return 6;
             default:
                 // 其他长度，保留前0位和后4位，长度小于5位不脱敏
-                return S.replace(content, 0, length - 4, '*');
+                return 0;
         }
     }
 
+    /**
+     * 脱敏结束位置（不包含），保留后4位
+     * @param length
+     * @return
+     */
+    protected int getMaskEnd(int length) {
+        return length - 4;
+    }
+
 }
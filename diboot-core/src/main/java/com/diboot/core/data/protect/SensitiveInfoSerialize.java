@@ -28,7 +28,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 敏感信息序列化
@@ -42,6 +41,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SensitiveInfoSerialize<E> extends JsonSerializer<E> implements ContextualSerializer {
 
+    /**
+     * 可复用字符缓冲区的最大长度，超出时临时分配
+     */
+    private static final int MAX_REUSABLE_BUFFER_LENGTH = 256;
+
+    /**
+     * 线程内复用的脱敏字符缓冲区
+     */
+    private static final ThreadLocal<char[]> CHAR_BUFFER = ThreadLocal.withInitial(() -> new char[32]);
+
     /**
      * 保护字段处理器
      */
@@ -65,19 +74,77 @@ public class SensitiveInfoSerialize<E> extends JsonSerializer<E> implements Cont
         this.fieldName = fieldName;
     }
 
+    public SensitiveInfoSerialize(Class<?> clazz, String fieldName, DataMaskHandler dataMaskHandler) {
+        this(clazz, fieldName);
+        this.dataMaskHandler = dataMaskHandler;
+    }
+
     @Override
     public void serialize(E value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        DataMaskHandler handler = getDataMaskHandler();
+        if (value instanceof List) {
+            List<?> valueList = (List<?>) value;
+            gen.writeStartArray(valueList, valueList.size());
+            for (Object element : valueList) {
+                writeMasked(handler, (String) element, gen);
+            }
+            gen.writeEndArray();
+        } else {
+            writeMasked(handler, (String) value, gen);
+        }
+    }
+
+    /**
+     * 脱敏并写出，处理器支持时直接写出字符缓冲区
+     * @param handler
+     * @param value
+     * @param gen
+     * @throws IOException
+     */
+    private void writeMasked(DataMaskHandler handler, String value, JsonGenerator gen) throws IOException {
+        if (value != null) {
+            int length = value.length();
+            char[] buffer = length <= MAX_REUSABLE_BUFFER_LENGTH ? getReusableBuffer(length) : new char[length];
+            int maskedLength = handler.mask(value, buffer);
+            if (maskedLength >= 0) {
+                gen.writeString(buffer, 0, maskedLength);
+                return;
+            }
+        }
+        String masked = handler.mask(value);
+        if (masked == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(masked);
+        }
+    }
+
+    /**
+     * 获取线程内复用的缓冲区
+     * @param length
+     * @return
+     */
+    private static char[] getReusableBuffer(int length) {
+        char[] buffer = CHAR_BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, Math.min(buffer.length * 2, MAX_REUSABLE_BUFFER_LENGTH))];
+            CHAR_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * 获取脱敏处理器（通常在 createContextual 时已解析）
+     * @return
+     */
+    private DataMaskHandler getDataMaskHandler() {
         if(this.dataMaskHandler == null) {
             this.dataMaskHandler = ContextHolder.getBean(DataMaskHandler.class);
             if(this.dataMaskHandler == null) {
                 throw new InvalidUsageException("exception.invalidUsage.sensitiveInfoSerialize.serialize.message");
             }
         }
-        if (value instanceof List) {
-            gen.writeObject(((List<String>) value).stream().map(e -> dataMaskHandler.mask(e)).collect(Collectors.toList()));
-        } else {
-            gen.writeObject(dataMaskHandler.mask((String) value));
-        }
+        return this.dataMaskHandler;
     }
 
     @Override
@@ -92,7 +159,9 @@ public class SensitiveInfoSerialize<E> extends JsonSerializer<E> implements Cont
                 protect = property.getContextAnnotation(DataMask.class);
             }
             if (null != protect) {
-                return new SensitiveInfoSerialize(property.getMember().getDeclaringClass(), property.getName());
+                // 脱敏处理器在此解析一次，序列化时不再查找
+                DataMaskHandler handler = this.dataMaskHandler != null ? this.dataMaskHandler : ContextHolder.getBean(DataMaskHandler.class);
+                return new SensitiveInfoSerialize<>(property.getMember().getDeclaringClass(), property.getName(), handler);
             }
         } else {
             log.error("`@DataMask` 只支持 String 与 List<String> 类型脱敏！");
@@ -27,21 +27,25 @@ import com.diboot.core.mapper.DynamicQueryMapper;
 import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
-import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.LongValue;
 import net.sf.jsqlparser.expression.StringValue;
 import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
-import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.schema.Table;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
@@ -54,38 +58,50 @@ import java.util.concurrent.CopyOnWriteArraySet;
 public class DataAccessControlHandler implements MultiDataPermissionHandler {
     private static final Logger log = LoggerFactory.getLogger(DataAccessControlHandler.class);
 
+    /**
+     * 当前请求中已解析的可访问ID缓存的属性名
+     */
+    private static final String REQUEST_SCOPE_CACHE_ATTR = DataAccessControlHandler.class.getName() + ".SCOPE_CACHE";
+    /**
+     * 可访问ID为null（不加条件）时的缓存占位值
+     */
+    private static final List<Serializable> NO_CONDITION = Collections.emptyList();
+
     private final Set<String> noCheckpointCache = new CopyOnWriteArraySet<>();
     /**
      * 获取全部自定义数据权限拦截器
      */
-    private Map<Class<?>, DataScopeManager> entityClassToPermissionMap = null;
+    private volatile Map<Class<?>, DataScopeManager> entityClassToPermissionMap = null;
+    /**
+     * 实体类对应的数据权限拦截器缓存（无实现时为Optional.empty()）
+     */
+    private final ConcurrentMap<Class<?>, Optional<DataScopeManager>> entityClassToManagerCache = new ConcurrentHashMap<>();
 
     /**
      * 获取数据权限拦截器的实现类
      * @param entityClass
      * @return
      */
-    public synchronized DataScopeManager getDataScopeManager(Class<?> entityClass) {
-        if(entityClassToPermissionMap == null) {
-            entityClassToPermissionMap = new LinkedHashMap<>();
-            List<DataScopeManager> dataProtectionHandlers = ContextHolder.getBeans(DataScopeManager.class);
-            if(V.notEmpty(dataProtectionHandlers)) {
-                for (DataScopeManager protectionHandler : dataProtectionHandlers) {
-                    List<Class<?>> entityClasses = protectionHandler.getEntityClasses();
-                    if(entityClasses == null) {
-                        entityClassToPermissionMap.put(AbstractEntity.class, protectionHandler);
-                    }
-                    else if(V.notEmpty(entityClasses)) {
-                        for (Class<?> entityCls : entityClasses) {
-                            entityClassToPermissionMap.put(entityCls, protectionHandler);
-                        }
-                    }
-                }
-            }
+    public DataScopeManager getDataScopeManager(Class<?> entityClass) {
+        Optional<DataScopeManager> cached = entityClassToManagerCache.get(entityClass);
+        if(cached != null) {
+            return cached.orElse(null);
         }
-        DataScopeManager dataScopeManager = entityClassToPermissionMap.get(entityClass);
+        DataScopeManager dataScopeManager = resolveDataScopeManager(entityClass);
+        entityClassToManagerCache.putIfAbsent(entityClass, Optional.ofNullable(dataScopeManager));
+        return dataScopeManager;
+    }
+
+    /**
+     * 解析实体类对应的数据权限拦截器
+     * @param entityClass
+     * @return
+     */
+    private DataScopeManager resolveDataScopeManager(Class<?> entityClass) {
+        Map<Class<?>, DataScopeManager> permissionMap = getEntityClassToPermissionMap();
+        DataScopeManager dataScopeManager = permissionMap.get(entityClass);
         if(dataScopeManager == null) {
-            dataScopeManager = entityClassToPermissionMap.get(AbstractEntity.class);
+            dataScopeManager = permissionMap.get(AbstractEntity.class);
             if(dataScopeManager != null) {
                 log.debug("获取到全局默认的数据范围控制实现 {}: {}", entityClass.getSimpleName(), dataScopeManager.getClass().getSimpleName());
             }
@@ -96,6 +112,38 @@ public class DataAccessControlHandler implements MultiDataPermissionHandler {
         return dataScopeManager;
     }
 
+    /**
+     * 初始化实体类与数据权限拦截器的映射（仅初始化时加锁）
+     * @return
+     */
+    private Map<Class<?>, DataScopeManager> getEntityClassToPermissionMap() {
+        Map<Class<?>, DataScopeManager> permissionMap = entityClassToPermissionMap;
+        if(permissionMap != null) {
+            return permissionMap;
+        }
+        synchronized (this) {
+            if(entityClassToPermissionMap == null) {
+                permissionMap = new LinkedHashMap<>();
+                List<DataScopeManager> dataProtectionHandlers = ContextHolder.getBeans(DataScopeManager.class);
+                if(V.notEmpty(dataProtectionHandlers)) {
+                    for (DataScopeManager protectionHandler : dataProtectionHandlers) {
+                        List<Class<?>> entityClasses = protectionHandler.getEntityClasses();
+                        if(entityClasses == null) {
+                            permissionMap.put(AbstractEntity.class, protectionHandler);
+                        }
+                        else if(V.notEmpty(entityClasses)) {
+                            for (Class<?> entityCls : entityClasses) {
+                                permissionMap.put(entityCls, protectionHandler);
+                            }
+                        }
+                    }
+                }
+                entityClassToPermissionMap = Collections.unmodifiableMap(permissionMap);
+            }
+            return entityClassToPermissionMap;
+        }
+    }
+
     @Override
     public Expression getSqlSegment(Table table, Expression where, String mappedStatementId) {
         if (noCheckpointCache.contains(mappedStatementId)) {
@@ -129,40 +177,97 @@ public class DataAccessControlHandler implements MultiDataPermissionHandler {
                 log.warn("未获取到 {} 类的数据范围控制实现，请检查DataScopeManager实现类是否正确实例化！", entityClass.getSimpleName());
                 throw new InvalidUsageException("exception.invalidUsage.dataAccessControlHandler.buildDataAccessExpression.message");
             }
-            List<? extends Serializable> idValues = checkImpl.getAccessibleIds(entry.getKey());
-            if (idValues == null) {
-                return null;
-            }
             String idCol = entry.getValue();
             if (mainTable.getAlias() != null) {
                 idCol = mainTable.getAlias().getName() + "." + idCol;
             }
-            if (idValues.isEmpty()) {
-                return new IsNullExpression().withLeftExpression(new Column(idCol));
-            } else if (idValues.size() == 1) {
-                EqualsTo equalsTo = new EqualsTo();
-                equalsTo.setLeftExpression(new Column(idCol));
-                if (idValues.get(0) instanceof Long) {
-                    equalsTo.setRightExpression(new LongValue((Long) idValues.get(0)));
-                } else {
-                    equalsTo.setRightExpression(new StringValue(S.defaultValueOf(idValues.get(0))));
-                }
-                return equalsTo;
-            } else {
-                String conditionExpr = idCol + " IN ";
-                if (idValues.get(0) instanceof Long) {
-                    conditionExpr += "(" + S.join(idValues, ", ") + ")";
-                } else {
-                    conditionExpr += "('" + S.join(idValues, "', '") + "')";
-                }
-                try {
-                    return CCJSqlParserUtil.parseCondExpression(conditionExpr);
-                } catch (JSQLParserException e) {
-                    log.warn("解析condition异常: {}", conditionExpr, e);
-                }
+            Expression condition = checkImpl.getAccessibleCondition(entry.getKey(), new Column(idCol));
+            if (condition != null) {
+                return condition;
             }
-            return null;
+            List<? extends Serializable> idValues = getAccessibleIds(checkImpl, entry.getKey());
+            if (idValues == null) {
+                return null;
+            }
+            return buildIdsExpression(new Column(idCol), idValues);
         }).filter(Objects::nonNull).reduce(AndExpression::new).orElse(null);
     }
 
+    /**
+     * 获取可访问的ID，同一请求内按 数据权限实现+字段 缓存，避免每条SQL重复计算
+     * @param dataScopeManager
+     * @param fieldName
+     * @return
+     */
+    private List<? extends Serializable> getAccessibleIds(DataScopeManager dataScopeManager, String fieldName) {
+        Map<String, List<? extends Serializable>> scopeCache = getRequestScopeCache();
+        if(scopeCache == null) {
+            return dataScopeManager.getAccessibleIds(fieldName);
+        }
+        String cacheKey = dataScopeManager.getClass().getName() + "@" + System.identityHashCode(dataScopeManager) + ":" + fieldName;
+        List<? extends Serializable> idValues = scopeCache.get(cacheKey);
+        if(idValues == null) {
+            idValues = dataScopeManager.getAccessibleIds(fieldName);
+            scopeCache.put(cacheKey, idValues == null? NO_CONDITION : Collections.unmodifiableList(new ArrayList<>(idValues)));
+            return idValues;
+        }
+        return idValues == NO_CONDITION? null : idValues;
+    }
+
+    /**
+     * 获取当前请求的可访问ID缓存，非请求线程返回null
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, List<? extends Serializable>> getRequestScopeCache() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes == null) {
+            return null;
+        }
+        Map<String, List<? extends Serializable>> scopeCache = (Map<String, List<? extends Serializable>>) requestAttributes.getAttribute(REQUEST_SCOPE_CACHE_ATTR, RequestAttributes.SCOPE_REQUEST);
+        if(scopeCache == null) {
+            scopeCache = new ConcurrentHashMap<>();
+            requestAttributes.setAttribute(REQUEST_SCOPE_CACHE_ATTR, scopeCache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return scopeCache;
+    }
+
+    /**
+     * 根据可访问ID构建条件：[] -> IS NULL，[id] -> = id，[id1, id2...] -> IN (id1, id2...)
+     * <p>
+     * 直接构建表达式，无需拼接字符串再解析。
+     * </p>
+     * @param column
+     * @param idValues
+     * @return
+     */
+    public static Expression buildIdsExpression(Column column, List<? extends Serializable> idValues) {
+        if (idValues.isEmpty()) {
+            return new IsNullExpression().withLeftExpression(column);
+        }
+        if (idValues.size() == 1) {
+            EqualsTo equalsTo = new EqualsTo();
+            equalsTo.setLeftExpression(column);
+            equalsTo.setRightExpression(toValueExpression(idValues.get(0)));
+            return equalsTo;
+        }
+        List<Expression> valueList = new ArrayList<>(idValues.size());
+        for (Serializable idValue : idValues) {
+            valueList.add(toValueExpression(idValue));
+        }
+        return new InExpression(column, new ParenthesedExpressionList<>(valueList));
+    }
+
+    /**
+     * 转换为值表达式：整数类型为数值，其他为字符串
+     * @param idValue
+     * @return
+     */
+    private static Expression toValueExpression(Serializable idValue) {
+        if (idValue instanceof Long || idValue instanceof Integer) {
+            return new LongValue(((Number) idValue).longValue());
+        }
+        return new StringValue(S.defaultValueOf(idValue));
+    }
+
 }
@@ -50,4 +50,12 @@ public interface DynamicQueryMapper {
     @SelectProvider(type= DynamicSqlProvider.class, method="buildSqlForListWithPage")
     IPage<Map<String, Object>> queryForListWithPage(Page<?> page, @Param(Constants.WRAPPER) QueryWrapper ew);
 
+    /**
+     * 动态SQL查询总数（仅统计主键，不查询列数据）
+     * @param ew
+     * @return
+     */
+    @SelectProvider(type= DynamicSqlProvider.class, method="buildSqlForCount")
+    Long queryCount(@Param(Constants.WRAPPER) QueryWrapper ew);
+
 }
\ No newline at end of file
@@ -15,11 +15,13 @@
  */
 package com.diboot.core.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
@@ -35,6 +37,9 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.extension.toolkit.ChainWrappers;
 import com.diboot.core.binding.Binder;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BindingResultCache;
+import com.diboot.core.binding.helper.KeysetPagingHelper;
+import com.diboot.core.binding.helper.PaginationCountHelper;
 import com.diboot.core.binding.helper.ServiceAdaptor;
 import com.diboot.core.binding.helper.WrapperHelper;
 import com.diboot.core.binding.parser.EntityInfoCache;
@@ -43,6 +48,8 @@ import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
+import com.diboot.core.data.protect.DataEncryptHandler;
+import com.diboot.core.data.protect.DataMaskFieldGuard;
 import com.diboot.core.dto.SortParamDTO;
 import com.diboot.core.entity.BaseTreeEntity;
 import com.diboot.core.exception.BusinessException;
@@ -56,7 +63,6 @@ import com.diboot.core.vo.Status;
 import org.apache.ibatis.reflection.property.PropertyNamer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -189,6 +195,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		this.beforeCreate(entity);
 		boolean success = super.save(entity);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			this.afterCreate(entity);
 		}
 		return success;
@@ -302,6 +309,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			for(RE relation : relatedEntities){
 				mapper.insert(relation);
 			}
+			BindingResultCache.evict(relatedEntityClass);
 			return true;
 		}
 	}
@@ -325,6 +333,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			BaseMapper mapper = ContextHolder.getBaseMapperByEntity(relatedEntityClass);
 			// 新增关联，无service只能循环插入
 			mapper.insert(relatedEntity);
+			BindingResultCache.evict(relatedEntityClass);
 			return true;
 		}
 	}
@@ -345,6 +354,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		// 批量插入
 		this.beforeBatchCreate(entityList);
 		boolean success = super.saveBatch(entityList, batchSize);
+		BindingResultCache.evict(getEntityClass());
 		this.afterBatchCreate(entityList);
 		return success;
 	}
@@ -356,16 +366,8 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		if(entity instanceof BaseTreeEntity) {
 			fillTreeNodeParentPath(entity);
 		}
-		List<String> maskFields = ParserCache.getDataMaskFieldList(getEntityClass());
-		if(V.notEmpty(maskFields)) {
-			for(String maskField : maskFields) {
-				Object value = BeanUtils.getProperty(entity, maskField);
-				if(value != null && S.valueOf(value).contains("*")) {
-					BeanUtils.setProperty(entity, maskField, null);
-					log.debug("更新操作中提交了 {} 的脱敏值 :{}，忽略该字段以避免误更新", maskField, value);
-				}
-			}
-		}
+		// 忽略提交的脱敏值
+		DataMaskFieldGuard.of(getEntityClass()).guard(entity);
 	}
 
 	@Transactional(rollbackFor = Exception.class)
@@ -380,6 +382,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		this.beforeUpdate(entity);
 		boolean success = super.updateById(entity);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			this.afterUpdate(entity);
 		}
 		return success;
@@ -391,6 +394,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		this.beforeUpdate(entity);
 		boolean success = super.update(entity, updateWrapper);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			this.afterUpdate(entity);
 		}
 		return success;
@@ -398,7 +402,11 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 
 	@Override
 	public boolean updateEntity(Wrapper updateWrapper) {
-		return super.update(null, updateWrapper);
+		boolean success = super.update(null, updateWrapper);
+		if(success) {
+			BindingResultCache.evict(getEntityClass());
+		}
+		return success;
 	}
 
 	@Override
@@ -412,6 +420,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		}
 		boolean success = super.updateBatchById(entityList);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			for(Object entity : entityList){
 				this.afterUpdate((T)entity);
 			}
@@ -468,7 +477,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			return false;
 		}
 		// 批量插入
-		return super.saveOrUpdateBatch(entityList, BaseConfig.getBatchSize());
+		boolean success = super.saveOrUpdateBatch(entityList, BaseConfig.getBatchSize());
+		BindingResultCache.evict(getEntityClass());
+		return success;
 	}
 
 	@Transactional(rollbackFor = Exception.class)
@@ -490,6 +501,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		this.beforeDelete(fieldKey, fieldVal);
 		boolean success = super.remove(queryWrapper);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			this.afterDelete(fieldKey, fieldVal);
 		}
 		return success;
@@ -583,9 +595,8 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
             try {
                 for (Serializable followerId : followerIdList) {
                     R relation = middleTableClass.getConstructor().newInstance();
-					BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(relation);
-					beanWrapper.setPropertyValue(driverFieldName, driverId);
-					beanWrapper.setPropertyValue(followerFieldName, followerId);
+					BeanUtils.setProperty(relation, driverFieldName, driverId);
+					BeanUtils.setProperty(relation, followerFieldName, followerId);
                     if (setConsumer != null) {
                         setConsumer.accept(relation);
                     }
@@ -608,6 +619,10 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
                 }
             }
         }
+		// 中间表可能直接通过service/mapper写入，清空关联绑定缓存
+		if (!delIds.isEmpty() || V.notEmpty(followerIdList)) {
+			BindingResultCache.evict(middleTableClass);
+		}
         return true;
     }
 
@@ -754,7 +769,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			return relatedEntityService.deleteEntities(queryWrapper);
 		}
 		BaseMapper relatedMapper = ContextHolder.getBaseMapperByEntity(relatedEntityClass);
-		return relatedMapper.delete(queryWrapper) >= 0;
+		boolean success = relatedMapper.delete(queryWrapper) >= 0;
+		BindingResultCache.evict(relatedEntityClass);
+		return success;
 	}
 
 	@Override
@@ -775,6 +792,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		this.beforeDelete(id);
 		boolean success = super.removeById(id);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			this.afterDelete(id);
 		}
 		return success;
@@ -799,6 +817,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		this.beforeDelete(entityIds);
 		boolean success = super.removeByIds(entityIds);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			this.afterDelete(entityIds);
 		}
 		return success;
@@ -814,6 +833,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		this.beforeDelete(pk, entityIds);
 		boolean success = super.removeByIds(entityIds);
 		if(success) {
+			BindingResultCache.evict(getEntityClass());
 			this.afterDelete(pk, entityIds);
 		}
 		return success;
@@ -862,15 +882,17 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 				mpQueryWrapper.setEntityClass(entityClass);
 			}
 		}
+		// 游标分页
+		if(pagination != null && pagination.isKeyset()){
+			return getEntityListByKeyset(queryWrapper, pagination);
+		}
 		// 否则，调用MP默认实现
 		if(pagination != null){
 			IPage<T> page = convertToIPage(pagination);
-			page = super.page(page, queryWrapper);
-			// 如果重新执行了count进行查询，则更新pagination中的总数
-			if(page.searchCount()){
-				pagination.setTotalCount(page.getTotal());
-			}
-			return page.getRecords();
+			// 按统计策略执行count，并更新pagination中的总数
+			Wrapper wrapper = queryWrapper;
+			String table = ParserCache.getEntityTableName(entityClass);
+			return PaginationCountHelper.query(pagination, page, wrapper, table, p -> super.page(p, wrapper).getRecords());
 		}
 		else{
 			List<T> list = super.list(queryWrapper);
@@ -884,6 +906,37 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		}
 	}
 
+	/**
+	 * 游标分页查询：按 排序字段+主键 定位下一页，不使用OFFSET，仅第一页统计总数
+	 * @param queryWrapper
+	 * @param pagination
+	 * @return
+	 */
+	protected List<T> getEntityListByKeyset(Wrapper queryWrapper, Pagination pagination) {
+		if(queryWrapper == null) {
+			QueryWrapper<T> mpQueryWrapper = new QueryWrapper<>();
+			mpQueryWrapper.setEntityClass(getEntityClass());
+			queryWrapper = mpQueryWrapper;
+		}
+		else if(!(queryWrapper instanceof AbstractWrapper)) {
+			throw new InvalidUsageException("exception.invalidUsage.baseService.notSupportWrapper", queryWrapper.getClass().getName());
+		}
+		else if(V.notEmpty(pagination.getCursor())) {
+			// 游标条件加在副本上，避免调用方复用wrapper时条件叠加
+			queryWrapper = (Wrapper) ((AbstractWrapper) queryWrapper).clone();
+		}
+		PropInfo propInfo = BindingCacheManager.getPropInfoByClass(getEntityClass());
+		List<OrderItem> orderItems = KeysetPagingHelper.buildOrderItems(convertToIPage(pagination).orders(), propInfo.getIdColumn());
+		boolean countRequired = KeysetPagingHelper.isCountRequired(pagination);
+		KeysetPagingHelper.applyCursor((AbstractWrapper) queryWrapper, orderItems, pagination);
+		Wrapper wrapper = queryWrapper;
+		IPage<T> page = KeysetPagingHelper.toPage(orderItems, pagination);
+		page.setSearchCount(countRequired);
+		List<T> list = PaginationCountHelper.query(pagination, page, wrapper, ParserCache.getEntityTableName(getEntityClass()),
+				p -> super.page(p, wrapper).getRecords());
+		return KeysetPagingHelper.resolvePage(list, orderItems, pagination, getEntityClass());
+	}
+
 	/**
 	 * 获取指定条件的Entity ID集合
 	 * @param queryWrapper
@@ -1019,13 +1072,12 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	@Override
 	public List<Map<String, Object>> getMapList(Wrapper queryWrapper, Pagination pagination) {
 		if(pagination != null){
-			IPage page = convertToIPage(pagination);
-			IPage<Map<String, Object>> resultPage = super.pageMaps(page, queryWrapper);
-			// 如果重新执行了count进行查询，则更新pagination中的总数
-			if(page.searchCount()){
-				pagination.setTotalCount(page.getTotal());
-			}
-			return resultPage.getRecords();
+			IPage<Map<String, Object>> page = ServiceAdaptor.convertToIPage(pagination, getEntityClass());
+			// 按统计策略执行count，并更新pagination中的总数
+			String table = ParserCache.getEntityTableName(getEntityClass());
+			List<Map<String, Object>> list = PaginationCountHelper.query(pagination, page, queryWrapper, table, p -> super.pageMaps(p, queryWrapper).getRecords());
+			decryptProtectFields(list);
+			return list;
 		}
 		else{
 			List<Map<String, Object>> list = super.listMaps(queryWrapper);
@@ -1035,10 +1087,47 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			else if(list.size() > BaseConfig.getBatchSize()){
 				log.warn("单次查询记录数量过大，请及时检查优化。返回结果数={}", list.size());
 			}
+			decryptProtectFields(list);
 			return list;
 		}
 	}
 
+	/**
+	 * 批量解密Map结果中的加密字段（Map结果不经过字段的TypeHandler，按列整页解密）
+	 * @param mapList
+	 */
+	protected void decryptProtectFields(List<Map<String, Object>> mapList) {
+		if(V.isEmpty(mapList)) {
+			return;
+		}
+		List<String> protectFieldList = ParserCache.getProtectFieldList(getEntityClass());
+		if(protectFieldList.isEmpty()) {
+			return;
+		}
+		DataEncryptHandler dataEncryptHandler = ContextHolder.getBean(DataEncryptHandler.class);
+		if(dataEncryptHandler == null) {
+			return;
+		}
+		EntityInfoCache entityInfo = BindingCacheManager.getEntityInfoByClass(getEntityClass());
+		for(String fieldName : protectFieldList) {
+			String columnName = entityInfo != null ? entityInfo.getColumnByField(fieldName) : null;
+			if(columnName == null || !mapList.get(0).containsKey(columnName)) {
+				continue;
+			}
+			List<String> encryptedList = new ArrayList<>(mapList.size());
+			for(Map<String, Object> map : mapList) {
+				Object value = map.get(columnName);
+				encryptedList.add(value instanceof String ? (String) value : null);
+			}
+			List<String> decryptedList = dataEncryptHandler.decryptAll(encryptedList);
+			for(int i = 0; i < mapList.size(); i++) {
+				if(encryptedList.get(i) != null) {
+					mapList.get(i).put(columnName, decryptedList.get(i));
+				}
+			}
+		}
+	}
+
 	@Override
 	public List<LabelValue> getLabelValueList(Wrapper queryWrapper) {
 		String sqlSelect = queryWrapper.getSqlSelect();
@@ -1335,7 +1424,12 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			queryWrapper.orderByAsc(sortField).eq(isTree, parentIdField, newParentId).gt(sortField, end);
 			getMapList(queryWrapper).stream().map(map -> map.get(idColumn)).forEach(addEntity::apply);
 		}
-		return updateEntities(collect);
+		boolean success = updateEntities(collect);
+		// 排序及层级变化影响关联绑定结果（updateEntities可能被子类覆盖）
+		if(success) {
+			BindingResultCache.evict(getEntityClass());
+		}
+		return success;
 	}
 
 	/**
@@ -20,11 +20,15 @@ import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
 import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.PropAccessor;
 import com.diboot.core.config.Cons;
 import com.diboot.core.converter.EnhancedConversionService;
 import com.diboot.core.data.copy.AcceptAnnoCopier;
 import com.diboot.core.entity.BaseEntity;
 import com.diboot.core.exception.BusinessException;
+import com.diboot.core.util.init.BeanInitUtils;
+import com.diboot.core.util.init.BeanInitializer;
 import com.diboot.core.vo.LabelValue;
 import com.diboot.core.vo.Status;
 import org.apache.commons.lang3.ArrayUtils;
@@ -199,10 +203,9 @@ public class BeanUtils {
         if (V.isAnyEmpty(model, propMap)) {
             return;
         }
-        BeanWrapper beanWrapper = getBeanWrapper(model);
         for(Map.Entry<String, Object> entry : propMap.entrySet()){
             try{
-                beanWrapper.setPropertyValue(entry.getKey(), entry.getValue());
+                setProperty(model, entry.getKey(), entry.getValue());
             }
             catch (Exception e){
                 log.debug("复制属性{}.{}异常: {}", model.getClass().getSimpleName(), entry.getKey(), e.getMessage());
@@ -224,7 +227,15 @@ public class BeanUtils {
             Map objMap = (Map)obj;
             return objMap.get(field);
         }
+        if(obj == null) {
+            return null;
+        }
         try {
+            // 简单属性优先通过缓存的访问器取值
+            Function<Object, Object> getter = BindingCacheManager.getPropAccessorByClass(obj.getClass()).getGetter(field);
+            if(getter != null) {
+                return getter.apply(obj);
+            }
             BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(obj);
             return wrapper.getPropertyValue(field);
         }
@@ -248,25 +259,37 @@ public class BeanUtils {
         return String.valueOf(property);
     }
 
+    /**
+     * ConversionService 初始化器
+     */
+    private static final BeanInitializer<ConversionService> CONVERSION_SERVICE_INITIALIZER = BeanInitUtils.lazyInit(() -> {
+        ConversionService conversionService = ContextHolder.getBean(DefaultConversionService.class);
+        if(conversionService == null) {
+            List<Converter> converterList = ContextHolder.getBeans(Converter.class);
+            conversionService = new EnhancedConversionService(converterList);
+            log.debug("new ConversionService instance: {}", EnhancedConversionService.class.getName());
+        }
+        else {
+            log.debug("get ConversionService instance: {} by getBean", conversionService.getClass().getName());
+        }
+        return conversionService;
+    });
+
+    /**
+     * 获取属性赋值时使用的ConversionService
+     * @return
+     */
+    public static ConversionService getConversionService() {
+        return CONVERSION_SERVICE_INITIALIZER.get();
+    }
+
     /***
      * 设置属性值
      * @param obj
      */
-    private static ConversionService conversionService;
-    public synchronized static BeanWrapper getBeanWrapper(Object obj) {
+    public static BeanWrapper getBeanWrapper(Object obj) {
         BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(obj);
-        if(conversionService == null) {
-            conversionService = ContextHolder.getBean(DefaultConversionService.class);
-            if(conversionService == null) {
-                List<Converter> converterList = ContextHolder.getBeans(Converter.class);
-                conversionService = new EnhancedConversionService(converterList);
-                log.debug("new ConversionService instance: {}", EnhancedConversionService.class.getName());
-            }
-            else {
-                log.debug("get ConversionService instance: {} by getBean", conversionService.getClass().getName());
-            }
-        }
-        wrapper.setConversionService(conversionService);
+        wrapper.setConversionService(getConversionService());
         return wrapper;
     }
 
@@ -277,6 +300,14 @@ public class BeanUtils {
      * @param value
      */
     public static void setProperty(Object obj, String field, Object value) {
+        // 简单属性优先通过缓存的访问器赋值
+        if(obj != null && !(obj instanceof Map)) {
+            PropAccessor accessor = BindingCacheManager.getPropAccessorByClass(obj.getClass());
+            if(accessor.isAssignable(field, value)) {
+                accessor.setValue(obj, field, value);
+                return;
+            }
+        }
         BeanWrapper wrapper = getBeanWrapper(obj);
         wrapper.setPropertyValue(field, value);
     }
@@ -17,6 +17,8 @@ package com.diboot.core.util;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.baomidou.mybatisplus.extension.toolkit.JdbcUtils;
 import com.diboot.core.binding.cache.BindingCacheManager;
@@ -41,6 +43,7 @@ import javax.sql.DataSource;
 import java.lang.annotation.Annotation;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -145,6 +148,22 @@ public class ContextHolder implements ApplicationContextAware, ApplicationListen
         return new ArrayList<>(map.values());
     }
 
+    /**
+     * 获取已注册的Mybatis-plus内部拦截器（租户、数据权限、分页等）
+     * @return
+     */
+    public static List<InnerInterceptor> getInnerInterceptors(){
+        List<MybatisPlusInterceptor> interceptors = getApplicationContext() != null? getBeans(MybatisPlusInterceptor.class) : null;
+        if(V.isEmpty(interceptors)){
+            return Collections.emptyList();
+        }
+        List<InnerInterceptor> innerInterceptors = new ArrayList<>();
+        for(MybatisPlusInterceptor interceptor : interceptors){
+            innerInterceptors.addAll(interceptor.getInterceptors());
+        }
+        return innerInterceptors;
+    }
+
     /**
      * 根据Entity获取对应的IService实现
      * @param entity
@@ -21,7 +21,10 @@ import org.slf4j.LoggerFactory;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -43,26 +46,19 @@ public class Encryptor {
 	private static final String KEY_FILL = "abcdefghijklmnop";
 
 	/**
-	 * 加密Cipher缓存
+	 * 密钥缓存：原始key -> 补齐后的密钥
+	 */
+	private static final Map<String, SecretKeySpec> KEY_SPEC_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 加密Cipher缓存（Cipher非线程安全，按线程缓存）
  	 */
-	private static Map<String, Cipher> encryptorMap = null;
-	private synchronized static Map<String, Cipher> getEncryptorMap(){
-		if(encryptorMap == null){
-			encryptorMap = new ConcurrentHashMap<>();
-		}
-		return encryptorMap;
-	}
+	private static final ThreadLocal<Map<SecretKeySpec, Cipher>> ENCRYPTOR_CACHE = ThreadLocal.withInitial(HashMap::new);
 
 	/**
-	 * 解密Cipher缓存
+	 * 解密Cipher缓存（Cipher非线程安全，按线程缓存）
 	 */
-	private static Map<String, Cipher> decryptorMap = null;
-	private synchronized static Map<String, Cipher> getDecryptorMap(){
-		if(decryptorMap == null){
-			decryptorMap = new ConcurrentHashMap<>();
-		}
-		return decryptorMap;
-	}
+	private static final ThreadLocal<Map<SecretKeySpec, Cipher>> DECRYPTOR_CACHE = ThreadLocal.withInitial(HashMap::new);
 
 	/**
 	 * 加密字符串（可指定加密密钥）
@@ -80,6 +76,7 @@ public class Encryptor {
 		}
 		catch(Exception e){
 			log.error("加密出错: {}", input, e);
+			evictCipher(ENCRYPTOR_CACHE, seedKey);
 			return input;
 		}
 	}
@@ -103,46 +100,104 @@ public class Encryptor {
 		}
 		catch(Exception e){
 			log.error("解密出错: {}", input, e);
+			evictCipher(DECRYPTOR_CACHE, seedKey);
 			return input;
 		}
 	}
 
+	/**
+	 * 批量解密（同一密钥，复用同一Cipher）
+	 * @param inputs 待解密文本列表
+	 * @param key 加密key（可选）
+	 * @return 与输入顺序一致的解密结果，解密出错的项返回原文本
+	 */
+	public static List<String> decryptAll(List<String> inputs, String... key){
+		if(V.isEmpty(inputs)){
+			return inputs;
+		}
+		String seedKey = V.notEmpty(key)? key[0] : getDefaultKey();
+		List<String> results = new ArrayList<>(inputs.size());
+		Cipher cipher = null;
+		for(String input : inputs){
+			if(V.isEmpty(input)){
+				results.add(input);
+				continue;
+			}
+			try{
+				if(cipher == null){
+					cipher = getDecryptor(seedKey);
+				}
+				byte[] deBytes = Base64.getDecoder().decode(input.getBytes());
+				results.add(new String(cipher.doFinal(deBytes)));
+			}
+			catch(Exception e){
+				log.error("解密出错: {}", input, e);
+				evictCipher(DECRYPTOR_CACHE, seedKey);
+				cipher = null;
+				results.add(input);
+			}
+		}
+		return results;
+	}
+
 	/***
-	 * 获取指定key的加密器
+	 * 获取当前线程指定key的加密器
 	 * @param key 加密密钥
 	 * @return
 	 * @throws Exception
 	 */
 	private static Cipher getEncryptor(String key) throws Exception{
-		byte[] keyBytes = getKey(key);
-		Cipher encryptor = getEncryptorMap().get(new String(keyBytes));
-		if(encryptor == null){
-			SecretKeySpec skeyspec = new SecretKeySpec(keyBytes, KEY_ALGORITHM);
-			encryptor = Cipher.getInstance(CIPHER_ALGORITHM);
-			encryptor.init(Cipher.ENCRYPT_MODE, skeyspec);
-			// 放入缓存
-			getEncryptorMap().put(key, encryptor);
-		}
-		return encryptor;
+		return getCipher(ENCRYPTOR_CACHE, Cipher.ENCRYPT_MODE, key);
 	}
 
 	/***
-	 * 获取指定key的解密器
+	 * 获取当前线程指定key的解密器
 	 * @param key 解密密钥
 	 * @return
 	 * @throws Exception
 	 */
 	private static Cipher getDecryptor(String key) throws Exception{
-		byte[] keyBytes = getKey(key);
-		Cipher decryptor = getDecryptorMap().get(new String(keyBytes));
-		if(decryptor == null){
-			SecretKeySpec skeyspec = new SecretKeySpec(keyBytes, KEY_ALGORITHM);
-			decryptor = Cipher.getInstance(CIPHER_ALGORITHM);
-			decryptor.init(Cipher.DECRYPT_MODE, skeyspec);
+		return getCipher(DECRYPTOR_CACHE, Cipher.DECRYPT_MODE, key);
+	}
+
+	/***
+	 * 获取当前线程缓存的Cipher，不存在则初始化
+	 * @param cache 线程缓存
+	 * @param mode 加密/解密模式
+	 * @param key 密钥
+	 * @return
+	 * @throws Exception
+	 */
+	private static Cipher getCipher(ThreadLocal<Map<SecretKeySpec, Cipher>> cache, int mode, String key) throws Exception{
+		SecretKeySpec keySpec = getKeySpec(key);
+		Map<SecretKeySpec, Cipher> cipherMap = cache.get();
+		Cipher cipher = cipherMap.get(keySpec);
+		if(cipher == null){
+			cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+			cipher.init(mode, keySpec);
 			// 放入缓存
-			getDecryptorMap().put(key, decryptor);
+			cipherMap.put(keySpec, cipher);
 		}
-		return decryptor;
+		return cipher;
+	}
+
+	/***
+	 * 移除当前线程缓存的Cipher（出错后状态不确定，下次重新初始化）
+	 * @param cache
+	 * @param key
+	 */
+	private static void evictCipher(ThreadLocal<Map<SecretKeySpec, Cipher>> cache, String key){
+		cache.get().remove(getKeySpec(key));
+	}
+
+	/***
+	 * 获取key对应的密钥（补齐后缓存）
+	 * @param key
+	 * @return
+	 */
+	private static SecretKeySpec getKeySpec(String key){
+		String seed = key == null? "" : key;
+		return KEY_SPEC_CACHE.computeIfAbsent(seed, k -> new SecretKeySpec(getKey(k), KEY_ALGORITHM));
 	}
 
 	/***
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.vo;
+
+/**
+ * 分页总数的统计策略
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/16
+ * Copyright © diboot.com
+ */
+public enum CountStrategy {
+    /**
+     * 每次精确count
+     */
+    EXACT,
+    /**
+     * 按 查询条件SQL+参数+当前用户 缓存count结果（diboot.core.count-cache-seconds，默认30秒）
+     */
+    CACHED,
+    /**
+     * count与当前页数据查询并行执行（事务中或无可用线程池时同EXACT）
+     */
+    ASYNC,
+    /**
+     * 无查询条件时使用数据库统计信息中的估算行数，有查询条件、有逻辑删除/租户/数据权限条件或无法估算时同EXACT
+     */
+    ESTIMATE,
+}
@@ -74,6 +74,27 @@ public class Pagination implements Serializable {
      */
     private String orderBy;
 
+    /**
+     * 是否为游标分页：按 排序字段+主键 定位下一页，不使用OFFSET，适用于大表的深度翻页
+     */
+    private boolean keyset = false;
+    /**
+     * 游标分页的游标（上一页返回的nextCursor），为空时查询第一页
+     */
+    private String cursor;
+    /**
+     * 游标分页的下一页游标，无下一页时为null
+     */
+    private String nextCursor;
+    /**
+     * 是否统计总数（游标分页仅在第一页统计）
+     */
+    private boolean searchCount = true;
+    /**
+     * 总数的统计策略，为空时使用全局配置 diboot.core.count-strategy（默认EXACT）
+     */
+    private CountStrategy countStrategy;
+
     public Pagination() {
     }
 
@@ -156,6 +177,9 @@ public class Pagination implements Serializable {
                 .setSize(getPageSize())
                 // 如果前端传递过来了缓存的总数，则本次不再count统计
                 .setTotal(getTotalCount() > 0 ? -1 : getTotalCount());
+        if (!searchCount) {
+            page.setSearchCount(false);
+        }
         if (orderItemList != null) {
             page.addOrder(orderItemList);
         }
@@ -191,6 +191,7 @@ public abstract class BaseExcelFileController extends BaseController {
             ExcelHelper.read(inputStream, listener, listener.getExcelModelClass());
         } catch (Exception e) {
             log.warn("解析excel文件失败", e);
+            listener.abort();
             if (e instanceof BusinessException) {
                 throw e;
             } else if (V.notEmpty(e.getMessage())) {
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.listener;
+
+import com.diboot.core.util.V;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Excel导入流水线
+ * <p>
+ * 解析（调用线程）→ 校验转换（按批次顺序串行执行）→ 保存（最多 maxInFlight 个批次并行）。
+ * 在途批次数达到上限时解析线程阻塞等待，内存中最多保留 maxInFlight+1 个批次。
+ * executor 为null时在调用线程中依次执行（如需在同一事务中保存）。
+ * 任一阶段异常后不再处理后续批次，异常在 {@link #finish()} 时抛出。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class ExcelImportPipeline<T> {
+
+    private final Function<List<T>, List<T>> resolveStage;
+    private final Consumer<List<T>> saveStage;
+    private final Executor executor;
+    private final int maxInFlight;
+    /**
+     * 在途批次许可
+     */
+    private final Semaphore inFlightPermits;
+    /**
+     * 上一批次的校验转换，保证校验转换按批次顺序串行
+     */
+    private CompletableFuture<?> resolveTail = CompletableFuture.completedFuture(null);
+    /**
+     * 首个异常
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final StageStat parseStat = new StageStat();
+    private final StageStat resolveStat = new StageStat();
+    private final StageStat saveStat = new StageStat();
+
+    /**
+     * @param resolveStage 校验转换，返回需保存的数据
+     * @param saveStage 保存，为null时不保存（如预览）
+     * @param executor 线程池，为null时在调用线程中执行
+     * @param maxInFlight 最大在途批次数（即保存的最大并行数）
+     */
+    public ExcelImportPipeline(Function<List<T>, List<T>> resolveStage, Consumer<List<T>> saveStage, Executor executor, int maxInFlight) {
+        this.resolveStage = resolveStage;
+        this.saveStage = saveStage;
+        this.executor = executor;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlightPermits = new Semaphore(this.maxInFlight);
+    }
+
+    /**
+     * 提交解析完成的批次，在途批次已满时阻塞等待
+     * @param batch
+     */
+    public void submit(List<T> batch) {
+        if (V.isEmpty(batch) || failure.get() != null) {
+            return;
+        }
+        parseStat.record(batch.size(), 0);
+        if (executor == null) {
+            try {
+                runSave(runResolve(batch));
+            } catch (RuntimeException e) {
+                // 已记录，finish时抛出
+                log.debug("Excel导入批次处理异常: {}", e.getMessage());
+            }
+            return;
+        }
+        long beginWait = System.currentTimeMillis();
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            return;
+        }
+        parseStat.waitMillis.add(System.currentTimeMillis() - beginWait);
+        CompletableFuture<List<T>> resolved = resolveTail.thenApplyAsync(v -> runResolve(batch), executor);
+        resolveTail = resolved;
+        resolved.thenAcceptAsync(this::runSave, executor).whenComplete((v, e) -> {
+            if (e != null) {
+                failure.compareAndSet(null, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+            inFlightPermits.release();
+        });
+    }
+
+    /**
+     * 等待全部批次处理完成，有异常时抛出首个异常
+     */
+    public void finish() {
+        if (executor != null) {
+            inFlightPermits.acquireUninterruptibly(maxInFlight);
+            inFlightPermits.release(maxInFlight);
+        }
+        Throwable throwable = failure.get();
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (throwable != null) {
+            throw new IllegalStateException(throwable);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Excel导入流水线完成: {}", getStatistics());
+        }
+    }
+
+    /**
+     * 中止：不再处理后续批次，等待在途批次结束
+     */
+    public void abort() {
+        failure.compareAndSet(null, new IllegalStateException("导入已中止"));
+        if (executor != null) {
+            inFlightPermits.acquireUninterruptibly(maxInFlight);
+            inFlightPermits.release(maxInFlight);
+        }
+    }
+
+    /**
+     * 获取各阶段的统计：批次数、行数、耗时，及解析阶段因背压等待的耗时
+     * @return
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>(4);
+        statistics.put("parse", parseStat.toMap());
+        statistics.put("resolve", resolveStat.toMap());
+        statistics.put("save", saveStat.toMap());
+        statistics.put("maxInFlight", maxInFlight);
+        return statistics;
+    }
+
+    private List<T> runResolve(List<T> batch) {
+        if (failure.get() != null) {
+            return null;
+        }
+        long begin = System.currentTimeMillis();
+        try {
+            return resolveStage.apply(batch);
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        } finally {
+            resolveStat.record(batch.size(), System.currentTimeMillis() - begin);
+        }
+    }
+
+    private void runSave(List<T> properList) {
+        if (saveStage == null || V.isEmpty(properList) || failure.get() != null) {
+            return;
+        }
+        long begin = System.currentTimeMillis();
+        try {
+            saveStage.accept(properList);
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+            throw e;
+        } finally {
+            saveStat.record(properList.size(), System.currentTimeMillis() - begin);
+        }
+    }
+
+    /**
+     * 阶段统计
+     */
+    private static final class StageStat {
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder millis = new LongAdder();
+        private final LongAdder waitMillis = new LongAdder();
+
+        void record(int rowCount, long takes) {
+            batches.increment();
+            rows.add(rowCount);
+            millis.add(takes);
+        }
+
+        Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<>(4);
+            map.put("batches", batches.sum());
+            map.put("rows", rows.sum());
+            map.put("millis", millis.sum());
+            map.put("waitMillis", waitMillis.sum());
+            return map;
+        }
+    }
+
+}
@@ -17,19 +17,33 @@ package com.diboot.file.excel.listener;
 
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.util.ListUtils;
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
 import com.diboot.core.config.BaseConfig;
+import com.diboot.core.util.ContextHolder;
+import com.diboot.core.util.V;
 import com.diboot.file.excel.BaseExcelModel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
 
 /**
  * 分页读取Excel
+ * <p>
+ * 每读取 BATCH_COUNT 行提交至导入流水线：校验转换按批次顺序执行，保存最多 saveParallelism 个批次并行，
+ * 在途批次已满时暂停解析（背压）。
+ * allOrNothing 模式或已处于事务中时在当前线程中保存，存在错误数据或异常时整体回滚。
+ * 预览时仅校验，不保存。
+ * </p>
  *
  * @author wind
  * @version v2.4.0
@@ -46,15 +60,48 @@ public abstract class PageReadExcelListener<T extends BaseExcelModel> extends Re
     @Getter
     private final List<T> cachedDataList = ListUtils.newArrayListWithExpectedSize(BATCH_COUNT);
 
-    protected CompletableFuture<Boolean> completableFuture;
+    /**
+     * 保存的最大并行批次数，默认 diboot.file.import-save-parallelism 或 1（大于1时saveData需线程安全）
+     */
+    @Setter
+    protected int saveParallelism = BaseConfig.getInteger("diboot.file.import-save-parallelism", 1);
+
+    /**
+     * 是否全部成功才提交（存在错误数据或异常时回滚已保存的数据）
+     */
+    @Setter
+    protected boolean allOrNothing = false;
+
+    private ExcelImportPipeline<T> pipeline;
+
+    private PlatformTransactionManager transactionManager;
+    private TransactionStatus transactionStatus;
 
     @Override
     public void doAfterAllAnalysed(AnalysisContext context) {
-        if (completableFuture != null) {
-            completableFuture.join();
-        }
-        if (CollectionUtils.isNotEmpty(cachedDataList)) {
-            handle(cachedDataList);
+        try {
+            if (CollectionUtils.isNotEmpty(cachedDataList)) {
+                getPipeline().submit(new ArrayList<>(cachedDataList));
+                cachedDataList.clear();
+            }
+            if (pipeline != null) {
+                pipeline.finish();
+            }
+            if (transactionStatus != null) {
+                if (errorCount > 0 || V.notEmpty(getExceptionMsgs())) {
+                    rollback();
+                    if (errorCount > 0) {
+                        addExceptionMsg("存在 " + errorCount + " 条错误数据，已全部回滚");
+                    }
+                } else {
+                    TransactionStatus status = transactionStatus;
+                    transactionStatus = null;
+                    transactionManager.commit(status);
+                }
+            }
+        } finally {
+            // 异常时回滚，确保事务释放
+            rollback();
         }
         super.finish();
     }
@@ -63,23 +110,63 @@ public abstract class PageReadExcelListener<T extends BaseExcelModel> extends Re
     protected void cachedData(T data) {
         cachedDataList.add(data);
         if (cachedDataList.size() >= BATCH_COUNT) {
-            if (completableFuture != null) {
-                completableFuture.join();
-            }
-            completableFuture = asyncHandle(new ArrayList<>(cachedDataList));
+            getPipeline().submit(new ArrayList<>(cachedDataList));
             cachedDataList.clear();
         }
     }
 
+    @Override
+    public void abort() {
+        if (pipeline != null) {
+            pipeline.abort();
+        }
+        rollback();
+        super.abort();
+    }
+
+    /**
+     * 获取导入流水线各阶段的统计
+     *
+     * @return
+     */
+    public Map<String, Object> getImportStatistics() {
+        return pipeline != null ? pipeline.getStatistics() : Collections.emptyMap();
+    }
+
     /**
-     * 异步处理数据，提高效率
+     * 获取导入流水线（首批数据提交时初始化）
      *
-     * @param dataList
      * @return
      */
-    @Async
-    public CompletableFuture<Boolean> asyncHandle(List<T> dataList) {
-        super.handle(dataList);
-        return CompletableFuture.completedFuture(true);
+    protected ExcelImportPipeline<T> getPipeline() {
+        if (pipeline == null) {
+            if (allOrNothing && !preview && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                transactionManager = ContextHolder.getBean(PlatformTransactionManager.class);
+                if (transactionManager != null) {
+                    transactionStatus = transactionManager.getTransaction(new DefaultTransactionDefinition());
+                }
+            }
+            // 事务中的保存需在当前线程执行
+            BindingExecutor bindingExecutor = (allOrNothing || TransactionSynchronizationManager.isActualTransactionActive()) ?
+                    null : ContextHolder.getBean(BindingExecutor.class);
+            // 预览时仅校验，不保存
+            pipeline = new ExcelImportPipeline<>(this::resolve, preview ? null : list -> saveData(list, getRequestParams()),
+                    bindingExecutor != null ? bindingExecutor::execute : null, saveParallelism);
+        }
+        return pipeline;
+    }
+
+    /**
+     * 回滚 allOrNothing 模式的事务
+     */
+    private void rollback() {
+        if (transactionStatus != null) {
+            try {
+                transactionManager.rollback(transactionStatus);
+            } catch (Exception e) {
+                log.warn("Excel导入事务回滚异常: {}", e.getMessage());
+            }
+            transactionStatus = null;
+        }
     }
 }
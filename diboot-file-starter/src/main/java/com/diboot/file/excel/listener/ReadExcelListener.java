@@ -53,6 +53,7 @@ import jakarta.validation.constraints.NotNull;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -89,6 +90,7 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
     /**
      * 注入request
      */
+    @Getter
     @Setter
     private Map<String, Object> requestParams;
     /**
@@ -112,7 +114,7 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      * 异常信息
      */
     @Getter
-    private List<String> exceptionMsgs = null;
+    private volatile List<String> exceptionMsgs = null;
 
     /**
      * 错误信息
@@ -135,6 +137,11 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
     private WriteSheet writeSheet;
     private CommentWriteHandler commentWriteHandler;
 
+    /**
+     * 本次导入的关联值缓存：字段名 - (name - value列表)，预览校验与转换赋值共用，避免重复查询
+     */
+    private final Map<String, Map<String, List>> fieldNameValueCache = new ConcurrentHashMap<>();
+
     /**
      * 获取正确数据数量
      */
@@ -189,6 +196,7 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
     protected void finish() {
         if (excelWriter != null) {
             excelWriter.finish();
+            excelWriter = null;
         }
         // 有错误 抛出异常
         if (V.notEmpty(this.exceptionMsgs)) {
@@ -196,6 +204,21 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
         }
     }
 
+    /**
+     * <h3>中止</h3>
+     * 读取过程中出现异常时调用，释放资源
+     */
+    public void abort() {
+        if (excelWriter != null) {
+            try {
+                excelWriter.finish();
+            } catch (Exception e) {
+                log.debug("关闭错误数据文件异常: {}", e.getMessage());
+            }
+            excelWriter = null;
+        }
+    }
+
     /**
      * <h3>异常处理</h3>
      * 修补数据，回写错误
@@ -267,9 +290,9 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      *
      * @param exceptionMsg
      */
-    protected void addExceptionMsg(String exceptionMsg) {
+    protected synchronized void addExceptionMsg(String exceptionMsg) {
         if (this.exceptionMsgs == null) {
-            this.exceptionMsgs = new ArrayList<>();
+            this.exceptionMsgs = Collections.synchronizedList(new ArrayList<>());
         }
         this.exceptionMsgs.add(exceptionMsg);
     }
@@ -280,6 +303,20 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      * @param dataList 数据列表
      */
     protected void handle(List<T> dataList) {
+        List<T> properList = resolve(dataList);
+        if (!preview && V.notEmpty(properList)) {
+            this.saveData(properList, requestParams);
+        }
+    }
+
+    /**
+     * <h3>校验及转换数据</h3>
+     * 检查字典和关联字段、自定义校验，错误数据交由 errorData 处理，正确数据在非预览时转换字典和关联字段
+     *
+     * @param dataList 数据列表
+     * @return 正确数据
+     */
+    protected List<T> resolve(List<T> dataList) {
         if (preview && previewDataList == null) {
             int pageSize = BaseConfig.getPageSize();
             previewDataList = dataList.size() > pageSize ? dataList.subList(0, pageSize) : dataList;
@@ -293,17 +330,16 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
         if (V.notEmpty(this.exceptionMsgs)) {
             throw new BusinessException(Status.FAIL_VALIDATION, S.join(this.exceptionMsgs, "; "));
         }
-        dataList.stream().collect(Collectors.groupingBy(this::isProper)).forEach((proper, list) -> {
-            if (proper) {
-                if (!preview) {
-                    // 转换 字典和关联字段
-                    validateOrConvertDictAndRefField(list, false);
-                    this.saveData(list, requestParams);
-                }
-            } else {
-                this.errorData(list);
-            }
-        });
+        Map<Boolean, List<T>> properGroupMap = dataList.stream().collect(Collectors.partitioningBy(this::isProper));
+        if (V.notEmpty(properGroupMap.get(false))) {
+            this.errorData(properGroupMap.get(false));
+        }
+        List<T> properList = properGroupMap.get(true);
+        if (!preview && V.notEmpty(properList)) {
+            // 转换 字典和关联字段
+            validateOrConvertDictAndRefField(properList, false);
+        }
+        return properList;
     }
 
     /**
@@ -371,8 +407,7 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
             return;
         }
         for (Map.Entry<String, Annotation> entry : fieldName2BindAnnoMap.entrySet()) {
-            List nameList = (entry.getValue() instanceof ExcelBindField) ? BeanUtils.collectToList(dataList, entry.getKey()) : null;
-            Map<String, List> map = ExcelBindAnnoHandler.convertToNameValueMap(entry.getValue(), nameList);
+            Map<String, List> map = getNameValueMap(dataList, entry.getKey(), entry.getValue());
             Field field = BeanUtils.extractField(tClass, entry.getKey());
             boolean valueNotNull = (field.getAnnotation(NotNull.class) != null);
             for (T data : dataList) {
@@ -443,6 +478,38 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
         }
     }
 
+    /**
+     * 获取字段的 name-value map（本次导入内缓存）
+     * <p>
+     * 字典整体加载一次；关联字段仅查询未缓存的name，未匹配的name缓存为空列表
+     *
+     * @param dataList
+     * @param fieldName
+     * @param annotation
+     * @return
+     */
+    protected Map<String, List> getNameValueMap(List<T> dataList, String fieldName, Annotation annotation) {
+        if (!(annotation instanceof ExcelBindField)) {
+            return fieldNameValueCache.computeIfAbsent(fieldName, k -> ExcelBindAnnoHandler.convertToNameValueMap(annotation, null));
+        }
+        Map<String, List> cachedMap = fieldNameValueCache.computeIfAbsent(fieldName, k -> new ConcurrentHashMap<>());
+        Set<String> missNames = new LinkedHashSet<>();
+        for (T data : dataList) {
+            String name = BeanUtils.getStringProperty(data, fieldName);
+            if (S.isNotEmpty(name) && !cachedMap.containsKey(name)) {
+                missNames.add(name);
+            }
+        }
+        if (V.notEmpty(missNames)) {
+            Map<String, List> name2ValuesMap = ExcelBindAnnoHandler.convertToNameValueMap(annotation, new ArrayList<>(missNames));
+            for (String name : missNames) {
+                List values = name2ValuesMap.get(name);
+                cachedMap.put(name, values != null ? values : Collections.emptyList());
+            }
+        }
+        return cachedMap;
+    }
+
     /**
      * <h3>自定义数据检验方式</h3>
      * 例：数据重复性校验等，添加校验批注信息
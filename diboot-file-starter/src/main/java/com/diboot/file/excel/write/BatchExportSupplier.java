@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.write;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.diboot.core.binding.cache.RequestBindingCache;
+import com.diboot.core.service.BaseService;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.Pagination;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 分批导出的数据提供者
+ * <p>
+ * 按游标分页逐批查询Entity，每批转换（及绑定关联）后交由 ExcelWriter 写入，
+ * 写入完成的批次不再被引用，内存占用与导出总行数无关。
+ * 每批查询前检查取消状态，已取消时抛出 {@link CancellationException} 终止导出。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/17
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BatchExportSupplier<E, T> implements Supplier<List<T>> {
+
+    /**
+     * 默认每批数量
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final BaseService<E> service;
+    /**
+     * 查询条件，游标条件会追加到条件中，因此每批需构建新的实例
+     */
+    private final Supplier<? extends Wrapper<E>> queryWrapperSupplier;
+    /**
+     * Entity列表 转换为 导出数据列表
+     */
+    private final Function<List<E>, List<T>> converter;
+    /**
+     * 排序，格式同 Pagination.orderBy，为空时按主键排序
+     */
+    private String orderBy;
+    /**
+     * 每批数量
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    /**
+     * 外部取消检查
+     */
+    private BooleanSupplier cancelChecker;
+
+    private String cursor;
+    private boolean finished = false;
+    private volatile boolean cancelled = false;
+    /**
+     * 已查询的记录数
+     */
+    @Getter
+    private long fetchedCount = 0;
+
+    public BatchExportSupplier(BaseService<E> service, Supplier<? extends Wrapper<E>> queryWrapperSupplier, Function<List<E>, List<T>> converter) {
+        this.service = service;
+        this.queryWrapperSupplier = queryWrapperSupplier;
+        this.converter = converter;
+    }
+
+    /**
+     * 指定排序
+     * @param orderBy
+     * @return
+     */
+    public BatchExportSupplier<E, T> orderBy(String orderBy) {
+        this.orderBy = orderBy;
+        return this;
+    }
+
+    /**
+     * 指定每批数量
+     * @param batchSize
+     * @return
+     */
+    public BatchExportSupplier<E, T> batchSize(int batchSize) {
+        if(batchSize > 0) {
+            this.batchSize = batchSize;
+        }
+        return this;
+    }
+
+    /**
+     * 指定外部取消检查，返回true时终止导出
+     * @param cancelChecker
+     * @return
+     */
+    public BatchExportSupplier<E, T> cancelChecker(BooleanSupplier cancelChecker) {
+        this.cancelChecker = cancelChecker;
+        return this;
+    }
+
+    /**
+     * 取消导出，下一批查询前生效
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * 获取下一批数据
+     * @return 已无数据时返回null
+     */
+    @Override
+    public List<T> get() {
+        while(!finished) {
+            checkCancelled();
+            Pagination pagination = new Pagination();
+            pagination.setKeyset(true);
+            pagination.setSearchCount(false);
+            pagination.setPageSize(batchSize);
+            pagination.setOrderBy(orderBy);
+            pagination.setCursor(cursor);
+            List<E> entityList = service.getEntityList(queryWrapperSupplier != null? queryWrapperSupplier.get() : null, pagination);
+            cursor = pagination.getNextCursor();
+            finished = cursor == null;
+            if(V.isEmpty(entityList)) {
+                continue;
+            }
+            fetchedCount += entityList.size();
+            List<T> dataList = converter.apply(entityList);
+            // 释放本批绑定时加载的关联数据
+            RequestBindingCache.clear();
+            if(V.notEmpty(dataList)) {
+                return dataList;
+            }
+        }
+        log.debug("分批导出数据查询完成，共 {} 条", fetchedCount);
+        return null;
+    }
+
+    /**
+     * 检查是否已取消
+     */
+    private void checkCancelled() {
+        if(cancelled || Thread.currentThread().isInterrupted() || (cancelChecker != null && cancelChecker.getAsBoolean())) {
+            cancelled = true;
+            throw new CancellationException("导出已取消，已查询 " + fetchedCount + " 条");
+        }
+    }
+
+}
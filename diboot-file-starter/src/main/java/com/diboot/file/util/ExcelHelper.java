@@ -29,6 +29,9 @@ import com.alibaba.excel.write.handler.WriteHandler;
 import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.excel.write.metadata.holder.WriteSheetHolder;
 import com.alibaba.excel.write.style.column.LongestMatchColumnWidthStyleStrategy;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.service.BaseService;
 import com.diboot.core.util.I18n;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
@@ -36,6 +39,8 @@ import com.diboot.core.vo.JsonResult;
 import com.diboot.core.vo.Status;
 import com.diboot.file.excel.BaseExcelModel;
 import com.diboot.file.excel.TableHead;
+import com.diboot.file.excel.listener.ReadExcelListener;
+import com.diboot.file.excel.write.BatchExportSupplier;
 import com.diboot.file.excel.write.CommentWriteHandler;
 import com.diboot.file.excel.write.OptionWriteHandler;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +53,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
@@ -90,7 +96,15 @@ public class ExcelHelper {
      * @param headClazz   ExcelModel.class
      */
     public static <T> void read(InputStream inputStream, ExcelTypeEnum excelType, ReadListener<T> listener, Class<T> headClazz) {
-        EasyExcel.read(inputStream).excelType(excelType).registerReadListener(listener).head(headClazz).sheet().doRead();
+        try {
+            EasyExcel.read(inputStream).excelType(excelType).registerReadListener(listener).head(headClazz).sheet().doRead();
+        } catch (RuntimeException | Error e) {
+            // 读取中断时中止监听器，释放在途批次及导入事务
+            if (listener instanceof ReadExcelListener) {
+                ((ReadExcelListener<?>) listener).abort();
+            }
+            throw e;
+        }
     }
 
     /**
@@ -169,16 +183,26 @@ public class ExcelHelper {
     public static <T> void write(OutputStream outputStream, Class<T> clazz, Collection<String> columnNameList,
                                  Boolean autoClose, Supplier<List<T>> dataList, WriteHandler... writeHandlers) {
         ExcelWriter writer = EasyExcel.write(outputStream, clazz).autoCloseStream(autoClose).build();
-        buildWriteSheet(columnNameList, (commentWriteHandler, writeSheet) -> {
-            List<T> list = dataList.get();
-            boolean assignableFrom = BaseExcelModel.class.isAssignableFrom(clazz);
-            do {
-                if (assignableFrom) {
-                    commentWriteHandler.setDataList((List<? extends BaseExcelModel>) list);
-                }
-                writer.write(list, writeSheet);
-            } while (V.notEmpty(list = dataList.get()));
-        }, writeHandlers);
+        try {
+            buildWriteSheet(columnNameList, (commentWriteHandler, writeSheet) -> {
+                List<T> list = dataList.get();
+                boolean assignableFrom = BaseExcelModel.class.isAssignableFrom(clazz);
+                do {
+                    if (assignableFrom) {
+                        commentWriteHandler.setDataList((List<? extends BaseExcelModel>) list);
+                    }
+                    writer.write(list, writeSheet);
+                } while (V.notEmpty(list = dataList.get()));
+            }, writeHandlers);
+        } catch (RuntimeException e) {
+            // 中断写入：不输出不完整的文件，仅释放临时文件等资源
+            try {
+                writer.writeContext().finish(true);
+            } catch (Exception ex) {
+                log.debug("释放Excel写入资源异常: {}", ex.getMessage());
+            }
+            throw e;
+        }
         writer.finish();
     }
 
@@ -273,8 +297,14 @@ public class ExcelHelper {
         setExportExcelResponseHeader(response, fileName);
         try {
             write(response.getOutputStream(), clazz, columnNameList, Boolean.FALSE, dataList, writeHandlers);
+        } catch (CancellationException e) {
+            log.info("导出Excel已取消: {}", e.getMessage());
         } catch (Exception e) {
             log.error("下载文件失败：", e);
+            if (response.isCommitted()) {
+                // 已开始输出文件内容（如客户端断开连接），无法再返回错误信息
+                return;
+            }
             response.reset();
             response.setContentType("application/json");
             response.setCharacterEncoding("utf-8");
@@ -286,6 +316,26 @@ public class ExcelHelper {
         }
     }
 
+    /**
+     * web 导出excel
+     * <p>
+     * 按游标分页逐批查询Entity、转换并绑定关联后写入，内存占用与导出总行数无关
+     *
+     * @param response
+     * @param fileName
+     * @param clazz                导出的ExcelModel
+     * @param columnNameList       需要导出的ExcelModel列字段名称列表，为空时导出所有列
+     * @param service              Entity对应的Service
+     * @param queryWrapperSupplier 查询条件（每批构建新的实例）
+     * @param writeHandlers        写入处理程序
+     */
+    public static <E, T> void exportExcel(HttpServletResponse response, String fileName, Class<T> clazz, Collection<String> columnNameList,
+                                          BaseService<E> service, Supplier<? extends Wrapper<E>> queryWrapperSupplier, WriteHandler... writeHandlers) {
+        BatchExportSupplier<E, T> dataSupplier = new BatchExportSupplier<>(service, queryWrapperSupplier,
+                entityList -> Binder.convertAndBindRelations(entityList, clazz));
+        exportExcel(response, fileName, clazz, columnNameList, dataSupplier, writeHandlers);
+    }
+
     /**
      * 设置导出的excel 响应头
      *
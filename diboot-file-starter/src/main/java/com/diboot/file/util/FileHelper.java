@@ -34,6 +34,9 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.text.DecimalFormat;
 import java.util.Arrays;
 import java.util.List;
@@ -135,7 +138,10 @@ public class FileHelper{
 		try {
 			// 创建文件夹
 			makeDirectory(fullPath);
-			FileUtils.writeByteArrayToFile(new File(fullPath), file.getBytes());
+			// 流式写入，不将文件内容读入内存；不使用transferTo，避免移走临时文件导致后续无法读取上传文件
+			try (InputStream inputStream = file.getInputStream()) {
+				Files.copy(inputStream, Paths.get(fullPath), StandardCopyOption.REPLACE_EXISTING);
+			}
 			if(log.isDebugEnabled()){
 				log.debug("保存文件成功！路径为: {}", fullPath);
 			}
@@ -23,6 +23,9 @@ import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.apache.commons.io.FileUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
 
@@ -35,8 +38,11 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.io.*;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
@@ -56,6 +62,13 @@ public class HttpHelper {
      * 默认contextType
      */
     private static final String DEFAULT_CONTEXT_TYPE = "application/octet-stream";
+    /**
+     * 容器sendfile支持的request属性（Tomcat）
+     */
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
     /***
      * 文件扩展名-ContentType的对应关系
      */
@@ -263,7 +276,183 @@ public class HttpHelper {
      * @throws Exception
      */
     public static void downloadLocalFile(File localFile, String exportFileName, HttpServletResponse response) throws Exception {
-        downloadFile(Files.newInputStream(localFile.toPath()), localFile.length(), exportFileName, response);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        HttpServletRequest request = requestAttributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) requestAttributes).getRequest() : null;
+        downloadLocalFile(localFile, exportFileName, request, response);
+    }
+
+    /**
+     * 根据文件对象下载服务器文件
+     * <p>
+     * 支持 Range/If-Range 断点续传（206），及 ETag/Last-Modified 条件请求（304）；
+     * 容器支持sendfile时（如Tomcat NIO）由容器零拷贝发送文件，否则经响应输出流分块复制
+     * @param localFile 本地文件对象
+     * @param exportFileName 导出文件的文件名
+     * @param request 为null时不处理条件及范围请求
+     * @param response
+     * @throws Exception
+     */
+    public static void downloadLocalFile(File localFile, String exportFileName, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        if (!localFile.isFile()) {
+            throw new BusinessException(Status.FAIL_OPERATION, "exception.business.file.nonexist");
+        }
+        long fileLength = localFile.length();
+        long lastModified = localFile.lastModified() / 1000 * 1000;
+        String eTag = "\"" + Long.toHexString(fileLength) + "-" + Long.toHexString(lastModified) + "\"";
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        if (request != null && isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long start = 0, end = fileLength - 1;
+        String range = request != null ? request.getHeader("Range") : null;
+        if (V.notEmpty(range) && isRangeApplicable(request, eTag, lastModified)) {
+            long[] byteRange = parseByteRange(range, fileLength);
+            if (byteRange == null) {
+                response.setHeader("Content-Range", "bytes */" + fileLength);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (byteRange.length == 2) {
+                start = byteRange[0];
+                end = byteRange[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + fileLength);
+            }
+        }
+        long contentLength = end - start + 1;
+        String fileName = new String(exportFileName.getBytes(StandardCharsets.UTF_8), "ISO8859-1");
+        response.setContentType(getContextType(fileName));
+        response.setHeader("Content-disposition", "attachment; filename="+ fileName);
+        response.setContentLengthLong(contentLength);
+        response.setHeader("filename", URLEncoder.encode(exportFileName, StandardCharsets.UTF_8.name()));
+        if ((request != null && "HEAD".equalsIgnoreCase(request.getMethod())) || contentLength <= 0) {
+            return;
+        }
+        // 容器sendfile：零拷贝发送
+        if (request != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, localFile.getCanonicalPath());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+        // 响应输出流不是SocketChannel，transferTo 在用户态分块复制，并非零拷贝
+        try (FileChannel fileChannel = FileChannel.open(localFile.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel outChannel = Channels.newChannel(response.getOutputStream());
+            long position = start, remaining = contentLength;
+            while (remaining > 0) {
+                long transferred = fileChannel.transferTo(position, remaining, outChannel);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            response.flushBuffer();
+        }
+        catch (IOException e) {
+            // 客户端中断连接
+            log.debug("下载文件中断: {}, {}", exportFileName, e.getMessage());
+        }
+    }
+
+    /**
+     * 是否未修改（If-None-Match 优先于 If-Modified-Since）
+     * @param request
+     * @param eTag
+     * @param lastModified
+     * @return
+     */
+    private static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if ("*".equals(tag) || eTag.equals(S.removeStart(tag, "W/"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * Range是否适用：无If-Range，或If-Range与当前ETag/Last-Modified一致
+     * @param request
+     * @param eTag
+     * @param lastModified
+     * @return
+     */
+    private static boolean isRangeApplicable(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (V.isEmpty(ifRange)) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return eTag.equals(ifRange.trim());
+        }
+        long ifRangeDate = getDateHeader(request, "If-Range");
+        return ifRangeDate >= 0 && ifRangeDate == lastModified;
+    }
+
+    /**
+     * 解析单个字节范围
+     * @param range Range请求头
+     * @param fileLength
+     * @return {start, end}；多范围或格式不支持时返回空数组（返回完整内容）；范围无法满足时返回null
+     */
+    private static long[] parseByteRange(String range, long fileLength) {
+        if (!range.startsWith("bytes=") || range.contains(",")) {
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dashIndex = spec.indexOf('-');
+        if (dashIndex < 0) {
+            return new long[0];
+        }
+        try {
+            long start, end;
+            String startPart = spec.substring(0, dashIndex).trim(), endPart = spec.substring(dashIndex + 1).trim();
+            if (startPart.isEmpty()) {
+                // 最后N个字节
+                long suffixLength = Long.parseLong(endPart);
+                if (suffixLength <= 0) {
+                    return null;
+                }
+                start = Math.max(0, fileLength - suffixLength);
+                end = fileLength - 1;
+            }
+            else {
+                start = Long.parseLong(startPart);
+                end = endPart.isEmpty() ? fileLength - 1 : Math.min(Long.parseLong(endPart), fileLength - 1);
+            }
+            if (start >= fileLength || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        }
+        catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * 获取日期请求头，格式错误时返回-1
+     * @param request
+     * @param headerName
+     * @return
+     */
+    private static long getDateHeader(HttpServletRequest request, String headerName) {
+        try {
+            return request.getDateHeader(headerName);
+        }
+        catch (IllegalArgumentException e) {
+            return -1;
+        }
     }
 
     public static void downloadFile(InputStream inputStream, long fileLength, String exportFileName, HttpServletResponse response) throws Exception{
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.example.test;
+
+import com.diboot.file.excel.listener.ExcelImportPipeline;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Excel导入流水线测试
+ *
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/18
+ * Copyright © diboot.com
+ */
+public class ExcelImportPipelineTest {
+
+    @Test
+    public void testPipeline() {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Integer> resolvedOrder = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger savedRows = new AtomicInteger();
+            AtomicInteger saving = new AtomicInteger();
+            AtomicInteger maxSaving = new AtomicInteger();
+            ExcelImportPipeline<Integer> pipeline = new ExcelImportPipeline<>(batch -> {
+                resolvedOrder.add(batch.get(0));
+                return batch;
+            }, batch -> {
+                maxSaving.accumulateAndGet(saving.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                savedRows.addAndGet(batch.size());
+                saving.decrementAndGet();
+            }, executorService, 2);
+            for (int i = 0; i < 20; i++) {
+                pipeline.submit(Arrays.asList(i, i));
+            }
+            pipeline.finish();
+            Assert.assertEquals(40, savedRows.get());
+            Assert.assertTrue(maxSaving.get() <= 2);
+            // 校验转换按批次顺序执行
+            for (int i = 0; i < 20; i++) {
+                Assert.assertEquals(i, resolvedOrder.get(i).intValue());
+            }
+            Map<String, Object> statistics = pipeline.getStatistics();
+            Assert.assertEquals(20L, ((Map<?, ?>) statistics.get("save")).get("batches"));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        AtomicInteger savedBatches = new AtomicInteger();
+        ExcelImportPipeline<Integer> pipeline = new ExcelImportPipeline<>(batch -> {
+            if (batch.get(0) == 3) {
+                throw new IllegalArgumentException("invalid");
+            }
+            return batch;
+        }, batch -> savedBatches.incrementAndGet(), null, 1);
+        for (int i = 0; i < 10; i++) {
+            pipeline.submit(Collections.singletonList(i));
+        }
+        try {
+            pipeline.finish();
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 异常后不再处理后续批次
+            Assert.assertEquals(3, savedBatches.get());
+        }
+    }
+
+    @Test
+    public void testWithoutSaveStage() {
+        // 预览时仅校验转换
+        AtomicInteger resolvedRows = new AtomicInteger();
+        ExcelImportPipeline<Integer> pipeline = new ExcelImportPipeline<>(batch -> {
+            resolvedRows.addAndGet(batch.size());
+            return batch;
+        }, null, null, 1);
+        for (int i = 0; i < 5; i++) {
+            pipeline.submit(Arrays.asList(i, i));
+        }
+        pipeline.finish();
+        Assert.assertEquals(10, resolvedRows.get());
+        Assert.assertEquals(0L, ((Map<?, ?>) pipeline.getStatistics().get("save")).get("batches"));
+    }
+}
@@ -17,8 +17,12 @@ package com.diboot.file.example.test;
 
 
 import com.diboot.file.example.ApplicationTest;
+import com.diboot.file.example.custom.Department;
+import com.diboot.file.example.custom.DepartmentExcelModel;
+import com.diboot.file.excel.write.BatchExportSupplier;
 import com.diboot.file.util.ExcelHelper;
 import com.diboot.file.util.FileHelper;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.file.Files;
@@ -27,6 +31,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * excel写测试
@@ -115,6 +121,34 @@ public class ExcelWriteTest extends ApplicationTest {
         deleteTempFile();
     }
 
+    @Test
+    public void testWriteInBatches() throws Exception {
+        // 分批写入
+        AtomicInteger batch = new AtomicInteger(0);
+        ExcelHelper.write(Files.newOutputStream(Paths.get(getTempFilePath())), DepartmentExcelModel.class, null, () -> {
+            if (batch.incrementAndGet() > 3) {
+                return null;
+            }
+            DepartmentExcelModel model = new DepartmentExcelModel();
+            model.setName("部门" + batch.get());
+            model.setMemCount(batch.get());
+            return Collections.singletonList(model);
+        });
+        Assert.assertEquals(4, batch.get());
+        deleteTempFile();
+
+        // 已取消的导出不查询数据
+        BatchExportSupplier<Department, DepartmentExcelModel> supplier = new BatchExportSupplier<Department, DepartmentExcelModel>(null, null, null)
+                .cancelChecker(() -> true);
+        try {
+            ExcelHelper.write(Files.newOutputStream(Paths.get(getTempFilePath())), DepartmentExcelModel.class, null, supplier);
+            Assert.fail();
+        } catch (CancellationException e) {
+            Assert.assertEquals(0, supplier.getFetchedCount());
+        }
+        deleteTempFile();
+    }
+
     /**
      * 删除临时文件
      */
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.example.test;
+
+import com.diboot.file.util.HttpHelper;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * 本地文件下载测试：Range、If-Range、ETag 及 304
+ *
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/19
+ * Copyright © diboot.com
+ */
+public class LocalFileDownloadTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testFullDownload() throws Exception {
+        File file = prepareFile();
+        MockHttpServletResponse response = download(file, new MockHttpServletRequest("GET", "/download"));
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assert.assertEquals(CONTENT, response.getContentAsString());
+        Assert.assertEquals(CONTENT.length(), response.getContentLengthLong());
+        Assert.assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        Assert.assertNotNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        File file = prepareFile();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        Assert.assertEquals("2345", response.getContentAsString());
+        Assert.assertEquals("bytes 2-5/20", response.getHeader("Content-Range"));
+
+        // 最后N个字节
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("Range", "bytes=-3");
+        response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        Assert.assertEquals("hij", response.getContentAsString());
+
+        // 无法满足的范围
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("Range", "bytes=100-");
+        response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatus());
+        Assert.assertEquals("bytes */20", response.getHeader("Content-Range"));
+
+        // 多范围返回完整内容
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("Range", "bytes=0-1,4-5");
+        response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assert.assertEquals(CONTENT, response.getContentAsString());
+    }
+
+    @Test
+    public void testIfRange() throws Exception {
+        File file = prepareFile();
+        String eTag = download(file, new MockHttpServletRequest("GET", "/download")).getHeader("ETag");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", eTag);
+        MockHttpServletResponse response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        Assert.assertEquals("0123", response.getContentAsString());
+
+        // 文件已变化时忽略Range，返回完整内容
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", "\"outdated\"");
+        response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assert.assertEquals(CONTENT, response.getContentAsString());
+
+        // 按最后修改时间匹配
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("Range", "bytes=0-3");
+        request.addHeader("If-Range", response.getHeader("Last-Modified"));
+        response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        Assert.assertEquals("0123", response.getContentAsString());
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        File file = prepareFile();
+        MockHttpServletResponse fullResponse = download(file, new MockHttpServletRequest("GET", "/download"));
+        String eTag = fullResponse.getHeader("ETag");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("If-None-Match", eTag);
+        MockHttpServletResponse response = download(file, request);
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+
+        // 弱校验的ETag
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("If-None-Match", "\"other\", W/" + eTag);
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, download(file, request).getStatus());
+
+        // ETag不匹配时不再比较修改时间
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("If-None-Match", "\"other\"");
+        request.addHeader("If-Modified-Since", fullResponse.getHeader("Last-Modified"));
+        Assert.assertEquals(HttpServletResponse.SC_OK, download(file, request).getStatus());
+
+        request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader("If-Modified-Since", fullResponse.getHeader("Last-Modified"));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, download(file, request).getStatus());
+    }
+
+    private File prepareFile() throws Exception {
+        File file = tempFolder.newFile("download.txt");
+        Files.write(file.toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private MockHttpServletResponse download(File file, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(file, "download.txt", request, response);
+        return response;
+    }
+
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.annotation.process;
+
+import com.diboot.iam.config.IamProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 日志批量写入器
+ * <p>
+ * 日志先进入有界缓冲区，由后台线程每满 batchSize 条或每隔 flushIntervalMillis 毫秒批量写入一次；
+ * 缓冲区满时按策略等待、丢弃或（每满 batchSize 条）写入本地溢出文件，关闭时写完缓冲区中的日志，未启动或已关闭时直接写入。
+ * 溢出文件目录仅当前用户可访问，回写时仅允许反序列化日志类及其字段类型。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/9
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BatchLogWriter<T extends Serializable> {
+
+    private static final String SPILL_FILE_SUFFIX = ".spill";
+
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIR = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+    /**
+     * 写入器名称
+     */
+    private final String name;
+    /**
+     * 批量保存
+     */
+    private final Predicate<List<T>> batchSaver;
+    private final IamProperties.LogWriterProperties properties;
+    private final BlockingQueue<Entry<T>> queue;
+    /**
+     * 待写入溢出文件的日志
+     */
+    private final List<T> spillBuffer = new ArrayList<>();
+    /**
+     * 溢出文件反序列化过滤器
+     */
+    private final ObjectInputFilter spillFileFilter;
+
+    private volatile boolean running = false;
+    private Thread writerThread;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong spillSeq = new AtomicLong();
+
+    /**
+     * @param name 写入器名称（用作溢出文件名前缀）
+     * @param recordClass 日志类
+     * @param batchSaver 批量保存
+     * @param properties 配置项
+     */
+    public BatchLogWriter(String name, Class<T> recordClass, Predicate<List<T>> batchSaver, IamProperties.LogWriterProperties properties) {
+        this.name = name;
+        this.batchSaver = batchSaver;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getBufferSize()));
+        this.spillFileFilter = buildSpillFileFilter(recordClass);
+    }
+
+    /**
+     * 启动后台写入线程，并回写上次溢出到本地文件的日志
+     */
+    public synchronized void start() {
+        if(running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "diboot-" + name + "-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        if(properties.getOverflowPolicy() == IamProperties.OverflowPolicy.SPILL) {
+            replaySpillFiles();
+        }
+    }
+
+    /**
+     * 停止后台线程并写完缓冲区中的日志
+     */
+    public synchronized void stop() {
+        if(!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(properties.getFlushIntervalMillis() * 2 + 5000);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Entry<T>> remaining = new ArrayList<>(queue.size());
+        queue.drainTo(remaining);
+        if(!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        flushSpillBuffer();
+        log.info("{} 写入器已关闭，累计写入: {}，丢弃: {}，溢出: {}，失败: {}", name, written.sum(), dropped.sum(), spilled.sum(), failed.sum());
+    }
+
+    /**
+     * 添加日志到缓冲区
+     * @param record
+     * @return 是否进入缓冲区或溢出文件
+     */
+    public boolean write(T record) {
+        Entry<T> entry = new Entry<>(record);
+        // 未启动或已关闭，直接写入
+        if(!running) {
+            flush(Collections.singletonList(entry));
+            return true;
+        }
+        if(queue.offer(entry)) {
+            flushIfStopped(entry);
+            return true;
+        }
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK:
+                try {
+                    if(queue.offer(entry, properties.getBlockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                        flushIfStopped(entry);
+                        return true;
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case SPILL:
+                List<T> spillRecords = null;
+                synchronized (spillBuffer) {
+                    spillBuffer.add(record);
+                    if(spillBuffer.size() >= Math.max(1, properties.getBatchSize())) {
+                        spillRecords = new ArrayList<>(spillBuffer);
+                        spillBuffer.clear();
+                    }
+                }
+                if(spillRecords != null && !spill(spillRecords)) {
+                    dropped.add(spillRecords.size());
+                    return false;
+                }
+                return true;
+            default:
+                break;
+        }
+        dropped.increment();
+        log.warn("{} 缓冲区已满，日志被丢弃", name);
+        return false;
+    }
+
+    /**
+     * 入队时恰好关闭，且未被关闭时的写入取走，则直接写入
+     * @param entry
+     */
+    private void flushIfStopped(Entry<T> entry) {
+        if(!running && queue.remove(entry)) {
+            flush(Collections.singletonList(entry));
+        }
+    }
+
+    /**
+     * 获取运行统计：缓冲区积压数、最早积压日志的等待毫秒数、写入/丢弃/溢出/失败数
+     * @return
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>(8);
+        statistics.put("pending", (long) queue.size());
+        Entry<T> oldest = queue.peek();
+        statistics.put("lagMillis", oldest != null? System.currentTimeMillis() - oldest.enqueuedAt : 0L);
+        statistics.put("written", written.sum());
+        statistics.put("dropped", dropped.sum());
+        statistics.put("spilled", spilled.sum());
+        statistics.put("failed", failed.sum());
+        return statistics;
+    }
+
+    /**
+     * 后台写入循环：满批量或到达写入间隔时写入
+     */
+    private void drainLoop() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long flushIntervalMillis = Math.max(1, properties.getFlushIntervalMillis());
+        List<Entry<T>> batch = new ArrayList<>(batchSize);
+        while(running) {
+            try {
+                Entry<T> first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedAt + flushIntervalMillis;
+                while(batch.size() < batchSize) {
+                    long waitMillis = deadline - System.currentTimeMillis();
+                    if(waitMillis <= 0 || !running) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        break;
+                    }
+                    Entry<T> entry = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+                    if(entry == null) {
+                        break;
+                    }
+                    batch.add(entry);
+                }
+                flush(batch);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch (Throwable e) {
+                log.error("{} 写入异常", name, e);
+            }
+            finally {
+                batch.clear();
+                flushSpillBuffer();
+            }
+        }
+    }
+
+    /**
+     * 将待溢出的日志写入溢出文件
+     */
+    private void flushSpillBuffer() {
+        List<T> spillRecords;
+        synchronized (spillBuffer) {
+            if(spillBuffer.isEmpty()) {
+                return;
+            }
+            spillRecords = new ArrayList<>(spillBuffer);
+            spillBuffer.clear();
+        }
+        if(!spill(spillRecords)) {
+            dropped.add(spillRecords.size());
+        }
+    }
+
+    /**
+     * 批量写入，失败时按策略溢出到本地文件
+     * @param batch
+     */
+    private void flush(List<Entry<T>> batch) {
+        List<T> records = new ArrayList<>(batch.size());
+        for(Entry<T> entry : batch) {
+            records.add(entry.record);
+        }
+        try {
+            if(batchSaver.test(records)) {
+                written.add(records.size());
+                return;
+            }
+            log.warn("{} 批量写入 {} 条日志失败", name, records.size());
+        }
+        catch (Exception e) {
+            log.error("{} 批量写入 {} 条日志异常", name, records.size(), e);
+        }
+        if(properties.getOverflowPolicy() == IamProperties.OverflowPolicy.SPILL && spill(records)) {
+            return;
+        }
+        failed.add(records.size());
+    }
+
+    /**
+     * 写入本地溢出文件
+     * @param records
+     * @return
+     */
+    private boolean spill(List<T> records) {
+        try {
+            Path dir = getSpillDir(true);
+            if(dir == null) {
+                return false;
+            }
+            Path file = dir.resolve(name + "-" + System.currentTimeMillis() + "-" + spillSeq.incrementAndGet() + SPILL_FILE_SUFFIX);
+            if(isPosix()) {
+                Files.createFile(file, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+            }
+            try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeObject(new ArrayList<>(records));
+            }
+            spilled.add(records.size());
+            return true;
+        }
+        catch (Exception e) {
+            log.error("{} 日志写入溢出文件失败", name, e);
+            return false;
+        }
+    }
+
+    /**
+     * 回写溢出文件中的日志，成功后删除文件
+     */
+    @SuppressWarnings("unchecked")
+    private void replaySpillFiles() {
+        Path dir;
+        try {
+            dir = getSpillDir(false);
+        }
+        catch (IOException e) {
+            log.warn("{} 检查溢出文件目录失败: {}", name, e.getMessage());
+            return;
+        }
+        if(dir == null) {
+            return;
+        }
+        List<Path> files;
+        try(Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(path -> {
+                String fileName = path.getFileName().toString();
+                return fileName.startsWith(name + "-") && fileName.endsWith(SPILL_FILE_SUFFIX);
+            }).sorted().toList();
+        }
+        catch (IOException e) {
+            log.warn("{} 读取溢出文件目录失败: {}", name, e.getMessage());
+            return;
+        }
+        for(Path file : files) {
+            try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                in.setObjectInputFilter(spillFileFilter);
+                List<T> records = (List<T>) in.readObject();
+                if(records.isEmpty() || batchSaver.test(records)) {
+                    written.add(records.size());
+                    in.close();
+                    Files.deleteIfExists(file);
+                    log.info("{} 已回写溢出文件 {} 中的 {} 条日志", name, file.getFileName(), records.size());
+                }
+            }
+            catch (Exception e) {
+                log.warn("{} 回写溢出文件 {} 失败: {}", name, file.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 获取溢出文件目录，仅当前用户可访问
+     * @param create 不存在时是否创建
+     * @return 目录不存在或不安全（非当前用户所有）时返回null
+     * @throws IOException
+     */
+    private Path getSpillDir(boolean create) throws IOException {
+        Path dir = Paths.get(properties.getSpillDir()).toAbsolutePath();
+        if(!Files.isDirectory(dir)) {
+            if(!create) {
+                return null;
+            }
+            if(isPosix()) {
+                FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIR);
+                Files.createDirectories(dir.getParent());
+                Files.createDirectory(dir, ownerOnly);
+            }
+            else {
+                Files.createDirectories(dir);
+            }
+            return dir;
+        }
+        if(isPosix()) {
+            String owner = Files.getOwner(dir).getName();
+            if(!owner.equals(System.getProperty("user.name"))) {
+                log.warn("{} 溢出文件目录 {} 的所有者为 {}，非当前用户，忽略溢出文件", name, dir, owner);
+                return null;
+            }
+            if(!Files.getPosixFilePermissions(dir).equals(OWNER_ONLY_DIR)) {
+                Files.setPosixFilePermissions(dir, OWNER_ONLY_DIR);
+            }
+        }
+        return dir;
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * 构建溢出文件反序列化过滤器：仅允许 ArrayList、日志类及其父类、字段的基础类型
+     * @param recordClass
+     * @return
+     */
+    private static ObjectInputFilter buildSpillFileFilter(Class<?> recordClass) {
+        StringBuilder pattern = new StringBuilder("maxdepth=10;java.util.ArrayList;java.lang.*;java.time.*;java.math.*;java.util.Date");
+        for(Class<?> clazz = recordClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            pattern.append(';').append(clazz.getName());
+        }
+        pattern.append(";!*");
+        return ObjectInputFilter.Config.createFilter(pattern.toString());
+    }
+
+    /**
+     * 缓冲区记录
+     */
+    private static final class Entry<T> {
+        private final T record;
+        private final long enqueuedAt;
+
+        Entry(T record) {
+            this.record = record;
+            this.enqueuedAt = System.currentTimeMillis();
+        }
+    }
+
+}
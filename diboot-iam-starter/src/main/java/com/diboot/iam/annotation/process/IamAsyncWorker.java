@@ -15,30 +15,59 @@
  */
 package com.diboot.iam.annotation.process;
 
+import com.diboot.core.util.V;
+import com.diboot.iam.config.IamProperties;
 import com.diboot.iam.entity.BaseLoginUser;
 import com.diboot.iam.entity.IamLoginTrace;
 import com.diboot.iam.entity.IamOperationLog;
 import com.diboot.iam.service.IamLoginTraceService;
 import com.diboot.iam.service.IamOperationLogService;
+import com.diboot.iam.util.IamSecurityUtils;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 异步相关处理
+ * <p>
+ * 登录日志及操作日志进入缓冲区后由后台线程批量写入（配置项 diboot.iam.log-writer.*）
+ * </p>
  * @author mazc@dibo.ltd
  * @version v2.1.2
  * @date 2020/09/21
  */
 @Slf4j
-@Async
 @Component
-public class IamAsyncWorker {
+public class IamAsyncWorker implements InitializingBean, DisposableBean {
     @Autowired
     private IamLoginTraceService iamLoginTraceService;
     @Autowired
     private IamOperationLogService iamOperationLogService;
+    @Autowired
+    private IamProperties iamProperties;
+
+    private BatchLogWriter<IamLoginTrace> loginTraceWriter;
+    private BatchLogWriter<IamOperationLog> operationLogWriter;
+
+    @Override
+    public void afterPropertiesSet() {
+        IamProperties.LogWriterProperties properties = iamProperties.getLogWriter();
+        loginTraceWriter = new BatchLogWriter<>("login-trace", IamLoginTrace.class, iamLoginTraceService::createEntities, properties);
+        operationLogWriter = new BatchLogWriter<>("operation-log", IamOperationLog.class, iamOperationLogService::createEntities, properties);
+        loginTraceWriter.start();
+        operationLogWriter.start();
+    }
+
+    @Override
+    public void destroy() {
+        operationLogWriter.stop();
+        loginTraceWriter.stop();
+    }
 
     /**
      * 保存登录日志
@@ -46,7 +75,13 @@ public class IamAsyncWorker {
      */
     public void saveLoginTraceLog(IamLoginTrace loginTrace){
         try{
-            iamLoginTraceService.createEntity(loginTrace);
+            if(V.isEmpty(loginTrace.getTenantId())){
+                BaseLoginUser loginUser = IamSecurityUtils.getCurrentUser();
+                if(loginUser != null){
+                    loginTrace.setTenantId(loginUser.getTenantId());
+                }
+            }
+            loginTraceWriter.write(loginTrace);
         }
         catch (Exception e){
             log.error("保存登录日志异常", e);
@@ -64,12 +99,27 @@ public class IamAsyncWorker {
                 operationLog.setUserType(loginUser.getClass().getSimpleName())
                         .setUserId(loginUser.getId())
                         .setUserRealname(loginUser.getDisplayName());
+                // 后台线程无登录用户，在此记录租户
+                if(V.isEmpty(operationLog.getTenantId())){
+                    operationLog.setTenantId(loginUser.getTenantId());
+                }
             }
-            iamOperationLogService.createEntity(operationLog);
+            operationLogWriter.write(operationLog);
         }
         catch (Exception e){
             log.error("保存操作日志异常", e);
         }
     }
 
+    /**
+     * 获取日志写入统计
+     * @return
+     */
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> statistics = new LinkedHashMap<>(4);
+        statistics.put("loginTrace", loginTraceWriter.getStatistics());
+        statistics.put("operationLog", operationLogWriter.getStatistics());
+        return statistics;
+    }
+
 }
@@ -19,6 +19,7 @@ import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.LabelValue;
 import com.diboot.iam.auth.IamExtensible;
+import com.diboot.iam.config.IamProperties;
 import com.diboot.iam.entity.IamPosition;
 import com.diboot.iam.entity.IamRole;
 import com.diboot.iam.entity.IamUser;
@@ -58,7 +59,7 @@ public class IamExtensibleImpl implements IamExtensible {
             String orgId = userPosition.getOrgId();
             IamPosition position = ContextHolder.getBean(IamPositionService.class).getEntity(userPosition.getPositionId());
             PositionDataScope positionDataScope = new PositionDataScope(userId, position.getDataPermissionType(), userId, orgId);
-            List<String> accessibleUserIds = new ArrayList<>(), accessibleOrgIds = new ArrayList<>();
+            List<String> accessibleUserIds = new ArrayList<>();
             // 本人及下属的用户ids
             accessibleUserIds.add(userId);
             List<String> userIds = ContextHolder.getBean(IamUserService.class).getUserIdsByManagerId(userId);
@@ -70,17 +71,11 @@ public class IamExtensibleImpl implements IamExtensible {
                 });
             }
             positionDataScope.setAccessibleUserIds(accessibleUserIds);
-            // 本部门及下属部门的ids
-            accessibleOrgIds.add(orgId);
-            List<String> childOrgIds = ContextHolder.getBean(IamOrgService.class).getChildOrgIds(orgId);
-            if(V.notEmpty(childOrgIds)){
-                childOrgIds.forEach(oid -> {
-                    if(!accessibleOrgIds.contains(oid)){
-                        accessibleOrgIds.add(oid);
-                    }
-                });
+            // 本部门及下属部门的ids，按层级路径子查询时无需枚举
+            IamProperties iamProperties = ContextHolder.getBean(IamProperties.class);
+            if(iamProperties == null || iamProperties.getDataScopeMode() != IamProperties.DataScopeMode.ORG_PATH) {
+                positionDataScope.setAccessibleOrgIds(ContextHolder.getBean(IamOrgService.class).getOrgHierarchyIndex().getSelfAndDescendantIds(orgId));
             }
-            positionDataScope.setAccessibleOrgIds(accessibleOrgIds);
             return new LabelValue(position.getName(), position.getCode()).setExt(positionDataScope);
         }
         return null;
@@ -64,6 +64,18 @@ public class IamProperties {
      * oauth2 客户端配置
      */
     private Oauth2ClientProperties oauth2Client;
+    /**
+     * 操作日志及登录日志的批量写入配置
+     */
+    private LogWriterProperties logWriter = new LogWriterProperties();
+    /**
+     * 本部门及下属部门的数据范围实现方式
+     */
+    private DataScopeMode dataScopeMode = DataScopeMode.ID_LIST;
+    /**
+     * 组织层级索引的全量重建间隔秒数（同步其他节点的组织变更），<=0 时不定期重建
+     */
+    private int orgIndexRefreshSeconds = 300;
 
     /**
      * oauth2 客户端 SSO 配置项
@@ -88,4 +100,68 @@ public class IamProperties {
          */
         private String accessTokenUri;
     }
+
+    /**
+     * 日志批量写入配置项
+     */
+    @Getter
+    @Setter
+    public static class LogWriterProperties {
+        /**
+         * 缓冲区容量
+         */
+        private int bufferSize = 8192;
+        /**
+         * 每批写入的最大记录数
+         */
+        private int batchSize = 200;
+        /**
+         * 最长写入间隔毫秒数
+         */
+        private long flushIntervalMillis = 1000;
+        /**
+         * 缓冲区满时的处理策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        /**
+         * BLOCK策略的最长等待毫秒数，超时后丢弃
+         */
+        private long blockTimeoutMillis = 1000;
+        /**
+         * SPILL策略的本地溢出文件目录（启动时回写数据库），仅当前用户可访问
+         */
+        private String spillDir = System.getProperty("user.home") + "/.diboot/iam-log";
+    }
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 等待写入
+         */
+        BLOCK,
+        /**
+         * 丢弃
+         */
+        DROP,
+        /**
+         * 写入本地文件
+         */
+        SPILL
+    }
+
+    /**
+     * 本部门及下属部门的数据范围实现方式
+     */
+    public enum DataScopeMode {
+        /**
+         * 枚举全部可访问的部门id：org_id IN (id1, id2...)
+         */
+        ID_LIST,
+        /**
+         * 按组织层级路径子查询：org_id IN (SELECT id FROM dbt_iam_org WHERE parent_ids_path LIKE 'x,%' ...)
+         */
+        ORG_PATH
+    }
 }
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2015-2021, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.data;
+
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import com.diboot.iam.config.Cons;
+import com.diboot.iam.entity.IamOrg;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 组织层级索引
+ * <p>
+ * 基于 IamOrg.parentIdsPath 在内存中维护 上级-下级 闭包关系，子树判断为O(1)，
+ * 由 IamOrgService 在新建/更新/删除时增量维护，并按刷新间隔全量重建以同步其他节点的变更。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/11
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class OrgHierarchyIndex {
+
+    /**
+     * 全部组织层级数据的加载器
+     */
+    private final Supplier<List<IamOrg>> loader;
+    /**
+     * 全量重建间隔（毫秒），<=0 时不定期重建
+     */
+    private final long refreshIntervalMillis;
+
+    /**
+     * 组织id - 节点
+     */
+    private final Map<String, Node> nodeMap = new ConcurrentHashMap<>();
+    /**
+     * 上级组织id - 全部下级组织id
+     */
+    private final Map<String, Set<String>> descendantsMap = new ConcurrentHashMap<>();
+
+    private volatile long builtAt = -1;
+
+    public OrgHierarchyIndex(Supplier<List<IamOrg>> loader, long refreshIntervalMillis) {
+        this.loader = loader;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * 是否为下级组织（不含自身）
+     * @param ancestorId
+     * @param orgId
+     * @return
+     */
+    public boolean isDescendant(String ancestorId, String orgId) {
+        if(ancestorId == null || orgId == null) {
+            return false;
+        }
+        ensureBuilt();
+        Node node = nodeMap.get(orgId);
+        return node != null && node.ancestors.contains(ancestorId);
+    }
+
+    /**
+     * 是否为自身或下级组织
+     * @param ancestorId
+     * @param orgId
+     * @return
+     */
+    public boolean isSelfOrDescendant(String ancestorId, String orgId) {
+        return ancestorId != null && (ancestorId.equals(orgId) || isDescendant(ancestorId, orgId));
+    }
+
+    /**
+     * 获取全部下级组织id（不含自身）
+     * @param orgId
+     * @return
+     */
+    public Set<String> getDescendantIds(String orgId) {
+        if(orgId == null) {
+            return Collections.emptySet();
+        }
+        ensureBuilt();
+        Set<String> descendants = descendantsMap.get(orgId);
+        return descendants != null? Collections.unmodifiableSet(descendants) : Collections.emptySet();
+    }
+
+    /**
+     * 获取自身及全部下级组织id
+     * @param orgId
+     * @return
+     */
+    public List<String> getSelfAndDescendantIds(String orgId) {
+        if(orgId == null) {
+            return Collections.emptyList();
+        }
+        Set<String> descendants = getDescendantIds(orgId);
+        List<String> orgIds = new ArrayList<>(descendants.size() + 1);
+        orgIds.add(orgId);
+        orgIds.addAll(descendants);
+        return orgIds;
+    }
+
+    /**
+     * 获取下级组织的parentIdsPath前缀，即 上级path,自身id
+     * @param orgId
+     * @return 组织不存在时返回null
+     */
+    public String getChildrenPathPrefix(String orgId) {
+        if(orgId == null) {
+            return null;
+        }
+        ensureBuilt();
+        Node node = nodeMap.get(orgId);
+        if(node == null) {
+            return null;
+        }
+        return buildChildrenPathPrefix(node.parentIdsPath, orgId);
+    }
+
+    /**
+     * 构建下级组织的parentIdsPath前缀，即 上级path,自身id
+     * @param parentIdsPath 组织自身的parentIdsPath，根组织为空
+     * @param orgId
+     * @return
+     */
+    public static String buildChildrenPathPrefix(String parentIdsPath, String orgId) {
+        return V.isEmpty(parentIdsPath)? orgId : S.joinWith(Cons.SEPARATOR_COMMA, parentIdsPath, orgId);
+    }
+
+    /**
+     * 组织移动后，将下级组织parentIdsPath中的原前缀替换为新前缀
+     * @param parentIdsPath 下级组织的parentIdsPath
+     * @param oldPrefix 原前缀
+     * @param newPrefix 新前缀
+     * @return 不以原前缀开头时返回原值
+     */
+    public static String replacePathPrefix(String parentIdsPath, String oldPrefix, String newPrefix) {
+        if(parentIdsPath == null || !(parentIdsPath.equals(oldPrefix) || parentIdsPath.startsWith(oldPrefix + Cons.SEPARATOR_COMMA))) {
+            return parentIdsPath;
+        }
+        return newPrefix + parentIdsPath.substring(oldPrefix.length());
+    }
+
+    /**
+     * 新增或更新组织节点（层级变化时需按 上级->下级 的顺序依次更新）
+     * @param org
+     */
+    public synchronized void put(IamOrg org) {
+        if(builtAt < 0 || org == null || org.getId() == null) {
+            return;
+        }
+        Node oldNode = nodeMap.get(org.getId());
+        if(oldNode != null) {
+            if(Objects.equals(oldNode.parentIdsPath, org.getParentIdsPath())) {
+                return;
+            }
+            unlinkAncestors(oldNode);
+        }
+        Node node = new Node(org.getId(), org.getParentIdsPath());
+        nodeMap.put(node.id, node);
+        for(String ancestorId : node.ancestors) {
+            descendantsMap.computeIfAbsent(ancestorId, k -> ConcurrentHashMap.newKeySet()).add(node.id);
+        }
+    }
+
+    /**
+     * 移除组织节点
+     * @param orgId
+     */
+    public synchronized void remove(String orgId) {
+        if(builtAt < 0 || orgId == null) {
+            return;
+        }
+        Node node = nodeMap.remove(orgId);
+        if(node != null) {
+            unlinkAncestors(node);
+        }
+        descendantsMap.remove(orgId);
+    }
+
+    /**
+     * 清空索引，下次使用时全量重建
+     */
+    public synchronized void invalidate() {
+        builtAt = -1;
+        nodeMap.clear();
+        descendantsMap.clear();
+    }
+
+    /**
+     * 首次使用或超出刷新间隔时全量重建
+     */
+    private void ensureBuilt() {
+        long builtTime = builtAt;
+        if(builtTime >= 0 && (refreshIntervalMillis <= 0 || System.currentTimeMillis() - builtTime < refreshIntervalMillis)) {
+            return;
+        }
+        synchronized (this) {
+            builtTime = builtAt;
+            if(builtTime >= 0 && (refreshIntervalMillis <= 0 || System.currentTimeMillis() - builtTime < refreshIntervalMillis)) {
+                return;
+            }
+            rebuild();
+        }
+    }
+
+    /**
+     * 全量重建
+     */
+    private void rebuild() {
+        long begin = System.currentTimeMillis();
+        List<IamOrg> orgList = loader.get();
+        Map<String, Node> nodes = new HashMap<>();
+        Map<String, Set<String>> descendants = new HashMap<>();
+        if(V.notEmpty(orgList)) {
+            for(IamOrg org : orgList) {
+                Node node = new Node(org.getId(), org.getParentIdsPath());
+                nodes.put(node.id, node);
+                for(String ancestorId : node.ancestors) {
+                    descendants.computeIfAbsent(ancestorId, k -> ConcurrentHashMap.newKeySet()).add(node.id);
+                }
+            }
+        }
+        // 先写入新数据再移除过期数据，避免读取时出现空窗
+        nodeMap.putAll(nodes);
+        nodeMap.keySet().retainAll(nodes.keySet());
+        descendantsMap.putAll(descendants);
+        descendantsMap.keySet().retainAll(descendants.keySet());
+        builtAt = System.currentTimeMillis();
+        log.debug("组织层级索引已重建，组织数: {}，耗时: {}ms", nodes.size(), builtAt - begin);
+    }
+
+    /**
+     * 从原上级组织的下级集合中移除
+     * @param node
+     */
+    private void unlinkAncestors(Node node) {
+        for(String ancestorId : node.ancestors) {
+            Set<String> descendants = descendantsMap.get(ancestorId);
+            if(descendants != null) {
+                descendants.remove(node.id);
+            }
+        }
+    }
+
+    /**
+     * 组织节点
+     */
+    private static final class Node {
+        private final String id;
+        private final String parentIdsPath;
+        /**
+         * 全部上级组织id
+         */
+        private final Set<String> ancestors;
+
+        Node(String id, String parentIdsPath) {
+            this.id = id;
+            this.parentIdsPath = parentIdsPath;
+            this.ancestors = V.isEmpty(parentIdsPath)? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(S.splitToList(parentIdsPath)));
+        }
+    }
+
+}
@@ -15,19 +15,30 @@
  */
 package com.diboot.iam.data;
 
+import com.diboot.core.config.BaseConfig;
 import com.diboot.core.data.access.DataScopeManager;
+import com.diboot.core.util.ContextHolder;
 import com.diboot.core.vo.LabelValue;
 import com.diboot.iam.config.Cons;
+import com.diboot.iam.config.IamProperties;
 import com.diboot.iam.entity.IamUser;
+import com.diboot.iam.service.IamOrgService;
 import com.diboot.iam.util.IamSecurityUtils;
 import com.diboot.iam.vo.PositionDataScope;
 import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 组织数据访问权限实现
@@ -39,6 +50,43 @@ import java.util.List;
 @Slf4j
 public class UserOrgDataAccessScopeManager implements DataScopeManager {
 
+    /**
+     * 下级部门路径前缀 - 本部门及下属部门的子查询条件SQL缓存（JSqlParser节点可被后续拦截器修改，仅缓存SQL文本，每次解析新节点）
+     */
+    private static final Map<String, String> ORG_SUBQUERY_CACHE = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_SUBQUERIES = 10000;
+
+    @Override
+    public Expression getAccessibleCondition(String fieldName, Column column) {
+        if(!isOrgFieldName(fieldName)) {
+            return null;
+        }
+        IamProperties iamProperties = ContextHolder.getBean(IamProperties.class);
+        if(iamProperties == null || iamProperties.getDataScopeMode() != IamProperties.DataScopeMode.ORG_PATH) {
+            return null;
+        }
+        IamUser currentUser;
+        try {
+            currentUser = IamSecurityUtils.getCurrentUser();
+        }
+        catch (Exception e){
+            log.warn("获取数据权限可访问范围异常: ", e);
+            return null;
+        }
+        if(currentUser == null || currentUser.getExtensionObj() == null || currentUser.getExtensionObj().getExt() == null) {
+            return null;
+        }
+        PositionDataScope positionDataScope = (PositionDataScope)currentUser.getExtensionObj().getExt();
+        if(!Cons.DICTCODE_DATA_PERMISSION_TYPE.DEPT_AND_SUB.name().equalsIgnoreCase(positionDataScope.getDataPermissionType())) {
+            return null;
+        }
+        Expression subQuery = buildOrgSubQuery(positionDataScope.getOrgId());
+        if(subQuery == null) {
+            return null;
+        }
+        return new InExpression(column, subQuery);
+    }
+
     @Override
     public List<? extends Serializable> getAccessibleIds(String fieldName) {
         // 获取当前登录用户
@@ -105,6 +153,9 @@ public class UserOrgDataAccessScopeManager implements DataScopeManager {
         // 按部门过滤，本部门及下属部门
         else if(Cons.DICTCODE_DATA_PERMISSION_TYPE.DEPT_AND_SUB.name().equalsIgnoreCase(positionDataScope.getDataPermissionType())){
             if(isOrgFieldName(fieldName)){
+                if(positionDataScope.getAccessibleOrgIds() == null) {
+                    return ContextHolder.getBean(IamOrgService.class).getOrgHierarchyIndex().getSelfAndDescendantIds(positionDataScope.getOrgId());
+                }
                 return positionDataScope.getAccessibleOrgIds();
             }
             else{// 忽略无关字段
@@ -143,6 +194,41 @@ public class UserOrgDataAccessScopeManager implements DataScopeManager {
         return accessibleIds;
     }
 
+    /**
+     * 构建本部门及下属部门的子查询：(SELECT id FROM dbt_iam_org WHERE is_deleted = 0 AND (id = 'x' OR parent_ids_path = 'path,x' OR parent_ids_path LIKE 'path,x,%'))
+     * <p>SQL文本仅与部门相关，与下属部门数量无关；按部门路径缓存SQL文本，部门层级变化后自动失效；
+     * 返回的表达式会被加入语句并可能被后续拦截器修改，每次调用均解析新的表达式，不共享</p>
+     * @param orgId
+     * @return 部门不存在时返回null
+     */
+    protected Expression buildOrgSubQuery(String orgId) {
+        if(orgId == null) {
+            return null;
+        }
+        String childrenPathPrefix = ContextHolder.getBean(IamOrgService.class).getOrgHierarchyIndex().getChildrenPathPrefix(orgId);
+        if(childrenPathPrefix == null) {
+            return null;
+        }
+        String condition = ORG_SUBQUERY_CACHE.get(childrenPathPrefix);
+        if(condition == null) {
+            String prefix = childrenPathPrefix.replace("'", "''");
+            condition = "id IN (SELECT id FROM dbt_iam_org WHERE " + Cons.COLUMN_IS_DELETED + " = " + BaseConfig.getActiveFlagValue()
+                    + " AND (id = '" + orgId.replace("'", "''") + "'"
+                    + " OR parent_ids_path = '" + prefix + "' OR parent_ids_path LIKE '" + prefix + Cons.SEPARATOR_COMMA + "%'))";
+            if(ORG_SUBQUERY_CACHE.size() >= MAX_CACHED_SUBQUERIES) {
+                ORG_SUBQUERY_CACHE.clear();
+            }
+            ORG_SUBQUERY_CACHE.put(childrenPathPrefix, condition);
+        }
+        try {
+            return ((InExpression) CCJSqlParserUtil.parseCondExpression(condition)).getRightExpression();
+        }
+        catch (JSQLParserException e) {
+            log.warn("解析部门数据范围子查询异常: {}", condition, e);
+            return null;
+        }
+    }
+
     /**
      * 是否为可支持的用户字段
      * @param fieldName
@@ -21,6 +21,8 @@ import com.diboot.iam.entity.IamOrg;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 /**
  * 组织机构Mapper
  *
@@ -42,5 +44,14 @@ public interface IamOrgMapper extends BaseCrudMapper<IamOrg> {
     @Select({"SELECT id FROM dbt_iam_org WHERE is_deleted = #{deleted} AND tenant_id = #{tenantId} AND (parent_id = '0' or parent_id is null)"})
     String getTenantRootOrgId(String tenantId, Object deleted);
 
-}
+    /**
+     * 查询全部组织的层级数据（id, parent_id, parent_ids_path）
+     *
+     * @param deleted
+     * @return
+     */
+    @InterceptorIgnore(tenantLine = "true", dataPermission = "true")
+    @Select({"SELECT id, parent_id, parent_ids_path FROM dbt_iam_org WHERE is_deleted = #{deleted}"})
+    List<IamOrg> getOrgHierarchyList(Object deleted);
 
+}
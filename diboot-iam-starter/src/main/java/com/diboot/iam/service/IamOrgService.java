@@ -17,6 +17,7 @@ package com.diboot.iam.service;
 
 import com.diboot.core.service.BaseService;
 import com.diboot.core.vo.LabelValue;
+import com.diboot.iam.data.OrgHierarchyIndex;
 import com.diboot.iam.entity.IamOrg;
 import com.diboot.iam.vo.IamOrgVO;
 
@@ -80,4 +81,10 @@ public interface IamOrgService extends BaseService<IamOrg> {
      */
     String getTenantRootOrgId(String tenantId);
 
-}
\ No newline at end of file
+    /**
+     * 获取组织层级索引（子树判断及下级部门id）
+     * @return
+     */
+    OrgHierarchyIndex getOrgHierarchyIndex();
+
+}
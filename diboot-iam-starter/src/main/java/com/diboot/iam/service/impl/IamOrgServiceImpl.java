@@ -21,18 +21,26 @@ import com.diboot.core.config.BaseConfig;
 import com.diboot.core.exception.BusinessException;
 import com.diboot.core.service.impl.BaseServiceImpl;
 import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.LabelValue;
 import com.diboot.iam.config.Cons;
+import com.diboot.iam.config.IamProperties;
+import com.diboot.iam.data.OrgHierarchyIndex;
 import com.diboot.iam.entity.IamOrg;
 import com.diboot.iam.mapper.IamOrgMapper;
 import com.diboot.iam.service.IamOrgService;
 import com.diboot.iam.vo.IamOrgVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -47,18 +55,122 @@ import java.util.stream.Collectors;
 @Slf4j
 public class IamOrgServiceImpl extends BaseServiceImpl<IamOrgMapper, IamOrg> implements IamOrgService {
 
+    /**
+     * 组织层级索引
+     */
+    private volatile OrgHierarchyIndex orgHierarchyIndex;
+
     @Override
     public boolean createEntity(IamOrg iamOrg){
         // 设置层级及公司ID及level
         enhanceIamOrg(iamOrg);
-        return super.createEntity(iamOrg);
+        boolean success = super.createEntity(iamOrg);
+        if(success) {
+            runAfterCommit(() -> getOrgHierarchyIndex().put(iamOrg));
+        }
+        return success;
     }
 
     @Override
     public boolean updateEntity(IamOrg iamOrg){
         // 设置层级及公司ID及level
         enhanceIamOrg(iamOrg);
-        return super.updateEntity(iamOrg);
+        IamOrg oldOrg = iamOrg.getId() != null? getEntity(iamOrg.getId()) : null;
+        boolean success = super.updateEntity(iamOrg);
+        if(success && oldOrg != null && iamOrg.getParentId() != null) {
+            String newParentIdsPath = Cons.TREE_ROOT_ID.equals(iamOrg.getParentId())? null : iamOrg.getParentIdsPath();
+            if(newParentIdsPath == null && V.notEmpty(oldOrg.getParentIdsPath())) {
+                // 移至根节点：updateById忽略null值，需显式清空
+                updateEntity(Wrappers.<IamOrg>lambdaUpdate().set(IamOrg::getParentIdsPath, null).eq(IamOrg::getId, iamOrg.getId()));
+            }
+            if(!V.equals(S.defaultValueOf(oldOrg.getParentIdsPath()), S.defaultValueOf(newParentIdsPath))) {
+                // 层级变化，同步更新下级组织的parentIdsPath
+                List<IamOrg> movedOrgs = new ArrayList<>();
+                movedOrgs.add(buildPathOrg(iamOrg.getId(), newParentIdsPath));
+                movedOrgs.addAll(updateDescendantsPath(iamOrg.getId(), oldOrg.getParentIdsPath(), newParentIdsPath));
+                runAfterCommit(() -> movedOrgs.forEach(org -> getOrgHierarchyIndex().put(org)));
+            }
+        }
+        return success;
+    }
+
+    @Override
+    protected void afterBatchCreate(Collection<IamOrg> entityList) {
+        runAfterCommit(() -> entityList.forEach(org -> getOrgHierarchyIndex().put(org)));
+    }
+
+    @Override
+    protected void afterDelete(String fieldKey, Object fieldVal) {
+        if(!V.equals(fieldKey, ContextHolder.getIdFieldName(IamOrg.class)) || fieldVal == null) {
+            runAfterCommit(() -> getOrgHierarchyIndex().invalidate());
+            return;
+        }
+        if(fieldVal instanceof Collection) {
+            List<String> orgIds = new ArrayList<>();
+            ((Collection<?>) fieldVal).forEach(id -> orgIds.add(S.valueOf(id)));
+            runAfterCommit(() -> orgIds.forEach(id -> getOrgHierarchyIndex().remove(id)));
+        }
+        else {
+            String orgId = S.valueOf(fieldVal);
+            runAfterCommit(() -> getOrgHierarchyIndex().remove(orgId));
+        }
+    }
+
+    /**
+     * 更新下级组织的parentIdsPath
+     * @param orgId
+     * @param oldParentIdsPath
+     * @param newParentIdsPath
+     * @return 更新后的下级组织（按层级由上至下排序）
+     */
+    private List<IamOrg> updateDescendantsPath(String orgId, String oldParentIdsPath, String newParentIdsPath) {
+        String oldPrefix = OrgHierarchyIndex.buildChildrenPathPrefix(oldParentIdsPath, orgId);
+        String newPrefix = OrgHierarchyIndex.buildChildrenPathPrefix(newParentIdsPath, orgId);
+        LambdaQueryWrapper<IamOrg> queryWrapper = Wrappers.<IamOrg>lambdaQuery()
+                .select(IamOrg::getId, IamOrg::getParentIdsPath)
+                .and(query -> query.eq(IamOrg::getParentIdsPath, oldPrefix).or().likeRight(IamOrg::getParentIdsPath, oldPrefix + Cons.SEPARATOR_COMMA));
+        List<IamOrg> descendants = getEntityList(queryWrapper);
+        if(V.isEmpty(descendants)) {
+            return Collections.emptyList();
+        }
+        List<IamOrg> updateList = new ArrayList<>(descendants.size());
+        for(IamOrg descendant : descendants) {
+            updateList.add(buildPathOrg(descendant.getId(), OrgHierarchyIndex.replacePathPrefix(descendant.getParentIdsPath(), oldPrefix, newPrefix)));
+        }
+        super.updateBatchById(updateList, BaseConfig.getBatchSize());
+        updateList.sort(Comparator.comparingInt(org -> org.getParentIdsPath().length()));
+        return updateList;
+    }
+
+    /**
+     * 构建仅含id及parentIdsPath的组织
+     * @param orgId
+     * @param parentIdsPath
+     * @return
+     */
+    private IamOrg buildPathOrg(String orgId, String parentIdsPath) {
+        IamOrg org = new IamOrg();
+        org.setId(orgId);
+        org.setParentIdsPath(parentIdsPath);
+        return org;
+    }
+
+    /**
+     * 事务提交后执行（无事务时立即执行）
+     * @param task
+     */
+    private void runAfterCommit(Runnable task) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        }
+        else {
+            task.run();
+        }
     }
 
     /**
@@ -66,8 +178,12 @@ public class IamOrgServiceImpl extends BaseServiceImpl<IamOrgMapper, IamOrg> imp
      * @param iamOrg
      */
     private void enhanceIamOrg(IamOrg iamOrg) {
+        // 根组织无上级路径
+        if (Cons.TREE_ROOT_ID.equals(iamOrg.getParentId())) {
+            iamOrg.setParentIdsPath(null);
+        }
         // 设置层级及公司ID
-        if (!Cons.TREE_ROOT_ID.equals(iamOrg.getParentId())) {
+        else {
             IamOrg parentOrg = getEntity(iamOrg.getParentId());
             if (parentOrg != null) {
                 // 设置公司ID
@@ -167,4 +283,18 @@ public class IamOrgServiceImpl extends BaseServiceImpl<IamOrgMapper, IamOrg> imp
         return getMapper().getTenantRootOrgId(tenantId, BaseConfig.getActiveFlagValue());
     }
 
+    @Override
+    public OrgHierarchyIndex getOrgHierarchyIndex() {
+        if(orgHierarchyIndex == null) {
+            synchronized (this) {
+                if(orgHierarchyIndex == null) {
+                    IamProperties iamProperties = ContextHolder.getBean(IamProperties.class);
+                    int refreshSeconds = iamProperties != null? iamProperties.getOrgIndexRefreshSeconds() : 300;
+                    orgHierarchyIndex = new OrgHierarchyIndex(() -> getMapper().getOrgHierarchyList(BaseConfig.getActiveFlagValue()), refreshSeconds * 1000L);
+                }
+            }
+        }
+        return orgHierarchyIndex;
+    }
+
 }
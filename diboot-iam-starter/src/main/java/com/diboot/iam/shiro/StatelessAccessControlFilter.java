@@ -72,7 +72,7 @@ public class StatelessAccessControlFilter extends BasicHttpAuthenticationFilter
             log.debug("token: {} 保活完成, uri={}", currentToken, httpRequest.getRequestURI());
         }
         // 如果临近过期，则生成新的token返回
-        TokenUtils.responseNewTokenIfRequired(response, cachedUserInfo);
+        TokenUtils.responseNewTokenIfRequired(response, currentToken, cachedUserInfo);
         return true;
     }
 
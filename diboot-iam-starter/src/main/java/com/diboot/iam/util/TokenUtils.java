@@ -29,6 +29,13 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Token相关操作类
  * @author Yangzhao
@@ -41,6 +48,27 @@ public class TokenUtils {
     private static final String AUTH_HEADER = getConfigValue("diboot.iam.token-header-key", "Authorization");
     public static final int EXPIRES_IN_MINUTES = getConfigIntValue("diboot.iam.token-expires-minutes", 60);
 
+    /**
+     * 刷新token缓存key前缀
+     */
+    private static final String REFRESH_TOKEN_KEY_PREFIX = "refresh:";
+    /**
+     * 本地缓存的最大token数
+     */
+    private static final int MAX_CACHED_TOKENS = 10000;
+    /**
+     * token - 已生成的刷新token
+     */
+    private static final Map<String, String> REFRESH_TOKEN_MAP = new ConcurrentHashMap<>();
+    /**
+     * token - 解析结果（读取无锁，超出容量时清理已过期及最早过期的token及其刷新token）
+     */
+    private static final Map<String, TokenMeta> TOKEN_META_MAP = new ConcurrentHashMap<>(256);
+    /**
+     * 是否正在清理token解析结果
+     */
+    private static final AtomicBoolean SWEEPING = new AtomicBoolean(false);
+
     /***
      * 从请求头中获取客户端发来的token
      * @param request
@@ -77,8 +105,10 @@ public class TokenUtils {
      * 临近过期时生成新的token
      * @param cachedUserInfo
      * @return
+     * @deprecated 无法按token去重，请使用 {@link #responseNewTokenIfRequired(ServletResponse, String, String)}
      */
-    public static synchronized void responseNewTokenIfRequired(ServletResponse response, String cachedUserInfo) {
+    @Deprecated
+    public static void responseNewTokenIfRequired(ServletResponse response, String cachedUserInfo) {
         if(isCloseToExpired(cachedUserInfo)){
             //将刷新的token放入response header
             String refreshToken = generateToken();
@@ -88,6 +118,49 @@ public class TokenUtils {
         }
     }
 
+    /**
+     * 临近过期时返回刷新token（每个token仅生成一个刷新token，并发请求及多节点间共用）
+     * @param response
+     * @param accessToken
+     * @param cachedUserInfo
+     */
+    public static void responseNewTokenIfRequired(ServletResponse response, String accessToken, String cachedUserInfo) {
+        TokenMeta tokenMeta = getTokenMeta(accessToken, cachedUserInfo);
+        if(tokenMeta == null || !tokenMeta.isCloseToExpired(System.currentTimeMillis())){
+            return;
+        }
+        String refreshToken = REFRESH_TOKEN_MAP.get(accessToken);
+        if(refreshToken == null){
+            // 远程缓存调用不在map锁内执行，并发生成时由缓存的原子抢占保证结果一致
+            refreshToken = createRefreshToken(accessToken, tokenMeta);
+            String existing = REFRESH_TOKEN_MAP.putIfAbsent(accessToken, refreshToken);
+            if(existing != null){
+                refreshToken = existing;
+            }
+        }
+        //将刷新的token放入response header
+        ((HttpServletResponse)response).setHeader(AUTH_HEADER, refreshToken);
+        log.debug("写回刷新token :{}", refreshToken);
+    }
+
+    /**
+     * 生成并缓存刷新token，其他节点已生成时使用其结果
+     * @param accessToken
+     * @param tokenMeta
+     * @return
+     */
+    private static String createRefreshToken(String accessToken, TokenMeta tokenMeta) {
+        String refreshToken = generateToken();
+        // 先缓存刷新token的用户信息，再原子抢占，确保其他节点拿到的刷新token已可用
+        cacheRefreshToken(refreshToken, tokenMeta.getUserInfoStr());
+        Object existing = getIamCacheManager().putCacheObjIfAbsent(Cons.CACHE_TOKEN_USERINFO, REFRESH_TOKEN_KEY_PREFIX + accessToken, refreshToken);
+        if(existing != null){
+            getIamCacheManager().removeCacheObj(Cons.CACHE_TOKEN_USERINFO, refreshToken);
+            return existing.toString();
+        }
+        return refreshToken;
+    }
+
     /**
      * 缓存新的token
      * @param accessToken
@@ -103,6 +176,9 @@ public class TokenUtils {
      */
     public static void removeAccessTokens(String accessToken) {
         getIamCacheManager().removeCacheObj(Cons.CACHE_TOKEN_USERINFO, accessToken);
+        getIamCacheManager().removeCacheObj(Cons.CACHE_TOKEN_USERINFO, REFRESH_TOKEN_KEY_PREFIX + accessToken);
+        TOKEN_META_MAP.remove(accessToken);
+        REFRESH_TOKEN_MAP.remove(accessToken);
     }
 
     /**
@@ -128,7 +204,8 @@ public class TokenUtils {
         if(V.isEmpty(userInfoStr)){
             return false;
         }
-        if(isExpired(userInfoStr)){
+        TokenMeta tokenMeta = getTokenMeta(accessToken, userInfoStr);
+        if(tokenMeta.isExpired(System.currentTimeMillis())){
             IamSecurityUtils.logoutByToken(accessToken);
             return false;
         }
@@ -139,7 +216,7 @@ public class TokenUtils {
      * 缓存刷新token
      * @param refreshToken
      */
-    public synchronized static void cacheRefreshToken(String refreshToken, String userInfoStr) {
+    public static void cacheRefreshToken(String refreshToken, String userInfoStr) {
         String prefixTemp = S.substringBeforeLast(userInfoStr, Cons.SEPARATOR_COMMA);
         //如果是刷新token则更新颁发时间
         userInfoStr = prefixTemp + Cons.SEPARATOR_COMMA + System.currentTimeMillis();
@@ -151,18 +228,11 @@ public class TokenUtils {
      * @param userInfoStr
      * @return
      */
-    private static final int EXPIRES_MINUTES_INDEX = 4, ISSUED_AT_INDEX = 5;
     public static boolean isExpired(String userInfoStr){
         if(V.isEmpty(userInfoStr)){
             return false;
         }
-        String[] userFields = S.split(userInfoStr);
-        int expiresInMinutes = Integer.parseInt(userFields[EXPIRES_MINUTES_INDEX]);
-        // 获取当前token的过期时间
-        long issuedAt = Long.parseLong(userFields[ISSUED_AT_INDEX]);
-        // 获取当前token的过期时间
-        long expiredBefore = issuedAt + expiresInMinutes * 60000L;
-        return System.currentTimeMillis() > expiredBefore;
+        return TokenMeta.parse(userInfoStr).isExpired(System.currentTimeMillis());
     }
 
     /**
@@ -174,20 +244,141 @@ public class TokenUtils {
         if(V.isEmpty(userInfoStr)){
             return false;
         }
-        String[] userFields = S.split(userInfoStr);
-        int expiresInMinutes = Integer.parseInt(userFields[EXPIRES_MINUTES_INDEX]);
-        // 当前token是否临近过期
-        long current = System.currentTimeMillis();
-        long issuedAt = Long.parseLong(userFields[ISSUED_AT_INDEX]);
-        long expiration = issuedAt + expiresInMinutes* 60000L;
-        long remaining = expiration - current;
-        if(remaining > 0){
-            long elapsed = current - issuedAt;
-            // 小于1/4 则更新
-            double past = ((double) elapsed / remaining);
-            return past > 3.0;
-        }
-        return false;
+        return TokenMeta.parse(userInfoStr).isCloseToExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * 获取token的解析结果（按token缓存，用户信息变化时重新解析）
+     * @param accessToken
+     * @param userInfoStr
+     * @return
+     */
+    public static TokenMeta getTokenMeta(String accessToken, String userInfoStr){
+        if(V.isEmpty(userInfoStr)){
+            return null;
+        }
+        TokenMeta tokenMeta = TOKEN_META_MAP.get(accessToken);
+        if(tokenMeta != null && tokenMeta.getUserInfoStr().equals(userInfoStr)){
+            return tokenMeta;
+        }
+        tokenMeta = TokenMeta.parse(userInfoStr);
+        TOKEN_META_MAP.put(accessToken, tokenMeta);
+        if(TOKEN_META_MAP.size() > MAX_CACHED_TOKENS){
+            sweepTokenMeta();
+        }
+        return tokenMeta;
+    }
+
+    /**
+     * 清理token解析结果：先移除已过期的，仍超出容量时按过期时间移除最早过期的，保留容量的3/4（仅一个线程执行清理）
+     */
+    private static void sweepTokenMeta(){
+        if(!SWEEPING.compareAndSet(false, true)){
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            for(Map.Entry<String, TokenMeta> entry : TOKEN_META_MAP.entrySet()){
+                if(entry.getValue().isExpired(now)){
+                    removeTokenMeta(entry.getKey(), entry.getValue());
+                }
+            }
+            int removeCount = TOKEN_META_MAP.size() - MAX_CACHED_TOKENS * 3 / 4;
+            if(removeCount <= 0){
+                return;
+            }
+            List<Map.Entry<String, TokenMeta>> entries = new ArrayList<>(TOKEN_META_MAP.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().getExpiresAt()));
+            for(int i = 0; i < removeCount && i < entries.size(); i++){
+                removeTokenMeta(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        }
+        finally {
+            SWEEPING.set(false);
+        }
+    }
+
+    /**
+     * 移除token解析结果及其刷新token（解析结果已被替换时不移除）
+     * @param accessToken
+     * @param tokenMeta
+     */
+    private static void removeTokenMeta(String accessToken, TokenMeta tokenMeta){
+        if(TOKEN_META_MAP.remove(accessToken, tokenMeta)){
+            REFRESH_TOKEN_MAP.remove(accessToken);
+        }
+    }
+
+    /**
+     * 获取本地缓存的token解析结果数
+     * @return
+     */
+    public static int getCachedTokenMetaSize(){
+        return TOKEN_META_MAP.size();
+    }
+
+    /**
+     * token缓存用户信息的解析结果（不可变）
+     */
+    public static final class TokenMeta {
+        private static final int EXPIRES_MINUTES_INDEX = 4, ISSUED_AT_INDEX = 5;
+
+        private final String userInfoStr;
+        private final long issuedAt;
+        private final long expiresAt;
+
+        private TokenMeta(String userInfoStr, long issuedAt, long expiresAt) {
+            this.userInfoStr = userInfoStr;
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * 解析缓存的用户信息
+         * @param userInfoStr
+         * @return
+         */
+        public static TokenMeta parse(String userInfoStr) {
+            String[] userFields = S.split(userInfoStr);
+            int expiresInMinutes = Integer.parseInt(userFields[EXPIRES_MINUTES_INDEX]);
+            long issuedAt = Long.parseLong(userFields[ISSUED_AT_INDEX]);
+            return new TokenMeta(userInfoStr, issuedAt, issuedAt + expiresInMinutes * 60000L);
+        }
+
+        public String getUserInfoStr() {
+            return userInfoStr;
+        }
+
+        public long getIssuedAt() {
+            return issuedAt;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        /**
+         * 是否已过期
+         * @param now
+         * @return
+         */
+        public boolean isExpired(long now) {
+            return now > expiresAt;
+        }
+
+        /**
+         * 是否临近过期：剩余时间小于有效期的1/4
+         * @param now
+         * @return
+         */
+        public boolean isCloseToExpired(long now) {
+            long remaining = expiresAt - now;
+            if(remaining > 0){
+                long elapsed = now - issuedAt;
+                return ((double) elapsed / remaining) > 3.0;
+            }
+            return false;
+        }
     }
 
     private static BaseCacheManager iamCacheManager;
@@ -57,7 +57,7 @@ public class PositionDataScope implements Serializable {
     private String orgId;
 
     /**
-     * 当前及子级别部门ids
+     * 当前及子级别部门ids（按组织层级路径子查询 ORG_PATH 模式下为null）
      */
     private List<? extends Serializable> accessibleOrgIds;
 
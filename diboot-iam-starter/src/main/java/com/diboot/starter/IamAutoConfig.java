@@ -15,6 +15,7 @@
  */
 package com.diboot.starter;
 
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
 import com.diboot.core.cache.BaseCacheManager;
 import com.diboot.core.cache.DynamicMemoryCacheManager;
 import com.diboot.core.util.V;
@@ -253,8 +254,11 @@ public class IamAutoConfig {
 
     @Configuration
     private class ThreadPoolTaskExecutorConfig {
-        public ThreadPoolTaskExecutorConfig(@Qualifier("applicationTaskExecutor") ObjectProvider<ThreadPoolTaskExecutor> taskExecutorObjectProvider) {
+        public ThreadPoolTaskExecutorConfig(@Qualifier("applicationTaskExecutor") ObjectProvider<ThreadPoolTaskExecutor> taskExecutorObjectProvider,
+                                            ObjectProvider<BindingExecutor> bindingExecutorObjectProvider) {
             taskExecutorObjectProvider.ifAvailable(taskExecutor -> taskExecutor.setTaskDecorator(new ShiroContextDecorator()));
+            // 关联绑定线程池同样需要传递用户信息（数据权限等）
+            bindingExecutorObjectProvider.ifAvailable(bindingExecutor -> bindingExecutor.setTaskDecorator(new ShiroContextDecorator()));
         }
     }
 
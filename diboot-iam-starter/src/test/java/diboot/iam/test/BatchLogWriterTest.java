@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test;
+
+import com.diboot.iam.annotation.process.BatchLogWriter;
+import com.diboot.iam.config.IamProperties;
+import com.diboot.iam.entity.IamOperationLog;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ObjectOutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 日志批量写入器测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/9
+ * Copyright © diboot.com
+ */
+public class BatchLogWriterTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testBatchWrite() {
+        IamProperties.LogWriterProperties properties = buildProperties(100, 10, 50, IamProperties.OverflowPolicy.BLOCK);
+        List<List<IamOperationLog>> batches = Collections.synchronizedList(new ArrayList<>());
+        BatchLogWriter<IamOperationLog> writer = new BatchLogWriter<>("operation-log", IamOperationLog.class, batch -> batches.add(new ArrayList<>(batch)), properties);
+        writer.start();
+        for(int i = 0; i < 25; i++) {
+            Assert.assertTrue(writer.write(buildLog(i)));
+        }
+        writer.stop();
+        int total = 0;
+        for(List<IamOperationLog> batch : batches) {
+            Assert.assertTrue(batch.size() <= 10);
+            total += batch.size();
+        }
+        Assert.assertEquals(25, total);
+        Assert.assertEquals(25L, writer.getStatistics().get("written").longValue());
+    }
+
+    @Test
+    public void testWriteAfterStop() {
+        IamProperties.LogWriterProperties properties = buildProperties(100, 10, 50, IamProperties.OverflowPolicy.BLOCK);
+        List<IamOperationLog> saved = Collections.synchronizedList(new ArrayList<>());
+        BatchLogWriter<IamOperationLog> writer = new BatchLogWriter<>("operation-log", IamOperationLog.class, saved::addAll, properties);
+        writer.start();
+        writer.stop();
+        // 关闭后直接写入，不丢弃
+        Assert.assertTrue(writer.write(buildLog(1)));
+        Assert.assertEquals(1, saved.size());
+    }
+
+    @Test
+    public void testSpillAndReplay() throws Exception {
+        Path spillDir = tempFolder.getRoot().toPath().resolve("spill");
+        IamProperties.LogWriterProperties properties = buildProperties(1, 5, 1000, IamProperties.OverflowPolicy.SPILL);
+        properties.setSpillDir(spillDir.toString());
+        // 写入阻塞，缓冲区满后溢出到文件
+        CountDownLatch latch = new CountDownLatch(1);
+        Set<String> savedUris = Collections.synchronizedSet(new HashSet<>());
+        BatchLogWriter<IamOperationLog> writer = new BatchLogWriter<>("operation-log", IamOperationLog.class, batch -> {
+            try {
+                latch.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batch.forEach(log -> savedUris.add(log.getRequestUri()));
+            return true;
+        }, properties);
+        writer.start();
+        for(int i = 0; i < 12; i++) {
+            Assert.assertTrue(writer.write(buildLog(i)));
+        }
+        latch.countDown();
+        writer.stop();
+        long spilled = writer.getStatistics().get("spilled");
+        Assert.assertTrue(spilled > 0);
+        Assert.assertEquals(0L, writer.getStatistics().get("dropped").longValue());
+        Assert.assertTrue(countSpillFiles(spillDir) > 0);
+        if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Assert.assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(spillDir)));
+        }
+
+        // 启动时回写溢出文件
+        AtomicInteger replayed = new AtomicInteger();
+        BatchLogWriter<IamOperationLog> replayWriter = new BatchLogWriter<>("operation-log", IamOperationLog.class, batch -> {
+            replayed.addAndGet(batch.size());
+            batch.forEach(log -> savedUris.add(log.getRequestUri()));
+            return true;
+        }, properties);
+        replayWriter.start();
+        replayWriter.stop();
+        Assert.assertEquals(spilled, replayed.get());
+        Assert.assertEquals(12, savedUris.size());
+        Assert.assertEquals(0, countSpillFiles(spillDir));
+    }
+
+    @Test
+    public void testReplayRejectsUnexpectedClass() throws Exception {
+        Path spillDir = tempFolder.newFolder("spill").toPath();
+        Path file = spillDir.resolve("operation-log-0-1.spill");
+        try(ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+            List<Object> records = new ArrayList<>();
+            records.add(new HashMap<>(Collections.singletonMap("key", "value")));
+            out.writeObject(records);
+        }
+        IamProperties.LogWriterProperties properties = buildProperties(10, 5, 50, IamProperties.OverflowPolicy.SPILL);
+        properties.setSpillDir(spillDir.toString());
+        AtomicInteger saved = new AtomicInteger();
+        BatchLogWriter<IamOperationLog> writer = new BatchLogWriter<>("operation-log", IamOperationLog.class, batch -> {
+            saved.addAndGet(batch.size());
+            return true;
+        }, properties);
+        writer.start();
+        writer.stop();
+        Assert.assertEquals(0, saved.get());
+        Assert.assertTrue(Files.exists(file));
+    }
+
+    private IamProperties.LogWriterProperties buildProperties(int bufferSize, int batchSize, long flushIntervalMillis, IamProperties.OverflowPolicy policy) {
+        IamProperties.LogWriterProperties properties = new IamProperties.LogWriterProperties();
+        properties.setBufferSize(bufferSize);
+        properties.setBatchSize(batchSize);
+        properties.setFlushIntervalMillis(flushIntervalMillis);
+        properties.setOverflowPolicy(policy);
+        properties.setSpillDir(tempFolder.getRoot().toPath().resolve("unused").toString());
+        return properties;
+    }
+
+    private IamOperationLog buildLog(int index) {
+        IamOperationLog operationLog = new IamOperationLog();
+        operationLog.setRequestUri("/test/" + index);
+        operationLog.setOperation("TEST");
+        return operationLog;
+    }
+
+    private long countSpillFiles(Path dir) throws Exception {
+        try(Stream<Path> stream = Files.list(dir)) {
+            return stream.filter(path -> path.getFileName().toString().endsWith(".spill")).count();
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test;
+
+import com.diboot.iam.data.OrgHierarchyIndex;
+import com.diboot.iam.entity.IamOrg;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 组织层级索引测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/11
+ * Copyright © diboot.com
+ */
+public class OrgHierarchyIndexTest {
+
+    /**
+     * 1 - 2 - 3 - 4
+     *       - 5
+     * 6
+     */
+    private List<IamOrg> buildOrgs() {
+        return new ArrayList<>(Arrays.asList(
+                buildOrg("1", null), buildOrg("2", "1"), buildOrg("3", "1,2"),
+                buildOrg("4", "1,2,3"), buildOrg("5", "1,2"), buildOrg("6", null)
+        ));
+    }
+
+    @Test
+    public void testIndex() {
+        AtomicInteger loadTimes = new AtomicInteger();
+        OrgHierarchyIndex index = new OrgHierarchyIndex(() -> {
+            loadTimes.incrementAndGet();
+            return buildOrgs();
+        }, 0);
+        Assert.assertTrue(index.isDescendant("1", "4"));
+        Assert.assertTrue(index.isDescendant("2", "5"));
+        Assert.assertFalse(index.isDescendant("3", "5"));
+        Assert.assertFalse(index.isDescendant("1", "1"));
+        Assert.assertTrue(index.isSelfOrDescendant("1", "1"));
+        Assert.assertFalse(index.isDescendant("6", "4"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("3", "4", "5")), index.getDescendantIds("2"));
+        Assert.assertEquals("2", index.getSelfAndDescendantIds("2").get(0));
+        Assert.assertEquals(4, index.getSelfAndDescendantIds("2").size());
+        Assert.assertEquals("1,2", index.getChildrenPathPrefix("2"));
+        Assert.assertEquals("6", index.getChildrenPathPrefix("6"));
+        Assert.assertNull(index.getChildrenPathPrefix("99"));
+        // 无刷新间隔时仅加载一次
+        Assert.assertEquals(1, loadTimes.get());
+
+        index.put(buildOrg("7", "6"));
+        Assert.assertTrue(index.isDescendant("6", "7"));
+        index.remove("4");
+        Assert.assertFalse(index.isDescendant("1", "4"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("3", "5")), index.getDescendantIds("2"));
+
+        index.invalidate();
+        Assert.assertTrue(index.isDescendant("1", "4"));
+        Assert.assertEquals(2, loadTimes.get());
+    }
+
+    @Test
+    public void testMove() {
+        OrgHierarchyIndex index = new OrgHierarchyIndex(this::buildOrgs, 0);
+        Assert.assertTrue(index.isDescendant("1", "3"));
+        // 将 3 移至 6 下，下级 4 同步更新
+        index.put(buildOrg("3", "6"));
+        index.put(buildOrg("4", "6,3"));
+        Assert.assertTrue(index.isDescendant("6", "3"));
+        Assert.assertTrue(index.isDescendant("6", "4"));
+        Assert.assertFalse(index.isDescendant("1", "3"));
+        Assert.assertFalse(index.isDescendant("2", "4"));
+        Assert.assertEquals(Collections.singleton("5"), index.getDescendantIds("2"));
+
+        // 将 2 移至根节点
+        index.put(buildOrg("2", null));
+        index.put(buildOrg("5", "2"));
+        Assert.assertFalse(index.isDescendant("1", "2"));
+        Assert.assertTrue(index.isDescendant("2", "5"));
+        Assert.assertEquals("2", index.getChildrenPathPrefix("2"));
+        Assert.assertTrue(index.getDescendantIds("1").isEmpty());
+    }
+
+    @Test
+    public void testPathRewrite() {
+        Assert.assertEquals("1,2", OrgHierarchyIndex.buildChildrenPathPrefix("1", "2"));
+        Assert.assertEquals("2", OrgHierarchyIndex.buildChildrenPathPrefix(null, "2"));
+
+        // 2 由 1 下移至 6 下
+        String oldPrefix = OrgHierarchyIndex.buildChildrenPathPrefix("1", "2");
+        String newPrefix = OrgHierarchyIndex.buildChildrenPathPrefix("6", "2");
+        Assert.assertEquals("6,2", OrgHierarchyIndex.replacePathPrefix("1,2", oldPrefix, newPrefix));
+        Assert.assertEquals("6,2,3", OrgHierarchyIndex.replacePathPrefix("1,2,3", oldPrefix, newPrefix));
+        // 2 移至根节点
+        newPrefix = OrgHierarchyIndex.buildChildrenPathPrefix(null, "2");
+        Assert.assertEquals("2,3", OrgHierarchyIndex.replacePathPrefix("1,2,3", oldPrefix, newPrefix));
+        // 前缀不匹配（如 1,22）时不替换
+        Assert.assertEquals("1,22,3", OrgHierarchyIndex.replacePathPrefix("1,22,3", oldPrefix, newPrefix));
+        Assert.assertNull(OrgHierarchyIndex.replacePathPrefix(null, oldPrefix, newPrefix));
+    }
+
+    private IamOrg buildOrg(String id, String parentIdsPath) {
+        IamOrg org = new IamOrg();
+        org.setId(id);
+        org.setParentIdsPath(parentIdsPath);
+        return org;
+    }
+
+}
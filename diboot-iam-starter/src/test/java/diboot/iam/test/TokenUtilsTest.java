@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test;
+
+import com.diboot.core.cache.DynamicMemoryCacheManager;
+import com.diboot.iam.config.Cons;
+import com.diboot.iam.util.TokenUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Token相关操作测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/10
+ * Copyright © diboot.com
+ */
+public class TokenUtilsTest {
+
+    @Before
+    public void setUp() throws Exception {
+        setIamCacheManager(new DynamicMemoryCacheManager(Collections.singletonMap(Cons.CACHE_TOKEN_USERINFO, 60)));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        setIamCacheManager(null);
+    }
+
+    @Test
+    public void testTokenMeta() {
+        long now = System.currentTimeMillis();
+        TokenUtils.TokenMeta tokenMeta = TokenUtils.TokenMeta.parse(buildUserInfo(now));
+        Assert.assertEquals(now + 60 * 60000L, tokenMeta.getExpiresAt());
+        Assert.assertFalse(tokenMeta.isExpired(now));
+        Assert.assertFalse(tokenMeta.isCloseToExpired(now + 30 * 60000L));
+        Assert.assertTrue(tokenMeta.isCloseToExpired(now + 50 * 60000L));
+        Assert.assertTrue(tokenMeta.isExpired(now + 61 * 60000L));
+    }
+
+    @Test
+    public void testTokenMetaCacheBounded() {
+        long now = System.currentTimeMillis();
+        // 已过期的token
+        String expiredUserInfo = buildUserInfo(now - 61 * 60000L);
+        TokenUtils.TokenMeta expired = TokenUtils.getTokenMeta("bounded-expired", expiredUserInfo);
+        Assert.assertSame(expired, TokenUtils.getTokenMeta("bounded-expired", expiredUserInfo));
+        String userInfo = buildUserInfo(now);
+        for(int i = 0; i < 12000; i++) {
+            TokenUtils.getTokenMeta("bounded-" + i, userInfo);
+        }
+        // 超出容量时清理，不清空全部
+        int size = TokenUtils.getCachedTokenMetaSize();
+        Assert.assertTrue(size <= 10000);
+        Assert.assertTrue(size >= 7500);
+        // 已过期的优先移除
+        Assert.assertNotSame(expired, TokenUtils.getTokenMeta("bounded-expired", expiredUserInfo));
+        TokenUtils.TokenMeta recent = TokenUtils.getTokenMeta("bounded-11999", userInfo);
+        Assert.assertSame(recent, TokenUtils.getTokenMeta("bounded-11999", userInfo));
+    }
+
+    @Test
+    public void testRefreshToken() throws Exception {
+        String accessToken = TokenUtils.generateToken();
+        // 已使用50分钟，临近过期
+        String userInfo = buildUserInfo(System.currentTimeMillis() - 50 * 60000L);
+        TokenUtils.cacheAccessToken(accessToken, userInfo);
+        Assert.assertTrue(TokenUtils.isActiveAccessToken(accessToken));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for(int i = 0; i < 16; i++) {
+                futures.add(executorService.submit(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    TokenUtils.responseNewTokenIfRequired(response, accessToken, userInfo);
+                    return response.getHeader("Authorization");
+                }));
+            }
+            Set<String> refreshTokens = new HashSet<>();
+            for(Future<String> future : futures) {
+                refreshTokens.add(future.get());
+            }
+            // 并发请求共用同一个刷新token
+            Assert.assertEquals(1, refreshTokens.size());
+            String refreshToken = refreshTokens.iterator().next();
+            Assert.assertNotNull(refreshToken);
+            Assert.assertNotEquals(accessToken, refreshToken);
+            Assert.assertTrue(TokenUtils.isActiveAccessToken(refreshToken));
+            // 刷新token的颁发时间已更新，不再临近过期
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            TokenUtils.responseNewTokenIfRequired(response, refreshToken, TokenUtils.getCachedUserInfoStr(refreshToken));
+            Assert.assertNull(response.getHeader("Authorization"));
+        }
+        finally {
+            executorService.shutdown();
+        }
+
+        TokenUtils.removeAccessTokens(accessToken);
+        Assert.assertNull(TokenUtils.getCachedUserInfoStr(accessToken));
+    }
+
+    @Test
+    public void testFreshTokenNotRefreshed() {
+        String accessToken = TokenUtils.generateToken();
+        String userInfo = buildUserInfo(System.currentTimeMillis());
+        TokenUtils.cacheAccessToken(accessToken, userInfo);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        TokenUtils.responseNewTokenIfRequired(response, accessToken, userInfo);
+        Assert.assertNull(response.getHeader("Authorization"));
+    }
+
+    /**
+     * 构建缓存的用户信息：租户id,账号,用户类型,认证方式,有效分钟数,颁发时间
+     */
+    private String buildUserInfo(long issuedAt) {
+        return "0,admin,com.diboot.iam.entity.IamUser,PWD,60," + issuedAt;
+    }
+
+    private void setIamCacheManager(Object cacheManager) throws Exception {
+        Field field = TokenUtils.class.getDeclaredField("iamCacheManager");
+        field.setAccessible(true);
+        field.set(null, cacheManager);
+    }
+
+}
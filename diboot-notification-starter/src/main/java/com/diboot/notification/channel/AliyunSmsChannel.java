@@ -16,17 +16,25 @@
 package com.diboot.notification.channel;
 
 import com.aliyun.dysmsapi20170525.Client;
+import com.aliyun.dysmsapi20170525.models.SendBatchSmsRequest;
+import com.aliyun.dysmsapi20170525.models.SendBatchSmsResponse;
 import com.aliyun.dysmsapi20170525.models.SendSmsRequest;
 import com.aliyun.dysmsapi20170525.models.SendSmsResponse;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.diboot.core.exception.BusinessException;
 import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.JSON;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.Status;
 import com.diboot.notification.config.Cons;
 import com.diboot.notification.entity.Message;
 import com.diboot.notification.service.MessageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 
+import java.util.*;
+
 /**
  * 阿里云短信发送
  *
@@ -38,6 +46,11 @@ import org.springframework.scheduling.annotation.Async;
 @Slf4j
 public class AliyunSmsChannel implements MessageChannel {
 
+    /**
+     * 批量发送接口每次最多支持的号码数
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Override
     public String type() {
         return Cons.MESSAGE_CHANNEL.SMS.name();
@@ -46,23 +59,10 @@ public class AliyunSmsChannel implements MessageChannel {
     @Override
     @Async
     public void send(Message message) {
-        log.debug("[开始发送短信]：短信内容：{}", JSON.stringify(message));
-        Client client = ContextHolder.getBean(Client.class);
-        // 构建短信请求体
-        SendSmsRequest sendSmsRequest = new SendSmsRequest()
-                .setSignName(message.getSender()) // 短信签名
-                .setTemplateCode(message.getTemplateCode())
-                .setPhoneNumbers(message.getReceiver())
-                .setTemplateParam(message.getVariables());
         String result = "success";
         String status = Cons.MESSAGE_STATUS.DELIVERY.name();
         try {
-            // 发送短信
-            SendSmsResponse sendSmsResponse = client.sendSms(sendSmsRequest);
-            // 发送结果失败时记录数据
-            if (!"OK".equals(sendSmsResponse.getBody().getCode())) {
-                result = sendSmsResponse.getBody().getCode() + "：" + sendSmsResponse.getBody().message;
-            }
+            deliver(message);
         } catch (Exception e) {
             log.error("[发送短信失败]：信息为： {} , 异常", message, e);
             result = e.getMessage();
@@ -76,4 +76,85 @@ public class AliyunSmsChannel implements MessageChannel {
                         .eq(Message::getId, message.getId())
         );
     }
+
+    @Override
+    public void deliver(Message message) throws Exception {
+        log.debug("[开始发送短信]：短信内容：{}", JSON.stringify(message));
+        Client client = ContextHolder.getBean(Client.class);
+        // 构建短信请求体
+        SendSmsRequest sendSmsRequest = new SendSmsRequest()
+                .setSignName(message.getSender()) // 短信签名
+                .setTemplateCode(message.getTemplateCode())
+                .setPhoneNumbers(message.getReceiver())
+                .setTemplateParam(message.getVariables());
+        // 发送短信
+        SendSmsResponse sendSmsResponse = client.sendSms(sendSmsRequest);
+        // 发送结果失败时记录数据
+        if (!"OK".equals(sendSmsResponse.getBody().getCode())) {
+            throw new BusinessException(Status.FAIL_OPERATION, sendSmsResponse.getBody().getCode() + "：" + sendSmsResponse.getBody().message);
+        }
+    }
+
+    /**
+     * 批量发送短信：相同模板的消息调用批量发送接口（每次最多100个号码）
+     * @param messages
+     * @return
+     */
+    @Override
+    public List<Throwable> deliverBatch(List<Message> messages) {
+        Throwable[] results = new Throwable[messages.size()];
+        Map<String, List<Integer>> templateIndexesMap = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            templateIndexesMap.computeIfAbsent(S.defaultString(messages.get(i).getTemplateCode()), k -> new ArrayList<>()).add(i);
+        }
+        Client client = ContextHolder.getBean(Client.class);
+        for (Map.Entry<String, List<Integer>> entry : templateIndexesMap.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            for (int from = 0; from < indexes.size(); from += MAX_BATCH_SIZE) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + MAX_BATCH_SIZE, indexes.size()));
+                if (chunk.size() == 1) {
+                    try {
+                        deliver(messages.get(chunk.get(0)));
+                    } catch (Exception e) {
+                        results[chunk.get(0)] = e;
+                    }
+                    continue;
+                }
+                List<String> phoneNumbers = new ArrayList<>(chunk.size()), signNames = new ArrayList<>(chunk.size());
+                StringBuilder templateParamJson = new StringBuilder("[");
+                for (Integer index : chunk) {
+                    Message message = messages.get(index);
+                    phoneNumbers.add(message.getReceiver());
+                    signNames.add(message.getSender());
+                    if (templateParamJson.length() > 1) {
+                        templateParamJson.append(",");
+                    }
+                    String variables = message.getVariables();
+                    templateParamJson.append(V.notEmpty(variables) ? variables : "{}");
+                }
+                templateParamJson.append("]");
+                SendBatchSmsRequest sendBatchSmsRequest = new SendBatchSmsRequest()
+                        .setTemplateCode(entry.getKey())
+                        .setPhoneNumberJson(JSON.stringify(phoneNumbers))
+                        .setSignNameJson(JSON.stringify(signNames))
+                        .setTemplateParamJson(templateParamJson.toString());
+                Exception exception = null;
+                try {
+                    log.debug("[开始批量发送短信]：模板：{}，号码数：{}", entry.getKey(), chunk.size());
+                    SendBatchSmsResponse sendBatchSmsResponse = client.sendBatchSms(sendBatchSmsRequest);
+                    if (!"OK".equals(sendBatchSmsResponse.getBody().getCode())) {
+                        exception = new BusinessException(Status.FAIL_OPERATION, sendBatchSmsResponse.getBody().getCode() + "：" + sendBatchSmsResponse.getBody().getMessage());
+                    }
+                } catch (Exception e) {
+                    exception = e;
+                }
+                if (exception != null) {
+                    for (Integer index : chunk) {
+                        results[index] = exception;
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
 }
@@ -18,6 +18,9 @@ package com.diboot.notification.channel;
 
 import com.diboot.notification.entity.Message;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 消息通道接口
  *
@@ -46,4 +49,35 @@ public interface MessageChannel {
      * @throws Exception
      */
     void send(Message message);
+
+    /**
+     * 投递消息（由发送调度器调用），失败时抛出异常，发送状态由调度器批量更新并按配置重试
+     * <p>
+     * 默认调用 {@link #send(Message)}，通道自行更新的状态将被保留
+     * </p>
+     * @param message
+     * @throws Exception
+     */
+    default void deliver(Message message) throws Exception {
+        send(message);
+    }
+
+    /**
+     * 批量投递同一通道的消息（由发送调度器调用），可重写以复用连接或调用服务商的批量接口
+     *
+     * @param messages
+     * @return 与消息顺序一致的投递结果，成功为null，失败为异常
+     */
+    default List<Throwable> deliverBatch(List<Message> messages) {
+        List<Throwable> results = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                deliver(message);
+                results.add(null);
+            } catch (Throwable e) {
+                results.add(e);
+            }
+        }
+        return results;
+    }
 }
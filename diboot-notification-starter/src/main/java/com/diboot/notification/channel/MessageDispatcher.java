@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2015-2021, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.notification.channel;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractLambdaWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.util.ContextHolder;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import com.diboot.notification.config.Cons;
+import com.diboot.notification.config.NotificationProperties;
+import com.diboot.notification.entity.Message;
+import com.diboot.notification.entity.MessageTemplate;
+import com.diboot.notification.mapper.MessageMapper;
+import com.diboot.notification.mapper.MessageTemplateMapper;
+import com.diboot.notification.service.MessageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 消息发送调度器（发件箱模式）
+ * <p>
+ * 后台线程轮询到期的待发送/定时消息，按批领取后由发送线程池投递，再批量更新发送状态，失败时按退避时间重试。
+ * 领取通过条件更新实现租约：status 置为 SENDING，result 记录本次领取标识，update_time 为领取时间，
+ * 只有条件更新成功的消息才会被发送，多节点同时运行时同一消息只会被一个节点领取；
+ * 租约超时仍为 SENDING 的消息（如节点宕机）可被重新领取。
+ * 调度线程无登录租户，领取及状态更新均忽略租户条件，消息保留原 tenant_id，各租户的消息均由调度器发送。
+ * </p>
+ * <p>
+ * 默认不启用，需配置 diboot.notification.dispatcher.enabled=true。
+ * 启用后首次轮询将领取历史遗留的 PENDING 消息（如此前已由通道发送但状态未更新的邮件/短信及站内信），
+ * 这些消息会被再次发送；如需避免，请在启用前将历史 PENDING 消息更新为 DELIVERY 或 FAILED。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/23
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class MessageDispatcher implements SmartLifecycle {
+
+    /**
+     * 领取标识前缀
+     */
+    private static final String LEASE_PREFIX = "LEASE:";
+    /**
+     * 扩展数据中记录的已重试次数
+     */
+    public static final String RETRY_COUNT = "retryCount";
+    /**
+     * 发送结果的最大长度
+     */
+    private static final int MAX_RESULT_LENGTH = 200;
+
+    private final MessageService messageService;
+    private final NotificationProperties.Dispatcher properties;
+    private MessageMapper messageMapper;
+    /**
+     * 当前节点标识
+     */
+    private final String nodeId = S.newUuid().substring(0, 12);
+    private final AtomicLong leaseSeq = new AtomicLong();
+
+    private volatile boolean running = false;
+    private Thread pollerThread;
+    private ThreadPoolExecutor workerPool;
+    private final Object wakeUpMonitor = new Object();
+    private boolean wakeUpRequested = false;
+
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public MessageDispatcher(MessageService messageService, NotificationProperties.Dispatcher properties) {
+        this.messageService = messageService;
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        int workers = Math.max(1, properties.getWorkers());
+        AtomicInteger threadSeq = new AtomicInteger();
+        workerPool = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getBatchSize())), runnable -> {
+                    Thread thread = new Thread(runnable, "diboot-message-sender-" + threadSeq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        running = true;
+        pollerThread = new Thread(this::pollLoop, "diboot-message-dispatcher");
+        pollerThread.setDaemon(true);
+        pollerThread.start();
+        log.info("消息发送调度器已启动，节点标识: {}", nodeId);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wakeUp();
+        try {
+            pollerThread.join(properties.getPollIntervalMillis() + 5000);
+            workerPool.shutdown();
+            workerPool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("消息发送调度器已停止，累计领取: {}，送达: {}，重试: {}，失败: {}", claimed.sum(), delivered.sum(), retried.sum(), failed.sum());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 唤醒调度线程立即领取（如新消息提交后）
+     */
+    public void wakeUp() {
+        synchronized (wakeUpMonitor) {
+            wakeUpRequested = true;
+            wakeUpMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * 获取运行统计：累计领取、送达、重试、失败数
+     * @return
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>(4);
+        statistics.put("claimed", claimed.sum());
+        statistics.put("delivered", delivered.sum());
+        statistics.put("retried", retried.sum());
+        statistics.put("failed", failed.sum());
+        return statistics;
+    }
+
+    /**
+     * 领取并发送一批到期消息
+     * @return 本批领取的消息数
+     */
+    public int dispatchBatch() {
+        String leaseToken = LEASE_PREFIX + nodeId + ":" + leaseSeq.incrementAndGet();
+        List<Message> messages = claim(leaseToken);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        claimed.add(messages.size());
+        // 按通道分组，每组按批量投递
+        Map<String, List<Message>> channelMessagesMap = new LinkedHashMap<>();
+        for (Message message : messages) {
+            channelMessagesMap.computeIfAbsent(message.getChannel(), k -> new ArrayList<>()).add(message);
+        }
+        int channelBatchSize = Math.max(1, properties.getChannelBatchSize());
+        List<List<Message>> chunks = new ArrayList<>();
+        List<CompletableFuture<List<Throwable>>> futures = new ArrayList<>();
+        for (List<Message> channelMessages : channelMessagesMap.values()) {
+            for (int from = 0; from < channelMessages.size(); from += channelBatchSize) {
+                List<Message> chunk = channelMessages.subList(from, Math.min(from + channelBatchSize, channelMessages.size()));
+                chunks.add(chunk);
+                futures.add(CompletableFuture.supplyAsync(() -> deliver(chunk), workerPool));
+            }
+        }
+        List<String> deliveredIds = new ArrayList<>(messages.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            List<Message> chunk = chunks.get(i);
+            List<Throwable> results = futures.get(i).join();
+            for (int j = 0; j < chunk.size(); j++) {
+                Throwable throwable = results.get(j);
+                if (throwable == null) {
+                    deliveredIds.add(chunk.get(j).getId());
+                } else {
+                    markFailed(chunk.get(j), throwable, leaseToken);
+                }
+            }
+        }
+        if (!deliveredIds.isEmpty()) {
+            // 批量更新送达状态，通道自行更新过的状态不覆盖
+            getMessageMapper().updateIgnoreTenant(Wrappers.<Message>lambdaUpdate()
+                    .set(Message::getStatus, Cons.MESSAGE_STATUS.DELIVERY.name())
+                    .set(Message::getResult, "success")
+                    .set(Message::getUpdateTime, LocalDateTime.now())
+                    .in(Message::getId, deliveredIds)
+                    .eq(Message::getStatus, Cons.MESSAGE_STATUS.SENDING.name())
+                    .eq(Message::getResult, leaseToken), BaseConfig.getActiveFlagValue());
+            delivered.add(deliveredIds.size());
+        }
+        return messages.size();
+    }
+
+    /**
+     * 轮询循环：满批时连续领取，否则等待轮询间隔或被唤醒
+     */
+    private void pollLoop() {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        while (running) {
+            try {
+                int count;
+                do {
+                    count = dispatchBatch();
+                } while (running && count >= batchSize);
+            } catch (Throwable e) {
+                log.error("消息发送调度异常", e);
+            }
+            awaitWakeUp();
+        }
+    }
+
+    /**
+     * 等待轮询间隔或被唤醒
+     */
+    private void awaitWakeUp() {
+        synchronized (wakeUpMonitor) {
+            try {
+                if (!wakeUpRequested && running) {
+                    wakeUpMonitor.wait(Math.max(1, properties.getPollIntervalMillis()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            wakeUpRequested = false;
+        }
+    }
+
+    /**
+     * 获取消息Mapper（忽略租户条件的查询及更新）
+     * @return
+     */
+    private MessageMapper getMessageMapper() {
+        if (messageMapper == null) {
+            messageMapper = ContextHolder.getBean(MessageMapper.class);
+        }
+        return messageMapper;
+    }
+
+    /**
+     * 领取到期消息：查询候选消息后条件更新为发送中，返回更新成功的消息
+     * @param leaseToken 本次领取标识
+     * @return
+     */
+    private List<Message> claim(String leaseToken) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiredTime = now.minusSeconds(Math.max(1, properties.getLeaseSeconds()));
+        Object activeFlag = BaseConfig.getActiveFlagValue();
+        List<Message> candidates = getMessageMapper().selectListIgnoreTenant(new Page<>(1, Math.max(1, properties.getBatchSize()), false),
+                buildDueCondition(Wrappers.<Message>lambdaQuery(), now, leaseExpiredTime).orderByAsc(Message::getCreateTime), activeFlag);
+        if (V.isEmpty(candidates)) {
+            return Collections.emptyList();
+        }
+        List<String> candidateIds = new ArrayList<>(candidates.size());
+        for (Message candidate : candidates) {
+            candidateIds.add(candidate.getId());
+        }
+        // 再次校验到期条件，已被其他节点领取的消息不会被更新
+        LambdaUpdateWrapper<Message> claimWrapper = buildDueCondition(Wrappers.<Message>lambdaUpdate(), now, leaseExpiredTime)
+                .set(Message::getStatus, Cons.MESSAGE_STATUS.SENDING.name())
+                .set(Message::getResult, leaseToken)
+                .set(Message::getUpdateTime, now)
+                .in(Message::getId, candidateIds);
+        if (getMessageMapper().updateIgnoreTenant(claimWrapper, activeFlag) <= 0) {
+            return Collections.emptyList();
+        }
+        Set<String> claimedIds = new HashSet<>();
+        for (Message claimedMessage : getMessageMapper().selectListIgnoreTenant(null, Wrappers.<Message>lambdaQuery()
+                .in(Message::getId, candidateIds)
+                .eq(Message::getResult, leaseToken), activeFlag)) {
+            claimedIds.add(claimedMessage.getId());
+        }
+        List<Message> messages = new ArrayList<>(claimedIds.size());
+        for (Message candidate : candidates) {
+            if (claimedIds.contains(candidate.getId())) {
+                candidate.setStatus(Cons.MESSAGE_STATUS.SENDING.name()).setResult(leaseToken);
+                messages.add(candidate);
+            }
+        }
+        restoreTransientFields(messages);
+        return messages;
+    }
+
+    /**
+     * 构建到期条件：待发送及到期的定时消息，或租约超时的发送中消息
+     * @param wrapper 查询或更新条件
+     * @param now
+     * @param leaseExpiredTime
+     * @return
+     */
+    private <W extends AbstractLambdaWrapper<Message, W>> W buildDueCondition(W wrapper, LocalDateTime now, LocalDateTime leaseExpiredTime) {
+        return wrapper.and(w -> w.in(Message::getStatus, Cons.MESSAGE_STATUS.PENDING.name(), Cons.MESSAGE_STATUS.SCHEDULE.name())
+                        .and(t -> t.isNull(Message::getScheduleTime).or().le(Message::getScheduleTime, now))
+                .or(t -> t.eq(Message::getStatus, Cons.MESSAGE_STATUS.SENDING.name()).lt(Message::getUpdateTime, leaseExpiredTime)));
+    }
+
+    /**
+     * 还原未持久化的属性：扩展数据Map 及 模板编码
+     * @param messages
+     */
+    private void restoreTransientFields(List<Message> messages) {
+        Set<String> templateIds = new HashSet<>();
+        for (Message message : messages) {
+            if (V.notEmpty(message.getExtData())) {
+                message.setExtDataMap(message.getExtDataMap());
+            }
+            if (V.notEmpty(message.getTemplateId()) && V.isEmpty(message.getTemplateCode())) {
+                templateIds.add(message.getTemplateId());
+            }
+        }
+        MessageTemplateMapper messageTemplateMapper = templateIds.isEmpty() ? null : ContextHolder.getBean(MessageTemplateMapper.class);
+        if (messageTemplateMapper == null) {
+            return;
+        }
+        Map<String, String> templateCodeMap = new HashMap<>(templateIds.size());
+        for (MessageTemplate template : messageTemplateMapper.selectCodesIgnoreTenant(
+                Wrappers.<MessageTemplate>lambdaQuery().in(MessageTemplate::getId, templateIds), BaseConfig.getActiveFlagValue())) {
+            templateCodeMap.put(template.getId(), template.getCode());
+        }
+        for (Message message : messages) {
+            if (V.isEmpty(message.getTemplateCode()) && message.getTemplateId() != null) {
+                message.setTemplateCode(templateCodeMap.get(message.getTemplateId()));
+            }
+        }
+    }
+
+    /**
+     * 批量投递同一通道的消息
+     * @param messages
+     * @return 与消息顺序一致的结果，成功为null，失败为异常
+     */
+    private List<Throwable> deliver(List<Message> messages) {
+        String channelType = messages.get(0).getChannel();
+        MessageChannel channel = messageService.getChannel(channelType);
+        List<Throwable> results;
+        if (channel == null) {
+            results = Collections.nCopies(messages.size(), new IllegalStateException("发送通道不存在: " + channelType));
+        } else {
+            try {
+                results = channel.deliverBatch(messages);
+            } catch (Throwable e) {
+                results = Collections.nCopies(messages.size(), e);
+            }
+            if (results == null || results.size() != messages.size()) {
+                results = Collections.nCopies(messages.size(), new IllegalStateException("发送通道返回的投递结果数量不一致: " + channelType));
+            }
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            if (results.get(i) != null) {
+                log.warn("[消息发送失败] id={}, 通道={}: {}", messages.get(i).getId(), channelType, results.get(i).getMessage());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 更新发送失败的消息：未超过最大重试次数时按退避时间重新进入待发送，否则标记失败
+     * @param message
+     * @param throwable
+     * @param leaseToken
+     */
+    private void markFailed(Message message, Throwable throwable, String leaseToken) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> extDataMap = message.getExtDataMap();
+        Object retryCountObj = extDataMap.get(RETRY_COUNT);
+        int retryCount = retryCountObj instanceof Number ? ((Number) retryCountObj).intValue() : 0;
+        String result = S.cut(V.notEmpty(throwable.getMessage()) ? throwable.getMessage() : throwable.getClass().getSimpleName(), MAX_RESULT_LENGTH);
+        LambdaUpdateWrapper<Message> updateWrapper = Wrappers.<Message>lambdaUpdate()
+                .set(Message::getResult, result)
+                .set(Message::getUpdateTime, now)
+                .eq(Message::getId, message.getId())
+                .eq(Message::getStatus, Cons.MESSAGE_STATUS.SENDING.name())
+                .eq(Message::getResult, leaseToken);
+        if (retryCount < properties.getMaxRetries()) {
+            long backoffSeconds = Math.max(1, properties.getRetryBackoffSeconds()) << Math.min(retryCount, 16);
+            extDataMap.put(RETRY_COUNT, retryCount + 1);
+            message.setExtDataMap(extDataMap);
+            updateWrapper.set(Message::getStatus, Cons.MESSAGE_STATUS.PENDING.name())
+                    .set(Message::getScheduleTime, now.plusSeconds(backoffSeconds))
+                    .set(Message::getExtData, message.getExtData());
+            retried.increment();
+        } else {
+            updateWrapper.set(Message::getStatus, Cons.MESSAGE_STATUS.FAILED.name());
+            failed.increment();
+        }
+        getMessageMapper().updateIgnoreTenant(updateWrapper, BaseConfig.getActiveFlagValue());
+    }
+
+}
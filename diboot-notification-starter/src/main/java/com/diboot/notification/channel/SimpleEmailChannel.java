@@ -25,13 +25,14 @@ import com.diboot.notification.entity.Message;
 import com.diboot.notification.service.MessageService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeUtility;
-import java.util.Date;
+import java.util.*;
 
 /**
  * 简单邮件发送通道
@@ -54,44 +55,12 @@ public class SimpleEmailChannel implements MessageChannel {
     @Override
     @Async
     public void send(Message message) {
-        log.debug("[开始发送邮件]：邮件内容：{}", JSON.stringify(message));
         String result = "success";
         String status = Cons.MESSAGE_STATUS.DELIVERY.name();
-        JavaMailSender javaMailSender = ContextHolder.getBean(JavaMailSender.class);
-        if(javaMailSender == null) {
-            throw new InvalidUsageException("exception.invalidUsage.simpleEmailChannel.send.message");
-        }
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            //发送有附件邮件
-            MimeMessageHelper messageHelper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            // 设置邮件主题
-            messageHelper.setSubject(message.getTitle());
-            // 设置邮件内容
-            messageHelper.setText(message.getContent(), true);
-            // 设置发送人
-            messageHelper.setFrom(message.getSender());
-            // 优先使用Receivers
-            if (V.notEmpty(message.getReceivers())) {
-                // 设置发送人
-                messageHelper.setTo(message.getReceivers());
-            } else {
-                messageHelper.setTo(message.getReceiver());
-            }
-            // 设置抄送人
-            messageHelper.setCc(message.getCcEmails());
-            // 设置隐秘抄送人
-            messageHelper.setBcc(message.getBccEmails());
-            // 设置邮件发送日期
-            messageHelper.setSentDate(new Date());
-            //添加附件
-            String[] fileUrlList = message.getAttachments();
-            for (String url : fileUrlList) {
-                FileSystemResource fileSystemResource = new FileSystemResource(url);
-                messageHelper.addAttachment(MimeUtility.encodeWord(fileSystemResource.getFilename(), "utf-8", "B"), fileSystemResource);
-            }
-            //发送邮件
-            javaMailSender.send(mimeMessage);
+            deliver(message);
+        } catch (InvalidUsageException e) {
+            throw e;
         } catch (Exception e) {
             log.error("[发送邮件失败]：信息为： {} , 异常", message, e);
             result = e.getMessage();
@@ -105,4 +74,105 @@ public class SimpleEmailChannel implements MessageChannel {
                         .eq(Message::getId, message.getId())
         );
     }
+
+    @Override
+    public void deliver(Message message) throws Exception {
+        log.debug("[开始发送邮件]：邮件内容：{}", JSON.stringify(message));
+        JavaMailSender javaMailSender = getJavaMailSender();
+        //发送邮件
+        javaMailSender.send(buildMimeMessage(javaMailSender, message));
+    }
+
+    /**
+     * 批量发送邮件：通过同一SMTP连接发送
+     * @param messages
+     * @return
+     */
+    @Override
+    public List<Throwable> deliverBatch(List<Message> messages) {
+        JavaMailSender javaMailSender = getJavaMailSender();
+        Throwable[] results = new Throwable[messages.size()];
+        List<MimeMessage> mimeMessages = new ArrayList<>(messages.size());
+        Map<MimeMessage, Integer> mimeMessageIndexMap = new IdentityHashMap<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                MimeMessage mimeMessage = buildMimeMessage(javaMailSender, messages.get(i));
+                mimeMessages.add(mimeMessage);
+                mimeMessageIndexMap.put(mimeMessage, i);
+            } catch (Exception e) {
+                results[i] = e;
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        log.debug("[开始批量发送邮件]：邮件数：{}", mimeMessages.size());
+        try {
+            javaMailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (V.isEmpty(e.getFailedMessages())) {
+                mimeMessageIndexMap.values().forEach(index -> results[index] = e);
+            }
+            e.getFailedMessages().forEach((mimeMessage, ex) -> {
+                Integer index = mimeMessageIndexMap.get(mimeMessage);
+                if (index != null) {
+                    results[index] = ex;
+                }
+            });
+        } catch (Exception e) {
+            mimeMessageIndexMap.values().forEach(index -> results[index] = e);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 获取邮件发送器
+     * @return
+     */
+    protected JavaMailSender getJavaMailSender() {
+        JavaMailSender javaMailSender = ContextHolder.getBean(JavaMailSender.class);
+        if(javaMailSender == null) {
+            throw new InvalidUsageException("exception.invalidUsage.simpleEmailChannel.send.message");
+        }
+        return javaMailSender;
+    }
+
+    /**
+     * 构建邮件
+     * @param javaMailSender
+     * @param message
+     * @return
+     * @throws Exception
+     */
+    protected MimeMessage buildMimeMessage(JavaMailSender javaMailSender, Message message) throws Exception {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        //发送有附件邮件
+        MimeMessageHelper messageHelper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        // 设置邮件主题
+        messageHelper.setSubject(message.getTitle());
+        // 设置邮件内容
+        messageHelper.setText(message.getContent(), true);
+        // 设置发送人
+        messageHelper.setFrom(message.getSender());
+        // 优先使用Receivers
+        if (V.notEmpty(message.getReceivers())) {
+            // 设置发送人
+            messageHelper.setTo(message.getReceivers());
+        } else {
+            messageHelper.setTo(message.getReceiver());
+        }
+        // 设置抄送人
+        messageHelper.setCc(message.getCcEmails());
+        // 设置隐秘抄送人
+        messageHelper.setBcc(message.getBccEmails());
+        // 设置邮件发送日期
+        messageHelper.setSentDate(new Date());
+        //添加附件
+        String[] fileUrlList = message.getAttachments();
+        for (String url : fileUrlList) {
+            FileSystemResource fileSystemResource = new FileSystemResource(url);
+            messageHelper.addAttachment(MimeUtility.encodeWord(fileSystemResource.getFilename(), "utf-8", "B"), fileSystemResource);
+        }
+        return mimeMessage;
+    }
 }
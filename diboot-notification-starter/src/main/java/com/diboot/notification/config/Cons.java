@@ -32,6 +32,14 @@ public class Cons extends com.diboot.core.config.Cons {
          * 发送中
          */
         PENDING("待发送"),
+        /**
+         * 定时发送
+         */
+        SCHEDULE("定时发送"),
+        /**
+         * 发送调度器已领取，发送中
+         */
+        SENDING("投递中"),
         /**
          * 异常
          */
@@ -32,6 +32,11 @@ public class NotificationProperties {
 
     private Sms sms;
 
+    /**
+     * 消息发送调度配置
+     */
+    private Dispatcher dispatcher = new Dispatcher();
+
     /**
      * 短信配置
      */
@@ -53,4 +58,47 @@ public class NotificationProperties {
         private String endpoint;
     }
 
-}
\ No newline at end of file
+    /**
+     * 消息发送调度配置
+     */
+    @Getter@Setter
+    public static class Dispatcher {
+
+        /**
+         * 是否启用（diboot.notification.dispatcher.enabled，默认不启用）：
+         * 启用后消息在事务提交后由调度器发送，定时消息到期发送，失败按退避重试；未启用时消息在事务提交后由通道直接发送。
+         * 注意：首次启用时调度器会领取历史遗留的 PENDING 消息（如已发送但状态未更新的邮件/短信及站内信）并再次发送，
+         * 启用前请将历史 PENDING 消息更新为 DELIVERY 或 FAILED
+         */
+        private boolean enabled = false;
+        /**
+         * 轮询间隔毫秒数
+         */
+        private long pollIntervalMillis = 10000;
+        /**
+         * 每批领取的消息数
+         */
+        private int batchSize = 100;
+        /**
+         * 发送线程数
+         */
+        private int workers = 4;
+        /**
+         * 同一通道每次批量投递的最大消息数（如邮件复用同一SMTP连接）
+         */
+        private int channelBatchSize = 50;
+        /**
+         * 失败后的最大重试次数
+         */
+        private int maxRetries = 3;
+        /**
+         * 首次重试的等待秒数，之后每次翻倍
+         */
+        private long retryBackoffSeconds = 30;
+        /**
+         * 领取租约秒数，超时未更新状态的发送中消息可被重新领取（如节点宕机）
+         */
+        private long leaseSeconds = 300;
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package com.diboot.notification.init;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.diboot.core.config.Cons;
 import com.diboot.core.entity.Dictionary;
 import com.diboot.core.service.DictionaryService;
 import com.diboot.core.util.ContextHolder;
@@ -28,6 +30,9 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 组件初始化
  *
@@ -52,6 +57,10 @@ public class NotificationPluginInitializer implements ApplicationRunner {
             insertInitData();
             log.info("diboot-notification 初始化SQL完成.");
         }
+        else {
+            // 已初始化的环境补充新增的消息状态字典项
+            appendMissingStatusItems();
+        }
     }
 
     /**
@@ -63,7 +72,7 @@ public class NotificationPluginInitializer implements ApplicationRunner {
         if(dictionaryService != null && !dictionaryService.exists(Dictionary::getType, "MESSAGE_CHANNEL")){
             // 插入notification组件所需的数据字典
             String[] DICT_INIT_DATA = {
-                    "{\"type\":\"MESSAGE_STATUS\", \"itemName\":\"消息状态\", \"description\":\"message消息状态\", \"children\":[{\"itemName\":\"发送中\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.PENDING\", \"itemValue\":\"PENDING\", \"sortId\":1},{\"itemName\":\"发送失败\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.FAILED\", \"itemValue\":\"FAILED\", \"sortId\":2},{\"itemName\":\"已送达\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.DELIVERY\", \"itemValue\":\"DELIVERY\", \"sortId\":3},{\"itemName\":\"已读\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.READ\", \"itemValue\":\"READ\", \"sortId\":4}]}",
+                    "{\"type\":\"MESSAGE_STATUS\", \"itemName\":\"消息状态\", \"description\":\"message消息状态\", \"children\":[{\"itemName\":\"发送中\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.PENDING\", \"itemValue\":\"PENDING\", \"sortId\":1},{\"itemName\":\"发送失败\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.FAILED\", \"itemValue\":\"FAILED\", \"sortId\":2},{\"itemName\":\"已送达\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.DELIVERY\", \"itemValue\":\"DELIVERY\", \"sortId\":3},{\"itemName\":\"已读\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.READ\", \"itemValue\":\"READ\", \"sortId\":4},{\"itemName\":\"定时发送\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.SCHEDULE\", \"itemValue\":\"SCHEDULE\", \"sortId\":5},{\"itemName\":\"投递中\", \"itemNameI18n\":\"Dictionary.MESSAGE_STATUS.SENDING\", \"itemValue\":\"SENDING\", \"sortId\":6}]}",
 
                     "{\"type\":\"MESSAGE_CHANNEL\", \"itemName\":\"发送通道\", \"description\":\"message发送通道\", \"children\":[{\"itemName\":\"短信\", \"itemNameI18n\":\"Dictionary.MESSAGE_CHANNEL.SMS\", \"itemValue\":\"SMS\", \"sortId\":1},{\"itemName\":\"系统消息\", \"itemNameI18n\":\"Dictionary.MESSAGE_CHANNEL.SYS_MSG\", \"itemValue\":\"SYS_MSG\", \"sortId\":2},{\"itemName\":\"站内信\", \"itemNameI18n\":\"Dictionary.MESSAGE_CHANNEL.WEBSOCKET\", \"itemValue\":\"WEBSOCKET\", \"sortId\":3},{\"itemName\":\"邮件\", \"itemNameI18n\":\"Dictionary.MESSAGE_CHANNEL.EMAIL\", \"itemValue\":\"EMAIL\", \"sortId\":4}]}"
             };
@@ -74,4 +83,45 @@ public class NotificationPluginInitializer implements ApplicationRunner {
             }
         }
     }
+
+    /**
+     * 补充缺失的消息状态字典项（定时发送、投递中），兼容升级前已初始化的数据
+     */
+    private void appendMissingStatusItems() {
+        DictionaryService dictionaryService = ContextHolder.getBean(DictionaryService.class);
+        if(dictionaryService == null) {
+            return;
+        }
+        LambdaQueryWrapper<Dictionary> queryWrapper = new LambdaQueryWrapper<Dictionary>()
+                .eq(Dictionary::getType, "MESSAGE_STATUS")
+                .and(wrapper -> wrapper.isNull(Dictionary::getParentId).or().eq(Dictionary::getParentId, Cons.ID_PREVENT_NULL));
+        Dictionary parent = dictionaryService.getSingleEntity(queryWrapper);
+        if(parent == null) {
+            return;
+        }
+        LambdaQueryWrapper<Dictionary> itemWrapper = new LambdaQueryWrapper<Dictionary>().eq(Dictionary::getParentId, parent.getId());
+        List<String> itemValues = dictionaryService.getValuesOfField(itemWrapper, Dictionary::getItemValue);
+        List<Dictionary> missingItems = new ArrayList<>();
+        if(!itemValues.contains("SCHEDULE")) {
+            missingItems.add(buildStatusItem(parent, "定时发送", "SCHEDULE", 5));
+        }
+        if(!itemValues.contains("SENDING")) {
+            missingItems.add(buildStatusItem(parent, "投递中", "SENDING", 6));
+        }
+        if(!missingItems.isEmpty()) {
+            dictionaryService.createEntities(missingItems);
+            log.info("diboot-notification 补充消息状态字典项 {} 个", missingItems.size());
+        }
+    }
+
+    /**
+     * 构建消息状态字典项
+     */
+    private Dictionary buildStatusItem(Dictionary parent, String itemName, String itemValue, int sortId) {
+        Dictionary item = new Dictionary();
+        item.setTenantId(parent.getTenantId()).setParentId(parent.getId()).setType(parent.getType()).setAppModule(parent.getAppModule())
+                .setItemName(itemName).setItemNameI18n("Dictionary.MESSAGE_STATUS." + itemValue).setItemValue(itemValue)
+                .setSortId(sortId).setIsDeletable(parent.getIsDeletable()).setIsEditable(parent.getIsEditable());
+        return item;
+    }
 }
@@ -16,9 +16,18 @@
 package com.diboot.notification.mapper;
 
 
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.diboot.core.mapper.BaseCrudMapper;
 import com.diboot.notification.entity.Message;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * 消息Mapper
@@ -31,5 +40,28 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface MessageMapper extends BaseCrudMapper<Message> {
 
+    /**
+     * 查询各租户的消息（供发送调度器领取，调度线程无登录租户）
+     *
+     * @param page 分页，为null时不分页
+     * @param queryWrapper
+     * @param deleted
+     * @return
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT * FROM dbt_message WHERE is_deleted = #{deleted} AND ${ew.sqlSegment}")
+    List<Message> selectListIgnoreTenant(IPage<Message> page, @Param(Constants.WRAPPER) Wrapper<Message> queryWrapper, @Param("deleted") Object deleted);
+
+    /**
+     * 更新各租户的消息（供发送调度器更新发送状态，不修改 tenant_id）
+     *
+     * @param updateWrapper
+     * @param deleted
+     * @return 更新的记录数
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Update("UPDATE dbt_message SET ${ew.sqlSet} WHERE is_deleted = #{deleted} AND ${ew.sqlSegment}")
+    int updateIgnoreTenant(@Param(Constants.WRAPPER) Wrapper<Message> updateWrapper, @Param("deleted") Object deleted);
+
 }
 
@@ -15,9 +15,16 @@
  */
 package com.diboot.notification.mapper;
 
+import com.baomidou.mybatisplus.annotation.InterceptorIgnore;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.diboot.core.mapper.BaseCrudMapper;
 import com.diboot.notification.entity.MessageTemplate;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 
 /**
@@ -31,5 +38,16 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface MessageTemplateMapper extends BaseCrudMapper<MessageTemplate> {
 
+    /**
+     * 查询各租户模板的id及编码（供发送调度器还原消息的模板编码）
+     *
+     * @param queryWrapper
+     * @param deleted
+     * @return
+     */
+    @InterceptorIgnore(tenantLine = "true")
+    @Select("SELECT id, code FROM dbt_message_template WHERE is_deleted = #{deleted} AND ${ew.sqlSegment}")
+    List<MessageTemplate> selectCodesIgnoreTenant(@Param(Constants.WRAPPER) Wrapper<MessageTemplate> queryWrapper, @Param("deleted") Object deleted);
+
 }
 
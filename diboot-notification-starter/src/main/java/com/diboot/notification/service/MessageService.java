@@ -16,8 +16,11 @@
 package com.diboot.notification.service;
 
 import com.diboot.core.service.BaseService;
+import com.diboot.notification.channel.MessageChannel;
 import com.diboot.notification.entity.Message;
 
+import java.util.List;
+
 /**
  * 消息相关Service
  *
@@ -43,4 +46,33 @@ public interface MessageService extends BaseService<Message> {
      * @return
      */
     boolean send(Message message, Object variableData);
+
+    /**
+     * 批量发送信息（模板按id/编码一次加载，消息批量插入，事务提交后由调度器按通道批量投递）
+     *
+     * @param messages         {@link Message} 待发送的消息列表
+     * @param variableDataList 变量替换值列表，与消息一一对应；只有一个时所有消息共用；可为空
+     * @return
+     */
+    boolean sendBatch(List<Message> messages, List<?> variableDataList);
+
+    /**
+     * 群发信息：以 prototype 为模板（如通道、发送方、模板编码、业务类型）为每个接收方生成一条消息
+     *
+     * @param prototype        {@link Message} 消息原型
+     * @param receivers        接收方列表
+     * @param variableDataList 变量替换值列表，与接收方一一对应；只有一个时所有消息共用；可为空
+     * @return
+     */
+    boolean broadcast(Message prototype, List<String> receivers, List<?> variableDataList);
+
+    /**
+     * 获取发送通道
+     *
+     * @param channelType 通道类型，如 EMAIL
+     * @return 不存在时返回null
+     */
+    default MessageChannel getChannel(String channelType) {
+        return null;
+    }
 }
\ No newline at end of file
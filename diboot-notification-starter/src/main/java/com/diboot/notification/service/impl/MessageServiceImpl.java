@@ -15,30 +15,34 @@
  */
 package com.diboot.notification.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
 import com.diboot.core.exception.BusinessException;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.service.impl.BaseServiceImpl;
+import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ContextHolder;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.Status;
 import com.diboot.notification.channel.MessageChannel;
+import com.diboot.notification.channel.MessageDispatcher;
 import com.diboot.notification.config.Cons;
 import com.diboot.notification.entity.Message;
 import com.diboot.notification.entity.MessageTemplate;
 import com.diboot.notification.mapper.MessageMapper;
 import com.diboot.notification.service.MessageService;
 import com.diboot.notification.service.MessageTemplateService;
+import com.diboot.notification.utils.CompiledTemplate;
 import com.diboot.notification.utils.TemplateUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * 消息相关Service实现
@@ -56,6 +60,11 @@ public class MessageServiceImpl extends BaseServiceImpl<MessageMapper, Message>
      */
     private Map<String, MessageChannel> typeToChannelMap = new HashMap<>();
 
+    /**
+     * 批量发送时并行渲染内容的最小消息数
+     */
+    private static final int PARALLEL_RENDER_THRESHOLD = 64;
+
     public MessageServiceImpl(List<MessageChannel> messageChannels, List<Class<?>> variableObjectClasses) {
         if (messageChannels != null) {
             for (MessageChannel channel : messageChannels) {
@@ -75,39 +84,181 @@ public class MessageServiceImpl extends BaseServiceImpl<MessageMapper, Message>
     @Override
     public boolean send(Message message, Object variableData) {
         // 获取发送通道
+        MessageChannel channel = getRequiredChannel(message);
+        // 根据模板构建内容
+        Map<Message, CompiledTemplate> compiledTemplateMap = resolveTemplates(Collections.singletonList(message));
+        renderContent(message, compiledTemplateMap.get(message), variableData);
+        // 创建Message
+        boolean success = createEntity(message);
+        // 停止发送
+        if (V.notEmpty(message.getScheduleTime())) {
+            return true;
+        }
+        if (!success) {
+            log.error("[消息创建失败]，消息体为：{}", message);
+            throw new BusinessException(Status.FAIL_OPERATION, "exception.business.messageService.sendFailed");
+        }
+        // 事务提交后发送，避免发送时消息尚未提交
+        MessageDispatcher messageDispatcher = ContextHolder.getBean(MessageDispatcher.class);
+        if (messageDispatcher != null && messageDispatcher.isRunning() && Cons.MESSAGE_STATUS.PENDING.name().equals(message.getStatus())) {
+            runAfterCommit(messageDispatcher::wakeUp);
+        } else {
+            runAfterCommit(() -> channel.send(message));
+        }
+        return true;
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    @Override
+    public boolean sendBatch(List<Message> messages, List<?> variableDataList) {
+        if (V.isEmpty(messages)) {
+            return false;
+        }
+        if (V.notEmpty(variableDataList) && variableDataList.size() != 1 && variableDataList.size() != messages.size()) {
+            throw new InvalidUsageException("exception.invalidUsage.messageService.variableSizeMismatch", variableDataList.size(), messages.size());
+        }
+        Map<Message, MessageChannel> channelMap = new IdentityHashMap<>(messages.size());
+        for (Message message : messages) {
+            channelMap.put(message, getRequiredChannel(message));
+        }
+        // 模板按id/编码一次查询
+        Map<Message, CompiledTemplate> compiledTemplateMap = resolveTemplates(messages);
+        // 渲染内容，数量较多时并行
+        List<Integer> indexes = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            indexes.add(i);
+        }
+        BindingExecutor bindingExecutor = messages.size() >= PARALLEL_RENDER_THRESHOLD ? ContextHolder.getBean(BindingExecutor.class) : null;
+        Executor executor = bindingExecutor != null ? bindingExecutor::execute : null;
+        BindingExecutor.execute(executor, indexes, index -> {
+            Object variableData = V.isEmpty(variableDataList) ? null : variableDataList.get(variableDataList.size() == 1 ? 0 : index);
+            Message message = messages.get(index);
+            renderContent(message, compiledTemplateMap.get(message), variableData);
+            return index;
+        }, Runtime.getRuntime().availableProcessors());
+        // 批量插入
+        if (!createEntities(messages)) {
+            log.error("[消息批量创建失败]，消息数：{}", messages.size());
+            throw new BusinessException(Status.FAIL_OPERATION, "exception.business.messageService.sendFailed");
+        }
+        // 事务提交后发送
+        MessageDispatcher messageDispatcher = ContextHolder.getBean(MessageDispatcher.class);
+        if (messageDispatcher != null && messageDispatcher.isRunning()) {
+            runAfterCommit(messageDispatcher::wakeUp);
+        } else {
+            runAfterCommit(() -> {
+                for (Message message : messages) {
+                    if (V.isEmpty(message.getScheduleTime())) {
+                        channelMap.get(message).send(message);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    @Override
+    public boolean broadcast(Message prototype, List<String> receivers, List<?> variableDataList) {
+        if (V.isEmpty(receivers)) {
+            return false;
+        }
+        List<Message> messages = new ArrayList<>(receivers.size());
+        for (String receiver : receivers) {
+            Message message = BeanUtils.cloneBean(prototype);
+            message.setId(null);
+            message.setReceiver(receiver);
+            messages.add(message);
+        }
+        return sendBatch(messages, variableDataList);
+    }
+
+    /**
+     * 获取消息的发送通道
+     * @param message
+     * @return
+     */
+    private MessageChannel getRequiredChannel(Message message) {
         MessageChannel channel = typeToChannelMap.get(message.getChannel());
         if (V.isEmpty(channel)) {
             log.error("[获取发送通道失败]，当前发送通道为：{}", message.getChannel());
             throw new InvalidUsageException("exception.invalidUsage.messageService.fetchChannelFailed", message.getChannel());
         }
-        String content = message.getContent();
-        if (message.hasTemplate()) {
-            MessageTemplateService messageTemplateService = ContextHolder.getBean(MessageTemplateService.class);
-            // 是否根据模板构建邮件内容
-            LambdaQueryWrapper<MessageTemplate> queryWrapper = Wrappers.<MessageTemplate>lambdaQuery()
-                    .eq(V.notEmpty(message.getTemplateId()), MessageTemplate::getId, message.getTemplateId())
-                    .eq(V.notEmpty(message.getTemplateCode()), MessageTemplate::getCode, message.getTemplateCode());
-            if (queryWrapper.nonEmptyOfNormal()) {
-                MessageTemplate messageTemplate = messageTemplateService.getSingleEntity(queryWrapper);
-                if (V.isEmpty(messageTemplate)) {
-                    if (V.isEmpty(message.getTemplateCode())) {
-                        log.error("[获取模版失败] 模版id为：{}", message.getTemplateId());
-                    } else if (V.isEmpty(message.getTemplateId())) {
-                        log.error("[获取模版失败] 模版code为：{}", message.getTemplateCode());
-                    } else {
-                        log.error("[获取模版失败] 模版id为：{} ，模版code为：{}", message.getTemplateId(), message.getTemplateCode());
-                    }
-                    throw new BusinessException(Status.FAIL_OPERATION, "exception.business.messageService.fetchTempFailed");
+        return channel;
+    }
+
+    /**
+     * 加载关联模板（按模板id、编码各查询一次），设置模板id及模板内容
+     * @param messages
+     * @return 消息 - 编译后的模板
+     */
+    private Map<Message, CompiledTemplate> resolveTemplates(List<Message> messages) {
+        Set<String> templateIds = new HashSet<>(), templateCodes = new HashSet<>();
+        for (Message message : messages) {
+            if (V.notEmpty(message.getTemplateId())) {
+                templateIds.add(message.getTemplateId());
+            } else if (V.notEmpty(message.getTemplateCode())) {
+                templateCodes.add(message.getTemplateCode());
+            }
+        }
+        if (templateIds.isEmpty() && templateCodes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        MessageTemplateService messageTemplateService = ContextHolder.getBean(MessageTemplateService.class);
+        Map<String, MessageTemplate> idTemplateMap = new HashMap<>(), codeTemplateMap = new HashMap<>();
+        if (!templateIds.isEmpty()) {
+            for (MessageTemplate template : messageTemplateService.getEntityListByIds(new ArrayList<>(templateIds))) {
+                idTemplateMap.put(template.getId(), template);
+            }
+        }
+        if (!templateCodes.isEmpty()) {
+            for (MessageTemplate template : messageTemplateService.getEntityList(Wrappers.<MessageTemplate>lambdaQuery().in(MessageTemplate::getCode, templateCodes))) {
+                codeTemplateMap.put(template.getCode(), template);
+            }
+        }
+        Map<Message, CompiledTemplate> compiledTemplateMap = new IdentityHashMap<>(messages.size());
+        for (Message message : messages) {
+            if (!message.hasTemplate()) {
+                continue;
+            }
+            MessageTemplate messageTemplate = V.notEmpty(message.getTemplateId()) ? idTemplateMap.get(message.getTemplateId()) : codeTemplateMap.get(message.getTemplateCode());
+            // 同时指定id和编码时需一致
+            if (messageTemplate != null && V.notEmpty(message.getTemplateCode()) && !message.getTemplateCode().equals(messageTemplate.getCode())) {
+                messageTemplate = null;
+            }
+            if (V.isEmpty(messageTemplate)) {
+                if (V.isEmpty(message.getTemplateCode())) {
+                    log.error("[获取模版失败] 模版id为：{}", message.getTemplateId());
+                } else if (V.isEmpty(message.getTemplateId())) {
+                    log.error("[获取模版失败] 模版code为：{}", message.getTemplateCode());
+                } else {
+                    log.error("[获取模版失败] 模版id为：{} ，模版code为：{}", message.getTemplateId(), message.getTemplateCode());
                 }
-                message.setTemplateId(messageTemplate.getId());
-                content = messageTemplate.getContent();
+                throw new BusinessException(Status.FAIL_OPERATION, "exception.business.messageService.fetchTempFailed");
             }
+            message.setTemplateId(messageTemplate.getId());
+            message.setContent(messageTemplate.getContent());
+            compiledTemplateMap.put(message, TemplateUtils.compile(messageTemplate.getId(), String.valueOf(messageTemplate.getUpdateTime()), messageTemplate.getContent()));
         }
+        return compiledTemplateMap;
+    }
+
+    /**
+     * 替换内容中的变量，并设置发送状态
+     * @param message
+     * @param compiledTemplate 编译后的模板，非模板消息为null
+     * @param variableData
+     */
+    private void renderContent(Message message, CompiledTemplate compiledTemplate, Object variableData) {
+        String content = message.getContent();
         if (V.notEmpty(content)) {
             try {
                 // 设置模版内容
                 if (V.notEmpty(variableData)) {
-                    content = TemplateUtils.parseTemplateContent(content, variableData);
+                    if (compiledTemplate == null) {
+                        compiledTemplate = TemplateUtils.compile(content);
+                    }
+                    content = compiledTemplate.render(variableData);
                     message.setContent(content);
                     // 将变量内容存储到数据库
                     Map<String, Object> extDataMap = message.getExtDataMap();
@@ -124,23 +275,32 @@ public class MessageServiceImpl extends BaseServiceImpl<MessageMapper, Message>
         }
         // 设置定时发送，则等待定时任务发送
         if (V.notEmpty(message.getScheduleTime())) {
-            message.setStatus("SCHEDULE");
+            message.setStatus(Cons.MESSAGE_STATUS.SCHEDULE.name());
         } else if (V.isEmpty(message.getStatus())) {
             message.setStatus(Cons.MESSAGE_STATUS.PENDING.name());
         }
-        // 创建Message
-        boolean success = createEntity(message);
-        // 停止发送
-        if (V.notEmpty(message.getScheduleTime())) {
-            return true;
-        }
-        if (!success) {
-            log.error("[消息创建失败]，消息体为：{}", message);
-            throw new BusinessException(Status.FAIL_OPERATION, "exception.business.messageService.sendFailed");
+    }
+
+    @Override
+    public MessageChannel getChannel(String channelType) {
+        return typeToChannelMap.get(channelType);
+    }
+
+    /**
+     * 事务提交后执行（无事务时立即执行）
+     * @param task
+     */
+    private void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
         }
-        // 异步发送消息
-        channel.send(message);
-        return true;
     }
 
 }
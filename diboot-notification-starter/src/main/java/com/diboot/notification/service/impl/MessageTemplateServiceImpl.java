@@ -15,6 +15,7 @@
  */
 package com.diboot.notification.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.diboot.core.service.impl.BaseServiceImpl;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.V;
@@ -22,6 +23,7 @@ import com.diboot.notification.annotation.BindVariable;
 import com.diboot.notification.entity.MessageTemplate;
 import com.diboot.notification.mapper.MessageTemplateMapper;
 import com.diboot.notification.service.MessageTemplateService;
+import com.diboot.notification.utils.TemplateUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -67,4 +69,24 @@ public class MessageTemplateServiceImpl extends BaseServiceImpl<MessageTemplateM
         return templateVariableList;
     }
 
+    @Override
+    public boolean updateEntity(Wrapper updateWrapper) {
+        boolean success = super.updateEntity(updateWrapper);
+        if (success) {
+            // 无法确定更新的模板，清除全部编译缓存
+            TemplateUtils.clearCache();
+        }
+        return success;
+    }
+
+    @Override
+    protected void afterUpdate(MessageTemplate entity) {
+        TemplateUtils.evict(entity.getId());
+    }
+
+    @Override
+    protected void afterDelete(String fieldKey, Object fieldVal) {
+        TemplateUtils.clearCache();
+    }
+
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2015-2021, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.notification.utils;
+
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.notification.annotation.BindVariable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的消息模板
+ * <p>
+ * 模板内容预先拆分为 文本片段 与 变量占位（如 ${验证码}），渲染时按变量类的取值器表（每个类只构建一次）依次写入，
+ * 无需每次匹配正则及反射查找字段。
+ * </p>
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/25
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class CompiledTemplate {
+
+    /**
+     * 非贪婪 解析正则 ${}
+     */
+    private static final Pattern TEMPLATE_VARIABLE = Pattern.compile("\\$\\{.+?\\}");
+
+    /**
+     * 可复用StringBuilder的最大容量，超出时不再复用
+     */
+    private static final int MAX_REUSABLE_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> STRING_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * 变量类 - 变量占位与取值器 缓存
+     */
+    private static final Map<Class<?>, Map<String, Function<Object, Object>>> CLASS_ACCESSORS_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 模板内容
+     */
+    @Getter
+    private final String content;
+
+    /**
+     * 版本（如模板更新时间）
+     */
+    @Getter
+    private final String version;
+
+    /**
+     * 文本片段，比变量占位多一个（首尾可为空字符串）
+     */
+    private final String[] literals;
+
+    /**
+     * 变量占位，如 ${验证码}
+     */
+    private final String[] variables;
+
+    private CompiledTemplate(String content, String version, String[] literals, String[] variables) {
+        this.content = content;
+        this.version = version;
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    /**
+     * 编译模板内容
+     * @param content 模板内容
+     * @param version 版本
+     * @return
+     */
+    public static CompiledTemplate compile(String content, String version) {
+        List<String> literalList = new ArrayList<>();
+        List<String> variableList = new ArrayList<>();
+        Matcher matcher = TEMPLATE_VARIABLE.matcher(content);
+        int position = 0;
+        while (matcher.find()) {
+            literalList.add(content.substring(position, matcher.start()));
+            variableList.add(matcher.group());
+            position = matcher.end();
+        }
+        literalList.add(content.substring(position));
+        return new CompiledTemplate(content, version, literalList.toArray(new String[0]), variableList.toArray(new String[0]));
+    }
+
+    /**
+     * 获取模板中的变量占位
+     * @return
+     */
+    public List<String> getVariables() {
+        return Collections.unmodifiableList(Arrays.asList(variables));
+    }
+
+    /**
+     * 渲染模板
+     * <p>
+     * 变量值为null时替换为空字符串；变量类中无对应 @BindVariable 字段的占位保持原样
+     * </p>
+     * @param variableData 变量对象
+     * @return
+     */
+    public String render(Object variableData) {
+        if (variables.length == 0 || variableData == null) {
+            return content;
+        }
+        Map<String, Function<Object, Object>> accessors = getAccessors(variableData.getClass());
+        if (accessors.isEmpty()) {
+            log.warn("{} 类中无@BindVariable变量绑定注解，无法替换变量", variableData.getClass());
+            return content;
+        }
+        StringBuilder sb = STRING_BUILDER.get();
+        sb.setLength(0);
+        for (int i = 0; i < variables.length; i++) {
+            sb.append(literals[i]);
+            Function<Object, Object> accessor = accessors.get(variables[i]);
+            if (accessor == null) {
+                sb.append(variables[i]);
+                continue;
+            }
+            Object value = accessor.apply(variableData);
+            if (value != null) {
+                sb.append(value);
+            } else {
+                log.warn("【执行方法获取内容为空】：当前变量为：{}", variables[i]);
+            }
+        }
+        sb.append(literals[variables.length]);
+        String result = sb.toString();
+        if (sb.capacity() > MAX_REUSABLE_CAPACITY) {
+            STRING_BUILDER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * 获取变量类的 变量占位-取值器 表（@BindVariable 名称 及 ${字段名} 均可匹配，先声明的字段优先）
+     * @param variableClass
+     * @return
+     */
+    private static Map<String, Function<Object, Object>> getAccessors(Class<?> variableClass) {
+        return CLASS_ACCESSORS_CACHE.computeIfAbsent(variableClass, clazz -> {
+            List<Field> fields = BeanUtils.extractFields(clazz, BindVariable.class);
+            if (fields.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            Map<String, Function<Object, Object>> accessors = new HashMap<>(fields.size() * 4);
+            for (Field field : fields) {
+                String fieldName = field.getName();
+                Function<Object, Object> getter = BindingCacheManager.getPropAccessorByClass(clazz).getGetter(fieldName);
+                Function<Object, Object> accessor = getter != null ? getter : obj -> BeanUtils.getProperty(obj, fieldName);
+                accessors.putIfAbsent(field.getAnnotation(BindVariable.class).name(), accessor);
+                accessors.putIfAbsent("${" + fieldName + "}", accessor);
+            }
+            return accessors;
+        });
+    }
+
+}
@@ -15,17 +15,15 @@
  */
 package com.diboot.notification.utils;
 
-import com.diboot.core.util.BeanUtils;
-import com.diboot.core.util.S;
 import com.diboot.core.util.V;
-import com.diboot.notification.annotation.BindVariable;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 模版工具方法
@@ -39,26 +37,78 @@ import java.util.regex.Pattern;
 public class TemplateUtils {
 
     /**
-     * 非贪婪 解析正则 ${}
+     * 模板id - 编译后的模板 缓存
      */
-    private static Pattern TEMPLATE_VARIABLE = Pattern.compile("\\$\\{.+?\\}");
+    private static final Map<String, CompiledTemplate> TEMPLATE_CACHE = new ConcurrentHashMap<>();
 
     /**
-     * 获取模版内容中的变量
-     *
-     * @param templateContent
+     * 非模板内容（如直接指定的消息内容）的编译缓存上限
+     */
+    private static final int MAX_CONTENT_CACHE_SIZE = 256;
+
+    /**
+     * 内容 - 编译后的模板 缓存（LRU）
+     */
+    private static final Map<String, CompiledTemplate> CONTENT_CACHE = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledTemplate> eldest) {
+            return size() > MAX_CONTENT_CACHE_SIZE;
+        }
+    });
+
+    /**
+     * 获取编译后的模板，按模板id缓存，版本或内容变化时重新编译
+     * @param templateId 模板id
+     * @param version 版本（如模板更新时间）
+     * @param templateContent 模板内容
      * @return
-     * @throws Exception
      */
-    private static List<String> getMessageTemplateVariables(String templateContent) throws Exception {
-        // 提取模版变量并将值设置
-        Matcher matcher = TEMPLATE_VARIABLE.matcher(templateContent);
-        // 提取模版中的所有变量
-        List<String> templateVariableList = new ArrayList<>();
-        while (matcher.find()) {
-            templateVariableList.add(matcher.group());
+    public static CompiledTemplate compile(String templateId, String version, String templateContent) {
+        if (V.isEmpty(templateId)) {
+            return compile(templateContent);
+        }
+        CompiledTemplate compiledTemplate = TEMPLATE_CACHE.get(templateId);
+        if (compiledTemplate == null || !Objects.equals(compiledTemplate.getVersion(), version) || !compiledTemplate.getContent().equals(templateContent)) {
+            compiledTemplate = CompiledTemplate.compile(templateContent, version);
+            TEMPLATE_CACHE.put(templateId, compiledTemplate);
+        }
+        return compiledTemplate;
+    }
+
+    /**
+     * 获取编译后的模板，按内容缓存
+     * @param templateContent 模板内容
+     * @return
+     */
+    public static CompiledTemplate compile(String templateContent) {
+        CompiledTemplate compiledTemplate = CONTENT_CACHE.get(templateContent);
+        if (compiledTemplate == null) {
+            compiledTemplate = CompiledTemplate.compile(templateContent, null);
+            CONTENT_CACHE.put(templateContent, compiledTemplate);
+        }
+        return compiledTemplate;
+    }
+
+    /**
+     * 清除模板的编译缓存
+     * @param templateIds 模板id或id集合
+     */
+    public static void evict(Object templateIds) {
+        if (templateIds instanceof Collection) {
+            for (Object templateId : (Collection<?>) templateIds) {
+                TEMPLATE_CACHE.remove(String.valueOf(templateId));
+            }
+        } else if (templateIds != null) {
+            TEMPLATE_CACHE.remove(String.valueOf(templateIds));
         }
-        return templateVariableList;
+    }
+
+    /**
+     * 清除全部编译缓存
+     */
+    public static void clearCache() {
+        TEMPLATE_CACHE.clear();
+        CONTENT_CACHE.clear();
     }
 
     /**
@@ -69,36 +119,7 @@ public class TemplateUtils {
      * @throws Exception
      */
     public static String parseTemplateContent(String templateContent, Object variableData) throws Exception {
-        // 提取模版中使用到的模版变量
-        List<String> messageTemplateVariables = getMessageTemplateVariables(templateContent);
-        if(V.isEmpty(messageTemplateVariables)){
-            return templateContent;
-        }
-        // 从缓存中获取变量对应的方法
-        List<String> variableValueList = new ArrayList<>();
-        List<Field> fields = BeanUtils.extractFields(variableData.getClass(), BindVariable.class);
-        if (V.isEmpty(fields)) {
-            log.warn("{} 类中无@BindVariable变量绑定注解，无法替换变量", variableData.getClass());
-            return templateContent;
-        }
-        for (String variable : messageTemplateVariables) {
-            // 执行方法，获取变量值
-            for(Field field : fields){
-                BindVariable bindVariable = field.getAnnotation(BindVariable.class);
-                String fileName = "${" + field.getName() + "}";
-                if(variable.equals(bindVariable.name()) || variable.equals(fileName)) {
-                    Object value = BeanUtils.getProperty(variableData, field.getName());
-                    if (value != null) {
-                        variableValueList.add(String.valueOf(value));
-                    } else {
-                        log.warn("【执行方法获取内容为空】：当前变量为：{}", variable);
-                        variableValueList.add("");
-                    }
-                    break;
-                }
-            }
-        }
-        return S.replaceEach(templateContent, S.toStringArray(messageTemplateVariables), S.toStringArray(variableValueList));
+        return compile(templateContent).render(variableData);
     }
 
 }
@@ -19,6 +19,7 @@ import com.aliyun.dysmsapi20170525.Client;
 import com.aliyun.dysmsapi20170525.models.SendSmsRequest;
 import com.aliyun.teaopenapi.models.Config;
 import com.diboot.notification.channel.AliyunSmsChannel;
+import com.diboot.notification.channel.MessageDispatcher;
 import com.diboot.notification.channel.SimpleEmailChannel;
 import com.diboot.notification.channel.SystemMessageChannel;
 import com.diboot.notification.entity.BaseUserVariables;
@@ -62,6 +63,16 @@ public class NotificationAutoConfig {
         log.info("初始化 notification 组件自动配置");
     }
 
+    /**
+     * 消息发送调度器（定时消息到期发送、失败重试），需配置 diboot.notification.dispatcher.enabled=true 启用
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "diboot.notification.dispatcher", name = "enabled", havingValue = "true")
+    public MessageDispatcher messageDispatcher(MessageService messageService) {
+        return new MessageDispatcher(messageService, notificationProperties.getDispatcher());
+    }
+
     @Configuration(proxyBeanMethods = false)
     @ConditionalOnMissingClass("com.aliyun.dysmsapi20170525.Client")
     public static class MessageServiceConfig {
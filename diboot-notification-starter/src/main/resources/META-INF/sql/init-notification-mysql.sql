@@ -38,3 +38,4 @@ CREATE TABLE `dbt_message` (
 -- 索引
 create index idx_dbt_msg_template on dbt_message (template_id);
 create index idx_dbt_msg_receiver on dbt_message (receiver);
+create index idx_dbt_msg_status on dbt_message (status, schedule_time);
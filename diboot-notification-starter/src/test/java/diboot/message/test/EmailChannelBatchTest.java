@@ -0,0 +1,61 @@
+package diboot.message.test;
+
+import com.diboot.notification.channel.SimpleEmailChannel;
+import com.diboot.notification.entity.Message;
+import diboot.message.test.channel.FakeSmtpServer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 邮件批量发送测试（本地SMTP替身）
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/24
+ * Copyright © diboot.com
+ */
+public class EmailChannelBatchTest {
+
+    @Test
+    public void testDeliverBatch() throws Exception {
+        try (FakeSmtpServer smtpServer = new FakeSmtpServer()) {
+            JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+            javaMailSender.setHost("127.0.0.1");
+            javaMailSender.setPort(smtpServer.getPort());
+            SimpleEmailChannel emailChannel = new SimpleEmailChannel() {
+                @Override
+                protected JavaMailSender getJavaMailSender() {
+                    return javaMailSender;
+                }
+            };
+            int total = 1000;
+            List<Message> messages = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                Message message = new Message();
+                message.setTitle("测试邮件" + i).setContent("<p>批量发送测试 " + i + "</p>")
+                        .setSender("noreply@diboot.com").setReceiver("user" + i + "@diboot.com");
+                messages.add(message);
+            }
+            List<Throwable> results = emailChannel.deliverBatch(messages);
+            Assert.assertEquals(total, results.size());
+            for (Throwable result : results) {
+                Assert.assertNull(result);
+            }
+            Assert.assertEquals(total, smtpServer.getMessageCount());
+            // 复用同一SMTP连接
+            Assert.assertEquals(1, smtpServer.getConnectionCount());
+
+            // 地址格式错误的邮件单独失败，不影响其他邮件
+            messages.get(1).setReceiver("<unclosed@diboot.com");
+            results = emailChannel.deliverBatch(messages.subList(0, 3));
+            Assert.assertNull(results.get(0));
+            Assert.assertNotNull(results.get(1));
+            Assert.assertNull(results.get(2));
+        }
+    }
+
+}
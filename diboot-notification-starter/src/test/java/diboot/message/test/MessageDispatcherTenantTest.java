@@ -0,0 +1,102 @@
+package diboot.message.test;
+
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.handler.TenantLineHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.TenantLineInnerInterceptor;
+import com.diboot.notification.channel.MessageDispatcher;
+import com.diboot.notification.config.Cons;
+import com.diboot.notification.entity.Message;
+import com.diboot.notification.service.MessageService;
+import diboot.message.test.config.SpringMvcConfig;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.StringValue;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * 启用租户拦截器时的消息调度测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/26
+ * Copyright © diboot.com
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = {SpringMvcConfig.class, MessageDispatcherTenantTest.TenantConfig.class})
+@SpringBootTest(classes = {StartupApplication.class})
+public class MessageDispatcherTenantTest {
+
+    /**
+     * 当前租户，调度线程无登录信息时为默认租户"0"
+     */
+    private static final ThreadLocal<String> CURRENT_TENANT = ThreadLocal.withInitial(() -> "0");
+
+    @Autowired
+    private MessageService messageService;
+    @Autowired
+    private MessageDispatcher messageDispatcher;
+
+    @After
+    public void tearDown() {
+        CURRENT_TENANT.remove();
+    }
+
+    @Test
+    public void testDispatchOtherTenant() throws Exception {
+        CURRENT_TENANT.set("T1");
+        Message message = new Message();
+        message.setChannel(Cons.MESSAGE_CHANNEL.SMS.name()).setStatus(Cons.MESSAGE_STATUS.PENDING.name());
+        message.setBusinessType("A").setBusinessCode("B").setSender("admin").setReceiver("123");
+        message.setContent("租户调度发送测试");
+        messageService.send(message);
+
+        // 以默认租户调度，其他租户的消息同样被领取发送
+        String status = null;
+        for (int i = 0; i < 50; i++) {
+            CURRENT_TENANT.set("0");
+            messageDispatcher.dispatchBatch();
+            CURRENT_TENANT.set("T1");
+            status = messageService.getEntity(message.getId()).getStatus();
+            if (Cons.MESSAGE_STATUS.DELIVERY.name().equals(status)) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(Cons.MESSAGE_STATUS.DELIVERY.name(), status);
+        // 领取及更新状态后保留原租户
+        Message delivered = messageService.getEntity(message.getId());
+        Assert.assertEquals("T1", delivered.getTenantId());
+        messageService.deleteEntity(message.getId());
+    }
+
+    @TestConfiguration
+    public static class TenantConfig {
+
+        @Bean
+        public MybatisPlusInterceptor mybatisPlusInterceptor() {
+            MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+            interceptor.addInnerInterceptor(new TenantLineInnerInterceptor(new TenantLineHandler() {
+                @Override
+                public Expression getTenantId() {
+                    return new StringValue(CURRENT_TENANT.get());
+                }
+
+                @Override
+                public boolean ignoreTable(String tableName) {
+                    return !"dbt_message".equals(tableName) && !"dbt_message_template".equals(tableName);
+                }
+            }));
+            interceptor.addInnerInterceptor(new PaginationInnerInterceptor());
+            return interceptor;
+        }
+    }
+
+}
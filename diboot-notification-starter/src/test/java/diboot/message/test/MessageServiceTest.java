@@ -1,5 +1,6 @@
 package diboot.message.test;
 
+import com.diboot.notification.channel.MessageDispatcher;
 import com.diboot.notification.config.Cons;
 import com.diboot.notification.entity.Message;
 import com.diboot.notification.service.MessageService;
@@ -14,6 +15,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.time.LocalDateTime;
+
 /**
  * @author JerryMa
  * @version v2.6.0
@@ -29,6 +32,8 @@ public class MessageServiceTest {
     private MessageService messageService;
     @Autowired
     private MessageTemplateService messageTemplateService;
+    @Autowired
+    private MessageDispatcher messageDispatcher;
 
     @Test
     public void test() {
@@ -46,4 +51,35 @@ public class MessageServiceTest {
         Assert.assertTrue(message.getContent().contains("UDYY-9JDF-MNF8-NBS7"));
     }
 
+    @Test
+    public void testDispatch() throws Exception {
+        Message message = new Message();
+        message.setChannel(Cons.MESSAGE_CHANNEL.SMS.name()).setStatus(Cons.MESSAGE_STATUS.PENDING.name());
+        message.setBusinessType("A").setBusinessCode("B").setSender("admin").setReceiver("123");
+        message.setContent("调度发送测试");
+        messageService.send(message);
+        // 由调度器在事务提交后发送
+        String status = null;
+        for (int i = 0; i < 50; i++) {
+            messageDispatcher.dispatchBatch();
+            status = messageService.getEntity(message.getId()).getStatus();
+            if (Cons.MESSAGE_STATUS.DELIVERY.name().equals(status)) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(Cons.MESSAGE_STATUS.DELIVERY.name(), status);
+        messageService.deleteEntity(message.getId());
+
+        // 定时消息到期前不发送
+        message = new Message();
+        message.setChannel(Cons.MESSAGE_CHANNEL.SMS.name()).setScheduleTime(LocalDateTime.now().plusHours(1));
+        message.setBusinessType("A").setBusinessCode("B").setSender("admin").setReceiver("123");
+        message.setContent("定时发送测试");
+        messageService.send(message);
+        messageDispatcher.dispatchBatch();
+        Assert.assertEquals(Cons.MESSAGE_STATUS.SCHEDULE.name(), messageService.getEntity(message.getId()).getStatus());
+        messageService.deleteEntity(message.getId());
+    }
+
 }
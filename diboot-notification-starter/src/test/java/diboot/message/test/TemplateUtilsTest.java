@@ -0,0 +1,43 @@
+package diboot.message.test;
+
+import com.diboot.notification.utils.CompiledTemplate;
+import com.diboot.notification.utils.TemplateUtils;
+import diboot.message.test.variable.MyVariableObj;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 模板编译及渲染测试
+ * @author JerryMa
+ * @version v3.4.1
+ * @date 2024/7/25
+ * Copyright © diboot.com
+ */
+public class TemplateUtilsTest {
+
+    @Test
+    public void testRender() throws Exception {
+        MyVariableObj variableObj = new MyVariableObj().setVcode("1234").setSn("A01");
+        String content = "您的验证码为：${验证码}，序列号：${sn}，${未知变量}${验证码}";
+        Assert.assertEquals("您的验证码为：1234，序列号：A01，${未知变量}1234", TemplateUtils.parseTemplateContent(content, variableObj));
+        // 变量值为空时替换为空字符串
+        variableObj.setSn(null);
+        Assert.assertEquals("序列号：", TemplateUtils.parseTemplateContent("序列号：${序列号}", variableObj));
+        // 无变量
+        Assert.assertEquals("无变量", TemplateUtils.parseTemplateContent("无变量", variableObj));
+    }
+
+    @Test
+    public void testCache() {
+        CompiledTemplate compiledTemplate = TemplateUtils.compile("T1", "v1", "验证码：${验证码}");
+        Assert.assertSame(compiledTemplate, TemplateUtils.compile("T1", "v1", "验证码：${验证码}"));
+        Assert.assertEquals(1, compiledTemplate.getVariables().size());
+        // 版本变化时重新编译
+        CompiledTemplate updated = TemplateUtils.compile("T1", "v2", "新验证码：${验证码}");
+        Assert.assertNotSame(compiledTemplate, updated);
+        Assert.assertEquals("新验证码：5678", updated.render(new MyVariableObj().setVcode("5678")));
+        TemplateUtils.evict("T1");
+        Assert.assertNotSame(updated, TemplateUtils.compile("T1", "v2", "新验证码：${验证码}"));
+    }
+
+}